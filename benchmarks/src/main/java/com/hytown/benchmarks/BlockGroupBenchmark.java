@@ -0,0 +1,81 @@
+package com.hytown.benchmarks;
+
+import com.hytown.config.BlockGroups;
+import com.hytown.config.PluginConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Block group and griefing checks run on block interactions, with the default config.
+ *
+ * Block IDs stand in for BlockType (the BlockType overloads only read getId() and isDoor()).
+ * The mix is mostly plain terrain, like real interactions, with a few exact-match containers
+ * and pattern-only matches. These checks don't depend on world size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockGroupBenchmark {
+
+    private static final String[] BLOCK_IDS = {
+            "Soil_Grass", "Soil_Dirt", "Rock_Stone", "Rock_Stone_Cobble", "Wood_Oak_Trunk",
+            "Plant_Grass_Lush", "Chest_Small_Jungle", "Rock_Sandstone", "Soil_Sand", "Furniture_Crude_Barrel",
+            "Wood_Birch_Planks", "Ore_Iron_Stone", "Fluid_Water", "Deco_Torch", "Container_Bucket_Wood",
+            "Rock_Basalt"
+    };
+
+    private Path dataDirectory;
+    private BlockGroups blockGroups;
+    private PluginConfig config;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dataDirectory = Files.createTempDirectory("hytown-bench");
+        blockGroups = new BlockGroups(dataDirectory);
+        config = new PluginConfig(dataDirectory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dataDirectory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private String nextBlockId() {
+        return BLOCK_IDS[next++ & (BLOCK_IDS.length - 1)];
+    }
+
+    @Benchmark
+    public boolean isContainerBlock() {
+        return blockGroups.isContainerBlock(nextBlockId());
+    }
+
+    @Benchmark
+    public boolean isGriefingBlock() {
+        return config.isGriefingBlock(nextBlockId());
+    }
+}
@@ -0,0 +1,58 @@
+package com.hytown.benchmarks;
+
+import com.hytown.util.ChunkUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chunk key building and parsing. Coordinates come from the synthetic world, so larger worlds
+ * mean longer keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class ChunkKeyBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int claims;
+
+    private SyntheticWorld world;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        world = SyntheticWorld.create(claims);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        world.delete();
+    }
+
+    @Benchmark
+    public String chunkKey(QueryCursor cursor) {
+        int i = cursor.next();
+        return ChunkUtil.chunkKey(world.queryChunkX[i], world.queryChunkZ[i]);
+    }
+
+    @Benchmark
+    public int[] parseChunkKey(QueryCursor cursor) {
+        return ChunkUtil.parseChunkKey(world.queryChunkKeys[cursor.next()]);
+    }
+}
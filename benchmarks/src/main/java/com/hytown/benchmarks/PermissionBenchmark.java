@@ -0,0 +1,60 @@
+package com.hytown.benchmarks;
+
+import com.hytown.data.TrustLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The permission check behind every block break, place and use event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class PermissionBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int claims;
+
+    private SyntheticWorld world;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        world = SyntheticWorld.create(claims);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        world.delete();
+    }
+
+    @Benchmark
+    public boolean hasBuildPermission(QueryCursor cursor) {
+        int i = cursor.next();
+        return world.claimManager.hasPermissionAt(world.queryPlayers[i], SyntheticWorld.WORLD,
+                world.queryX[i], world.queryZ[i], TrustLevel.BUILD);
+    }
+
+    @Benchmark
+    public boolean hasContainerPermission(QueryCursor cursor) {
+        int i = cursor.next();
+        return world.claimManager.hasPermissionAt(world.queryPlayers[i], SyntheticWorld.WORLD,
+                world.queryX[i], world.queryZ[i], TrustLevel.CONTAINER);
+    }
+}
@@ -0,0 +1,172 @@
+package com.hytown.benchmarks;
+
+import com.hytown.data.Claim;
+import com.hytown.data.ClaimStorage;
+import com.hytown.data.Town;
+import com.hytown.data.TownStorage;
+import com.hytown.util.HyTownLog;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Town and claim persistence against generated data directories (see SyntheticData.Profile).
+ *
+ * Reports throughput and sampled latency percentiles; the bytesWritten counter is the file
+ * data each operation writes. Run through PersistenceHarness to also get allocation rates and
+ * a JSON result file.
+ *
+ * addClaim claims fresh chunks far from the generated data, so the index grows by one entry
+ * per call over a run (a few thousand entries on top of the profile's).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class PersistenceBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String profile;
+
+    private Path dataDirectory;
+    private Path townsDirectory;
+    private Path claimsDirectory;
+    private SyntheticData.Profile sizes;
+    private TownStorage townStorage;
+    private ClaimStorage claimStorage;
+    private List<Town> towns;
+    private long[] townFileBytes;
+    private long townDirectoryBytes;
+    private long claimDirectoryBytes;
+    private String backupName;
+    private int nextTown;
+    private int nextPlayer;
+    private int nextChunk;
+
+    /**
+     * Bytes written by each operation, reported next to the timings.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Written {
+        public long bytesWritten;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        // Keep per-operation info lines out of the results
+        HyTownLog.configure(Map.of("storage", "WARNING"));
+
+        sizes = SyntheticData.Profile.named(profile);
+        dataDirectory = SyntheticData.create(sizes);
+        townsDirectory = dataDirectory.resolve("towns");
+        claimsDirectory = dataDirectory.resolve("claims");
+
+        townStorage = new TownStorage(dataDirectory);
+        claimStorage = new ClaimStorage(dataDirectory);
+        for (int p = 0; p < sizes.players(); p++) {
+            claimStorage.getPlayerClaims(SyntheticData.player(p));
+        }
+
+        // Sizes as written by the storages themselves
+        townStorage.saveAll();
+        claimStorage.saveAll();
+        towns = new ArrayList<>(townStorage.getAllTowns());
+        townFileBytes = new long[towns.size()];
+        for (int i = 0; i < towns.size(); i++) {
+            townFileBytes[i] = Files.size(townsDirectory.resolve(towns.get(i).getName() + ".json"));
+        }
+        townDirectoryBytes = SyntheticData.jsonBytes(townsDirectory);
+        claimDirectoryBytes = SyntheticData.jsonBytes(claimsDirectory);
+
+        townStorage.createBackup();
+        backupName = townStorage.listBackups().get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticData.delete(dataDirectory);
+    }
+
+    @Benchmark
+    public int townLoadAll() {
+        townStorage.loadAll();
+        return townStorage.getTownCount();
+    }
+
+    @Benchmark
+    public void townSaveAll(Written written) {
+        townStorage.saveAll();
+        written.bytesWritten += townDirectoryBytes;
+    }
+
+    @Benchmark
+    public void townSaveTown(Written written) {
+        int i = nextTown++ % towns.size();
+        Town town = towns.get(i);
+        town.setBalance(town.getBalance() + 1);
+        townStorage.saveTown(town);
+        written.bytesWritten += townFileBytes[i];
+    }
+
+    @Benchmark
+    public void townCreateBackup(Written written) {
+        townStorage.createBackup();
+        written.bytesWritten += townDirectoryBytes;
+    }
+
+    @Benchmark
+    public boolean townRestoreBackup(Written written) {
+        written.bytesWritten += townDirectoryBytes;
+        return townStorage.restoreBackup(backupName);
+    }
+
+    /**
+     * Startup load: the claim index, then every player's claim file.
+     */
+    @Benchmark
+    public ClaimStorage claimLoad() {
+        ClaimStorage loaded = new ClaimStorage(dataDirectory);
+        for (int p = 0; p < sizes.players(); p++) {
+            loaded.getPlayerClaims(SyntheticData.player(p));
+        }
+        return loaded;
+    }
+
+    @Benchmark
+    public void claimSaveAll(Written written) {
+        claimStorage.saveAll();
+        written.bytesWritten += claimDirectoryBytes;
+    }
+
+    @Benchmark
+    public void claimAddClaim(Written written) throws IOException {
+        UUID playerId = SyntheticData.player(nextPlayer++ % sizes.players());
+        int chunk = nextChunk++;
+        claimStorage.addClaim(playerId, new Claim(SyntheticData.WORLD, 100_000 + chunk % 1000, 100_000 + chunk / 1000));
+        written.bytesWritten += Files.size(claimsDirectory.resolve("index.json"))
+                + Files.size(claimsDirectory.resolve(playerId + ".json"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.hytown.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs PersistenceBenchmark with the GC profiler (allocation rate per operation) and writes
+ * the results as JSON, so runs from different versions can be diffed.
+ *
+ * {@code java -cp target/benchmarks.jar com.hytown.benchmarks.PersistenceHarness [JMH options]}
+ *
+ * Defaults to all profiles and persistence-results.json; any JMH option overrides them,
+ * e.g. {@code -p profile=small -rff small.json}.
+ */
+public final class PersistenceHarness {
+
+    private PersistenceHarness() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(PersistenceBenchmark.class.getSimpleName());
+        }
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result("persistence-results.json");
+        }
+
+        new Runner(options.build()).run();
+    }
+}
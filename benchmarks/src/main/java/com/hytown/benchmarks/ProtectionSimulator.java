@@ -0,0 +1,348 @@
+package com.hytown.benchmarks;
+
+import com.google.gson.GsonBuilder;
+import com.hytown.data.Town;
+import com.hytown.data.TrustLevel;
+import com.hytown.managers.ClaimContext;
+import com.hytown.managers.ClaimResolver;
+import com.hytown.managers.ProtectionRules;
+import com.hytown.managers.ProtectionRules.Decision;
+import com.hytown.util.ChunkUtil;
+import com.hytown.util.HyTownLog;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Drives the block protection rules headless with a synthetic or recorded event stream.
+ *
+ * Each event goes through the same path as in the protection systems (ClaimResolver, then
+ * ProtectionRules, then the wilderness bypass), minus the ECS lookups and messages. Decisions
+ * are checked against a reference model that re-derives them straight from the storages.
+ *
+ * Wilderness harvests are not simulated: their real work (drop table rolls, item stacks, the
+ * drop batcher spawning entities) needs the server, and the rule check alone would only time
+ * a lookup the break path already covers. Generated streams have no HARVEST events; those in a
+ * replayed stream are skipped and counted in the report.
+ *
+ * Reports events per second (and headroom against players x events per player per second),
+ * allocated bytes per event and mismatches against the model, as JSON.
+ *
+ * {@code java -cp target/benchmarks.jar com.hytown.benchmarks.ProtectionSimulator [options]}
+ * <pre>
+ *   --claims N      claims in the synthetic world (100000)
+ *   --players N     simulated players (500)
+ *   --rate N        events per player per second the server must sustain (20)
+ *   --events N      events per pass (1000000)
+ *   --passes N      measured passes, after one warmup pass (5)
+ *   --record FILE   also write the generated stream (CSV) for later replays
+ *   --replay FILE   replay a recorded stream instead of generating one
+ *   --out FILE      write the JSON report to a file instead of stdout
+ * </pre>
+ * Stream lines are {@code type,playerUuid,x,y,z,blockOrItemId} with type BREAK, PLACE,
+ * DAMAGE or USE (HARVEST lines from older recordings are read and skipped).
+ */
+public final class ProtectionSimulator {
+
+    enum Type { BREAK, PLACE, DAMAGE, USE, HARVEST }
+
+    // Event types the simulator generates and runs
+    private static final Type[] SIMULATED = { Type.BREAK, Type.PLACE, Type.DAMAGE, Type.USE };
+
+    record Event(Type type, UUID player, int x, int y, int z, String id) {
+    }
+
+    private static final String[] BLOCK_IDS = {
+            "Soil_Grass", "Rock_Stone", "Wood_Oak_Trunk", "Chest_Small_Jungle", "Furniture_Crude_Barrel",
+            "Bench_Workbench", "Door_Wood", "Plant_Crop_Wheat", "Rock_Basalt", "Deco_Torch"
+    };
+    private static final String[] ITEM_IDS = {
+            "Rock_Stone", "Wood_Oak_Planks", "Soil_Dirt", "Fluid_Water", "Deco_Torch", "Bomb_Small"
+    };
+
+    private final SyntheticWorld world;
+    private final ClaimResolver resolver;
+    private final ProtectionRules rules;
+    // Players holding hytown.wild.bypass
+    private final Set<UUID> bypass = new HashSet<>();
+
+    private ProtectionSimulator(SyntheticWorld world) {
+        this.world = world;
+        this.resolver = new ClaimResolver(world.claimStorage, world.townStorage);
+        this.rules = new ProtectionRules(world.config, world.blockGroups);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        int claims = Integer.parseInt(options.getOrDefault("claims", "100000"));
+        int players = Integer.parseInt(options.getOrDefault("players", "500"));
+        int rate = Integer.parseInt(options.getOrDefault("rate", "20"));
+        int eventCount = Integer.parseInt(options.getOrDefault("events", "1000000"));
+        int passes = Integer.parseInt(options.getOrDefault("passes", "5"));
+
+        SyntheticWorld world = SyntheticWorld.create(claims);
+        // Storage info lines would end up in the JSON on stdout
+        HyTownLog.configure(Map.of("storage", "WARNING", "config", "WARNING"));
+        try {
+            ProtectionSimulator simulator = new ProtectionSimulator(world);
+            Event[] events = options.containsKey("replay")
+                    ? readStream(Paths.get(options.get("replay")))
+                    : simulator.generate(players, eventCount);
+            if (options.containsKey("record")) {
+                writeStream(Paths.get(options.get("record")), events);
+            }
+
+            Map<String, Object> report = simulator.run(events, passes, (long) players * rate);
+            report.put("claims", claims);
+            report.put("players", players);
+            String json = new GsonBuilder().setPrettyPrinting().create().toJson(report);
+            if (options.containsKey("out")) {
+                Files.writeString(Paths.get(options.get("out")), json);
+            } else {
+                System.out.println(json);
+            }
+        } finally {
+            world.delete();
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * Players mostly act on their own plot, sometimes on a friend's plot or anywhere else.
+     * One in a hundred has the wilderness bypass.
+     */
+    private Event[] generate(int players, int count) {
+        Random random = new Random(7);
+        int half = world.side / 2;
+        int[] homeX = new int[players];
+        int[] homeZ = new int[players];
+        UUID[] ids = new UUID[players];
+        for (int p = 0; p < players; p++) {
+            homeX[p] = random.nextInt(world.side) - half;
+            homeZ[p] = random.nextInt(world.side) - half;
+            ids[p] = SyntheticWorld.owner(homeX[p], homeZ[p]);
+            if (p % 100 == 0) {
+                bypass.add(ids[p]);
+            }
+        }
+
+        Type[] types = SIMULATED;
+        Event[] events = new Event[count];
+        for (int i = 0; i < count; i++) {
+            int p = random.nextInt(players);
+            int roll = random.nextInt(10);
+            UUID player = ids[p];
+            int chunkX = homeX[p];
+            int chunkZ = homeZ[p];
+            if (roll == 8) {
+                // Visiting: trusted on someone else's plot
+                chunkX = random.nextInt(world.side) - half;
+                chunkZ = random.nextInt(world.side) - half;
+                player = SyntheticWorld.friend(SyntheticWorld.owner(chunkX, chunkZ), 0);
+            } else if (roll == 9) {
+                // Wandering, often out in the wilderness
+                chunkX = random.nextInt(world.side * 3) - world.side * 3 / 2;
+                chunkZ = random.nextInt(world.side * 3) - world.side * 3 / 2;
+            }
+
+            Type type = types[random.nextInt(types.length)];
+            String id = type == Type.PLACE ? ITEM_IDS[random.nextInt(ITEM_IDS.length)] : BLOCK_IDS[random.nextInt(BLOCK_IDS.length)];
+            events[i] = new Event(type, player,
+                    chunkX * ChunkUtil.CHUNK_SIZE + random.nextInt(ChunkUtil.CHUNK_SIZE),
+                    random.nextInt(140) - 20,
+                    chunkZ * ChunkUtil.CHUNK_SIZE + random.nextInt(ChunkUtil.CHUNK_SIZE),
+                    id);
+        }
+        return events;
+    }
+
+    private static Event[] readStream(Path file) throws IOException {
+        List<Event> events = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (line.isBlank() || line.startsWith("#")) continue;
+            String[] parts = line.split(",", 6);
+            events.add(new Event(Type.valueOf(parts[0]), UUID.fromString(parts[1]), Integer.parseInt(parts[2]),
+                    Integer.parseInt(parts[3]), Integer.parseInt(parts[4]), parts.length > 5 && !parts[5].isEmpty() ? parts[5] : null));
+        }
+        return events.toArray(new Event[0]);
+    }
+
+    private static void writeStream(Path file, Event[] events) throws IOException {
+        StringBuilder out = new StringBuilder("# type,player,x,y,z,id\n");
+        for (Event event : events) {
+            out.append(event.type()).append(',').append(event.player()).append(',').append(event.x()).append(',')
+                    .append(event.y()).append(',').append(event.z()).append(',')
+                    .append(event.id() != null ? event.id() : "").append('\n');
+        }
+        Files.writeString(file, out);
+    }
+
+    /**
+     * The decision path of the protection systems for one event.
+     */
+    private Decision decide(Event event) {
+        ClaimContext claim = resolver.resolve(SyntheticWorld.WORLD, event.x(), event.z());
+        Decision decision = switch (event.type()) {
+            case BREAK -> rules.checkBreak(claim, event.player(), event.y());
+            case PLACE -> rules.checkPlace(claim, event.player(), event.y(), event.id());
+            case DAMAGE -> rules.checkDamage(claim, event.player());
+            case USE -> rules.checkUse(claim, event.player(), rules.requiredUseLevel(event.id()), rules.isCrop(event.id()));
+            case HARVEST -> throw new IllegalArgumentException("Harvest events are not simulated");
+        };
+        if (decision.isWildernessRule() && bypass.contains(event.player())) {
+            return Decision.ALLOW;
+        }
+        return decision;
+    }
+
+    /**
+     * Reference model: the documented rules, re-derived from the storages for every event.
+     */
+    private Decision expected(Event event) {
+        int chunkX = ChunkUtil.toChunkX(event.x());
+        int chunkZ = ChunkUtil.toChunkZ(event.z());
+        UUID player = event.player();
+        UUID owner = world.claimStorage.getClaimOwner(SyntheticWorld.WORLD, chunkX, chunkZ);
+        String claimKey = SyntheticWorld.WORLD + ":" + chunkX + "," + chunkZ;
+        Town town = owner != null ? world.townStorage.getTownByClaimKey(claimKey) : null;
+        boolean admin = bypass.contains(player);
+        boolean wildProtected = world.config.isWildProtectionEnabled();
+        boolean high = event.y() > world.config.getWildProtectionMinY();
+
+        switch (event.type()) {
+            case DAMAGE:
+                return trusted(owner, player, TrustLevel.DAMAGE) ? Decision.ALLOW : Decision.DENY_CLAIM;
+            case HARVEST:
+                throw new IllegalArgumentException("Harvest events are not simulated");
+            case USE: {
+                String id = event.id();
+                TrustLevel required = world.blockGroups.isWorkstationBlock(id) ? TrustLevel.WORKSTATION
+                        : world.blockGroups.isContainerBlock(id) ? TrustLevel.CONTAINER : TrustLevel.USE;
+                if (town == null) {
+                    return trusted(owner, player, required) ? Decision.ALLOW : Decision.DENY_CLAIM;
+                }
+                boolean member = town.isMember(player);
+                if (world.blockGroups.isCropBlock(id)) {
+                    return member || town.getSettings().canOutsiderDestroy() ? Decision.ALLOW : Decision.DENY_CROPS;
+                }
+                if (required == TrustLevel.CONTAINER) {
+                    return town.canAccessContainers(claimKey, player) ? Decision.ALLOW : Decision.DENY_CONTAINER;
+                }
+                return member || town.getSettings().canOutsiderSwitch() ? Decision.ALLOW : Decision.DENY_TOWN_USE;
+            }
+            default: {
+                boolean place = event.type() == Type.PLACE;
+                if (town != null) {
+                    boolean outsiderOk = place ? town.getSettings().canOutsiderBuild() : town.getSettings().canOutsiderDestroy();
+                    return town.isMember(player) || outsiderOk ? Decision.ALLOW : Decision.DENY_TOWN;
+                }
+                if (owner != null) {
+                    return trusted(owner, player, TrustLevel.BUILD) ? Decision.ALLOW : Decision.DENY_CLAIM;
+                }
+                if (!wildProtected || admin) {
+                    return Decision.ALLOW;
+                }
+                if (place && world.config.isGriefingBlock(event.id())) {
+                    return Decision.DENY_WILD_GRIEFING;
+                }
+                if (high) {
+                    return Decision.DENY_WILD_HEIGHT;
+                }
+                boolean allowedBelow = place ? world.config.isWildBuildBelowAllowed() : world.config.isWildDestroyBelowAllowed();
+                return allowedBelow ? Decision.ALLOW : Decision.DENY_WILD_DISABLED;
+            }
+        }
+    }
+
+    private boolean trusted(UUID owner, UUID player, TrustLevel required) {
+        return owner == null || owner.equals(player)
+                || world.claimStorage.getPlayerClaims(owner).hasPermission(player, required);
+    }
+
+    private Map<String, Object> run(Event[] recorded, int passes, long requiredEventsPerSecond) {
+        List<Event> simulated = new ArrayList<>(recorded.length);
+        int skippedHarvests = 0;
+        for (Event event : recorded) {
+            if (event.type() == Type.HARVEST) {
+                skippedHarvests++;
+            } else {
+                simulated.add(event);
+            }
+        }
+        Event[] events = simulated.toArray(new Event[0]);
+
+        // Correctness first (also warms up the rules and the reference model)
+        Map<Type, Integer> mismatches = new EnumMap<>(Type.class);
+        Map<Decision, Integer> decisions = new EnumMap<>(Decision.class);
+        List<String> examples = new ArrayList<>();
+        for (Event event : events) {
+            Decision actual = decide(event);
+            Decision expected = expected(event);
+            decisions.merge(actual, 1, Integer::sum);
+            if (actual != expected) {
+                mismatches.merge(event.type(), 1, Integer::sum);
+                if (examples.size() < 10) {
+                    examples.add(event + " -> " + actual + ", expected " + expected);
+                }
+            }
+        }
+
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        double bestEventsPerSecond = 0;
+        double totalEventsPerSecond = 0;
+        long allocated = 0;
+        int sink = 0;
+        for (int pass = 0; pass < passes; pass++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (Event event : events) {
+                sink += decide(event).ordinal();
+            }
+            long elapsed = System.nanoTime() - start;
+            allocated += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+            double eventsPerSecond = events.length * 1e9 / elapsed;
+            bestEventsPerSecond = Math.max(bestEventsPerSecond, eventsPerSecond);
+            totalEventsPerSecond += eventsPerSecond;
+        }
+
+        double meanEventsPerSecond = totalEventsPerSecond / passes;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("events", events.length);
+        report.put("skippedHarvestEvents", skippedHarvests);
+        report.put("passes", passes);
+        report.put("meanEventsPerSecond", Math.round(meanEventsPerSecond));
+        report.put("bestEventsPerSecond", Math.round(bestEventsPerSecond));
+        report.put("requiredEventsPerSecond", requiredEventsPerSecond);
+        report.put("headroom", Math.round(meanEventsPerSecond / requiredEventsPerSecond * 10) / 10.0);
+        report.put("allocatedBytesPerEvent", Math.round((double) allocated / ((long) events.length * passes) * 100) / 100.0);
+        report.put("decisions", decisions);
+        report.put("mismatches", mismatches);
+        report.put("mismatchExamples", examples);
+        report.put("checksum", sink);
+        return report;
+    }
+}
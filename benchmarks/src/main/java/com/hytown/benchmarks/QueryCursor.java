@@ -0,0 +1,16 @@
+package com.hytown.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-thread position in the SyntheticWorld query arrays.
+ */
+@State(Scope.Thread)
+public class QueryCursor {
+    private int next;
+
+    public int next() {
+        return next++ & (SyntheticWorld.QUERY_COUNT - 1);
+    }
+}
@@ -0,0 +1,179 @@
+package com.hytown.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.hytown.data.Town;
+import com.hytown.data.TownTransaction;
+import com.hytown.util.ChunkUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Writes a plugin data directory (towns/ and claims/) in the formats the storages load.
+ *
+ * Towns get a square of claims, residents, owned plots and a transaction history; personal
+ * claim players get a row of claims and a few trusted players. Everything is derived from
+ * indexes, so the same profile always produces the same files.
+ */
+public final class SyntheticData {
+
+    public static final String WORLD = "default";
+
+    /**
+     * Data set sizes. Per-town and per-player counts are roughly those of an active server.
+     */
+    public record Profile(int towns, int claimsPerTown, int residentsPerTown, int plotsPerTown,
+                          int transactionsPerTown, int players, int claimsPerPlayer, int trustedPerPlayer) {
+
+        /**
+         * The named profiles used by the benchmarks: small, medium and large.
+         */
+        public static Profile named(String name) {
+            return switch (name) {
+                case "small" -> new Profile(100, 40, 8, 10, 50, 1_000, 12, 3);
+                case "medium" -> new Profile(1_000, 40, 8, 10, 50, 10_000, 12, 3);
+                case "large" -> new Profile(5_000, 60, 12, 20, 100, 50_000, 16, 4);
+                default -> throw new IllegalArgumentException("Unknown profile: " + name);
+            };
+        }
+    }
+
+    private SyntheticData() {
+    }
+
+    static UUID townMember(int town, int n) {
+        return new UUID(0x1AL, (long) town << 16 | n);
+    }
+
+    public static UUID player(int player) {
+        return new UUID(0x2AL, player);
+    }
+
+    public static String townName(int town) {
+        return String.format("Town_%05d", town);
+    }
+
+    /**
+     * Creates a temporary data directory filled for the profile.
+     */
+    public static Path create(Profile profile) throws IOException {
+        Path dataDirectory = Files.createTempDirectory("hytown-bench");
+        writeTowns(dataDirectory.resolve("towns"), profile);
+        writeClaims(dataDirectory.resolve("claims"), profile);
+        return dataDirectory;
+    }
+
+    /**
+     * Deletes a data directory and everything in it.
+     */
+    public static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Total size of the .json files directly inside a directory.
+     */
+    public static long jsonBytes(Path directory) throws IOException {
+        long total = 0;
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (path.getFileName().toString().endsWith(".json")) {
+                    total += Files.size(path);
+                }
+            }
+        }
+        return total;
+    }
+
+    private static void writeTowns(Path townsDirectory, Profile profile) throws IOException {
+        Files.createDirectories(townsDirectory);
+        Gson gson = new GsonBuilder().setPrettyPrinting().enableComplexMapKeySerialization().create();
+        int townSide = (int) Math.ceil(Math.sqrt(profile.claimsPerTown()));
+
+        for (int t = 0; t < profile.towns(); t++) {
+            UUID mayor = townMember(t, 0);
+            Town town = new Town(townName(t), mayor, "Mayor" + t);
+            for (int r = 1; r < profile.residentsPerTown(); r++) {
+                town.addResident(townMember(t, r), "Resident" + t + "_" + r);
+            }
+
+            // Towns sit on a grid, 64 chunks apart
+            int baseX = (t % 100) * 64;
+            int baseZ = (t / 100) * 64;
+            List<String> claimKeys = new ArrayList<>();
+            for (int c = 0; c < profile.claimsPerTown(); c++) {
+                String claimKey = WORLD + ":" + ChunkUtil.chunkKey(baseX + c % townSide, baseZ + c / townSide);
+                town.addClaim(claimKey);
+                claimKeys.add(claimKey);
+            }
+
+            for (int p = 0; p < Math.min(profile.plotsPerTown(), claimKeys.size()); p++) {
+                UUID plotOwner = townMember(t, 1 + p % Math.max(1, profile.residentsPerTown() - 1));
+                town.setPlotOwner(claimKeys.get(p), plotOwner);
+                town.getOrCreatePlotSettings(claimKeys.get(p));
+            }
+
+            for (int x = 0; x < profile.transactionsPerTown(); x++) {
+                UUID actor = townMember(t, x % profile.residentsPerTown());
+                town.addTransaction(TownTransaction.deposit(actor, "Resident" + t, 10 + x));
+            }
+
+            Files.writeString(townsDirectory.resolve(town.getName() + ".json"), gson.toJson(town));
+        }
+    }
+
+    private static void writeClaims(Path claimsDirectory, Profile profile) throws IOException {
+        Files.createDirectories(claimsDirectory);
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        Map<String, String> worldIndex = new HashMap<>();
+        Map<String, String> names = new HashMap<>();
+
+        for (int p = 0; p < profile.players(); p++) {
+            UUID playerId = player(p);
+            names.put(playerId.toString(), "Player" + p);
+
+            // Players claim rows south of the town grid
+            int baseZ = -1 - p / 64 * 2;
+            int baseX = (p % 64) * 32;
+            List<Map<String, Object>> claims = new ArrayList<>();
+            for (int c = 0; c < profile.claimsPerPlayer(); c++) {
+                int chunkX = baseX + c;
+                Map<String, Object> claim = new LinkedHashMap<>();
+                claim.put("world", WORLD);
+                claim.put("chunkX", chunkX);
+                claim.put("chunkZ", baseZ);
+                claim.put("claimedAt", 1_700_000_000_000L + c);
+                claims.add(claim);
+                worldIndex.put(ChunkUtil.chunkKey(chunkX, baseZ), playerId.toString());
+            }
+
+            Map<String, Object> trusted = new LinkedHashMap<>();
+            for (int n = 0; n < profile.trustedPerPlayer(); n++) {
+                trusted.put(player((p + n + 1) % profile.players()).toString(),
+                        Map.of("name", "Player" + ((p + n + 1) % profile.players()), "level", "container"));
+            }
+
+            Map<String, Object> file = new LinkedHashMap<>();
+            file.put("claims", claims);
+            file.put("trustedPlayersData", trusted);
+            Files.writeString(claimsDirectory.resolve(playerId + ".json"), gson.toJson(file));
+        }
+
+        Files.writeString(claimsDirectory.resolve("index.json"), gson.toJson(Map.of(WORLD, worldIndex)));
+        Files.writeString(claimsDirectory.resolve("names.json"), gson.toJson(names));
+    }
+}
@@ -0,0 +1,210 @@
+package com.hytown.benchmarks;
+
+import com.google.gson.Gson;
+import com.hytown.config.BlockGroups;
+import com.hytown.config.PluginConfig;
+import com.hytown.data.ClaimStorage;
+import com.hytown.data.PlaytimeStorage;
+import com.hytown.data.Town;
+import com.hytown.data.TownStorage;
+import com.hytown.data.TrustLevel;
+import com.hytown.managers.ClaimManager;
+import com.hytown.util.ChunkUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * A generated data directory with a square of claimed chunks, loaded through the real storages.
+ *
+ * Chunks are claimed row by row around the origin. Every 5x5 block of chunks belongs to one
+ * player (with two CONTAINER-trusted friends). Every other 10x10 block, in a checkerboard, is
+ * also a town, so lookups see both town and personal claims. Players are plain UUIDs standing
+ * in for PlayerRef, so nothing here touches the server API.
+ *
+ * Lookups cycle through QUERY_COUNT precomputed queries: 3/4 land inside the claimed square,
+ * the rest anywhere in a square three times as wide (mostly wilderness). Player queries
+ * alternate between the plot's owner, a trusted player and a stranger.
+ */
+public final class SyntheticWorld {
+
+    public static final String WORLD = "default";
+    public static final int QUERY_COUNT = 4096;
+
+    private static final int PLOT_SIZE = 5;
+    private static final int TOWN_SIZE = 10;
+
+    public final Path dataDirectory;
+    public final int side;
+    public final ClaimStorage claimStorage;
+    public final TownStorage townStorage;
+    public final PluginConfig config;
+    public final BlockGroups blockGroups;
+    public final ClaimManager claimManager;
+
+    // Query i: chunk (queryChunkX[i], queryChunkZ[i]), block position (queryX[i], queryZ[i])
+    public final int[] queryChunkX = new int[QUERY_COUNT];
+    public final int[] queryChunkZ = new int[QUERY_COUNT];
+    public final double[] queryX = new double[QUERY_COUNT];
+    public final double[] queryZ = new double[QUERY_COUNT];
+    public final String[] queryChunkKeys = new String[QUERY_COUNT];
+    public final String[] queryClaimKeys = new String[QUERY_COUNT];
+    public final UUID[] queryPlayers = new UUID[QUERY_COUNT];
+
+    private SyntheticWorld(Path dataDirectory, int claims) throws IOException {
+        this.dataDirectory = dataDirectory;
+        this.side = (int) Math.ceil(Math.sqrt(claims));
+
+        writeClaims(claims);
+        writeTowns(claims);
+
+        this.claimStorage = new ClaimStorage(dataDirectory);
+        this.townStorage = new TownStorage(dataDirectory);
+        this.config = new PluginConfig(dataDirectory);
+        this.blockGroups = new BlockGroups(dataDirectory);
+        this.claimManager = new ClaimManager(claimStorage, new PlaytimeStorage(dataDirectory), config, blockGroups);
+
+        trustFriends(claims);
+        buildQueries();
+    }
+
+    /**
+     * Generates a world with the given number of claims in a new temporary directory.
+     */
+    public static SyntheticWorld create(int claims) throws IOException {
+        return new SyntheticWorld(Files.createTempDirectory("hytown-bench"), claims);
+    }
+
+    /**
+     * Deletes the generated data directory.
+     */
+    public void delete() throws IOException {
+        try (Stream<Path> paths = Files.walk(dataDirectory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private int chunkX(int claim) {
+        return claim % side - side / 2;
+    }
+
+    private int chunkZ(int claim) {
+        return claim / side - side / 2;
+    }
+
+    static UUID owner(int chunkX, int chunkZ) {
+        return playerId(0x0A, (long) Math.floorDiv(chunkX, PLOT_SIZE) << 32 | (Math.floorDiv(chunkZ, PLOT_SIZE) & 0xFFFFFFFFL));
+    }
+
+    static UUID friend(UUID owner, int n) {
+        return playerId(0x0B + n, owner.getLeastSignificantBits());
+    }
+
+    /**
+     * A player ID for a plot. Real UUIDs are random, so the high half is the plot and kind run
+     * through a bijective mixer: with structured bits, UUID.hashCode() collides so often that
+     * hash maps keyed by player degrade into tree bins.
+     */
+    private static UUID playerId(int kind, long plot) {
+        long bits = plot * 16 + kind;
+        bits = (bits ^ (bits >>> 33)) * 0xFF51AFD7ED558CCDL;
+        bits = (bits ^ (bits >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return new UUID(bits ^ (bits >>> 33), plot);
+    }
+
+    private static String townName(int chunkX, int chunkZ) {
+        return "Town_" + (Math.floorDiv(chunkX, TOWN_SIZE) + 100000) + "_" + (Math.floorDiv(chunkZ, TOWN_SIZE) + 100000);
+    }
+
+    /**
+     * Writes the claim index file ClaimStorage loads on startup.
+     */
+    private void writeClaims(int claims) throws IOException {
+        Map<String, String> worldClaims = new HashMap<>(claims * 2);
+        for (int i = 0; i < claims; i++) {
+            int chunkX = chunkX(i);
+            int chunkZ = chunkZ(i);
+            worldClaims.put(ChunkUtil.chunkKey(chunkX, chunkZ), owner(chunkX, chunkZ).toString());
+        }
+
+        Path claimsDirectory = Files.createDirectories(dataDirectory.resolve("claims"));
+        Files.writeString(claimsDirectory.resolve("index.json"), new Gson().toJson(Map.of(WORLD, worldClaims)));
+    }
+
+    static boolean isTownChunk(int chunkX, int chunkZ) {
+        return ((Math.floorDiv(chunkX, TOWN_SIZE) + Math.floorDiv(chunkZ, TOWN_SIZE)) & 1) == 0;
+    }
+
+    /**
+     * Writes one town file per town block of claims.
+     */
+    private void writeTowns(int claims) throws IOException {
+        Map<String, Town> towns = new HashMap<>();
+        for (int i = 0; i < claims; i++) {
+            int chunkX = chunkX(i);
+            int chunkZ = chunkZ(i);
+            if (!isTownChunk(chunkX, chunkZ)) continue;
+            String name = townName(chunkX, chunkZ);
+            Town town = towns.get(name);
+            if (town == null) {
+                UUID mayor = owner(chunkX, chunkZ);
+                town = new Town(name, mayor, mayor.toString().substring(0, 8));
+                towns.put(name, town);
+            }
+            town.addClaim(WORLD + ":" + ChunkUtil.chunkKey(chunkX, chunkZ));
+        }
+
+        Path townsDirectory = Files.createDirectories(dataDirectory.resolve("towns"));
+        Gson gson = new Gson();
+        for (Town town : towns.values()) {
+            Files.writeString(townsDirectory.resolve(town.getName() + ".json"), gson.toJson(town));
+        }
+    }
+
+    private void trustFriends(int claims) {
+        for (int i = 0; i < claims; i++) {
+            UUID owner = owner(chunkX(i), chunkZ(i));
+            var ownerClaims = claimStorage.getPlayerClaims(owner);
+            for (int n = 0; n < 2; n++) {
+                ownerClaims.addTrustedPlayer(friend(owner, n), "friend" + n, TrustLevel.CONTAINER);
+            }
+        }
+    }
+
+    private void buildQueries() {
+        Random random = new Random(42);
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            int chunkX;
+            int chunkZ;
+            if (random.nextInt(4) != 0) {
+                chunkX = random.nextInt(side) - side / 2;
+                chunkZ = random.nextInt(side) - side / 2;
+            } else {
+                chunkX = random.nextInt(side * 3) - side * 3 / 2;
+                chunkZ = random.nextInt(side * 3) - side * 3 / 2;
+            }
+            queryChunkX[i] = chunkX;
+            queryChunkZ[i] = chunkZ;
+            queryX[i] = chunkX * ChunkUtil.CHUNK_SIZE + 16.5;
+            queryZ[i] = chunkZ * ChunkUtil.CHUNK_SIZE + 16.5;
+            queryChunkKeys[i] = ChunkUtil.chunkKey(chunkX, chunkZ);
+            queryClaimKeys[i] = WORLD + ":" + queryChunkKeys[i];
+
+            UUID owner = owner(chunkX, chunkZ);
+            queryPlayers[i] = switch (i % 3) {
+                case 0 -> owner;
+                case 1 -> friend(owner, 0);
+                default -> new UUID(0x0FL, i);
+            };
+        }
+    }
+}
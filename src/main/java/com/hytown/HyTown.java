@@ -16,16 +16,33 @@ import com.hytown.data.PlaytimeStorage;
 import com.hytown.data.TownStorage;
 import com.hytown.listeners.ClaimProtectionListener;
 import com.hytown.managers.ClaimManager;
+import com.hytown.managers.ChunkFlagIndex;
+import com.hytown.managers.ClaimResolver;
+import com.hytown.managers.ExplosionProtectionManager;
 import com.hytown.managers.PlaytimeManager;
+import com.hytown.managers.ProtectionRules;
 import com.hytown.map.ClaimMapOverlayProvider;
+import com.hytown.map.ClaimRegionIndex;
 import com.hytown.map.HyTownWorldMapProvider;
+import com.hytown.map.MapInvalidationService;
+import com.hytown.map.MapRenderScheduler;
+import com.hytown.map.MapTileStore;
+import com.hytown.map.TerrainTileCache;
 import com.hytown.systems.BlockBreakProtectionSystem;
 import com.hytown.systems.BlockDamageProtectionSystem;
 import com.hytown.systems.BlockPlaceProtectionSystem;
 import com.hytown.systems.BlockUseProtectionSystem;
 import com.hytown.systems.ClaimTitleSystem;
+import com.hytown.systems.ExplosionProtectionSystem;
+import com.hytown.systems.FireSpreadProtectionSystem;
+import com.hytown.systems.PvpProtectionSystem;
 import com.hytown.systems.TownCreatureDespawnSystem;
 import com.hytown.systems.WildernessHarvestSystem;
+import com.hytown.util.HyTownLog;
+import com.hytown.util.HyTownLog.Category;
+import com.hytown.util.HyTownMetrics;
+import com.hytown.util.HyTownScheduler;
+import com.hytown.util.StartupPhases;
 import com.hypixel.hytale.server.core.event.events.player.PlayerConnectEvent;
 import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
@@ -35,10 +52,8 @@ import com.hypixel.hytale.server.core.universe.world.events.AddWorldEvent;
 import com.hypixel.hytale.server.core.universe.world.events.RemoveWorldEvent;
 import com.hypixel.hytale.server.core.universe.world.worldmap.provider.IWorldMapProvider;
 import com.hypixel.hytale.server.core.entity.entities.Player;
-import com.hypixel.hytale.math.util.ChunkUtil;
-import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
-import it.unimi.dsi.fastutil.longs.LongSet;
 
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.*;
@@ -69,14 +84,27 @@ public class HyTown extends JavaPlugin {
     private PlaytimeStorage playtimeStorage;
     private TownStorage townStorage;
     private ClaimManager claimManager;
+    private ClaimResolver claimResolver;
+    private ProtectionRules protectionRules;
+    private ChunkFlagIndex chunkFlags;
+    private ExplosionProtectionManager explosionProtection;
     private PlaytimeManager playtimeManager;
     private ClaimProtectionListener protectionListener;
     private ClaimMapOverlayProvider mapOverlayProvider;
+    private ClaimRegionIndex claimRegionIndex;
+    private MapTileStore mapTileStore;
+    private MapInvalidationService mapInvalidation;
     private ClaimTitleSystem claimTitleSystem;
+    private PvpProtectionSystem pvpProtection;
     private com.hytown.managers.UpkeepManager upkeepManager;
 
+    // Startup timing and background loads, from setup() until the end of start()
+    private StartupPhases startup;
+
+    // Timed and background work: auto-save, upkeep, playtime, map refreshes, teleport countdowns
+    private final HyTownScheduler scheduler = new HyTownScheduler();
+
     // Teleport countdown system
-    private final ScheduledExecutorService teleportScheduler = Executors.newScheduledThreadPool(2);
     private final Map<String, ScheduledFuture<?>> activeCountdowns = new ConcurrentHashMap<>();
     private static final double MOVE_THRESHOLD = 0.5;
     private static final int TELEPORT_COUNTDOWN = 5;
@@ -91,91 +119,145 @@ public class HyTown extends JavaPlugin {
 
     @Override
     public void setup() {
-        getLogger().atSevere().log("========== HYTOWN PLUGIN STARTING ==========");
+        HyTownLog.init(getLogger());
+        getLogger().atInfo().log("========== HYTOWN PLUGIN STARTING ==========");
+        startup = new StartupPhases(scheduler.blockingExecutor());
 
         // Initialize configuration
-        config = new PluginConfig(getDataDirectory());
-        blockGroups = new BlockGroups(getDataDirectory());
-        wildernessHarvestConfig = new WildernessHarvestConfig(getDataDirectory(), getLogger());
-        wildernessHarvestConfig.load();
+        startup.run("config", () -> {
+            config = new PluginConfig(getDataDirectory());
+            blockGroups = new BlockGroups(getDataDirectory());
+            wildernessHarvestConfig = new WildernessHarvestConfig(getDataDirectory(), getLogger());
+            wildernessHarvestConfig.load();
+        });
 
-        // Initialize storage
-        claimStorage = new ClaimStorage(getDataDirectory());
-        playtimeStorage = new PlaytimeStorage(getDataDirectory());
-        townStorage = new TownStorage(getDataDirectory());
+        // Initialize storage. The name registry, invite index and backup recovery aren't
+        // needed for the first tick and finish in the background; their users wait for them.
+        startup.run("storage.claims", () ->
+                claimStorage = new ClaimStorage(getDataDirectory(), startup.inBackground("storage.names")));
+        startup.run("storage.playtime", () -> playtimeStorage = new PlaytimeStorage(getDataDirectory()));
+        startup.run("storage.towns", () ->
+                townStorage = new TownStorage(getDataDirectory(), startup.inBackground("storage.towns.deferred")));
 
         // Initialize static accessor for map system
         HyTownAccess.init(claimStorage, townStorage);
 
+        // Persist rendered map terrain so the map doesn't load chunks after a restart
+        mapTileStore = new MapTileStore(getDataDirectory(), getLogger());
+        TerrainTileCache.setDiskStore(mapTileStore);
+        MapRenderScheduler.setScheduler(scheduler);
+
         // Initialize managers
-        claimManager = new ClaimManager(claimStorage, playtimeStorage, config, blockGroups);
-        playtimeManager = new PlaytimeManager(playtimeStorage, config);
-        upkeepManager = new com.hytown.managers.UpkeepManager(config, townStorage, getLogger());
-
-        // Register the personal claim command (/claim)
-        getCommandRegistry().registerCommand(new ClaimCommand(this));
-
-        // Register Towny-style commands
-        getCommandRegistry().registerCommand(new TownCommand(this));
-        getCommandRegistry().registerCommand(new ResidentCommand(this));
-        getCommandRegistry().registerCommand(new PlotCommand(this));
-        getCommandRegistry().registerCommand(new TownyAdminCommand(this));
-        getCommandRegistry().registerCommand(new TownyHelpCommand(this));
-        getCommandRegistry().registerCommand(new TownPopCommand(this));
-        getCommandRegistry().registerCommand(new WildernessCommand(this));
-        getLogger().atInfo().log("Registered town commands: /town, /resident, /plot, /townadmin, /townhelp, /townpop");
-
-        // Register protection event listeners (for PlayerInteractEvent)
-        protectionListener = new ClaimProtectionListener(this);
-        protectionListener.register(getEventRegistry());
-
-        // Register player connect/disconnect events for name tracking
-        getEventRegistry().registerGlobal(PlayerConnectEvent.class, this::onPlayerConnect);
-        getEventRegistry().registerGlobal(PlayerDisconnectEvent.class, this::onPlayerDisconnect);
-
-        // Register world map provider codec
-        try {
-            IWorldMapProvider.CODEC.register(HyTownWorldMapProvider.ID,
-                    HyTownWorldMapProvider.class, HyTownWorldMapProvider.CODEC);
-            getLogger().atInfo().log("Registered HyTownWorldMapProvider codec");
-        } catch (Exception e) {
-            getLogger().atWarning().withCause(e).log("Failed to register world map provider codec");
-        }
+        startup.run("managers", () -> {
+            claimManager = new ClaimManager(claimStorage, playtimeStorage, config, blockGroups);
+            claimResolver = new ClaimResolver(claimStorage, townStorage);
+            protectionRules = new ProtectionRules(config, blockGroups);
+            chunkFlags = new ChunkFlagIndex(claimStorage, townStorage);
+            // Listen first, so towns recovered from backups while this builds aren't missed
+            claimStorage.addChangeListener(chunkFlags);
+            townStorage.addChangeListener(chunkFlags);
+            chunkFlags.rebuild();
+            claimRegionIndex = new ClaimRegionIndex(claimStorage);
+            claimStorage.addChangeListener(claimRegionIndex);
+            HyTownAccess.setRegionIndex(claimRegionIndex);
+            mapInvalidation = new MapInvalidationService(getLogger(), claimRegionIndex, scheduler);
+            claimStorage.addChangeListener(mapInvalidation);
+            townStorage.addChangeListener(mapInvalidation);
+            explosionProtection = new ExplosionProtectionManager(chunkFlags);
+            playtimeManager = new PlaytimeManager(playtimeStorage, config, scheduler);
+            upkeepManager = new com.hytown.managers.UpkeepManager(config, townStorage, getLogger());
+        });
+
+        // The map builds claim regions on first use; do it now for claimed worlds so the first
+        // map open doesn't pay for it (getRegions is synchronized per world, so an early map
+        // request just waits for the build)
+        startup.background("map.regions", () -> claimStorage.getClaimedWorlds().forEach(claimRegionIndex::getRegions));
+
+        HyTownMetrics.gauge("towns.count", () -> townStorage.getTownCount());
+
+        startup.run("commands", () -> {
+            // Register the personal claim command (/claim)
+            getCommandRegistry().registerCommand(new ClaimCommand(this));
+
+            // Register Towny-style commands
+            getCommandRegistry().registerCommand(new TownCommand(this));
+            getCommandRegistry().registerCommand(new ResidentCommand(this));
+            getCommandRegistry().registerCommand(new PlotCommand(this));
+            getCommandRegistry().registerCommand(new TownyAdminCommand(this));
+            getCommandRegistry().registerCommand(new TownyHelpCommand(this));
+            getCommandRegistry().registerCommand(new TownPopCommand(this));
+            getCommandRegistry().registerCommand(new WildernessCommand(this));
+            getLogger().atInfo().log("Registered town commands: /town, /resident, /plot, /townadmin, /townhelp, /townpop");
+        });
+
+        startup.run("events", () -> {
+            // Register protection event listeners (for PlayerInteractEvent)
+            protectionListener = new ClaimProtectionListener(this);
+            protectionListener.register(getEventRegistry());
+
+            // Register player connect/disconnect events for name tracking
+            getEventRegistry().registerGlobal(PlayerConnectEvent.class, this::onPlayerConnect);
+            getEventRegistry().registerGlobal(PlayerDisconnectEvent.class, this::onPlayerDisconnect);
+        });
 
-        // Register world events for map provider setup
-        getEventRegistry().registerGlobal(AddWorldEvent.class, this::onWorldAdd);
-        getEventRegistry().registerGlobal(RemoveWorldEvent.class, this::onWorldRemove);
+        startup.run("map", () -> {
+            // Register world map provider codec
+            try {
+                IWorldMapProvider.CODEC.register(HyTownWorldMapProvider.ID,
+                        HyTownWorldMapProvider.class, HyTownWorldMapProvider.CODEC);
+                getLogger().atInfo().log("Registered HyTownWorldMapProvider codec");
+            } catch (Exception e) {
+                getLogger().atWarning().withCause(e).log("Failed to register world map provider codec");
+            }
 
-        // Initialize map overlay provider (for markers, kept for compatibility)
-        mapOverlayProvider = new ClaimMapOverlayProvider(claimStorage, getLogger());
+            // Register world events for map provider setup
+            getEventRegistry().registerGlobal(AddWorldEvent.class, this::onWorldAdd);
+            getEventRegistry().registerGlobal(RemoveWorldEvent.class, this::onWorldRemove);
 
-        // Register ECS block protection systems
-        getLogger().atSevere().log("[DEBUG] Registering ECS block protection systems...");
+            // Initialize map overlay provider (for markers, kept for compatibility)
+            mapOverlayProvider = new ClaimMapOverlayProvider(claimStorage, claimRegionIndex, getLogger());
+        });
+
+        startup.run("systems", this::registerSystems);
+    }
+
+    /**
+     * Register ECS block protection systems.
+     */
+    private void registerSystems() {
+        HyTownLog.fine(Category.PROTECTION, "Registering ECS block protection systems...");
         try {
-            getLogger().atSevere().log("[DEBUG] Registering BlockDamageProtectionSystem...");
-            getEntityStoreRegistry().registerSystem(new BlockDamageProtectionSystem(claimManager, getLogger()));
-            getLogger().atSevere().log("[DEBUG] Registering WildernessHarvestSystem (must run before BlockBreakProtectionSystem)...");
-            getEntityStoreRegistry().registerSystem(new WildernessHarvestSystem(claimManager, config, wildernessHarvestConfig, getLogger()));
-            getLogger().atSevere().log("[DEBUG] Registering BlockBreakProtectionSystem...");
-            getEntityStoreRegistry().registerSystem(new BlockBreakProtectionSystem(claimManager, config, townStorage, getLogger()));
-            getLogger().atSevere().log("[DEBUG] Registering BlockPlaceProtectionSystem...");
-            getEntityStoreRegistry().registerSystem(new BlockPlaceProtectionSystem(claimManager, config, townStorage, getLogger()));
-            getLogger().atSevere().log("[DEBUG] Registering BlockUseProtectionSystem...");
-            getEntityStoreRegistry().registerSystem(new BlockUseProtectionSystem(claimManager, townStorage, getLogger()));
+            HyTownLog.fine(Category.PROTECTION, "Registering BlockDamageProtectionSystem...");
+            getEntityStoreRegistry().registerSystem(new BlockDamageProtectionSystem(claimResolver, protectionRules, getLogger()));
+            HyTownLog.fine(Category.PROTECTION, "Registering WildernessHarvestSystem (must run before BlockBreakProtectionSystem)...");
+            getEntityStoreRegistry().registerSystem(new WildernessHarvestSystem(claimResolver, protectionRules, config, wildernessHarvestConfig, getLogger()));
+            HyTownLog.fine(Category.PROTECTION, "Registering BlockBreakProtectionSystem...");
+            getEntityStoreRegistry().registerSystem(new BlockBreakProtectionSystem(claimResolver, protectionRules, config, getLogger()));
+            HyTownLog.fine(Category.PROTECTION, "Registering BlockPlaceProtectionSystem...");
+            getEntityStoreRegistry().registerSystem(new BlockPlaceProtectionSystem(claimResolver, protectionRules, config, getLogger()));
+            HyTownLog.fine(Category.PROTECTION, "Registering BlockUseProtectionSystem...");
+            getEntityStoreRegistry().registerSystem(new BlockUseProtectionSystem(claimResolver, protectionRules, getLogger()));
+            HyTownLog.fine(Category.PROTECTION, "Registering ExplosionProtectionSystem...");
+            getEntityStoreRegistry().registerSystem(new ExplosionProtectionSystem(explosionProtection, getLogger()));
+            HyTownLog.fine(Category.PROTECTION, "Registering FireSpreadProtectionSystem...");
+            getEntityStoreRegistry().registerSystem(new FireSpreadProtectionSystem(chunkFlags, config, getLogger()));
+            HyTownLog.fine(Category.PROTECTION, "Registering PvpProtectionSystem...");
+            pvpProtection = new PvpProtectionSystem(chunkFlags, config, getLogger());
+            getEntityStoreRegistry().registerSystem(pvpProtection);
 
             // Register claim title system (shows banner when entering/leaving claims)
-            getLogger().atSevere().log("[DEBUG] Creating ClaimTitleSystem...");
+            HyTownLog.fine(Category.PROTECTION, "Creating ClaimTitleSystem...");
             claimTitleSystem = new ClaimTitleSystem(claimStorage, townStorage, config);
-            getLogger().atSevere().log("[DEBUG] Registering ClaimTitleSystem...");
+            HyTownLog.fine(Category.PROTECTION, "Registering ClaimTitleSystem...");
             getEntityStoreRegistry().registerSystem(claimTitleSystem);
 
             // Register creature despawn system (prevents mob spawns in towns)
-            getLogger().atSevere().log("[DEBUG] Registering TownCreatureDespawnSystem...");
+            HyTownLog.fine(Category.PROTECTION, "Registering TownCreatureDespawnSystem...");
             getEntityStoreRegistry().registerSystem(new TownCreatureDespawnSystem(claimManager, getLogger()));
 
-            getLogger().atSevere().log("[DEBUG] All ECS systems registered successfully!");
+            HyTownLog.fine(Category.PROTECTION, "All ECS systems registered successfully!");
         } catch (Exception e) {
-            getLogger().atSevere().withCause(e).log("[DEBUG] ERROR registering ECS systems");
+            getLogger().atSevere().withCause(e).log("[Protection] ERROR registering ECS systems");
         }
     }
 
@@ -185,13 +267,13 @@ public class HyTown extends JavaPlugin {
     private void onWorldAdd(AddWorldEvent event) {
         World world = event.getWorld();
         WORLDS.put(world.getName(), world);
-        getLogger().atWarning().log("[Map] World added: %s (deleteOnRemove=%s)", world.getName(), world.getWorldConfig().isDeleteOnRemove());
+        getLogger().atInfo().log("[Map] World added: %s (deleteOnRemove=%s)", world.getName(), world.getWorldConfig().isDeleteOnRemove());
 
         // Set our custom world map provider for persistent worlds
         try {
             if (!world.getWorldConfig().isDeleteOnRemove()) {
                 world.getWorldConfig().setWorldMapProvider(new HyTownWorldMapProvider());
-                getLogger().atWarning().log("[Map] Set HyTownWorldMapProvider for world: %s", world.getName());
+                getLogger().atInfo().log("[Map] Set HyTownWorldMapProvider for world: %s", world.getName());
             }
         } catch (Exception e) {
             getLogger().atSevere().withCause(e).log("[Map] Failed to set map provider for world: %s", world.getName());
@@ -203,74 +285,41 @@ public class HyTown extends JavaPlugin {
      */
     private void onWorldRemove(RemoveWorldEvent event) {
         WORLDS.remove(event.getWorld().getName());
+        MapRenderScheduler.clearWorld(event.getWorld().getName());
     }
 
     @Override
     public void start() {
-        getLogger().atSevere().log("========== HYTOWN PLUGIN STARTED ==========");
-        getLogger().atWarning().log("[Map] Known worlds: %s", WORLDS.keySet());
+        getLogger().atInfo().log("========== HYTOWN PLUGIN STARTED ==========");
+        getLogger().atInfo().log("[Map] Known worlds: %s", WORLDS.keySet());
+
+        // Towns recovered from .bak files must be back before upkeep runs or players join
+        startup.run("await.backups", townStorage::awaitBackupRecovery);
 
         // Check upkeep on startup (will only collect if it's the right time of day)
         if (upkeepManager != null) {
-            upkeepManager.checkUpkeep();
+            startup.run("upkeep", upkeepManager::checkUpkeep);
             getLogger().atInfo().log("[Upkeep] Upkeep check on startup complete");
         }
 
-        // Start background upkeep checker thread
-        startUpkeepChecker();
-    }
+        startPeriodicTasks();
 
-    /**
-     * Start a background thread to check upkeep periodically.
-     */
-    private void startUpkeepChecker() {
-        Thread upkeepThread = new Thread(() -> {
-            while (true) {
-                try {
-                    // Check every 5 minutes
-                    Thread.sleep(300000);
-                    if (upkeepManager != null) {
-                        upkeepManager.checkUpkeep();
-                    }
-                } catch (InterruptedException e) {
-                    break;
-                } catch (Exception e) {
-                    getLogger().atWarning().withCause(e).log("[Upkeep] Error in upkeep check");
-                }
-            }
-        });
-        upkeepThread.setDaemon(true);
-        upkeepThread.setName("HyTown-UpkeepChecker");
-        upkeepThread.start();
-        getLogger().atInfo().log("[Upkeep] Started background upkeep checker");
-
-        // Start auto-save thread
-        startAutoSave();
+        startup.finish();
+        startup = null;
     }
 
     /**
-     * Start a background thread to auto-save town data periodically.
-     * This ensures data is saved even if the server crashes.
+     * Register the periodic upkeep check and auto-save with the scheduler.
+     * Both touch disk, so they run on virtual threads, and a slow save is never overlapped by the next.
      */
-    private void startAutoSave() {
-        Thread autoSaveThread = new Thread(() -> {
-            while (true) {
-                try {
-                    // Auto-save every 5 minutes
-                    Thread.sleep(300000);
-                    autoSaveTowns();
-                } catch (InterruptedException e) {
-                    // Interrupted - do one final save
-                    autoSaveTowns();
-                    break;
-                } catch (Exception e) {
-                    getLogger().atWarning().withCause(e).log("[AutoSave] Error during auto-save");
-                }
-            }
-        });
-        autoSaveThread.setDaemon(true);
-        autoSaveThread.setName("HyTown-AutoSave");
-        autoSaveThread.start();
+    private void startPeriodicTasks() {
+        if (upkeepManager != null) {
+            scheduler.repeat("upkeep", 5, TimeUnit.MINUTES, true, upkeepManager::checkUpkeep);
+            getLogger().atInfo().log("[Upkeep] Started background upkeep checker");
+        }
+
+        // Auto-save so data survives a crash
+        scheduler.repeat("autosave", 5, TimeUnit.MINUTES, true, this::autoSaveTowns);
         getLogger().atInfo().log("[AutoSave] Started background auto-save (every 5 minutes)");
     }
 
@@ -289,85 +338,49 @@ public class HyTown extends JavaPlugin {
             if (claimStorage != null) {
                 claimStorage.saveAll();
             }
+            if (mapTileStore != null) {
+                TerrainTileCache.applyTerrainChanges();
+                mapTileStore.flush();
+            }
         } catch (Exception e) {
             getLogger().atSevere().withCause(e).log("[AutoSave] CRITICAL: Auto-save failed!");
         }
+
+        // Periodic metrics snapshot, for /townadmin perf after the fact
+        HyTownMetrics.writeSnapshot(getMetricsFile());
+    }
+
+    /**
+     * File the metrics snapshot is written to on every auto-save and on shutdown.
+     */
+    public Path getMetricsFile() {
+        return getDataDirectory().resolve("metrics.json");
     }
 
     /**
      * Refreshes the entire world map to show updated claims.
      * Clears both server and client caches to force regeneration.
-     * Called after claiming/unclaiming chunks.
+     * Terrain stays cached in TerrainTileCache, so regeneration only re-composites claims.
+     * Debounced through MapInvalidationService.
      */
     public void refreshWorldMap(String worldName) {
-        World world = WORLDS.get(worldName);
-        if (world == null) {
-            getLogger().atWarning().log("[Map] Cannot refresh map - world not found: %s", worldName);
-            return;
-        }
-
-        try {
-            // 1. Set the generator (in case it changed)
-            var worldMap = world.getWorldConfig().getWorldMapProvider().getGenerator(world);
-            world.getWorldMapManager().setGenerator(worldMap);
-
-            // 2. Clear server-side cached map images
-            world.getWorldMapManager().clearImages();
-
-            // 3. Clear each player's client-side cache to force re-request
-            for (Player player : world.getPlayers()) {
-                try {
-                    player.getWorldMapTracker().clear();
-                } catch (Exception e) {
-                    getLogger().atFine().withCause(e).log("[Map] Error clearing map for player");
-                }
-            }
-
-            getLogger().atInfo().log("[Map] Refreshed map for world: %s (%d players notified)",
-                    worldName, world.getPlayers().size());
-        } catch (Exception e) {
-            getLogger().atWarning().withCause(e).log("[Map] Error refreshing map for world: %s", worldName);
+        if (mapInvalidation != null) {
+            mapInvalidation.invalidateWorld(worldName);
         }
     }
 
     /**
      * Refreshes specific chunks on the world map.
      * More efficient than refreshing the entire map when only a few chunks changed.
+     * Refreshes are debounced and merged per world by MapInvalidationService.
      *
      * @param worldName The world name
      * @param chunkX The chunk X coordinate
      * @param chunkZ The chunk Z coordinate
      */
     public void refreshWorldMapChunk(String worldName, int chunkX, int chunkZ) {
-        World world = WORLDS.get(worldName);
-        if (world == null) {
-            return;
-        }
-
-        try {
-            // Create a set with this chunk and its neighbors (for border updates)
-            LongSet chunksToRefresh = new LongOpenHashSet();
-            for (int dx = -1; dx <= 1; dx++) {
-                for (int dz = -1; dz <= 1; dz++) {
-                    chunksToRefresh.add(ChunkUtil.indexChunk(chunkX + dx, chunkZ + dz));
-                }
-            }
-
-            // Clear server-side cached images for these chunks
-            world.getWorldMapManager().clearImagesInChunks(chunksToRefresh);
-
-            // Clear each player's client-side cache for these chunks
-            for (Player player : world.getPlayers()) {
-                try {
-                    player.getWorldMapTracker().clearChunks(chunksToRefresh);
-                } catch (Exception e) {
-                    getLogger().atFine().withCause(e).log("[Map] Error clearing chunks for player");
-                }
-            }
-
-            getLogger().atFine().log("[Map] Refreshed chunk %d,%d in world %s", chunkX, chunkZ, worldName);
-        } catch (Exception e) {
-            getLogger().atWarning().withCause(e).log("[Map] Error refreshing chunk %d,%d", chunkX, chunkZ);
+        if (mapInvalidation != null) {
+            mapInvalidation.invalidateChunk(worldName, chunkX, chunkZ);
         }
     }
 
@@ -375,12 +388,18 @@ public class HyTown extends JavaPlugin {
     public void shutdown() {
         getLogger().atInfo().log("[Shutdown] HyTown shutting down...");
 
-        // Shutdown teleport scheduler
+        // Stop timed work first: countdowns and pending map refreshes are dropped, and an
+        // auto-save already running finishes, so the final saves below don't overlap it
         try {
-            teleportScheduler.shutdownNow();
+            scheduler.shutdown(30, TimeUnit.SECONDS);
         } catch (Exception e) {
-            getLogger().atWarning().withCause(e).log("[Shutdown] Error stopping teleport scheduler");
+            getLogger().atWarning().withCause(e).log("[Shutdown] Error stopping scheduler");
+        }
+
+        if (mapInvalidation != null) {
+            mapInvalidation.shutdown();
         }
+        MapRenderScheduler.shutdown();
 
         // Shutdown playtime manager (saves all sessions)
         if (playtimeManager != null) {
@@ -415,6 +434,18 @@ public class HyTown extends JavaPlugin {
             }
         }
 
+        // Save the map tile cache
+        if (mapTileStore != null) {
+            try {
+                TerrainTileCache.applyTerrainChanges();
+                mapTileStore.flush();
+            } catch (Exception e) {
+                getLogger().atWarning().withCause(e).log("[Shutdown] Error saving map tile cache");
+            }
+        }
+
+        HyTownMetrics.writeSnapshot(getMetricsFile());
+
         getLogger().atInfo().log("[Shutdown] HyTown shutdown complete!");
     }
 
@@ -426,6 +457,22 @@ public class HyTown extends JavaPlugin {
         return claimManager;
     }
 
+    public ClaimResolver getClaimResolver() {
+        return claimResolver;
+    }
+
+    public ChunkFlagIndex getChunkFlags() {
+        return chunkFlags;
+    }
+
+    public PvpProtectionSystem getPvpProtection() {
+        return pvpProtection;
+    }
+
+    public ExplosionProtectionManager getExplosionProtection() {
+        return explosionProtection;
+    }
+
     public PlaytimeManager getPlaytimeManager() {
         return playtimeManager;
     }
@@ -453,33 +500,33 @@ public class HyTown extends JavaPlugin {
      * Handles player connect event - register username and start playtime.
      */
     private void onPlayerConnect(PlayerConnectEvent event) {
-        getLogger().atSevere().log("[DEBUG] onPlayerConnect START");
+        HyTownLog.fine(Category.GENERAL, "[Connect] onPlayerConnect START");
         try {
             var playerRef = event.getPlayerRef();
-            getLogger().atSevere().log("[DEBUG] Got playerRef: %s", playerRef != null);
+            HyTownLog.fine(Category.GENERAL, "[Connect] Got playerRef: %s", playerRef != null);
             if (playerRef != null) {
                 java.util.UUID playerId = playerRef.getUuid();
                 String username = playerRef.getUsername();
-                getLogger().atSevere().log("[DEBUG] Player: %s (%s)", username, playerId);
+                HyTownLog.fine(Category.GENERAL, "[Connect] Player: %s (%s)", username, playerId);
 
                 // Store player name for map display
-                getLogger().atSevere().log("[DEBUG] Setting player name...");
+                HyTownLog.fine(Category.GENERAL, "[Connect] Setting player name...");
                 claimStorage.setPlayerName(playerId, username);
 
                 // Start playtime tracking
-                getLogger().atSevere().log("[DEBUG] Starting playtime tracking...");
+                HyTownLog.fine(Category.GENERAL, "[Connect] Starting playtime tracking...");
                 playtimeManager.onPlayerJoin(playerId);
 
                 // Warn if player's town is overdue on upkeep
-                getLogger().atSevere().log("[DEBUG] Checking upkeep warning...");
+                HyTownLog.fine(Category.GENERAL, "[Connect] Checking upkeep warning...");
                 if (upkeepManager != null) {
                     upkeepManager.warnIfOverdue(playerId);
                 }
 
-                getLogger().atSevere().log("[DEBUG] onPlayerConnect completed for: %s", username);
+                HyTownLog.fine(Category.GENERAL, "[Connect] onPlayerConnect completed for: %s", username);
             }
         } catch (Exception e) {
-            getLogger().atSevere().withCause(e).log("[DEBUG] ERROR in onPlayerConnect");
+            getLogger().atSevere().withCause(e).log("[Connect] ERROR in onPlayerConnect");
         }
     }
 
@@ -520,53 +567,19 @@ public class HyTown extends JavaPlugin {
      */
     public void refreshPlayerClaimChunks(java.util.UUID playerId) {
         var playerClaims = claimStorage.getPlayerClaims(playerId);
-        if (playerClaims == null) {
+        if (playerClaims == null || mapInvalidation == null) {
             return;
         }
 
-        // Group claims by world for efficient refresh
+        // Group claims by world so each world is refreshed in one batch
         Map<String, java.util.List<int[]>> claimsByWorld = new HashMap<>();
         for (var claim : playerClaims.getClaims()) {
             claimsByWorld.computeIfAbsent(claim.getWorld(), k -> new java.util.ArrayList<>())
                     .add(new int[]{claim.getChunkX(), claim.getChunkZ()});
         }
 
-        // Refresh each world's chunks
         for (var entry : claimsByWorld.entrySet()) {
-            String worldName = entry.getKey();
-            World world = WORLDS.get(worldName);
-            if (world == null) {
-                continue;
-            }
-
-            try {
-                LongSet chunksToRefresh = new LongOpenHashSet();
-                for (int[] coords : entry.getValue()) {
-                    // Add the claim chunk and its neighbors for border updates
-                    for (int dx = -1; dx <= 1; dx++) {
-                        for (int dz = -1; dz <= 1; dz++) {
-                            chunksToRefresh.add(ChunkUtil.indexChunk(coords[0] + dx, coords[1] + dz));
-                        }
-                    }
-                }
-
-                // Clear server-side cached images
-                world.getWorldMapManager().clearImagesInChunks(chunksToRefresh);
-
-                // Clear each player's client-side cache
-                for (Player player : world.getPlayers()) {
-                    try {
-                        player.getWorldMapTracker().clearChunks(chunksToRefresh);
-                    } catch (Exception e) {
-                        getLogger().atFine().withCause(e).log("[Map] Error clearing chunks for player");
-                    }
-                }
-
-                getLogger().atFine().log("[Map] Refreshed %d claim chunks for player %s in world %s",
-                        entry.getValue().size(), playerId, worldName);
-            } catch (Exception e) {
-                getLogger().atWarning().withCause(e).log("[Map] Error refreshing claims for player %s", playerId);
-            }
+            mapInvalidation.invalidateChunks(entry.getKey(), entry.getValue());
         }
     }
 
@@ -577,6 +590,27 @@ public class HyTown extends JavaPlugin {
         return mapOverlayProvider;
     }
 
+    /**
+     * Gets the per-owner claim regions used for map markers.
+     */
+    public ClaimRegionIndex getClaimRegionIndex() {
+        return claimRegionIndex;
+    }
+
+    /**
+     * Gets the scheduler for timed and background work.
+     */
+    public HyTownScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the on-disk map tile cache.
+     */
+    public MapTileStore getMapTileStore() {
+        return mapTileStore;
+    }
+
     /**
      * Gets the claim storage for direct access (e.g., for name updates).
      */
@@ -632,7 +666,7 @@ public class HyTown extends JavaPlugin {
         final int[] remaining = {TELEPORT_COUNTDOWN};
         final boolean[] cancelled = {false};
 
-        ScheduledFuture<?> task = teleportScheduler.scheduleAtFixedRate(() -> {
+        ScheduledFuture<?> task = scheduler.scheduleAtFixedRate("teleport.countdown", 0, 1, TimeUnit.SECONDS, () -> {
             if (cancelled[0]) return;
 
             try {
@@ -670,7 +704,7 @@ public class HyTown extends JavaPlugin {
                 try { player.sendMessage(Message.raw("Teleport failed: " + e.getMessage())); } catch (Exception ignored) {}
                 cancelCountdown(playerName);
             }
-        }, 0, 1, TimeUnit.SECONDS);
+        });
 
         activeCountdowns.put(playerName, task);
     }
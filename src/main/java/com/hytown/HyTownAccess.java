@@ -5,11 +5,17 @@ import com.hytown.data.PlayerClaims;
 import com.hytown.data.Town;
 import com.hytown.data.TownStorage;
 import com.hytown.data.TrustedPlayer;
+import com.hytown.map.ClaimRegion;
+import com.hytown.map.ClaimRegionIndex;
+import com.hytown.util.HyTownLog;
+import com.hytown.util.HyTownLog.Category;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Static accessor for claim data used by the map system.
@@ -19,6 +25,10 @@ import java.util.UUID;
 public class HyTownAccess {
     private static ClaimStorage claimStorage;
     private static TownStorage townStorage;
+    private static ClaimRegionIndex regionIndex;
+
+    // Map tiles ask for owners before startup finished, once per chunk
+    private static final HyTownLog.RateLimit MISSING_STORAGE_LOG = HyTownLog.rateLimit(30, TimeUnit.SECONDS);
 
     /**
      * Initializes the accessor with the claim and town storage instances.
@@ -27,8 +37,25 @@ public class HyTownAccess {
     public static void init(ClaimStorage storage, TownStorage towns) {
         claimStorage = storage;
         townStorage = towns;
-        System.out.println("[HyTownAccess] Initialized with claimStorage: " + (storage != null ? "OK" : "NULL") +
-                           ", townStorage: " + (towns != null ? "OK" : "NULL"));
+        HyTownLog.info(Category.MAP, "[HyTownAccess] Initialized with claimStorage: %s, townStorage: %s",
+                storage != null ? "OK" : "NULL", towns != null ? "OK" : "NULL");
+    }
+
+    /**
+     * Sets the claim region index used for map labels.
+     */
+    public static void setRegionIndex(ClaimRegionIndex index) {
+        regionIndex = index;
+    }
+
+    /**
+     * Gets the claim regions of a world, or an empty list before startup finished.
+     */
+    public static List<ClaimRegion> getClaimRegions(String worldName) {
+        if (regionIndex == null) {
+            return Collections.emptyList();
+        }
+        return regionIndex.getRegions(worldName);
     }
 
     /**
@@ -37,13 +64,17 @@ public class HyTownAccess {
      */
     public static UUID getClaimOwner(String worldName, int chunkX, int chunkZ) {
         if (claimStorage == null) {
-            System.out.println("[HyTownAccess] ERROR: claimStorage is null!");
+            if (MISSING_STORAGE_LOG.tryAcquire()) {
+                HyTownLog.warning(Category.MAP, "[HyTownAccess] ERROR: claimStorage is null! (%d more suppressed)",
+                        MISSING_STORAGE_LOG.drainSuppressed());
+            }
             return null;
         }
         UUID owner = claimStorage.getClaimOwner(worldName, chunkX, chunkZ);
-        // Debug: log when we find a claim (first few only to avoid spam)
-        if (owner != null) {
-            System.out.println("[HyTownAccess] Found claim at " + worldName + " " + chunkX + "," + chunkZ + " owner=" + owner);
+        // Called for every map chunk, so guard before boxing the coordinates
+        if (owner != null && HyTownLog.isEnabled(Category.MAP, HyTownLog.Level.FINE)) {
+            HyTownLog.fine(Category.MAP, "[HyTownAccess] Found claim at %s %s owner=%s",
+                    worldName, chunkX + "," + chunkZ, owner);
         }
         return owner;
     }
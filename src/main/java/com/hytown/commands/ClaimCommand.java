@@ -221,7 +221,8 @@ public class ClaimCommand extends AbstractPlayerCommand {
                             plugin.getClaimManager(),
                             plugin.getClaimStorage(),
                             isAdmin,
-                            (worldName) -> plugin.refreshWorldMap(worldName)
+                            // Claim changes refresh the map through MapInvalidationService
+                            null
                     )
             );
         });
@@ -314,9 +315,6 @@ public class ClaimCommand extends AbstractPlayerCommand {
 
         if (count > 0) {
             playerData.sendMessage(Message.raw("Removed " + count + " claim(s)").color(GREEN));
-            for (String worldName : HyTown.WORLDS.keySet()) {
-                plugin.refreshWorldMap(worldName);
-            }
         } else {
             playerData.sendMessage(Message.raw("You don't have any claims to remove.").color(YELLOW));
         }
@@ -628,9 +626,6 @@ public class ClaimCommand extends AbstractPlayerCommand {
             int count = plugin.getClaimManager().unclaimAll(targetId);
             if (count > 0) {
                 playerData.sendMessage(Message.raw("Removed " + count + " claim(s) from " + targetName).color(GREEN));
-                for (String worldName : HyTown.WORLDS.keySet()) {
-                    plugin.refreshWorldMap(worldName);
-                }
             } else {
                 playerData.sendMessage(Message.raw(targetName + " doesn't have any claims.").color(YELLOW));
             }
@@ -4,6 +4,9 @@ import com.hytown.HyTown;
 import com.hytown.data.Town;
 import com.hytown.data.TownStorage;
 import com.hytown.gui.TownAdminGui;
+import com.hytown.map.ClaimMapExporter;
+import com.hytown.map.TerrainTileCache;
+import com.hytown.util.HyTownMetrics;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.server.core.Message;
@@ -16,6 +19,8 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import javax.annotation.Nonnull;
 import java.awt.Color;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -74,6 +79,8 @@ public class TownyAdminCommand extends AbstractPlayerCommand {
             case "debug" -> handleDebug(playerData);
             case "save" -> handleSave(playerData);
             case "set" -> handleSet(playerData, arg1, arg2);
+            case "exportmap" -> handleExportMap(playerData, arg1 != null ? arg1 : world.getName());
+            case "perf" -> handlePerf(playerData, arg1);
             default -> showHelp(playerData);
         }
     }
@@ -184,7 +191,7 @@ public class TownyAdminCommand extends AbstractPlayerCommand {
 
     private void handleWild(PlayerRef playerData, String subAction, String arg) {
         if (subAction == null || subAction.isEmpty()) {
-            playerData.sendMessage(Message.raw("Usage: /townadmin wild <toggle|sety|info>").color(RED));
+            playerData.sendMessage(Message.raw("Usage: /townadmin wild <toggle|sety|pvp|info>").color(RED));
             return;
         }
 
@@ -209,12 +216,18 @@ public class TownyAdminCommand extends AbstractPlayerCommand {
                     playerData.sendMessage(Message.raw("Invalid Y level!").color(RED));
                 }
             }
+            case "pvp" -> {
+                boolean current = config.isWildPvpEnabled();
+                config.setWildPvpEnabled(!current);
+                playerData.sendMessage(Message.raw("Wilderness PVP " + (!current ? "ENABLED" : "DISABLED")).color(GREEN));
+            }
             case "info" -> {
                 playerData.sendMessage(Message.raw("========== Wild Protection ==========").color(GOLD));
                 playerData.sendMessage(Message.raw("Enabled: " + config.isWildProtectionEnabled()).color(WHITE));
                 playerData.sendMessage(Message.raw("Min Y-Level: " + config.getWildProtectionMinY()).color(WHITE));
                 playerData.sendMessage(Message.raw("Destroy Below: " + config.isWildDestroyBelowAllowed()).color(WHITE));
                 playerData.sendMessage(Message.raw("Build Below: " + config.isWildBuildBelowAllowed()).color(WHITE));
+                playerData.sendMessage(Message.raw("PVP: " + config.isWildPvpEnabled()).color(WHITE));
             }
             default -> playerData.sendMessage(Message.raw("Unknown action: " + subAction).color(RED));
         }
@@ -246,6 +259,58 @@ public class TownyAdminCommand extends AbstractPlayerCommand {
         playerData.sendMessage(Message.raw("All data saved!").color(GREEN));
     }
 
+    private void handleExportMap(PlayerRef playerData, String worldName) {
+        // Only known worlds, so the name can't point the output outside mapexport/
+        if (!HyTown.WORLDS.containsKey(worldName)) {
+            playerData.sendMessage(Message.raw("Unknown world: " + worldName).color(RED));
+            return;
+        }
+        Path output = plugin.getDataDirectory().resolve("mapexport").resolve(worldName);
+        playerData.sendMessage(Message.raw("Exporting claim map of " + worldName + "...").color(GRAY));
+
+        // Blocks on disk for the whole export, so on the scheduler's I/O threads rather than
+        // the common pool the map renderer uses
+        plugin.getScheduler().runBlocking("map.export", () -> {
+            try {
+                // Write pending terrain tiles so the export sees them
+                TerrainTileCache.applyTerrainChanges();
+                plugin.getMapTileStore().flush();
+                ClaimMapExporter exporter = new ClaimMapExporter(plugin.getClaimStorage(), plugin.getTownStorage(),
+                        plugin.getClaimRegionIndex(), plugin.getMapTileStore());
+                int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+                int tiles = exporter.export(worldName, output, threads);
+                playerData.sendMessage(Message.raw("Exported " + tiles + " map tiles to " + output).color(GREEN));
+            } catch (Exception e) {
+                plugin.getLogger().atWarning().withCause(e).log("[MapExport] Failed to export %s", worldName);
+                playerData.sendMessage(Message.raw("Map export failed: " + e.getMessage()).color(RED));
+            }
+        });
+    }
+
+    private void handlePerf(PlayerRef playerData, String arg) {
+        if ("reset".equalsIgnoreCase(arg)) {
+            HyTownMetrics.reset();
+            playerData.sendMessage(Message.raw("Performance metrics reset.").color(GREEN));
+            return;
+        }
+        if ("save".equalsIgnoreCase(arg)) {
+            HyTownMetrics.writeSnapshot(plugin.getMetricsFile());
+            playerData.sendMessage(Message.raw("Metrics written to " + plugin.getMetricsFile()).color(GREEN));
+            return;
+        }
+
+        // Anything else filters by name prefix, e.g. "protection" or "storage.towns"
+        List<String> lines = HyTownMetrics.format(arg != null ? arg.toLowerCase() : "");
+        playerData.sendMessage(Message.raw("========== HyTown Performance ==========").color(GOLD));
+        if (lines.isEmpty()) {
+            playerData.sendMessage(Message.raw("No metrics recorded" + (arg != null ? " for '" + arg + "'" : "") + " yet.").color(GRAY));
+        }
+        for (String line : lines) {
+            playerData.sendMessage(Message.raw(line).color(WHITE));
+        }
+        playerData.sendMessage(Message.raw("Times in ms. /townadmin perf <prefix|reset|save>").color(GRAY));
+    }
+
     private void handleSet(PlayerRef playerData, String setting, String value) {
         if (setting == null || setting.isEmpty()) {
             playerData.sendMessage(Message.raw("Usage: /townadmin set <towncost|claimcost|wildminy> <value>").color(RED));
@@ -306,7 +371,9 @@ public class TownyAdminCommand extends AbstractPlayerCommand {
         playerData.sendMessage(Message.raw("/townadmin debug - Show debug info").color(WHITE));
         playerData.sendMessage(Message.raw("/townadmin town <name> - View town").color(WHITE));
         playerData.sendMessage(Message.raw("/townadmin town <name> delete").color(WHITE));
-        playerData.sendMessage(Message.raw("/townadmin wild <toggle|sety|info>").color(WHITE));
+        playerData.sendMessage(Message.raw("/townadmin wild <toggle|sety|pvp|info>").color(WHITE));
         playerData.sendMessage(Message.raw("/townadmin set <setting> <value>").color(WHITE));
+        playerData.sendMessage(Message.raw("/townadmin exportmap [world] - Export claim map as PNG tiles").color(WHITE));
+        playerData.sendMessage(Message.raw("/townadmin perf [prefix|reset|save] - Show performance metrics").color(WHITE));
     }
 }
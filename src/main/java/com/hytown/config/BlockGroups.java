@@ -3,18 +3,31 @@ package com.hytown.config;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hytown.util.HyTownLog;
+import com.hytown.util.HyTownLog.Category;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Configurable block groups for granular permission checking.
  * Block IDs can be exact matches or partial matches (contains).
+ *
+ * The protection systems ask about every interacted block, and there are only so many block
+ * types, so each ID's groups are worked out once and remembered as a bit mask. A lookup after
+ * that is a single map read with no allocation. Changing any group clears the memo.
  */
 public class BlockGroups {
+    private static final int USE = 1;
+    private static final int CONTAINER = 1 << 1;
+    private static final int WORKSTATION = 1 << 2;
+    private static final int CROP = 1 << 3;
+
     private final Path configFile;
     private final Gson gson;
 
@@ -30,6 +43,9 @@ public class BlockGroups {
     private Set<String> workstationPatterns;
     private Set<String> cropPatterns;      // Patterns for crop blocks
 
+    // Block ID -> group bits (small Integers are cached, so hits don't box)
+    private final Map<String, Integer> groupsById = new ConcurrentHashMap<>();
+
     public BlockGroups(Path dataDirectory) {
         this.configFile = dataDirectory.resolve("block_groups.json");
         this.gson = new GsonBuilder().setPrettyPrinting().create();
@@ -269,8 +285,9 @@ public class BlockGroups {
                     if (data.cropBlocks != null) cropBlocks = new HashSet<>(data.cropBlocks);
                     if (data.cropPatterns != null) cropPatterns = new HashSet<>(data.cropPatterns);
                 }
+                groupsById.clear();
             } catch (IOException e) {
-                e.printStackTrace();
+                HyTownLog.warning(Category.CONFIG, e, "[BlockGroups] Could not read %s", configFile);
             }
         } else {
             save(); // Create default config file
@@ -292,7 +309,7 @@ public class BlockGroups {
             Files.createDirectories(configFile.getParent());
             Files.writeString(configFile, gson.toJson(data));
         } catch (IOException e) {
-            e.printStackTrace();
+            HyTownLog.warning(Category.CONFIG, e, "[BlockGroups] Could not write %s", configFile);
         }
     }
 
@@ -305,24 +322,14 @@ public class BlockGroups {
         // Check built-in door detection
         if (blockType.isDoor()) return true;
 
-        String id = blockType.getId();
-        if (id == null) return false;
-
-        String lowerID = id.toLowerCase();
-
-        // Check exact matches
-        if (useBlocks.contains(id) || useBlocks.contains(lowerID)) {
-            return true;
-        }
-
-        // Check patterns
-        for (String pattern : usePatterns) {
-            if (lowerID.contains(pattern)) {
-                return true;
-            }
-        }
+        return isUseBlock(blockType.getId());
+    }
 
-        return false;
+    /**
+     * Same check by block ID, without the built-in door detection.
+     */
+    public boolean isUseBlock(String id) {
+        return id != null && (groupsOf(id) & USE) != 0;
     }
 
     /**
@@ -330,25 +337,14 @@ public class BlockGroups {
      */
     public boolean isContainerBlock(BlockType blockType) {
         if (blockType == null) return false;
+        return isContainerBlock(blockType.getId());
+    }
 
-        String id = blockType.getId();
-        if (id == null) return false;
-
-        String lowerID = id.toLowerCase();
-
-        // Check exact matches
-        if (containerBlocks.contains(id) || containerBlocks.contains(lowerID)) {
-            return true;
-        }
-
-        // Check patterns
-        for (String pattern : containerPatterns) {
-            if (lowerID.contains(pattern)) {
-                return true;
-            }
-        }
-
-        return false;
+    /**
+     * Same check by block ID (for callers that only have the ID).
+     */
+    public boolean isContainerBlock(String id) {
+        return id != null && (groupsOf(id) & CONTAINER) != 0;
     }
 
     /**
@@ -356,25 +352,14 @@ public class BlockGroups {
      */
     public boolean isWorkstationBlock(BlockType blockType) {
         if (blockType == null) return false;
+        return isWorkstationBlock(blockType.getId());
+    }
 
-        String id = blockType.getId();
-        if (id == null) return false;
-
-        String lowerID = id.toLowerCase();
-
-        // Check exact matches
-        if (workstationBlocks.contains(id) || workstationBlocks.contains(lowerID)) {
-            return true;
-        }
-
-        // Check patterns
-        for (String pattern : workstationPatterns) {
-            if (lowerID.contains(pattern)) {
-                return true;
-            }
-        }
-
-        return false;
+    /**
+     * Same check by block ID (for callers that only have the ID).
+     */
+    public boolean isWorkstationBlock(String id) {
+        return id != null && (groupsOf(id) & WORKSTATION) != 0;
     }
 
     /**
@@ -382,19 +367,47 @@ public class BlockGroups {
      */
     public boolean isCropBlock(BlockType blockType) {
         if (blockType == null) return false;
+        return isCropBlock(blockType.getId());
+    }
 
-        String id = blockType.getId();
-        if (id == null) return false;
+    /**
+     * Same check by block ID (for callers that only have the ID).
+     */
+    public boolean isCropBlock(String id) {
+        return id != null && (groupsOf(id) & CROP) != 0;
+    }
+
+    private int groupsOf(String id) {
+        Integer groups = groupsById.get(id);
+        if (groups == null) {
+            groups = classify(id);
+            groupsById.put(id, groups);
+        }
+        return groups;
+    }
 
+    /**
+     * Work out every group a block ID belongs to: exact match (as given or lowercased),
+     * or containing one of the group's patterns.
+     */
+    private int classify(String id) {
         String lowerID = id.toLowerCase();
+        int groups = 0;
+        if (matches(id, lowerID, useBlocks, usePatterns)) groups |= USE;
+        if (matches(id, lowerID, containerBlocks, containerPatterns)) groups |= CONTAINER;
+        if (matches(id, lowerID, workstationBlocks, workstationPatterns)) groups |= WORKSTATION;
+        if (matches(id, lowerID, cropBlocks, cropPatterns)) groups |= CROP;
+        return groups;
+    }
 
+    private static boolean matches(String id, String lowerID, Set<String> blocks, Set<String> patterns) {
         // Check exact matches
-        if (cropBlocks.contains(id) || cropBlocks.contains(lowerID)) {
+        if (blocks.contains(id) || blocks.contains(lowerID)) {
             return true;
         }
 
         // Check patterns
-        for (String pattern : cropPatterns) {
+        for (String pattern : patterns) {
             if (lowerID.contains(pattern)) {
                 return true;
             }
@@ -408,6 +421,7 @@ public class BlockGroups {
      */
     public void addUseBlock(String blockId) {
         useBlocks.add(blockId);
+        groupsById.clear();
         save();
     }
 
@@ -416,6 +430,7 @@ public class BlockGroups {
      */
     public void addUsePattern(String pattern) {
         usePatterns.add(pattern.toLowerCase());
+        groupsById.clear();
         save();
     }
 
@@ -424,6 +439,7 @@ public class BlockGroups {
      */
     public void addContainerBlock(String blockId) {
         containerBlocks.add(blockId);
+        groupsById.clear();
         save();
     }
 
@@ -432,6 +448,7 @@ public class BlockGroups {
      */
     public void addContainerPattern(String pattern) {
         containerPatterns.add(pattern.toLowerCase());
+        groupsById.clear();
         save();
     }
 
@@ -440,6 +457,7 @@ public class BlockGroups {
      */
     public void addWorkstationBlock(String blockId) {
         workstationBlocks.add(blockId);
+        groupsById.clear();
         save();
     }
 
@@ -448,6 +466,7 @@ public class BlockGroups {
      */
     public void addWorkstationPattern(String pattern) {
         workstationPatterns.add(pattern.toLowerCase());
+        groupsById.clear();
         save();
     }
 
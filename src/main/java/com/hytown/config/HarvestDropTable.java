@@ -0,0 +1,254 @@
+package com.hytown.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Immutable, pre-compiled drop table for one wilderness harvest pattern.
+ *
+ * Every DropEntry is an independent chance roll, so the table enumerates the joint
+ * distribution over "which entries drop" and samples it with a Walker/Vose alias table:
+ * one uniform int and one uniform double per harvest, regardless of entry count.
+ * Entries for the same item are merged into a single item slot.
+ *
+ * A roll is encoded as a single long (mixed radix over the slot amounts) so callers can
+ * cache anything derived from an outcome (item stacks, messages) without allocating.
+ */
+public final class HarvestDropTable {
+
+    // Above this many entries the 2^n subset table gets too large - roll entries one by one
+    private static final int MAX_ALIAS_ENTRIES = 10;
+
+    // Outcome spaces up to this size can be cached in a flat array by callers
+    public static final int MAX_ENUMERATED_OUTCOMES = 4096;
+
+    private final String[] slotItems;
+    private final long[] slotStrides;
+    private final int[] slotRadix;
+    private final int[] entrySlot;
+    private final int[] entryMin;
+    private final int[] entrySpan;     // number of possible amounts (max - min + 1)
+    private final double[] entryChance;
+    private final long outcomeCount;   // -1 if the outcome space overflows
+
+    // Alias table over entry subsets (bit i set = entry i drops), null if rolled per entry
+    private final double[] aliasProb;
+    private final int[] aliasIndex;
+
+    private HarvestDropTable(List<WildernessHarvestConfig.DropEntry> entries) {
+        Map<String, Integer> slotByItem = new LinkedHashMap<>();
+        List<Integer> slotMax = new ArrayList<>();
+
+        int n = entries.size();
+        this.entrySlot = new int[n];
+        this.entryMin = new int[n];
+        this.entrySpan = new int[n];
+        this.entryChance = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            WildernessHarvestConfig.DropEntry entry = entries.get(i);
+            int min = Math.max(0, entry.minAmount);
+            int max = Math.max(min, entry.maxAmount);
+            Integer slot = slotByItem.get(entry.item);
+            if (slot == null) {
+                slot = slotByItem.size();
+                slotByItem.put(entry.item, slot);
+                slotMax.add(0);
+            }
+            slotMax.set(slot, slotMax.get(slot) + max);
+
+            entrySlot[i] = slot;
+            entryMin[i] = min;
+            // Mirrors the old roll: min >= max always yields min
+            entrySpan[i] = entry.minAmount >= entry.maxAmount ? 1 : max - min + 1;
+            entryChance[i] = Math.max(0.0, Math.min(1.0, entry.chance));
+        }
+
+        this.slotItems = slotByItem.keySet().toArray(new String[0]);
+        this.slotRadix = new int[slotItems.length];
+        this.slotStrides = new long[slotItems.length];
+
+        long stride = 1;
+        boolean overflow = false;
+        for (int s = 0; s < slotItems.length; s++) {
+            slotRadix[s] = slotMax.get(s) + 1;
+            slotStrides[s] = stride;
+            if (!overflow) {
+                try {
+                    stride = Math.multiplyExact(stride, (long) slotRadix[s]);
+                } catch (ArithmeticException e) {
+                    overflow = true;
+                }
+            }
+        }
+        this.outcomeCount = overflow ? -1 : stride;
+
+        if (n > 0 && n <= MAX_ALIAS_ENTRIES && !overflow) {
+            double[] weights = new double[1 << n];
+            for (int subset = 0; subset < weights.length; subset++) {
+                double p = 1.0;
+                for (int i = 0; i < n; i++) {
+                    p *= (subset & (1 << i)) != 0 ? entryChance[i] : 1.0 - entryChance[i];
+                }
+                weights[subset] = p;
+            }
+            this.aliasProb = new double[weights.length];
+            this.aliasIndex = new int[weights.length];
+            buildAlias(weights, aliasProb, aliasIndex);
+        } else {
+            this.aliasProb = null;
+            this.aliasIndex = null;
+        }
+    }
+
+    /**
+     * Compiles a list of configured drop entries into an immutable table.
+     */
+    public static HarvestDropTable compile(List<WildernessHarvestConfig.DropEntry> entries) {
+        List<WildernessHarvestConfig.DropEntry> valid = new ArrayList<>();
+        if (entries != null) {
+            for (WildernessHarvestConfig.DropEntry entry : entries) {
+                if (entry != null && entry.item != null && !entry.item.isEmpty()) {
+                    valid.add(entry);
+                }
+            }
+        }
+        return new HarvestDropTable(valid);
+    }
+
+    /**
+     * Vose's alias method. Weights must sum to ~1.
+     */
+    private static void buildAlias(double[] weights, double[] prob, int[] alias) {
+        int size = weights.length;
+        double[] scaled = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            scaled[i] = weights[i] * size;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            prob[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Leftovers are 1.0 up to floating point error
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            prob[i] = 1.0;
+            alias[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            prob[i] = 1.0;
+            alias[i] = i;
+        }
+    }
+
+    /**
+     * Rolls the table once. Only valid when getOutcomeCount() > 0, see rollAmounts().
+     * @return the encoded outcome, 0 meaning nothing dropped
+     */
+    public long roll(RandomGenerator random) {
+        int n = entrySlot.length;
+        if (n == 0) return 0;
+
+        long code = 0;
+        if (aliasProb != null) {
+            int column = random.nextInt(aliasProb.length);
+            int subset = random.nextDouble() < aliasProb[column] ? column : aliasIndex[column];
+            while (subset != 0) {
+                int i = Integer.numberOfTrailingZeros(subset);
+                subset &= subset - 1;
+                code += rollAmount(random, i) * slotStrides[entrySlot[i]];
+            }
+            return code;
+        }
+
+        // Fallback for very large patterns: independent chance per entry
+        for (int i = 0; i < n; i++) {
+            if (random.nextDouble() < entryChance[i]) {
+                code += rollAmount(random, i) * slotStrides[entrySlot[i]];
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Rolls the table into a per-slot amount array (length >= getSlotCount()).
+     * Used when the outcome space is too large to encode in a long.
+     */
+    public void rollAmounts(RandomGenerator random, int[] amounts) {
+        Arrays.fill(amounts, 0, slotItems.length, 0);
+        for (int i = 0; i < entrySlot.length; i++) {
+            if (random.nextDouble() < entryChance[i]) {
+                amounts[entrySlot[i]] += (int) rollAmount(random, i);
+            }
+        }
+    }
+
+    private long rollAmount(RandomGenerator random, int entry) {
+        int span = entrySpan[entry];
+        return span <= 1 ? entryMin[entry] : entryMin[entry] + random.nextInt(span);
+    }
+
+    /**
+     * Number of distinct item slots (one per distinct item ID).
+     */
+    public int getSlotCount() {
+        return slotItems.length;
+    }
+
+    /**
+     * Item ID for a slot.
+     */
+    public String getSlotItem(int slot) {
+        return slotItems[slot];
+    }
+
+    /**
+     * Decodes the amount of a slot's item from an outcome code.
+     */
+    public int getAmount(long outcome, int slot) {
+        return (int) ((outcome / slotStrides[slot]) % slotRadix[slot]);
+    }
+
+    /**
+     * Size of the outcome space, or -1 if it does not fit a long.
+     */
+    public long getOutcomeCount() {
+        return outcomeCount;
+    }
+
+    /**
+     * Whether callers can cache outcomes in a flat array indexed by outcome code.
+     */
+    public boolean isEnumerable() {
+        return outcomeCount > 0 && outcomeCount <= MAX_ENUMERATED_OUTCOMES;
+    }
+
+    public boolean isEmpty() {
+        return entrySlot.length == 0;
+    }
+}
@@ -4,12 +4,17 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.hytown.util.HyTownLog;
+import com.hytown.util.HyTownLog.Category;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Configuration manager for HyTown plugin.
@@ -71,11 +76,12 @@ public class PluginConfig {
                     save();
                 }
             } catch (IOException e) {
-                e.printStackTrace();
+                HyTownLog.warning(Category.CONFIG, e, "[Config] Could not read %s", configFile);
             }
         } else {
             save();
         }
+        HyTownLog.configure(config.logLevels);
     }
 
     /**
@@ -93,7 +99,7 @@ public class PluginConfig {
             Files.createDirectories(configFile.getParent());
             Files.writeString(configFile, gson.toJson(config));
         } catch (IOException e) {
-            e.printStackTrace();
+            HyTownLog.warning(Category.CONFIG, e, "[Config] Could not write %s", configFile);
         }
     }
 
@@ -167,14 +173,43 @@ public class PluginConfig {
         return config.wildBlockDenyList;
     }
 
+    public boolean isWildPvpEnabled() {
+        return config.wildPvpEnabled;
+    }
+
     /**
-     * Check if an item ID matches any griefing pattern.
+     * Check if an item ID matches any griefing pattern (case-insensitive).
+     * Runs on every wilderness placement, so it compares in place rather than lowercasing copies.
      */
     public boolean isGriefingBlock(String itemId) {
         if (itemId == null) return false;
-        String lower = itemId.toLowerCase();
-        for (String pattern : config.wildBlockDenyList) {
-            if (lower.contains(pattern.toLowerCase())) {
+        List<String> patterns = config.wildBlockDenyList;
+        for (int i = 0; i < patterns.size(); i++) {
+            if (containsIgnoreCase(itemId, patterns.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if an item ID is one of the configured fire items (exact match), i.e. a projectile
+     * carrying it starts a fire.
+     */
+    public boolean isFireItem(String itemId) {
+        if (itemId == null) return false;
+        List<String> ids = config.fireItemIds;
+        for (int i = 0; i < ids.size(); i++) {
+            if (itemId.equals(ids.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsIgnoreCase(String text, String part) {
+        for (int i = 0, last = text.length() - part.length(); i <= last; i++) {
+            if (text.regionMatches(true, i, part, 0, part.length())) {
                 return true;
             }
         }
@@ -262,6 +297,20 @@ public class PluginConfig {
         save();
     }
 
+    public void setWildPvpEnabled(boolean enabled) {
+        config.wildPvpEnabled = enabled;
+        save();
+    }
+
+    // ===== LOGGING =====
+
+    /**
+     * Log level per category (e.g. "map" -> "FINE"), applied on load.
+     */
+    public Map<String, String> getLogLevels() {
+        return config.logLevels != null ? Collections.unmodifiableMap(config.logLevels) : Collections.emptyMap();
+    }
+
     // ===== LEGACY GETTERS (for compatibility) =====
 
     /** @deprecated Use getClaimsPerHour() */
@@ -339,6 +388,7 @@ public class PluginConfig {
         int wildProtectionMinY = 0;  // Y-level below which blocks are unprotected
         boolean wildDestroyBelowAllowed = true;
         boolean wildBuildBelowAllowed = false;
+        boolean wildPvpEnabled = true;  // PvP in unclaimed chunks
 
         // Block deny list - items with IDs containing any of these strings are blocked in wilderness
         List<String> wildBlockDenyList = createDefaultBlockDenyList();
@@ -354,6 +404,12 @@ public class PluginConfig {
             return patterns;
         }
 
+        // Item IDs that start a fire when a projectile places them (exact IDs)
+        List<String> fireItemIds = new ArrayList<>(List.of("Fire"));
+
+        // Log levels per category (general, map, claims, towns, storage, protection, config)
+        Map<String, String> logLevels = new LinkedHashMap<>();
+
         // Town rank thresholds (expandable array)
         List<TownRankDefinition> townRanks = createDefaultRanks();
 
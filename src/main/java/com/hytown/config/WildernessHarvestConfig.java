@@ -8,10 +8,13 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Configuration for wilderness harvest drops.
@@ -36,12 +39,18 @@ public class WildernessHarvestConfig {
     private final Path configFile;
     private final HytaleLogger logger;
     private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
-    private final Random random = new Random();
 
-    // Parsed config data
-    private long harvestCooldownMs = 500;
-    private double messageChance = 0.2;
-    private final Map<String, List<DropEntry>> dropsByPattern = new HashMap<>();
+    // Parsed config data - maps are immutable and swapped as a whole on reload
+    private volatile long harvestCooldownMs = 500;
+    private volatile double messageChance = 0.2;
+    private volatile Map<String, List<DropEntry>> dropsByPattern = Collections.emptyMap();
+    private volatile Map<String, HarvestDropTable> tablesByPattern = Collections.emptyMap();
+
+    // Block name -> matching pattern ("" = no match), cleared on reload
+    private final Map<String, String> patternCache = new ConcurrentHashMap<>();
+
+    // Bumped on every (re)load so callers can drop anything derived from the tables
+    private volatile int generation = 0;
 
     /**
      * Represents a single item drop with chance and amount range.
@@ -110,16 +119,23 @@ public class WildernessHarvestConfig {
         if (data == null) {
             data = buildDefaultConfigData();
         }
-        this.harvestCooldownMs = data.harvestCooldownMs;
-        this.messageChance = data.messageChance;
-        dropsByPattern.clear();
+        Map<String, List<DropEntry>> drops = new LinkedHashMap<>();
+        Map<String, HarvestDropTable> tables = new HashMap<>();
         if (data.drops != null) {
             for (BlockDropConfig blockDrop : data.drops) {
                 if (blockDrop.blockPattern != null && blockDrop.items != null) {
-                    dropsByPattern.put(blockDrop.blockPattern, blockDrop.items);
+                    drops.put(blockDrop.blockPattern, Collections.unmodifiableList(new ArrayList<>(blockDrop.items)));
+                    tables.put(blockDrop.blockPattern, HarvestDropTable.compile(blockDrop.items));
                 }
             }
         }
+
+        this.harvestCooldownMs = data.harvestCooldownMs;
+        this.messageChance = data.messageChance;
+        this.dropsByPattern = Collections.unmodifiableMap(drops);
+        this.tablesByPattern = Collections.unmodifiableMap(tables);
+        patternCache.clear();
+        generation++;
     }
 
     /**
@@ -226,13 +242,24 @@ public class WildernessHarvestConfig {
     public String getMatchingPattern(String blockName) {
         if (blockName == null) return null;
 
+        String cached = patternCache.get(blockName);
+        if (cached != null) {
+            return cached.isEmpty() ? null : cached;
+        }
+
+        String match = findMatchingPattern(dropsByPattern, blockName);
+        patternCache.put(blockName, match == null ? "" : match);
+        return match;
+    }
+
+    private static String findMatchingPattern(Map<String, List<DropEntry>> drops, String blockName) {
         // Check for exact match first
-        if (dropsByPattern.containsKey(blockName)) {
+        if (drops.containsKey(blockName)) {
             return blockName;
         }
 
         // Check if block name contains any pattern
-        for (String pattern : dropsByPattern.keySet()) {
+        for (String pattern : drops.keySet()) {
             if (blockName.contains(pattern)) {
                 return pattern;
             }
@@ -247,7 +274,23 @@ public class WildernessHarvestConfig {
      * @return List of drop entries, or empty list if none
      */
     public List<DropEntry> getDropsForPattern(String pattern) {
-        return dropsByPattern.getOrDefault(pattern, new ArrayList<>());
+        return dropsByPattern.getOrDefault(pattern, Collections.emptyList());
+    }
+
+    /**
+     * Get the compiled drop table for a block pattern.
+     * @param pattern The pattern key from getMatchingPattern()
+     * @return The table, or null if the pattern is not configured
+     */
+    public HarvestDropTable getDropTable(String pattern) {
+        return pattern == null ? null : tablesByPattern.get(pattern);
+    }
+
+    /**
+     * Config generation, incremented on every load/reload.
+     */
+    public int getGeneration() {
+        return generation;
     }
 
     /**
@@ -257,22 +300,27 @@ public class WildernessHarvestConfig {
      */
     public Map<String, Integer> calculateDrops(String pattern) {
         Map<String, Integer> result = new HashMap<>();
-        List<DropEntry> entries = getDropsForPattern(pattern);
-
-        for (DropEntry entry : entries) {
-            // Check if this item drops (based on chance)
-            if (random.nextDouble() < entry.chance) {
-                // Calculate amount
-                int amount;
-                if (entry.minAmount >= entry.maxAmount) {
-                    amount = entry.minAmount;
-                } else {
-                    amount = entry.minAmount + random.nextInt(entry.maxAmount - entry.minAmount + 1);
-                }
+        HarvestDropTable table = getDropTable(pattern);
+        if (table == null || table.isEmpty()) {
+            return result;
+        }
 
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int slots = table.getSlotCount();
+        if (table.getOutcomeCount() > 0) {
+            long outcome = table.roll(random);
+            for (int slot = 0; slot < slots; slot++) {
+                int amount = table.getAmount(outcome, slot);
                 if (amount > 0) {
-                    // Add to result (accumulate if same item appears multiple times)
-                    result.merge(entry.item, amount, Integer::sum);
+                    result.put(table.getSlotItem(slot), amount);
+                }
+            }
+        } else {
+            int[] amounts = new int[slots];
+            table.rollAmounts(random, amounts);
+            for (int slot = 0; slot < slots; slot++) {
+                if (amounts[slot] > 0) {
+                    result.put(table.getSlotItem(slot), amounts[slot]);
                 }
             }
         }
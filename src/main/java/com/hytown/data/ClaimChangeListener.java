@@ -0,0 +1,22 @@
+package com.hytown.data;
+
+import java.util.Collection;
+
+/**
+ * Notified when claim ownership or town/plot settings change for chunks.
+ * Registered on ClaimStorage and TownStorage so derived indexes can update incrementally.
+ */
+public interface ClaimChangeListener {
+
+    /**
+     * Called when one or more chunks in a world changed owner, town or settings.
+     * @param world The world name
+     * @param chunks Chunk coordinates as {chunkX, chunkZ} pairs
+     */
+    void onChunksChanged(String world, Collection<int[]> chunks);
+
+    /**
+     * Called when everything may have changed (e.g. towns reloaded from disk).
+     */
+    void onAllChanged();
+}
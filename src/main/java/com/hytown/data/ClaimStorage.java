@@ -4,12 +4,20 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import com.hytown.util.ChunkUtil;
+import com.hytown.util.HyTownEvents;
+import com.hytown.util.HyTownLog;
+import com.hytown.util.HyTownLog.Category;
+import com.hytown.util.HyTownMetrics;
+import com.hytown.util.ReadyGate;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -17,20 +25,46 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Manages persistent storage of claims using JSON files.
+ *
+ * Owner lookups run on every protected block event, so besides the string-keyed index that is
+ * saved to disk, each world has a table keyed by ChunkUtil.packChunk(), split into copy-on-write
+ * shards. Reads don't build a key string, lock or allocate; writes (claim, unclaim) copy only
+ * the shards they touch.
  */
 public class ClaimStorage {
+    private static final HyTownMetrics.Counter INDEX_LOOKUPS = HyTownMetrics.counter("claims.index.lookups");
+    private static final HyTownMetrics.Timer PLAYER_SAVE_TIME = HyTownMetrics.timer("storage.claims.savePlayer");
+    private static final HyTownMetrics.Timer INDEX_SAVE_TIME = HyTownMetrics.timer("storage.claims.saveIndex");
+    private static final HyTownMetrics.Counter SAVED_BYTES = HyTownMetrics.counter("storage.claims.bytes");
+
     private final Path claimsDirectory;
     private final Path indexFile;
     private final Path namesFile;
     private final Gson gson;
     private final Map<UUID, PlayerClaims> cache;
     private final Map<String, Map<String, UUID>> claimIndex; // world -> (chunkKey -> ownerUUID)
+    private final Map<String, OwnerTable> ownersByWorld = new ConcurrentHashMap<>(); // world -> (packChunk -> ownerUUID)
     private final Map<UUID, String> playerNames; // playerId -> username (for map display)
+    private final ReadyGate namesLoaded;
+    private final AtomicLong version = new AtomicLong(); // bumped whenever the claim index changes
+    private final List<ClaimChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
     public ClaimStorage(Path dataDirectory) {
+        this(dataDirectory, Runnable::run);
+    }
+
+    /**
+     * @param background loads the player name registry, which only the map and listings need;
+     *                   name lookups wait for it
+     */
+    public ClaimStorage(Path dataDirectory, Executor background) {
         this.claimsDirectory = dataDirectory.resolve("claims");
         this.indexFile = claimsDirectory.resolve("index.json");
         this.namesFile = claimsDirectory.resolve("names.json");
@@ -42,11 +76,11 @@ public class ClaimStorage {
         try {
             Files.createDirectories(claimsDirectory);
         } catch (IOException e) {
-            e.printStackTrace();
+            HyTownLog.warning(Category.STORAGE, e, "[ClaimStorage] Could not create claims directory");
         }
 
         loadIndex();
-        loadNames();
+        namesLoaded = ReadyGate.start("player names", background, this::loadNames);
     }
 
     private void loadIndex() {
@@ -59,16 +93,20 @@ public class ClaimStorage {
                     for (Map.Entry<String, Map<String, String>> worldEntry : loaded.entrySet()) {
                         String world = worldEntry.getKey();
                         Map<String, UUID> worldClaims = new ConcurrentHashMap<>();
+                        OwnerTable owners = new OwnerTable();
                         for (Map.Entry<String, String> claimEntry : worldEntry.getValue().entrySet()) {
                             try {
-                                worldClaims.put(claimEntry.getKey(), UUID.fromString(claimEntry.getValue()));
-                            } catch (IllegalArgumentException ignored) {}
+                                UUID owner = UUID.fromString(claimEntry.getValue());
+                                owners.load(ChunkUtil.packChunkKey(claimEntry.getKey()), owner);
+                                worldClaims.put(claimEntry.getKey(), owner);
+                            } catch (IllegalArgumentException ignored) {} // bad UUID or chunk key
                         }
                         claimIndex.put(world, worldClaims);
+                        ownersByWorld.put(world, owners);
                     }
                 }
             } catch (IOException e) {
-                e.printStackTrace();
+                HyTownLog.warning(Category.STORAGE, e, "[ClaimStorage] Could not read %s", indexFile);
             }
         }
     }
@@ -83,11 +121,15 @@ public class ClaimStorage {
             toSave.put(worldEntry.getKey(), worldClaims);
         }
 
+        long start = System.nanoTime();
         try {
-            Files.writeString(indexFile, gson.toJson(toSave));
+            String json = gson.toJson(toSave);
+            Files.writeString(indexFile, json);
+            SAVED_BYTES.add(json.length());
         } catch (IOException e) {
-            e.printStackTrace();
+            HyTownLog.warning(Category.STORAGE, e, "[ClaimStorage] Could not write %s", indexFile);
         }
+        INDEX_SAVE_TIME.recordSince(start);
     }
 
     private void loadNames() {
@@ -104,12 +146,13 @@ public class ClaimStorage {
                     }
                 }
             } catch (IOException e) {
-                e.printStackTrace();
+                HyTownLog.warning(Category.STORAGE, e, "[ClaimStorage] Could not read %s", namesFile);
             }
         }
     }
 
     private void saveNames() {
+        namesLoaded.await(); // Don't overwrite names that haven't been read yet
         Map<String, String> toSave = new HashMap<>();
         for (Map.Entry<UUID, String> entry : playerNames.entrySet()) {
             toSave.put(entry.getKey().toString(), entry.getValue());
@@ -117,7 +160,7 @@ public class ClaimStorage {
         try {
             Files.writeString(namesFile, gson.toJson(toSave));
         } catch (IOException e) {
-            e.printStackTrace();
+            HyTownLog.warning(Category.STORAGE, e, "[ClaimStorage] Could not write %s", namesFile);
         }
     }
 
@@ -126,6 +169,7 @@ public class ClaimStorage {
      */
     public void setPlayerName(UUID playerId, String username) {
         if (playerId != null && username != null) {
+            namesLoaded.await();
             playerNames.put(playerId, username);
             saveNames();
         }
@@ -137,6 +181,7 @@ public class ClaimStorage {
      */
     public String getPlayerName(UUID playerId) {
         if (playerId == null) return "Unknown";
+        namesLoaded.await();
         return playerNames.getOrDefault(playerId, playerId.toString().substring(0, 8));
     }
 
@@ -163,13 +208,12 @@ public class ClaimStorage {
      */
     public Map<long[], ClaimInfo> getClaimsInArea(String world, int minChunkX, int maxChunkX, int minChunkZ, int maxChunkZ) {
         Map<long[], ClaimInfo> result = new HashMap<>();
-        Map<String, UUID> worldClaims = claimIndex.get(world);
-        if (worldClaims == null) return result;
+        OwnerTable owners = ownersByWorld.get(world);
+        if (owners == null) return result;
 
         for (int cx = minChunkX; cx <= maxChunkX; cx++) {
             for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
-                String key = ChunkUtil.chunkKey(cx, cz);
-                UUID owner = worldClaims.get(key);
+                UUID owner = owners.get(ChunkUtil.packChunk(cx, cz));
                 if (owner != null) {
                     String ownerName = getPlayerName(owner);
                     result.put(new long[]{cx, cz}, new ClaimInfo(owner, ownerName));
@@ -193,7 +237,9 @@ public class ClaimStorage {
     }
 
     public PlayerClaims getPlayerClaims(UUID playerId) {
-        return cache.computeIfAbsent(playerId, this::loadPlayerClaims);
+        // Plain get first: the bound method reference would be allocated on every call
+        PlayerClaims claims = cache.get(playerId);
+        return claims != null ? claims : cache.computeIfAbsent(playerId, this::loadPlayerClaims);
     }
 
     private PlayerClaims loadPlayerClaims(UUID playerId) {
@@ -246,7 +292,7 @@ public class ClaimStorage {
                 }
                 return claims;
             } catch (IOException e) {
-                e.printStackTrace();
+                HyTownLog.warning(Category.STORAGE, e, "[ClaimStorage] Could not read %s", file);
             }
         }
 
@@ -257,6 +303,7 @@ public class ClaimStorage {
         PlayerClaims claims = cache.get(playerId);
         if (claims == null) return;
 
+        long start = System.nanoTime();
         Path file = claimsDirectory.resolve(playerId.toString() + ".json");
 
         PlayerClaimsJson data = new PlayerClaimsJson();
@@ -282,25 +329,36 @@ public class ClaimStorage {
         }
 
         try {
-            Files.writeString(file, gson.toJson(data));
+            String json = gson.toJson(data);
+            Files.writeString(file, json);
+            SAVED_BYTES.add(json.length());
         } catch (IOException e) {
-            e.printStackTrace();
+            HyTownLog.warning(Category.STORAGE, e, "[ClaimStorage] Could not write %s", file);
         }
+        PLAYER_SAVE_TIME.recordSince(start);
     }
 
     public void addClaim(UUID playerId, Claim claim) {
+        HyTownEvents.ClaimChange event = new HyTownEvents.ClaimChange();
+        event.begin();
         PlayerClaims claims = getPlayerClaims(playerId);
         claims.addClaim(claim);
 
         // Update index
         String chunkKey = ChunkUtil.chunkKey(claim.getChunkX(), claim.getChunkZ());
         claimIndex.computeIfAbsent(claim.getWorld(), k -> new ConcurrentHashMap<>()).put(chunkKey, playerId);
+        updateOwners(claim.getWorld(), List.of(new int[] { claim.getChunkX(), claim.getChunkZ() }), playerId);
+        version.incrementAndGet();
+        notifyChunkChanged(claim.getWorld(), claim.getChunkX(), claim.getChunkZ());
 
         savePlayerClaims(playerId);
         saveIndex();
+        commitClaimChange(event, "claim", playerId, claim.getWorld(), claim.getChunkX(), claim.getChunkZ(), 1);
     }
 
     public void removeClaim(UUID playerId, String world, int chunkX, int chunkZ) {
+        HyTownEvents.ClaimChange event = new HyTownEvents.ClaimChange();
+        event.begin();
         PlayerClaims claims = getPlayerClaims(playerId);
         claims.removeClaim(world, chunkX, chunkZ);
 
@@ -310,42 +368,115 @@ public class ClaimStorage {
         if (worldClaims != null) {
             worldClaims.remove(chunkKey);
         }
+        updateOwners(world, List.of(new int[] { chunkX, chunkZ }), null);
+        version.incrementAndGet();
+        notifyChunkChanged(world, chunkX, chunkZ);
 
         savePlayerClaims(playerId);
         saveIndex();
+        commitClaimChange(event, "unclaim", playerId, world, chunkX, chunkZ, 1);
     }
 
     /**
      * Removes all claims for a player.
      */
     public void removeAllClaims(UUID playerId) {
+        HyTownEvents.ClaimChange event = new HyTownEvents.ClaimChange();
+        event.begin();
         PlayerClaims claims = getPlayerClaims(playerId);
+        int count = claims.getClaims().size();
 
         // Remove from index
+        Map<String, List<int[]>> removed = new HashMap<>();
         for (Claim claim : claims.getClaims()) {
             String chunkKey = ChunkUtil.chunkKey(claim.getChunkX(), claim.getChunkZ());
             Map<String, UUID> worldClaims = claimIndex.get(claim.getWorld());
             if (worldClaims != null) {
                 worldClaims.remove(chunkKey);
             }
+            removed.computeIfAbsent(claim.getWorld(), k -> new ArrayList<>())
+                    .add(new int[] { claim.getChunkX(), claim.getChunkZ() });
         }
 
         // Clear claims
         claims.clearAllClaims();
+        for (Map.Entry<String, List<int[]>> entry : removed.entrySet()) {
+            updateOwners(entry.getKey(), entry.getValue(), null);
+        }
+        version.incrementAndGet();
+        for (Map.Entry<String, List<int[]>> entry : removed.entrySet()) {
+            for (ClaimChangeListener listener : changeListeners) {
+                listener.onChunksChanged(entry.getKey(), entry.getValue());
+            }
+        }
 
         savePlayerClaims(playerId);
         saveIndex();
+        commitClaimChange(event, "unclaimAll", playerId, null, 0, 0, count);
+    }
+
+    /**
+     * Sets (or with a null owner, clears) the owner of chunks in the packed owner table.
+     */
+    private synchronized void updateOwners(String world, List<int[]> chunks, UUID owner) {
+        OwnerTable owners = owner != null ? ownersByWorld.computeIfAbsent(world, k -> new OwnerTable()) : ownersByWorld.get(world);
+        if (owners == null) return;
+        owners.update(chunks, owner);
+    }
+
+    private static void commitClaimChange(HyTownEvents.ClaimChange event, String action, UUID playerId,
+                                          String world, int chunkX, int chunkZ, int chunks) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.owner = playerId.toString();
+            event.world = world;
+            event.chunkX = chunkX;
+            event.chunkZ = chunkZ;
+            event.chunks = chunks;
+            event.commit();
+        }
+    }
+
+    /**
+     * Register a listener for claim ownership changes.
+     */
+    public void addChangeListener(ClaimChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    private void notifyChunkChanged(String world, int chunkX, int chunkZ) {
+        if (changeListeners.isEmpty()) return;
+        List<int[]> chunks = Collections.singletonList(new int[] { chunkX, chunkZ });
+        for (ClaimChangeListener listener : changeListeners) {
+            listener.onChunksChanged(world, chunks);
+        }
+    }
+
+    /**
+     * Gets the names of all worlds that have at least one claim.
+     */
+    public Set<String> getClaimedWorlds() {
+        return new HashSet<>(claimIndex.keySet());
+    }
+
+    /**
+     * Gets the claim index version. Changes whenever a claim is added or removed,
+     * so callers can tell when cached ownership lookups are stale.
+     */
+    public long getVersion() {
+        return version.get();
     }
 
     /**
      * Gets the owner of a chunk, or null if unclaimed.
      */
     public UUID getClaimOwner(String world, int chunkX, int chunkZ) {
-        Map<String, UUID> worldClaims = claimIndex.get(world);
-        if (worldClaims == null) return null;
+        INDEX_LOOKUPS.increment();
+        OwnerTable owners = ownersByWorld.get(world);
+        if (owners == null) return null;
 
-        String chunkKey = ChunkUtil.chunkKey(chunkX, chunkZ);
-        return worldClaims.get(chunkKey);
+        return owners.get(ChunkUtil.packChunk(chunkX, chunkZ));
     }
 
     /**
@@ -368,8 +499,8 @@ public class ClaimStorage {
      */
     public UUID findNearbyClaimByOtherPlayer(String world, int centerChunkX, int centerChunkZ,
                                               int radius, UUID excludePlayerId) {
-        Map<String, UUID> worldClaims = claimIndex.get(world);
-        if (worldClaims == null || radius <= 0) {
+        OwnerTable owners = ownersByWorld.get(world);
+        if (owners == null || radius <= 0) {
             return null;
         }
 
@@ -377,8 +508,7 @@ public class ClaimStorage {
             for (int dz = -radius; dz <= radius; dz++) {
                 int checkX = centerChunkX + dx;
                 int checkZ = centerChunkZ + dz;
-                String key = ChunkUtil.chunkKey(checkX, checkZ);
-                UUID owner = worldClaims.get(key);
+                UUID owner = owners.get(ChunkUtil.packChunk(checkX, checkZ));
 
                 if (owner != null && !owner.equals(excludePlayerId)) {
                     return owner;  // Found a claim by another player
@@ -396,6 +526,62 @@ public class ClaimStorage {
         saveNames();
     }
 
+    /**
+     * One world's packed owner table (packChunk -> ownerUUID), split into shards by key hash.
+     * A write copies the shard and publishes the copy, so concurrent readers never see a table
+     * being resized, and a claim copies about 1/256th of the world's claims instead of all of them.
+     */
+    private static final class OwnerTable {
+        private static final int SHARD_BITS = 8;
+
+        private final AtomicReferenceArray<Long2ObjectOpenHashMap<UUID>> shards = new AtomicReferenceArray<>(1 << SHARD_BITS);
+
+        UUID get(long key) {
+            Long2ObjectOpenHashMap<UUID> shard = shards.get(shardOf(key));
+            return shard != null ? shard.get(key) : null;
+        }
+
+        /**
+         * Adds an entry in place, only while loading (before the table is shared).
+         */
+        void load(long key, UUID owner) {
+            int index = shardOf(key);
+            Long2ObjectOpenHashMap<UUID> shard = shards.get(index);
+            if (shard == null) {
+                shard = new Long2ObjectOpenHashMap<>();
+                shards.set(index, shard);
+            }
+            shard.put(key, owner);
+        }
+
+        /**
+         * Copies each shard the chunks fall in once, applies the change and publishes the copies.
+         * Callers serialise writes.
+         */
+        void update(List<int[]> chunks, UUID owner) {
+            Map<Integer, Long2ObjectOpenHashMap<UUID>> copies = new HashMap<>();
+            for (int[] chunk : chunks) {
+                long key = ChunkUtil.packChunk(chunk[0], chunk[1]);
+                Long2ObjectOpenHashMap<UUID> copy = copies.computeIfAbsent(shardOf(key), index -> {
+                    Long2ObjectOpenHashMap<UUID> current = shards.get(index);
+                    return current != null ? new Long2ObjectOpenHashMap<>(current) : new Long2ObjectOpenHashMap<>();
+                });
+                if (owner != null) {
+                    copy.put(key, owner);
+                } else {
+                    copy.remove(key);
+                }
+            }
+            for (Map.Entry<Integer, Long2ObjectOpenHashMap<UUID>> entry : copies.entrySet()) {
+                shards.set(entry.getKey(), entry.getValue());
+            }
+        }
+
+        private static int shardOf(long key) {
+            return (int) (HashCommon.mix(key) >>> (Long.SIZE - SHARD_BITS));
+        }
+    }
+
     // JSON data classes
     private static class PlayerClaimsJson {
         List<ClaimJson> claims;
@@ -2,6 +2,8 @@ package com.hytown.data;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.hytown.util.HyTownLog;
+import com.hytown.util.HyTownLog.Category;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -26,7 +28,7 @@ public class PlaytimeStorage {
         try {
             Files.createDirectories(playtimeDirectory);
         } catch (IOException e) {
-            e.printStackTrace();
+            HyTownLog.warning(Category.STORAGE, e, "[PlaytimeStorage] Could not create playtime directory");
         }
     }
 
@@ -46,7 +48,7 @@ public class PlaytimeStorage {
                     return new PlaytimeData(playerId, data.totalPlaytimeSeconds);
                 }
             } catch (IOException e) {
-                e.printStackTrace();
+                HyTownLog.warning(Category.STORAGE, e, "[PlaytimeStorage] Could not read %s", file);
             }
         }
 
@@ -65,7 +67,7 @@ public class PlaytimeStorage {
         try {
             Files.writeString(file, gson.toJson(json));
         } catch (IOException e) {
-            e.printStackTrace();
+            HyTownLog.warning(Category.STORAGE, e, "[PlaytimeStorage] Could not write %s", file);
         }
     }
 
@@ -3,6 +3,11 @@ package com.hytown.data;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
+import com.hytown.util.HyTownEvents;
+import com.hytown.util.HyTownLog;
+import com.hytown.util.HyTownLog.Category;
+import com.hytown.util.HyTownMetrics;
+import com.hytown.util.ReadyGate;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
@@ -12,6 +17,9 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +33,11 @@ import java.util.stream.Collectors;
  * - Thread-safe operations
  */
 public class TownStorage {
+    private static final HyTownMetrics.Timer TOWN_SAVE_TIME = HyTownMetrics.timer("storage.towns.saveTown");
+    private static final HyTownMetrics.Timer INDEX_SAVE_TIME = HyTownMetrics.timer("storage.towns.saveIndex");
+    private static final HyTownMetrics.Timer SAVE_ALL_TIME = HyTownMetrics.timer("storage.towns.saveAll");
+    private static final HyTownMetrics.Counter SAVED_BYTES = HyTownMetrics.counter("storage.towns.bytes");
+
     private final Path townsDirectory;
     private final Path indexFile;
     private final Path corruptedDirectory;
@@ -35,6 +48,9 @@ public class TownStorage {
     private final Map<String, String> claimToTown = new ConcurrentHashMap<>();         // claimKey -> townName
     private final Map<UUID, String> playerToTown = new ConcurrentHashMap<>();          // playerId -> townName
     private final Map<UUID, Set<String>> pendingInvites = new ConcurrentHashMap<>();   // playerId -> Set<townNames>
+    private final AtomicLong claimVersion = new AtomicLong();                          // bumped on any claim/town index change
+    private final Map<String, IndexedTown> indexedTowns = new ConcurrentHashMap<>();   // townName (lowercase) -> what was indexed
+    private final List<ClaimChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
     // Invite cooldown tracking: "playerId:townName" -> expiry timestamp (1 hour after deny)
     private final Map<String, Long> inviteCooldowns = new ConcurrentHashMap<>();
@@ -46,7 +62,20 @@ public class TownStorage {
     // Track if there are unsaved changes
     private volatile boolean dirty = false;
 
+    // Open once the invite index and backup recovery of the last load are done
+    private volatile ReadyGate invitesLoaded = ReadyGate.open();
+    private volatile ReadyGate backupsRecovered = ReadyGate.open();
+
     public TownStorage(Path dataDirectory) {
+        this(dataDirectory, Runnable::run);
+    }
+
+    /**
+     * @param background loads the invite index and recovers towns from .bak files after the
+     *                   town files are in; invite methods wait for the first, and the plugin
+     *                   waits for the second before players join (see awaitBackupRecovery)
+     */
+    public TownStorage(Path dataDirectory, Executor background) {
         this.townsDirectory = dataDirectory.resolve("towns");
         this.indexFile = townsDirectory.resolve("_index.json");
         this.corruptedDirectory = townsDirectory.resolve("corrupted");
@@ -59,13 +88,13 @@ public class TownStorage {
             Files.createDirectories(townsDirectory);
             Files.createDirectories(corruptedDirectory);
         } catch (IOException e) {
-            e.printStackTrace();
+            HyTownLog.warning(Category.STORAGE, e, "[TownStorage] Could not create towns directory");
         }
 
-        loadAll();
+        load(background);
 
         // Log loaded towns
-        System.out.println("[TownStorage] Loaded " + townsByName.size() + " towns");
+        HyTownLog.info(Category.STORAGE, "[TownStorage] Loaded %d towns", townsByName.size());
     }
 
     // ==================== LOADING ====================
@@ -75,9 +104,17 @@ public class TownStorage {
      * Also tries to recover from .bak files if main files are corrupted.
      */
     public void loadAll() {
+        load(Runnable::run);
+    }
+
+    private void load(Executor background) {
+        HyTownEvents.TownLoad event = new HyTownEvents.TownLoad();
+        event.begin();
         townsByName.clear();
         claimToTown.clear();
         playerToTown.clear();
+        indexedTowns.clear();
+        claimVersion.incrementAndGet();
 
         // Clean up any leftover temp files from crashed saves
         cleanupTempFiles();
@@ -89,14 +126,39 @@ public class TownStorage {
                     .filter(p -> !p.getFileName().toString().endsWith(".bak"))
                     .forEach(this::loadTownFile);
         } catch (IOException e) {
-            e.printStackTrace();
+            HyTownLog.warning(Category.STORAGE, e, "[TownStorage] Could not list town files");
+        }
+
+        for (ClaimChangeListener listener : changeListeners) {
+            listener.onAllChanged();
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.towns = townsByName.size();
+            event.claims = claimToTown.size();
+            event.commit();
         }
 
         // Load pending invites from index
-        loadIndex();
+        invitesLoaded = ReadyGate.start("town invites", background, this::loadIndex);
 
         // Try to recover any towns from backup files that weren't loaded
-        recoverFromBackups();
+        backupsRecovered = ReadyGate.start("town backups", background, () -> {
+            if (recoverFromBackups() > 0) {
+                for (ClaimChangeListener listener : changeListeners) {
+                    listener.onAllChanged();
+                }
+            }
+        });
+    }
+
+    /**
+     * Wait until towns missing their main file have been recovered from .bak files, so their
+     * claims are protected. Returns at once when there was nothing to recover.
+     */
+    public void awaitBackupRecovery() {
+        backupsRecovered.await();
     }
 
     /**
@@ -108,9 +170,9 @@ public class TownStorage {
                     .forEach(p -> {
                         try {
                             Files.deleteIfExists(p);
-                            System.out.println("[TownStorage] Cleaned up temp file: " + p.getFileName());
+                            HyTownLog.info(Category.STORAGE, "[TownStorage] Cleaned up temp file: %s", p.getFileName());
                         } catch (IOException e) {
-                            System.err.println("[TownStorage] Could not clean up temp file: " + p);
+                            HyTownLog.warning(Category.STORAGE, "[TownStorage] Could not clean up temp file: %s", p);
                         }
                     });
         } catch (IOException e) {
@@ -120,15 +182,17 @@ public class TownStorage {
 
     /**
      * Try to recover towns from .bak files if main files failed to load.
+     * @return the number of towns recovered
      */
-    private void recoverFromBackups() {
+    private int recoverFromBackups() {
+        int[] recovered = {0};
         try (var stream = Files.list(townsDirectory)) {
             stream.filter(p -> p.toString().endsWith(".bak"))
                     .forEach(backupFile -> {
                         String townName = backupFile.getFileName().toString().replace(".json.bak", "");
                         // Only try to recover if we don't already have this town loaded
                         if (!townsByName.containsKey(townName.toLowerCase())) {
-                            System.out.println("[TownStorage] Attempting to recover " + townName + " from backup...");
+                            HyTownLog.info(Category.STORAGE, "[TownStorage] Attempting to recover %s from backup...", townName);
                             try {
                                 String json = Files.readString(backupFile);
                                 Town town = gson.fromJson(json, Town.class);
@@ -138,16 +202,18 @@ public class TownStorage {
                                     // Restore the backup as the main file
                                     Path mainFile = townsDirectory.resolve(sanitize(town.getName()) + ".json");
                                     Files.copy(backupFile, mainFile, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                                    System.out.println("[TownStorage] RECOVERED town from backup: " + town.getName());
+                                    HyTownLog.warning(Category.STORAGE, "[TownStorage] RECOVERED town from backup: %s", town.getName());
+                                    recovered[0]++;
                                 }
                             } catch (Exception e) {
-                                System.err.println("[TownStorage] Failed to recover " + townName + " from backup: " + e.getMessage());
+                                HyTownLog.warning(Category.STORAGE, "[TownStorage] Failed to recover %s from backup: %s", townName, e.getMessage());
                             }
                         }
                     });
         } catch (IOException e) {
             // Ignore
         }
+        return recovered[0];
     }
 
     private void loadTownFile(Path file) {
@@ -156,7 +222,7 @@ public class TownStorage {
 
             // Validate JSON is not empty or truncated
             if (json == null || json.trim().isEmpty()) {
-                System.err.println("[TownStorage] Empty file detected: " + file);
+                HyTownLog.warning(Category.STORAGE, "[TownStorage] Empty file detected: %s", file);
                 moveToCorrupted(file, "empty");
                 return;
             }
@@ -166,18 +232,17 @@ public class TownStorage {
                 // Validate and fix any data inconsistencies
                 town.validateAfterLoad();
                 cacheTown(town);
-                System.out.println("[TownStorage] Loaded town: " + town.getName() +
-                        " (residents=" + town.getResidentCount() + ", claims=" + town.getClaimCount() + ")");
+                HyTownLog.fine(Category.STORAGE, "[TownStorage] Loaded town: %s (residents=%d, claims=%d)",
+                        town.getName(), town.getResidentCount(), town.getClaimCount());
             } else {
-                System.err.println("[TownStorage] Invalid town data in file: " + file);
+                HyTownLog.warning(Category.STORAGE, "[TownStorage] Invalid town data in file: %s", file);
                 moveToCorrupted(file, "invalid_data");
             }
         } catch (com.google.gson.JsonSyntaxException e) {
-            System.err.println("[TownStorage] Corrupted JSON in " + file + ": " + e.getMessage());
+            HyTownLog.warning(Category.STORAGE, "[TownStorage] Corrupted JSON in %s: %s", file, e.getMessage());
             moveToCorrupted(file, "json_syntax_error");
         } catch (Exception e) {
-            System.err.println("[TownStorage] Failed to load town from " + file + ": " + e.getMessage());
-            e.printStackTrace();
+            HyTownLog.warning(Category.STORAGE, e, "[TownStorage] Failed to load town from %s", file);
         }
     }
 
@@ -192,9 +257,9 @@ public class TownStorage {
                     "_" + reason + "_" + timestamp + ".json";
             Path dest = corruptedDirectory.resolve(newName);
             Files.move(file, dest, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-            System.err.println("[TownStorage] Moved corrupted file to: " + dest);
+            HyTownLog.warning(Category.STORAGE, "[TownStorage] Moved corrupted file to: %s", dest);
         } catch (IOException e) {
-            System.err.println("[TownStorage] Failed to move corrupted file: " + e.getMessage());
+            HyTownLog.warning(Category.STORAGE, "[TownStorage] Failed to move corrupted file: %s", e.getMessage());
         }
     }
 
@@ -213,7 +278,7 @@ public class TownStorage {
                     }
                 }
             } catch (IOException e) {
-                e.printStackTrace();
+                HyTownLog.warning(Category.STORAGE, e, "[TownStorage] Could not load invites");
             }
         }
     }
@@ -221,6 +286,8 @@ public class TownStorage {
     private void cacheTown(Town town) {
         String nameLower = town.getName().toLowerCase();
         townsByName.put(nameLower, town);
+        indexedTowns.put(nameLower, IndexedTown.of(town));
+        claimVersion.incrementAndGet();
 
         // Index all claims
         for (String claimKey : town.getClaimKeys()) {
@@ -240,6 +307,9 @@ public class TownStorage {
      * Uses temp file + rename to prevent corruption on crash.
      */
     public void saveTown(Town town) {
+        long start = System.nanoTime();
+        HyTownEvents.TownSave event = new HyTownEvents.TownSave();
+        event.begin();
         synchronized (writeLock) {
             Path file = townsDirectory.resolve(sanitize(town.getName()) + ".json");
             Path tempFile = townsDirectory.resolve(sanitize(town.getName()) + ".json.tmp");
@@ -250,7 +320,7 @@ public class TownStorage {
 
                 // Validate serialization worked (sanity check)
                 if (json == null || json.trim().isEmpty()) {
-                    System.err.println("[TownStorage] ERROR: Empty JSON generated for town: " + town.getName());
+                    HyTownLog.severe(Category.STORAGE, "[TownStorage] ERROR: Empty JSON generated for town: %s", town.getName());
                     return;
                 }
 
@@ -260,7 +330,7 @@ public class TownStorage {
                 // Verify temp file was written correctly
                 String verification = Files.readString(tempFile);
                 if (!json.equals(verification)) {
-                    System.err.println("[TownStorage] ERROR: Verification failed for town: " + town.getName());
+                    HyTownLog.severe(Category.STORAGE, "[TownStorage] ERROR: Verification failed for town: %s", town.getName());
                     Files.deleteIfExists(tempFile);
                     return;
                 }
@@ -272,7 +342,7 @@ public class TownStorage {
                         Files.copy(file, backupFile, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
                     } catch (IOException e) {
                         // Backup failure is not critical, continue with save
-                        System.err.println("[TownStorage] Warning: Could not create backup for " + town.getName());
+                        HyTownLog.warning(Category.STORAGE, "[TownStorage] Could not create backup for %s", town.getName());
                     }
                 }
 
@@ -281,6 +351,9 @@ public class TownStorage {
                         java.nio.file.StandardCopyOption.ATOMIC_MOVE);
 
                 dirty = false;
+                SAVED_BYTES.add(json.length());
+                event.bytes = json.length();
+                event.succeeded = true;
 
             } catch (java.nio.file.AtomicMoveNotSupportedException e) {
                 // Fallback for filesystems that don't support atomic move
@@ -288,29 +361,84 @@ public class TownStorage {
                     String json = gson.toJson(town);
                     Files.writeString(file, json);
                     Files.deleteIfExists(tempFile);
+                    SAVED_BYTES.add(json.length());
+                    event.bytes = json.length();
+                    event.succeeded = true;
                 } catch (IOException ex) {
-                    System.err.println("[TownStorage] ERROR saving town " + town.getName() + ": " + ex.getMessage());
-                    ex.printStackTrace();
+                    HyTownLog.severe(Category.STORAGE, ex, "[TownStorage] ERROR saving town %s", town.getName());
                 }
             } catch (IOException e) {
-                System.err.println("[TownStorage] ERROR saving town " + town.getName() + ": " + e.getMessage());
-                e.printStackTrace();
+                HyTownLog.severe(Category.STORAGE, e, "[TownStorage] ERROR saving town %s", town.getName());
                 // Try to clean up temp file
                 try {
                     Files.deleteIfExists(tempFile);
                 } catch (IOException ignored) {}
             }
         }
+        TOWN_SAVE_TIME.recordSince(start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.town = town.getName();
+            event.commit();
+        }
 
-        // Re-cache to update indexes (outside the lock to avoid deadlock)
-        uncacheTown(town.getName());
-        cacheTown(town);
+        // Update indexes (outside the lock to avoid deadlock)
+        reindexTown(town);
+    }
+
+    /**
+     * Brings the indexes up to date with a saved town and notifies listeners of the chunks whose
+     * claims or settings changed. Does nothing if nothing indexed changed, which is the case for
+     * most towns on an auto-save.
+     */
+    private void reindexTown(Town town) {
+        String nameLower = town.getName().toLowerCase();
+        IndexedTown now = IndexedTown.of(town);
+        IndexedTown before = indexedTowns.get(nameLower);
+        if (now.equals(before)) return;
+
+        if (before == null) {
+            cacheTown(town);
+            notifyClaimKeysChanged(now.chunkFlags().keySet());
+            return;
+        }
+
+        townsByName.put(nameLower, town);
+        Set<String> changed = new HashSet<>();
+        for (Map.Entry<String, Integer> entry : before.chunkFlags().entrySet()) {
+            Integer flags = now.chunkFlags().get(entry.getKey());
+            if (flags == null) {
+                claimToTown.remove(entry.getKey(), before.name());
+                changed.add(entry.getKey());
+            } else if (!flags.equals(entry.getValue())) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String claimKey : now.chunkFlags().keySet()) {
+            if (!before.chunkFlags().containsKey(claimKey) || !now.name().equals(before.name())) {
+                claimToTown.put(claimKey, town.getName());
+                changed.add(claimKey);
+            }
+        }
+        for (UUID residentId : before.residents()) {
+            if (!now.residents().contains(residentId)) {
+                playerToTown.remove(residentId, before.name());
+            }
+        }
+        for (UUID residentId : now.residents()) {
+            playerToTown.put(residentId, town.getName());
+        }
+        indexedTowns.put(nameLower, now);
+        claimVersion.incrementAndGet();
+        notifyClaimKeysChanged(changed);
     }
 
     /**
      * Save the index file (invites, etc.) using atomic write.
      */
     public void saveIndex() {
+        invitesLoaded.await(); // Don't overwrite invites that haven't been read yet
+        long start = System.nanoTime();
         synchronized (writeLock) {
             Path tempFile = townsDirectory.resolve("_index.json.tmp");
             Map<String, Set<String>> toSave = new HashMap<>();
@@ -321,21 +449,23 @@ public class TownStorage {
                 String json = gson.toJson(toSave);
                 Files.writeString(tempFile, json);
                 Files.move(tempFile, indexFile, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+                SAVED_BYTES.add(json.length());
             } catch (IOException e) {
-                System.err.println("[TownStorage] ERROR saving index: " + e.getMessage());
-                e.printStackTrace();
+                HyTownLog.severe(Category.STORAGE, e, "[TownStorage] ERROR saving index: %s", e.getMessage());
                 try {
                     Files.deleteIfExists(tempFile);
                 } catch (IOException ignored) {}
             }
         }
+        INDEX_SAVE_TIME.recordSince(start);
     }
 
     /**
      * Save all towns to disk.
      */
     public void saveAll() {
-        System.out.println("[TownStorage] Saving all " + townsByName.size() + " towns...");
+        long start = System.nanoTime();
+        HyTownLog.info(Category.STORAGE, "[TownStorage] Saving all %d towns...", townsByName.size());
         int saved = 0;
         int errors = 0;
         for (Town town : townsByName.values()) {
@@ -344,15 +474,16 @@ public class TownStorage {
                 saved++;
             } catch (Exception e) {
                 errors++;
-                System.err.println("[TownStorage] ERROR saving " + town.getName() + ": " + e.getMessage());
+                HyTownLog.severe(Category.STORAGE, "[TownStorage] ERROR saving %s: %s", town.getName(), e.getMessage());
             }
         }
         saveIndex();
         if (errors > 0) {
-            System.err.println("[TownStorage] Saved " + saved + " towns with " + errors + " errors!");
+            HyTownLog.severe(Category.STORAGE, "[TownStorage] Saved %d towns with %d errors!", saved, errors);
         } else {
-            System.out.println("[TownStorage] Saved " + saved + " towns and index file successfully");
+            HyTownLog.info(Category.STORAGE, "[TownStorage] Saved %d towns and index file successfully", saved);
         }
+        SAVE_ALL_TIME.recordSince(start);
     }
 
     /**
@@ -360,9 +491,9 @@ public class TownStorage {
      * Warning: This will discard any unsaved in-memory changes!
      */
     public void reload() {
-        System.out.println("[TownStorage] Reloading all towns from disk...");
+        HyTownLog.info(Category.STORAGE, "[TownStorage] Reloading all towns from disk...");
         loadAll();
-        System.out.println("[TownStorage] Reload complete. Loaded " + townsByName.size() + " towns.");
+        HyTownLog.info(Category.STORAGE, "[TownStorage] Reload complete. Loaded %d towns.", townsByName.size());
     }
 
     /**
@@ -398,19 +529,22 @@ public class TownStorage {
 
         // Remove from caches
         uncacheTown(townName);
+        notifyClaimKeysChanged(town.getClaimKeys());
 
         // Delete file
         Path file = townsDirectory.resolve(sanitize(townName) + ".json");
         try {
             Files.deleteIfExists(file);
         } catch (IOException e) {
-            e.printStackTrace();
+            HyTownLog.warning(Category.STORAGE, e, "[TownStorage] Could not delete town file %s", file);
         }
     }
 
     private void uncacheTown(String townName) {
         String nameLower = townName.toLowerCase();
         Town town = townsByName.remove(nameLower);
+        indexedTowns.remove(nameLower);
+        claimVersion.incrementAndGet();
         if (town != null) {
             // Remove claim indexes
             for (String claimKey : town.getClaimKeys()) {
@@ -433,6 +567,14 @@ public class TownStorage {
         return townsByName.get(name.toLowerCase());
     }
 
+    /**
+     * Version of the town/claim mapping. Bumped whenever a town is (re)cached or removed
+     * or a claim is (un)indexed, so callers can tell when cached lookups are stale.
+     */
+    public long getClaimVersion() {
+        return claimVersion.get();
+    }
+
     /**
      * Get the town that owns a specific claim.
      */
@@ -476,6 +618,7 @@ public class TownStorage {
      * Add an invite for a player to a town.
      */
     public void addInvite(UUID playerId, String townName) {
+        invitesLoaded.await();
         pendingInvites.computeIfAbsent(playerId, k -> new HashSet<>()).add(townName);
         saveIndex();
     }
@@ -484,6 +627,7 @@ public class TownStorage {
      * Remove an invite.
      */
     public void removeInvite(UUID playerId, String townName) {
+        invitesLoaded.await();
         Set<String> invites = pendingInvites.get(playerId);
         if (invites != null) {
             invites.remove(townName);
@@ -498,6 +642,7 @@ public class TownStorage {
      * Check if a player has an invite to a town.
      */
     public boolean hasInvite(UUID playerId, String townName) {
+        invitesLoaded.await();
         Set<String> invites = pendingInvites.get(playerId);
         return invites != null && invites.contains(townName);
     }
@@ -506,6 +651,7 @@ public class TownStorage {
      * Get all pending invites for a player.
      */
     public Set<String> getInvites(UUID playerId) {
+        invitesLoaded.await();
         Set<String> invites = pendingInvites.get(playerId);
         return invites != null ? new HashSet<>(invites) : new HashSet<>();
     }
@@ -514,6 +660,7 @@ public class TownStorage {
      * Clear all invites for a player.
      */
     public void clearInvites(UUID playerId) {
+        invitesLoaded.await();
         pendingInvites.remove(playerId);
         saveIndex();
     }
@@ -578,18 +725,66 @@ public class TownStorage {
 
     // ==================== UTILITY ====================
 
+    /**
+     * Register a listener for town claim and settings changes.
+     */
+    public void addChangeListener(ClaimChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Notify listeners that the given claim keys ("world:chunkX,chunkZ") changed.
+     */
+    private void notifyClaimKeysChanged(Collection<String> claimKeys) {
+        if (changeListeners.isEmpty() || claimKeys.isEmpty()) return;
+
+        Map<String, List<int[]>> byWorld = new HashMap<>();
+        for (String claimKey : claimKeys) {
+            String world = Town.parseClaimWorld(claimKey);
+            int[] coords = Town.parseClaimCoords(claimKey);
+            if (world == null || coords == null) continue;
+            byWorld.computeIfAbsent(world, k -> new ArrayList<>()).add(coords);
+        }
+        for (Map.Entry<String, List<int[]>> entry : byWorld.entrySet()) {
+            for (ClaimChangeListener listener : changeListeners) {
+                listener.onChunksChanged(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
     /**
      * Update indexes when a claim is added to a town.
      */
     public void indexClaim(String claimKey, String townName) {
+        HyTownEvents.ClaimChange event = new HyTownEvents.ClaimChange();
+        event.begin();
         claimToTown.put(claimKey, townName);
+        claimVersion.incrementAndGet();
+        notifyClaimKeysChanged(Collections.singleton(claimKey));
+        commitClaimChange(event, "townClaim", claimKey, townName);
     }
 
     /**
      * Update indexes when a claim is removed from a town.
      */
     public void unindexClaim(String claimKey) {
-        claimToTown.remove(claimKey);
+        HyTownEvents.ClaimChange event = new HyTownEvents.ClaimChange();
+        event.begin();
+        String townName = claimToTown.remove(claimKey);
+        claimVersion.incrementAndGet();
+        notifyClaimKeysChanged(Collections.singleton(claimKey));
+        commitClaimChange(event, "townUnclaim", claimKey, townName);
+    }
+
+    private static void commitClaimChange(HyTownEvents.ClaimChange event, String action, String claimKey, String townName) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.setClaimKey(claimKey);
+            event.owner = townName;
+            event.chunks = 1;
+            event.commit();
+        }
     }
 
     /**
@@ -620,12 +815,14 @@ public class TownStorage {
      * Keeps the last 10 daily backups (rolling).
      */
     public void createBackup() {
+        HyTownEvents.BackupCreate event = new HyTownEvents.BackupCreate();
+        event.begin();
         Path backupDir = townsDirectory.resolve("backups");
+        String today = LocalDate.now().format(BACKUP_DATE_FORMAT);
         try {
             Files.createDirectories(backupDir);
 
             // Create today's backup folder
-            String today = LocalDate.now().format(BACKUP_DATE_FORMAT);
             Path todayBackup = backupDir.resolve(today);
             Files.createDirectories(todayBackup);
 
@@ -644,14 +841,21 @@ public class TownStorage {
                         java.nio.file.StandardCopyOption.REPLACE_EXISTING);
             }
 
-            System.out.println("[TownStorage] Created backup: " + today);
+            HyTownLog.info(Category.STORAGE, "[TownStorage] Created backup: %s", today);
 
             // Clean up old backups (keep last MAX_BACKUPS)
             cleanOldBackups(backupDir);
+            event.succeeded = true;
 
         } catch (IOException e) {
-            System.err.println("[TownStorage] Failed to create backup: " + e.getMessage());
-            e.printStackTrace();
+            HyTownLog.warning(Category.STORAGE, e, "[TownStorage] Failed to create backup: %s", e.getMessage());
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.backup = today;
+            event.towns = townsByName.size();
+            event.commit();
         }
     }
 
@@ -669,10 +873,10 @@ public class TownStorage {
             for (int i = MAX_BACKUPS; i < backups.size(); i++) {
                 Path oldBackup = backups.get(i);
                 deleteDirectory(oldBackup);
-                System.out.println("[TownStorage] Deleted old backup: " + oldBackup.getFileName());
+                HyTownLog.info(Category.STORAGE, "[TownStorage] Deleted old backup: %s", oldBackup.getFileName());
             }
         } catch (IOException e) {
-            System.err.println("[TownStorage] Failed to clean old backups: " + e.getMessage());
+            HyTownLog.warning(Category.STORAGE, "[TownStorage] Failed to clean old backups: %s", e.getMessage());
         }
     }
 
@@ -686,7 +890,7 @@ public class TownStorage {
                         try {
                             Files.delete(path);
                         } catch (IOException e) {
-                            System.err.println("Failed to delete: " + path);
+                            HyTownLog.warning(Category.STORAGE, "[TownStorage] Failed to delete: %s", path);
                         }
                     });
         }
@@ -719,7 +923,7 @@ public class TownStorage {
     public boolean restoreBackup(String dateStr) {
         Path backupDir = townsDirectory.resolve("backups").resolve(dateStr);
         if (!Files.exists(backupDir)) {
-            System.err.println("[TownStorage] Backup not found: " + dateStr);
+            HyTownLog.warning(Category.STORAGE, "[TownStorage] Backup not found: %s", dateStr);
             return false;
         }
 
@@ -732,19 +936,37 @@ public class TownStorage {
                                 Path dest = townsDirectory.resolve(source.getFileName());
                                 Files.copy(source, dest, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
                             } catch (IOException e) {
-                                System.err.println("Failed to restore: " + source.getFileName());
+                                HyTownLog.warning(Category.STORAGE, "[TownStorage] Failed to restore: %s", source.getFileName());
                             }
                         });
             }
 
             // Reload all data
             loadAll();
-            System.out.println("[TownStorage] Restored from backup: " + dateStr);
+            HyTownLog.info(Category.STORAGE, "[TownStorage] Restored from backup: %s", dateStr);
             return true;
 
         } catch (IOException e) {
-            System.err.println("[TownStorage] Failed to restore backup: " + e.getMessage());
+            HyTownLog.warning(Category.STORAGE, "[TownStorage] Failed to restore backup: %s", e.getMessage());
             return false;
         }
     }
+
+    /**
+     * What the indexes and change listeners last saw of a town: its name, residents and, per
+     * claim, the effective settings flags (fire spread, explosions, PvP, mob spawning).
+     */
+    private record IndexedTown(String name, Set<UUID> residents, Map<String, Integer> chunkFlags) {
+        static IndexedTown of(Town town) {
+            Map<String, Integer> chunkFlags = new HashMap<>();
+            for (String claimKey : town.getClaimKeys()) {
+                int flags = (town.isFireSpreadEnabledAt(claimKey) ? 1 : 0)
+                        | (town.isExplosionsEnabledAt(claimKey) ? 2 : 0)
+                        | (town.isPvpEnabledAt(claimKey) ? 4 : 0)
+                        | (town.isMobSpawningEnabledAt(claimKey) ? 8 : 0);
+                chunkFlags.put(claimKey, flags);
+            }
+            return new IndexedTown(town.getName(), town.getResidents(), chunkFlags);
+        }
+    }
 }
@@ -11,6 +11,8 @@ import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.protocol.InteractionType;
 import com.hytown.HyTown;
 import com.hytown.managers.ClaimManager;
+import com.hytown.systems.PvpProtectionSystem;
+import com.hytown.util.ChunkUtil;
 
 import java.util.Map;
 import java.util.UUID;
@@ -47,7 +49,7 @@ public class ClaimProtectionListener {
 
     /**
      * Handle player interactions - check claim protection.
-     * Primary interactions (attacks) are allowed in wilderness but blocked in towns with PVP off.
+     * Primary interactions (attacks) are blocked where PvpProtectionSystem would block the damage.
      */
     private void onPlayerInteract(PlayerInteractEvent event) {
         Player player = event.getPlayer();
@@ -60,30 +62,14 @@ public class ClaimProtectionListener {
         InteractionType actionType = event.getActionType();
         String worldName = player.getWorld().getName();
 
-        // For Primary interactions (attacks), only block if in a town/plot with PVP disabled
+        // For Primary interactions (attacks), block where PvP is off, using the same decision as
+        // PvpProtectionSystem. Player damage itself is enforced there; this only stops the swing early.
         if (actionType == InteractionType.Primary) {
-            // Check if this is in a claimed town
-            int chunkX = targetBlock.getX() >> 4;
-            int chunkZ = targetBlock.getZ() >> 4;
-            String claimKey = worldName + ":" + chunkX + "," + chunkZ;
-            var town = plugin.getTownStorage().getTownByClaimKey(claimKey);
-
-            if (town != null) {
-                // Check plot settings first, then fall back to town settings
-                var plotSettings = town.getPlotSettings(claimKey);
-                boolean pvpEnabled;
-                if (plotSettings != null) {
-                    pvpEnabled = plotSettings.getEffectivePvp(town.getSettings());
-                } else {
-                    pvpEnabled = town.getSettings().isPvpEnabled();
-                }
-
-                if (!pvpEnabled) {
-                    // PVP is disabled - block the attack
-                    event.setCancelled(true);
-                }
+            PvpProtectionSystem pvp = plugin.getPvpProtection();
+            if (pvp != null && !pvp.isPvpAllowed(worldName, ChunkUtil.toChunkX(targetBlock.getX()),
+                    ChunkUtil.toChunkZ(targetBlock.getZ()))) {
+                event.setCancelled(true);
             }
-            // In wilderness or town/plot with PVP on - allow the attack
             return;
         }
 
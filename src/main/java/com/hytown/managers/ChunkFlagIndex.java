@@ -0,0 +1,156 @@
+package com.hytown.managers;
+
+import com.hytown.data.ClaimChangeListener;
+import com.hytown.data.ClaimStorage;
+import com.hytown.data.Town;
+import com.hytown.data.TownStorage;
+import com.hytown.util.ChunkUtil;
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed per-chunk protection flags for every claimed chunk, per world.
+ *
+ * Hot paths (fire ticks, explosions, combat) need an answer per block or hit, which is too
+ * frequent for string claim keys and town/plot lookups. This index resolves each claimed
+ * chunk's effective settings once into a byte of flags and keeps it current through
+ * ClaimStorage/TownStorage change notifications. Reads are a single primitive hash lookup.
+ *
+ * Each world's table is an immutable snapshot swapped on write (copy-on-write): changes are
+ * rare (claims, settings toggles), reads are constant and lock-free.
+ */
+public class ChunkFlagIndex implements ClaimChangeListener {
+
+    public static final int CLAIMED = 1;
+    public static final int TOWN = 1 << 1;
+    public static final int FIRE_SPREAD = 1 << 2;
+    public static final int EXPLOSIONS = 1 << 3;
+    public static final int PVP = 1 << 4;
+    public static final int MOB_SPAWNING = 1 << 5;
+
+    // Unclaimed chunks: everything allowed
+    private static final byte WILDERNESS = (byte) (FIRE_SPREAD | EXPLOSIONS | PVP | MOB_SPAWNING);
+
+    // Personal claims have no settings: protected from fire and explosions, PvP as before (allowed)
+    private static final byte PERSONAL_CLAIM = (byte) (CLAIMED | PVP);
+
+    private final ClaimStorage claimStorage;
+    private final TownStorage townStorage;
+    private final Map<String, Long2ByteOpenHashMap> flagsByWorld = new ConcurrentHashMap<>();
+
+    public ChunkFlagIndex(ClaimStorage claimStorage, TownStorage townStorage) {
+        this.claimStorage = claimStorage;
+        this.townStorage = townStorage;
+    }
+
+    /**
+     * Get the flags for a chunk.
+     */
+    public int getFlags(String world, int chunkX, int chunkZ) {
+        Long2ByteOpenHashMap flags = flagsByWorld.get(world);
+        if (flags == null) {
+            return WILDERNESS;
+        }
+        return flags.get(ChunkUtil.packChunk(chunkX, chunkZ));
+    }
+
+    /**
+     * Get the flags for the chunk containing a block.
+     */
+    public int getFlagsAt(String world, int blockX, int blockZ) {
+        return getFlags(world, ChunkUtil.toChunkX(blockX), ChunkUtil.toChunkZ(blockZ));
+    }
+
+    /**
+     * Whether fire may spread or burn blocks at a block position.
+     */
+    public boolean isFireSpreadAllowed(String world, int blockX, int blockZ) {
+        return (getFlagsAt(world, blockX, blockZ) & FIRE_SPREAD) != 0;
+    }
+
+    /**
+     * Whether explosions may destroy blocks at a block position.
+     */
+    public boolean isExplosionAllowed(String world, int blockX, int blockZ) {
+        return (getFlagsAt(world, blockX, blockZ) & EXPLOSIONS) != 0;
+    }
+
+    @Override
+    public synchronized void onChunksChanged(String world, Collection<int[]> chunks) {
+        Long2ByteOpenHashMap current = flagsByWorld.get(world);
+        Long2ByteOpenHashMap updated = current != null ? new Long2ByteOpenHashMap(current) : newTable();
+        updated.defaultReturnValue(WILDERNESS);
+
+        for (int[] chunk : chunks) {
+            long key = ChunkUtil.packChunk(chunk[0], chunk[1]);
+            byte flags = computeFlags(world, chunk[0], chunk[1]);
+            if (flags == WILDERNESS) {
+                updated.remove(key);
+            } else {
+                updated.put(key, flags);
+            }
+        }
+        flagsByWorld.put(world, updated);
+    }
+
+    @Override
+    public void onAllChanged() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild every world's table from storage.
+     */
+    public synchronized void rebuild() {
+        Map<String, Long2ByteOpenHashMap> rebuilt = new ConcurrentHashMap<>();
+        for (String world : claimStorage.getClaimedWorlds()) {
+            Long2ByteOpenHashMap table = newTable();
+            for (String chunkKey : claimStorage.getClaimedChunksInWorld(world).keySet()) {
+                int[] coords = ChunkUtil.parseChunkKey(chunkKey);
+                if (coords == null) continue;
+                byte flags = computeFlags(world, coords[0], coords[1]);
+                if (flags != WILDERNESS) {
+                    table.put(ChunkUtil.packChunk(coords[0], coords[1]), flags);
+                }
+            }
+            rebuilt.put(world, table);
+        }
+
+        // Drop worlds that no longer have claims, publish the rest
+        flagsByWorld.keySet().retainAll(rebuilt.keySet());
+        flagsByWorld.putAll(rebuilt);
+    }
+
+    /**
+     * Resolve the effective flags of one chunk from claim, town and plot settings.
+     */
+    private byte computeFlags(String world, int chunkX, int chunkZ) {
+        UUID owner = claimStorage.getClaimOwner(world, chunkX, chunkZ);
+        if (owner == null) {
+            return WILDERNESS;
+        }
+
+        String claimKey = world + ":" + chunkX + "," + chunkZ;
+        Town town = townStorage != null ? townStorage.getTownByClaimKey(claimKey) : null;
+        if (town == null) {
+            return PERSONAL_CLAIM;
+        }
+
+        int flags = CLAIMED | TOWN;
+        if (town.isFireSpreadEnabledAt(claimKey)) flags |= FIRE_SPREAD;
+        if (town.isExplosionsEnabledAt(claimKey)) flags |= EXPLOSIONS;
+        if (town.isPvpEnabledAt(claimKey)) flags |= PVP;
+        if (town.isMobSpawningEnabledAt(claimKey)) flags |= MOB_SPAWNING;
+        return (byte) flags;
+    }
+
+    private static Long2ByteOpenHashMap newTable() {
+        Long2ByteOpenHashMap table = new Long2ByteOpenHashMap();
+        table.defaultReturnValue(WILDERNESS);
+        return table;
+    }
+}
@@ -0,0 +1,90 @@
+package com.hytown.managers;
+
+import com.hytown.data.PlayerClaims;
+import com.hytown.data.Town;
+import com.hytown.data.TrustLevel;
+
+import java.util.UUID;
+
+/**
+ * Resolved claim state for one chunk: owner, owner's trust list and town (if any).
+ * Produced by ClaimResolver and shared by the protection systems so a block event
+ * resolves ownership once instead of once per system.
+ */
+public final class ClaimContext {
+
+    final String world;
+    final int chunkX;
+    final int chunkZ;
+    final long claimVersion;
+    final long townVersion;
+
+    private final UUID owner;
+    private final PlayerClaims ownerClaims;
+    private final Town town;
+    private final String claimKey;
+
+    ClaimContext(String world, int chunkX, int chunkZ, long claimVersion, long townVersion,
+                 UUID owner, PlayerClaims ownerClaims, Town town, String claimKey) {
+        this.world = world;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.claimVersion = claimVersion;
+        this.townVersion = townVersion;
+        this.owner = owner;
+        this.ownerClaims = ownerClaims;
+        this.town = town;
+        this.claimKey = claimKey;
+    }
+
+    public String getWorld() {
+        return world;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    /**
+     * Claim owner (the mayor for town claims), or null for wilderness.
+     */
+    public UUID getOwner() {
+        return owner;
+    }
+
+    public boolean isWilderness() {
+        return owner == null;
+    }
+
+    /**
+     * The town owning this chunk, or null if wilderness or a personal claim.
+     */
+    public Town getTown() {
+        return town;
+    }
+
+    /**
+     * Town claim key ("world:chunkX,chunkZ"), or null for wilderness.
+     */
+    public String getClaimKey() {
+        return claimKey;
+    }
+
+    /**
+     * Checks if a player has at least the specified trust level in this chunk.
+     * Same rules as ClaimManager.hasPermissionAt: unclaimed, owner, or sufficiently trusted.
+     */
+    public boolean hasPermission(UUID playerId, TrustLevel required) {
+        if (owner == null) {
+            return true; // Unclaimed
+        }
+        if (owner.equals(playerId)) {
+            return true; // Owner
+        }
+        return ownerClaims != null && ownerClaims.hasPermission(playerId, required);
+    }
+}
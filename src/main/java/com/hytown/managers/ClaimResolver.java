@@ -0,0 +1,98 @@
+package com.hytown.managers;
+
+import com.hytown.data.ClaimStorage;
+import com.hytown.data.PlayerClaims;
+import com.hytown.data.Town;
+import com.hytown.data.TownStorage;
+import com.hytown.util.ChunkUtil;
+import com.hytown.util.HyTownMetrics;
+
+import java.util.UUID;
+
+/**
+ * Resolves the ClaimContext for a block position, memoising results per thread.
+ *
+ * Damage, harvest and break systems all run for the same target block in quick succession
+ * on the world thread. The first one to ask resolves the chunk and publishes the context;
+ * the others reuse it. Entries are validated against the claim/town index versions, so
+ * any claim, unclaim or town change is picked up on the next lookup.
+ *
+ * Claim state is per chunk, so the memo is keyed by (world, chunkX, chunkZ) rather than by
+ * block - every block in the chunk shares one entry.
+ */
+public class ClaimResolver {
+
+    // Direct-mapped memo size per thread (power of two)
+    private static final int MEMO_SIZE = 64;
+
+    private static final HyTownMetrics.Counter HITS = HyTownMetrics.counter("claims.resolve.hits");
+    private static final HyTownMetrics.Counter MISSES = HyTownMetrics.counter("claims.resolve.misses");
+
+    static {
+        HyTownMetrics.gauge("claims.resolve.hitRate", () -> {
+            long hits = HITS.get();
+            long total = hits + MISSES.get();
+            return total == 0 ? 0 : (double) hits / total;
+        });
+    }
+
+    private final ClaimStorage claimStorage;
+    private final TownStorage townStorage;
+
+    private final ThreadLocal<ClaimContext[]> memo = ThreadLocal.withInitial(() -> new ClaimContext[MEMO_SIZE]);
+
+    public ClaimResolver(ClaimStorage claimStorage, TownStorage townStorage) {
+        this.claimStorage = claimStorage;
+        this.townStorage = townStorage;
+    }
+
+    /**
+     * Resolve the claim context at a world position.
+     */
+    public ClaimContext resolve(String world, double x, double z) {
+        return resolveChunk(world, ChunkUtil.toChunkX(x), ChunkUtil.toChunkZ(z));
+    }
+
+    /**
+     * Resolve the claim context for a chunk.
+     */
+    public ClaimContext resolveChunk(String world, int chunkX, int chunkZ) {
+        long claimVersion = claimStorage.getVersion();
+        long townVersion = townStorage != null ? townStorage.getClaimVersion() : 0;
+
+        ClaimContext[] slots = memo.get();
+        int slot = slotFor(chunkX, chunkZ);
+        ClaimContext cached = slots[slot];
+        if (cached != null
+                && cached.chunkX == chunkX
+                && cached.chunkZ == chunkZ
+                && cached.claimVersion == claimVersion
+                && cached.townVersion == townVersion
+                && cached.world.equals(world)) {
+            HITS.increment();
+            return cached;
+        }
+
+        MISSES.increment();
+        ClaimContext resolved = load(world, chunkX, chunkZ, claimVersion, townVersion);
+        slots[slot] = resolved;
+        return resolved;
+    }
+
+    private ClaimContext load(String world, int chunkX, int chunkZ, long claimVersion, long townVersion) {
+        UUID owner = claimStorage.getClaimOwner(world, chunkX, chunkZ);
+        if (owner == null) {
+            return new ClaimContext(world, chunkX, chunkZ, claimVersion, townVersion, null, null, null, null);
+        }
+
+        String claimKey = world + ":" + chunkX + "," + chunkZ;
+        PlayerClaims ownerClaims = claimStorage.getPlayerClaims(owner);
+        Town town = townStorage != null ? townStorage.getTownByClaimKey(claimKey) : null;
+        return new ClaimContext(world, chunkX, chunkZ, claimVersion, townVersion, owner, ownerClaims, town, claimKey);
+    }
+
+    private static int slotFor(int chunkX, int chunkZ) {
+        int h = chunkX * 0x9E3779B1 + chunkZ;
+        return (h ^ (h >>> 16)) & (MEMO_SIZE - 1);
+    }
+}
@@ -0,0 +1,26 @@
+package com.hytown.managers;
+
+/**
+ * Decides whether explosions may destroy blocks, per chunk.
+ *
+ * Town claims follow Town.isExplosionsEnabledAt (plot override, then town setting).
+ * Personal claims are always protected - they have no explosion setting.
+ * Wilderness is never protected.
+ * Decisions come from the precomputed ChunkFlagIndex, so each block of a blast costs one
+ * primitive lookup rather than a claim resolution.
+ */
+public class ExplosionProtectionManager {
+
+    private final ChunkFlagIndex chunkFlags;
+
+    public ExplosionProtectionManager(ChunkFlagIndex chunkFlags) {
+        this.chunkFlags = chunkFlags;
+    }
+
+    /**
+     * Whether explosions are blocked in the chunk containing a block position.
+     */
+    public boolean isProtected(String world, int blockX, int blockZ) {
+        return !chunkFlags.isExplosionAllowed(world, blockX, blockZ);
+    }
+}
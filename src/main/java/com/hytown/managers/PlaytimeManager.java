@@ -3,11 +3,10 @@ package com.hytown.managers;
 import com.hytown.config.PluginConfig;
 import com.hytown.data.PlaytimeData;
 import com.hytown.data.PlaytimeStorage;
+import com.hytown.util.HyTownScheduler;
 
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -16,16 +15,14 @@ import java.util.concurrent.TimeUnit;
 public class PlaytimeManager {
     private final PlaytimeStorage storage;
     private final PluginConfig config;
-    private final ScheduledExecutorService scheduler;
 
-    public PlaytimeManager(PlaytimeStorage storage, PluginConfig config) {
+    public PlaytimeManager(PlaytimeStorage storage, PluginConfig config, HyTownScheduler scheduler) {
         this.storage = storage;
         this.config = config;
-        this.scheduler = Executors.newScheduledThreadPool(1);
 
-        // Schedule periodic updates
+        // Schedule periodic updates (saves, so on the blocking executor)
         int interval = config.getPlaytimeUpdateIntervalSeconds();
-        scheduler.scheduleAtFixedRate(this::updateAllSessions, interval, interval, TimeUnit.SECONDS);
+        scheduler.repeat("playtime.save", interval, TimeUnit.SECONDS, true, this::updateAllSessions);
     }
 
     /**
@@ -74,18 +71,10 @@ public class PlaytimeManager {
     }
 
     /**
-     * Shuts down the playtime manager.
+     * Shuts down the playtime manager. Call after the scheduler has stopped,
+     * so a periodic save can't run alongside the final one.
      */
     public void shutdown() {
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-        }
-
         // End all sessions and save
         Map<UUID, PlaytimeData> cache = storage.getCache();
         for (Map.Entry<UUID, PlaytimeData> entry : cache.entrySet()) {
@@ -0,0 +1,162 @@
+package com.hytown.managers;
+
+import com.hytown.config.BlockGroups;
+import com.hytown.config.PluginConfig;
+import com.hytown.data.Town;
+import com.hytown.data.TrustLevel;
+
+import java.util.UUID;
+
+/**
+ * The allow/deny rules of the block protection systems, without any ECS or server types.
+ *
+ * The systems pull the player, target block and item out of the event, ask for a Decision and
+ * turn denials into cancelled events and messages. Keeping the rules here lets them be driven
+ * headless (see the simulator in benchmarks/). Decisions are enum constants, so a check never
+ * allocates.
+ *
+ * Wilderness decisions assume the player has no "hytown.wild.bypass" permission; callers
+ * check it only when isWildernessRule() is true, which keeps the permission lookup off the
+ * common path.
+ */
+public class ProtectionRules {
+
+    public enum Decision {
+        ALLOW,
+        /** Outsider in a town that doesn't allow it; message names the town. */
+        DENY_TOWN,
+        /** Not trusted enough in a personal claim. */
+        DENY_CLAIM,
+        /** Outsider harvesting crops in a town. */
+        DENY_CROPS,
+        /** No container access on this town plot. */
+        DENY_CONTAINER,
+        /** Outsider using doors, buttons etc. in a town. */
+        DENY_TOWN_USE,
+        /** Wilderness, above the protection height. */
+        DENY_WILD_HEIGHT,
+        /** Wilderness, below the protection height but disabled there too. */
+        DENY_WILD_DISABLED,
+        /** Wilderness, griefing item (fluids, fire, explosives). */
+        DENY_WILD_GRIEFING;
+
+        public boolean isDenied() {
+            return this != ALLOW;
+        }
+
+        /**
+         * Whether this denial comes from wilderness protection (and so is lifted by the bypass permission).
+         */
+        public boolean isWildernessRule() {
+            return this == DENY_WILD_HEIGHT || this == DENY_WILD_DISABLED || this == DENY_WILD_GRIEFING;
+        }
+    }
+
+    private final PluginConfig config;
+    private final BlockGroups blockGroups;
+
+    public ProtectionRules(PluginConfig config, BlockGroups blockGroups) {
+        this.config = config;
+        this.blockGroups = blockGroups;
+    }
+
+    /**
+     * Breaking a block at height blockY.
+     */
+    public Decision checkBreak(ClaimContext claim, UUID playerId, int blockY) {
+        if (!claim.isWilderness()) {
+            Town town = claim.getTown();
+            if (town != null) {
+                return town.isMember(playerId) || town.getSettings().canOutsiderDestroy() ? Decision.ALLOW : Decision.DENY_TOWN;
+            }
+            return claim.hasPermission(playerId, TrustLevel.BUILD) ? Decision.ALLOW : Decision.DENY_CLAIM;
+        }
+
+        if (!config.isWildProtectionEnabled()) {
+            return Decision.ALLOW;
+        }
+        if (blockY > config.getWildProtectionMinY()) {
+            return Decision.DENY_WILD_HEIGHT;
+        }
+        return config.isWildDestroyBelowAllowed() ? Decision.ALLOW : Decision.DENY_WILD_DISABLED;
+    }
+
+    /**
+     * Placing the item itemId (may be null) at height blockY.
+     */
+    public Decision checkPlace(ClaimContext claim, UUID playerId, int blockY, String itemId) {
+        if (!claim.isWilderness()) {
+            Town town = claim.getTown();
+            if (town != null) {
+                return town.isMember(playerId) || town.getSettings().canOutsiderBuild() ? Decision.ALLOW : Decision.DENY_TOWN;
+            }
+            return claim.hasPermission(playerId, TrustLevel.BUILD) ? Decision.ALLOW : Decision.DENY_CLAIM;
+        }
+
+        if (!config.isWildProtectionEnabled()) {
+            return Decision.ALLOW;
+        }
+        // Griefing blocks are refused at any height
+        if (config.isGriefingBlock(itemId)) {
+            return Decision.DENY_WILD_GRIEFING;
+        }
+        if (blockY > config.getWildProtectionMinY()) {
+            return Decision.DENY_WILD_HEIGHT;
+        }
+        return config.isWildBuildBelowAllowed() ? Decision.ALLOW : Decision.DENY_WILD_DISABLED;
+    }
+
+    /**
+     * Damaging (mining) a block. Needs DAMAGE trust; towns and wilderness don't restrict it.
+     */
+    public Decision checkDamage(ClaimContext claim, UUID playerId) {
+        return claim.hasPermission(playerId, TrustLevel.DAMAGE) ? Decision.ALLOW : Decision.DENY_CLAIM;
+    }
+
+    /**
+     * Trust level needed to use a block, by block ID (null for unknown blocks).
+     * Doors, use blocks and anything unknown all need USE.
+     */
+    public TrustLevel requiredUseLevel(String blockId) {
+        // Check in order of specificity
+        if (blockGroups.isWorkstationBlock(blockId)) {
+            return TrustLevel.WORKSTATION;
+        }
+        if (blockGroups.isContainerBlock(blockId)) {
+            return TrustLevel.CONTAINER;
+        }
+        return TrustLevel.USE;
+    }
+
+    public boolean isCrop(String blockId) {
+        return blockGroups.isCropBlock(blockId);
+    }
+
+    /**
+     * Using a block that needs the given trust level (see requiredUseLevel).
+     */
+    public Decision checkUse(ClaimContext claim, UUID playerId, TrustLevel required, boolean crop) {
+        Town town = claim.getTown();
+        if (town != null) {
+            if (crop) {
+                // Harvesting is treated like destroying for outsiders
+                return town.isMember(playerId) || town.getSettings().canOutsiderDestroy() ? Decision.ALLOW : Decision.DENY_CROPS;
+            }
+            if (required == TrustLevel.CONTAINER) {
+                return town.canAccessContainers(claim.getClaimKey(), playerId) ? Decision.ALLOW : Decision.DENY_CONTAINER;
+            }
+            return town.isMember(playerId) || town.getSettings().canOutsiderSwitch() ? Decision.ALLOW : Decision.DENY_TOWN_USE;
+        }
+        return claim.hasPermission(playerId, required) ? Decision.ALLOW : Decision.DENY_CLAIM;
+    }
+
+    /**
+     * Whether breaking here triggers a wilderness harvest instead (protected wilderness above
+     * the protection height). Drops and cooldowns are up to WildernessHarvestSystem.
+     */
+    public boolean isHarvestable(ClaimContext claim, int blockY) {
+        return claim.isWilderness()
+                && config.isWildProtectionEnabled()
+                && blockY > config.getWildProtectionMinY();
+    }
+}
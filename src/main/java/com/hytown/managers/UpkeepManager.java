@@ -3,6 +3,8 @@ package com.hytown.managers;
 import com.hytown.config.PluginConfig;
 import com.hytown.data.Town;
 import com.hytown.data.TownStorage;
+import com.hytown.util.HyTownEvents;
+import com.hytown.util.HyTownMetrics;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.Universe;
@@ -23,6 +25,9 @@ public class UpkeepManager {
     private static final Color GREEN = new Color(85, 255, 85);
     private static final int GRACE_PERIOD_DAYS = 15;
 
+    private static final HyTownMetrics.Timer COLLECT_TIME = HyTownMetrics.timer("upkeep.collect");
+    private static final HyTownMetrics.Counter TOWNS_COLLECTED = HyTownMetrics.counter("upkeep.towns");
+
     private final PluginConfig config;
     private final TownStorage townStorage;
     private final HytaleLogger logger;
@@ -46,13 +51,28 @@ public class UpkeepManager {
         // Only run collection logic once per day at the configured hour
         if (currentDay != lastCheckedDay && currentHour >= config.getTownUpkeepHour()) {
             lastCheckedDay = currentDay;
+            long start = System.nanoTime();
+            HyTownEvents.UpkeepRun event = new HyTownEvents.UpkeepRun();
+            event.begin();
+            int towns = 0;
+            int charged = 0;
             // Check each town individually to see if they need upkeep collected
             for (Town town : townStorage.getAllTowns()) {
+                towns++;
                 if (shouldCollectUpkeep(town)) {
                     collectUpkeep(town);
                     townStorage.saveTown(town);
+                    charged++;
                 }
             }
+            TOWNS_COLLECTED.add(charged);
+            COLLECT_TIME.recordSince(start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.towns = towns;
+                event.charged = charged;
+                event.commit();
+            }
         }
     }
 
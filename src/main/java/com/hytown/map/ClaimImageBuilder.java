@@ -12,55 +12,85 @@ import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
 import com.hypixel.hytale.server.core.universe.world.chunk.section.FluidSection;
 import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
 import com.hytown.HyTownAccess;
+import com.hytown.util.HyTownEvents;
+import com.hytown.util.HyTownLog;
+import com.hytown.util.HyTownLog.Category;
+import com.hytown.util.HyTownMetrics;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.awt.Color;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 /**
- * Builds map images with claim overlays rendered directly into the terrain.
+ * Builds map images with claim overlays rendered on top of the terrain.
  * Based on SimpleClaims' CustomImageBuilder.
+ *
+ * Rendering is split in two passes: the terrain (block colors, hill shading, fluid tint) is
+ * rendered from chunk samples and kept in TerrainTileCache, then the claim fill, border and
+ * names are composited onto a copy of it. When the terrain tile is cached (e.g. the image was
+ * cleared after a claim change) only the second pass runs and the chunk is never fetched.
+ * Terrain persisted by MapTileStore is tried next, before falling back to the chunk.
  */
 public class ClaimImageBuilder {
+    // Tiles drawn from cached terrain (claim pass only) and tiles whose terrain had to be rendered
+    private static final HyTownMetrics.Timer COMPOSITE_TIME = HyTownMetrics.timer("map.tiles.composited");
+    private static final HyTownMetrics.Timer RENDER_TIME = HyTownMetrics.timer("map.tiles.rendered");
+
     private final long index;
     private final World world;
     @Nonnull
     private final MapImage image;
+    private final int renderWidth;
+    private final int renderHeight;
     private final int sampleWidth;
     private final int sampleHeight;
     private final int blockStepX;
     private final int blockStepZ;
-    @Nonnull
-    private final short[] heightSamples;
-    @Nonnull
-    private final int[] tintSamples;
-    @Nonnull
-    private final int[] blockSamples;
-    @Nonnull
-    private final short[] neighborHeightSamples;
-    @Nonnull
-    private final short[] fluidDepthSamples;
-    @Nonnull
-    private final int[] environmentSamples;
-    @Nonnull
-    private final int[] fluidSamples;
+    // Sample buffers are only allocated when the terrain has to be rendered
+    private short[] heightSamples;
+    private int[] tintSamples;
+    private int[] blockSamples;
+    private short[] neighborHeightSamples;
+    private short[] fluidDepthSamples;
+    private int[] environmentSamples;
+    private int[] fluidSamples;
+    private int[] baseColorSamples;
+    private int[] fluidTintSamples;
+    private float[] fluidMixSamples;
+    private float[] shadeSamples;
     private final MapColor outColor = new MapColor();
     @Nullable
     private WorldChunk worldChunk;
     private FluidSection[] fluidSections;
+    // Rendered terrain without claim overlay (shared with TerrainTileCache, never modified)
+    private int[] terrain;
+    // Terrain version captured before the chunk was fetched
+    private int terrainVersion;
+    // Time from requesting the chunk to reading it (for the MapTile flight recorder event)
+    private long fetchNanos;
 
     public ClaimImageBuilder(long index, int imageWidth, int imageHeight, World world) {
         this.index = index;
         this.world = world;
         this.image = new MapImage(imageWidth, imageHeight, new int[imageWidth * imageHeight]);
-        this.sampleWidth = Math.min(32, this.image.width);
-        this.sampleHeight = Math.min(32, this.image.height);
-        this.blockStepX = Math.max(1, 32 / this.image.width);
-        this.blockStepZ = Math.max(1, 32 / this.image.height);
+        // Zoomed-out sizes are rendered at full resolution and downsampled (see TerrainPyramid)
+        boolean mipLevel = imageWidth == imageHeight && TerrainPyramid.isLevelSize(imageWidth);
+        this.renderWidth = mipLevel ? TerrainPyramid.BASE_SIZE : imageWidth;
+        this.renderHeight = mipLevel ? TerrainPyramid.BASE_SIZE : imageHeight;
+        this.sampleWidth = Math.min(32, this.renderWidth);
+        this.sampleHeight = Math.min(32, this.renderHeight);
+        this.blockStepX = Math.max(1, 32 / this.renderWidth);
+        this.blockStepZ = Math.max(1, 32 / this.renderHeight);
+    }
+
+    private void allocateSamples() {
         this.heightSamples = new short[this.sampleWidth * this.sampleHeight];
         this.tintSamples = new int[this.sampleWidth * this.sampleHeight];
         this.blockSamples = new int[this.sampleWidth * this.sampleHeight];
@@ -68,6 +98,10 @@ public class ClaimImageBuilder {
         this.fluidDepthSamples = new short[this.sampleWidth * this.sampleHeight];
         this.environmentSamples = new int[this.sampleWidth * this.sampleHeight];
         this.fluidSamples = new int[this.sampleWidth * this.sampleHeight];
+        this.baseColorSamples = new int[this.sampleWidth * this.sampleHeight];
+        this.fluidTintSamples = new int[this.sampleWidth * this.sampleHeight];
+        this.fluidMixSamples = new float[this.sampleWidth * this.sampleHeight];
+        this.shadeSamples = new float[this.sampleWidth * this.sampleHeight];
     }
 
     public long getIndex() {
@@ -80,10 +114,14 @@ public class ClaimImageBuilder {
     }
 
     @Nonnull
-    private CompletableFuture<ClaimImageBuilder> fetchChunk() {
-        return this.world.getChunkStore().getChunkReferenceAsync(this.index).thenApplyAsync((ref) -> {
+    private CompletableFuture<ClaimImageBuilder> fetchChunk(EdgeHeightCache edgeHeights) {
+        // Paced by the render scheduler; the reader runs on the world thread
+        long requested = System.nanoTime();
+        return MapRenderScheduler.loadChunk(this.world, this.index, edgeHeights.getRequestCenter(), (ref) -> {
+            this.fetchNanos = System.nanoTime() - requested;
             if (ref != null && ref.isValid()) {
                 this.worldChunk = ref.getStore().getComponent(ref, WorldChunk.getComponentType());
+                edgeHeights.record(this.index, this.worldChunk);
                 ChunkColumn chunkColumn = ref.getStore().getComponent(ref, ChunkColumn.getComponentType());
                 this.fluidSections = new FluidSection[10];
 
@@ -94,107 +132,19 @@ public class ClaimImageBuilder {
 
                 return this;
             } else {
+                edgeHeights.record(this.index, null);
                 return null;
             }
-        }, this.world);
+        });
     }
 
-    @Nonnull
-    private CompletableFuture<ClaimImageBuilder> sampleNeighborsSync() {
-        CompletableFuture<Void> north = this.world.getChunkStore().getChunkReferenceAsync(
-                ChunkUtil.indexChunk(this.worldChunk.getX(), this.worldChunk.getZ() - 1)).thenAcceptAsync((ref) -> {
-            if (ref != null && ref.isValid()) {
-                WorldChunk wc = ref.getStore().getComponent(ref, WorldChunk.getComponentType());
-                int z = (this.sampleHeight - 1) * this.blockStepZ;
-                for (int ix = 0; ix < this.sampleWidth; ++ix) {
-                    int x = ix * this.blockStepX;
-                    this.neighborHeightSamples[1 + ix] = wc.getHeight(x, z);
-                }
-            }
-        }, this.world);
-
-        CompletableFuture<Void> south = this.world.getChunkStore().getChunkReferenceAsync(
-                ChunkUtil.indexChunk(this.worldChunk.getX(), this.worldChunk.getZ() + 1)).thenAcceptAsync((ref) -> {
-            if (ref != null && ref.isValid()) {
-                WorldChunk wc = ref.getStore().getComponent(ref, WorldChunk.getComponentType());
-                int z = 0;
-                int neighbourStartIndex = (this.sampleHeight + 1) * (this.sampleWidth + 2) + 1;
-                for (int ix = 0; ix < this.sampleWidth; ++ix) {
-                    int x = ix * this.blockStepX;
-                    this.neighborHeightSamples[neighbourStartIndex + ix] = wc.getHeight(x, z);
-                }
-            }
-        }, this.world);
-
-        CompletableFuture<Void> west = this.world.getChunkStore().getChunkReferenceAsync(
-                ChunkUtil.indexChunk(this.worldChunk.getX() - 1, this.worldChunk.getZ())).thenAcceptAsync((ref) -> {
-            if (ref != null && ref.isValid()) {
-                WorldChunk wc = ref.getStore().getComponent(ref, WorldChunk.getComponentType());
-                int x = (this.sampleWidth - 1) * this.blockStepX;
-                for (int iz = 0; iz < this.sampleHeight; ++iz) {
-                    int z = iz * this.blockStepZ;
-                    this.neighborHeightSamples[(iz + 1) * (this.sampleWidth + 2)] = wc.getHeight(x, z);
-                }
-            }
-        }, this.world);
-
-        CompletableFuture<Void> east = this.world.getChunkStore().getChunkReferenceAsync(
-                ChunkUtil.indexChunk(this.worldChunk.getX() + 1, this.worldChunk.getZ())).thenAcceptAsync((ref) -> {
-            if (ref != null && ref.isValid()) {
-                WorldChunk wc = ref.getStore().getComponent(ref, WorldChunk.getComponentType());
-                int x = 0;
-                for (int iz = 0; iz < this.sampleHeight; ++iz) {
-                    int z = iz * this.blockStepZ;
-                    this.neighborHeightSamples[(iz + 1) * (this.sampleWidth + 2) + this.sampleWidth + 1] = wc.getHeight(x, z);
-                }
-            }
-        }, this.world);
-
-        CompletableFuture<Void> northeast = this.world.getChunkStore().getChunkReferenceAsync(
-                ChunkUtil.indexChunk(this.worldChunk.getX() + 1, this.worldChunk.getZ() - 1)).thenAcceptAsync((ref) -> {
-            if (ref != null && ref.isValid()) {
-                WorldChunk wc = ref.getStore().getComponent(ref, WorldChunk.getComponentType());
-                int x = 0;
-                int z = (this.sampleHeight - 1) * this.blockStepZ;
-                this.neighborHeightSamples[0] = wc.getHeight(x, z);
-            }
-        }, this.world);
-
-        CompletableFuture<Void> northwest = this.world.getChunkStore().getChunkReferenceAsync(
-                ChunkUtil.indexChunk(this.worldChunk.getX() - 1, this.worldChunk.getZ() - 1)).thenAcceptAsync((ref) -> {
-            if (ref != null && ref.isValid()) {
-                WorldChunk wc = ref.getStore().getComponent(ref, WorldChunk.getComponentType());
-                int x = (this.sampleWidth - 1) * this.blockStepX;
-                int z = (this.sampleHeight - 1) * this.blockStepZ;
-                this.neighborHeightSamples[this.sampleWidth + 1] = wc.getHeight(x, z);
-            }
-        }, this.world);
-
-        CompletableFuture<Void> southeast = this.world.getChunkStore().getChunkReferenceAsync(
-                ChunkUtil.indexChunk(this.worldChunk.getX() + 1, this.worldChunk.getZ() + 1)).thenAcceptAsync((ref) -> {
-            if (ref != null && ref.isValid()) {
-                WorldChunk wc = ref.getStore().getComponent(ref, WorldChunk.getComponentType());
-                int x = 0;
-                int z = 0;
-                this.neighborHeightSamples[(this.sampleHeight + 1) * (this.sampleWidth + 2) + this.sampleWidth + 1] = wc.getHeight(x, z);
-            }
-        }, this.world);
-
-        CompletableFuture<Void> southwest = this.world.getChunkStore().getChunkReferenceAsync(
-                ChunkUtil.indexChunk(this.worldChunk.getX() - 1, this.worldChunk.getZ() + 1)).thenAcceptAsync((ref) -> {
-            if (ref != null && ref.isValid()) {
-                WorldChunk wc = ref.getStore().getComponent(ref, WorldChunk.getComponentType());
-                int x = (this.sampleWidth - 1) * this.blockStepX;
-                int z = 0;
-                this.neighborHeightSamples[(this.sampleHeight + 1) * (this.sampleWidth + 2)] = wc.getHeight(x, z);
-            }
-        }, this.world);
-
-        return CompletableFuture.allOf(north, south, west, east, northeast, northwest, southeast, southwest)
-                .thenApply((v) -> this);
-    }
+    /**
+     * Renders the terrain pass from the fetched chunk samples and caches it.
+     * @param edgeHeights The batch's edge heights, for shading across the chunk border
+     */
+    private ClaimImageBuilder renderTerrain(EdgeHeightCache edgeHeights) {
+        edgeHeights.fillBorder(this.index, this.neighborHeightSamples);
 
-    private ClaimImageBuilder generateImageAsync() {
         // Sample block data
         for (int ix = 0; ix < this.sampleWidth; ++ix) {
             for (int iz = 0; iz < this.sampleHeight; ++iz) {
@@ -268,173 +218,156 @@ public class ClaimImageBuilder {
             }
         }
 
-        float imageToSampleRatioWidth = (float) this.sampleWidth / (float) this.image.width;
-        float imageToSampleRatioHeight = (float) this.sampleHeight / (float) this.image.height;
-        int blockPixelWidth = Math.max(1, this.image.width / this.sampleWidth);
-        int blockPixelHeight = Math.max(1, this.image.height / this.sampleHeight);
-
         for (int iz = 0; iz < this.sampleHeight; ++iz) {
             System.arraycopy(this.heightSamples, iz * this.sampleWidth,
                     this.neighborHeightSamples, (iz + 1) * (this.sampleWidth + 2) + 1, this.sampleWidth);
         }
 
-        int chunkX = ChunkUtil.xOfChunkIndex(this.index);
-        int chunkZ = ChunkUtil.zOfChunkIndex(this.index);
+        // Resolve block and fluid colors once per sample
+        int sampleCount = this.sampleWidth * this.sampleHeight;
+        for (int i = 0; i < sampleCount; ++i) {
+            getBlockColor(this.blockSamples[i], this.tintSamples[i], this.outColor);
+            this.baseColorSamples[i] = this.outColor.r << 16 | this.outColor.g << 8 | this.outColor.b;
 
-        // Get claim info for this chunk using the accessor
-        String worldName = this.worldChunk.getWorld().getName();
-        UUID claimOwner = HyTownAccess.getClaimOwner(worldName, chunkX, chunkZ);
-        Color claimColor = claimOwner != null ? ClaimColorGenerator.getPlayerColor(claimOwner) : null;
+            int fluidId = this.fluidSamples[i];
+            if (this.heightSamples[i] < 320 && fluidId != 0) {
+                this.fluidTintSamples[i] = getFluidTint(fluidId, this.environmentSamples[i]);
+                this.fluidMixSamples[i] = Math.min(1.0F, 1.0F / (float) this.fluidDepthSamples[i]);
+            } else {
+                this.fluidTintSamples[i] = 0;
+                this.fluidMixSamples[i] = 1.0F;
+            }
+        }
 
-        // Debug logging (only for claimed chunks to reduce spam)
-        if (claimOwner != null) {
-            System.out.println("[ClaimMap] Rendering claimed chunk " + chunkX + "," + chunkZ + " in world " + worldName + " owner=" + claimOwner);
+        int[] pixels = new int[this.renderWidth * this.renderHeight];
+        if (this.renderWidth == this.sampleWidth && this.renderHeight == this.sampleHeight) {
+            // One pixel per sample: shade and compose straight from the sample arrays
+            TerrainShading.shade(this.neighborHeightSamples, this.sampleWidth, this.sampleHeight, 0.5F, 0.5F, this.shadeSamples);
+            TerrainShading.compose(this.baseColorSamples, this.shadeSamples, this.fluidTintSamples, this.fluidMixSamples,
+                    pixels, 0, sampleCount);
+        } else {
+            composeUpscaled(pixels);
         }
 
-        // Get neighboring claim owners to determine borders
-        UUID[] nearbyOwners = new UUID[]{
-                HyTownAccess.getClaimOwner(this.worldChunk.getWorld().getName(), chunkX, chunkZ + 1), // SOUTH
-                HyTownAccess.getClaimOwner(this.worldChunk.getWorld().getName(), chunkX, chunkZ - 1), // NORTH
-                HyTownAccess.getClaimOwner(this.worldChunk.getWorld().getName(), chunkX + 1, chunkZ), // EAST
-                HyTownAccess.getClaimOwner(this.worldChunk.getWorld().getName(), chunkX - 1, chunkZ), // WEST
-        };
-
-        // Generate the image
-        for (int ix = 0; ix < this.image.width; ++ix) {
-            for (int iz = 0; iz < this.image.height; ++iz) {
-                int sampleX = Math.min((int) ((float) ix * imageToSampleRatioWidth), this.sampleWidth - 1);
-                int sampleZ = Math.min((int) ((float) iz * imageToSampleRatioHeight), this.sampleHeight - 1);
-                int sampleIndex = sampleZ * this.sampleWidth + sampleX;
-                int blockPixelX = ix % blockPixelWidth;
-                int blockPixelZ = iz % blockPixelHeight;
-                short height = this.heightSamples[sampleIndex];
-                int tint = this.tintSamples[sampleIndex];
-                int blockId = this.blockSamples[sampleIndex];
-
-                getBlockColor(blockId, tint, this.outColor);
-
-                // Apply claim overlay if this chunk is claimed
-                if (claimColor != null) {
-                    boolean isBorder = false;
-                    int borderSize = 2;
-
-                    // Check if this pixel is on a border where the adjacent chunk has a different owner
-                    if ((ix <= borderSize && !Objects.equals(claimOwner, nearbyOwners[3])) // WEST border
-                            || (ix >= this.image.width - borderSize - 1 && !Objects.equals(claimOwner, nearbyOwners[2])) // EAST border
-                            || (iz <= borderSize && !Objects.equals(claimOwner, nearbyOwners[1])) // NORTH border
-                            || (iz >= this.image.height - borderSize - 1 && !Objects.equals(claimOwner, nearbyOwners[0]))) { // SOUTH border
-                        isBorder = true;
-                    }
+        TerrainTileCache.put(this.world.getName(), this.index, this.renderWidth, this.renderHeight,
+                this.terrainVersion, pixels);
+        this.terrain = this.renderWidth == this.image.width
+                ? pixels
+                : TerrainPyramid.derive(this.world.getName(), this.index, pixels, this.image.width, this.terrainVersion);
+        return this;
+    }
 
-                    applyClaimColor(claimColor, this.outColor, isBorder);
-                }
+    /**
+     * Composites the claim pass (fill, borders facing other owners, region labels) over the
+     * terrain into the output image. Cheap enough to rerun on every claim change.
+     */
+    private ClaimImageBuilder compositeClaims() {
+        System.arraycopy(this.terrain, 0, this.image.data, 0, this.terrain.length);
 
-                // Apply lighting/shading
-                short north = this.neighborHeightSamples[sampleZ * (this.sampleWidth + 2) + sampleX + 1];
-                short south = this.neighborHeightSamples[(sampleZ + 2) * (this.sampleWidth + 2) + sampleX + 1];
-                short west = this.neighborHeightSamples[(sampleZ + 1) * (this.sampleWidth + 2) + sampleX];
-                short east = this.neighborHeightSamples[(sampleZ + 1) * (this.sampleWidth + 2) + sampleX + 2];
-                short northWest = this.neighborHeightSamples[sampleZ * (this.sampleWidth + 2) + sampleX];
-                short northEast = this.neighborHeightSamples[sampleZ * (this.sampleWidth + 2) + sampleX + 2];
-                short southWest = this.neighborHeightSamples[(sampleZ + 2) * (this.sampleWidth + 2) + sampleX];
-                short southEast = this.neighborHeightSamples[(sampleZ + 2) * (this.sampleWidth + 2) + sampleX + 2];
-
-                float shade = shadeFromHeights(blockPixelX, blockPixelZ, blockPixelWidth, blockPixelHeight,
-                        height, north, south, west, east, northWest, northEast, southWest, southEast);
-                this.outColor.multiply(shade);
-
-                // Apply fluid tinting
-                if (height < 320) {
-                    int fluidId = this.fluidSamples[sampleIndex];
-                    if (fluidId != 0) {
-                        short fluidDepth = this.fluidDepthSamples[sampleIndex];
-                        int environmentId = this.environmentSamples[sampleIndex];
-                        getFluidColor(fluidId, environmentId, fluidDepth, this.outColor);
-                    }
-                }
+        int chunkX = ChunkUtil.xOfChunkIndex(this.index);
+        int chunkZ = ChunkUtil.zOfChunkIndex(this.index);
 
-                this.image.data[iz * this.image.width + ix] = this.outColor.pack();
+        // Get claim info for this chunk using the accessor
+        String worldName = this.world.getName();
+        UUID claimOwner = HyTownAccess.getClaimOwner(worldName, chunkX, chunkZ);
+        if (claimOwner != null) {
+            if (HyTownLog.isEnabled(Category.MAP, HyTownLog.Level.FINE)) {
+                HyTownLog.fine(Category.MAP, "[ClaimMap] Rendering claimed chunk %s in world %s owner=%s",
+                        chunkX + "," + chunkZ, worldName, claimOwner);
             }
-        }
 
-        // Draw owner name and trusted players text on claimed chunks
-        if (claimOwner != null) {
-            drawClaimText(worldName, chunkX, chunkZ);
+            // Borders are drawn where the adjacent chunk has a different owner
+            boolean borderNorth = !Objects.equals(claimOwner, HyTownAccess.getClaimOwner(worldName, chunkX, chunkZ - 1));
+            boolean borderSouth = !Objects.equals(claimOwner, HyTownAccess.getClaimOwner(worldName, chunkX, chunkZ + 1));
+            boolean borderWest = !Objects.equals(claimOwner, HyTownAccess.getClaimOwner(worldName, chunkX - 1, chunkZ));
+            boolean borderEast = !Objects.equals(claimOwner, HyTownAccess.getClaimOwner(worldName, chunkX + 1, chunkZ));
+
+            // Borders are drawn at the output size, so they stay crisp at every zoom level
+            int borderWidth = Math.max(1, MapImageCompositor.CLAIM_BORDER_WIDTH * this.image.width / TerrainPyramid.BASE_SIZE);
+            MapImageCompositor.compositeClaim(this.image.data, this.image.data, this.image.width, this.image.height,
+                    ClaimColorGenerator.getPlayerColor(claimOwner), borderWidth, borderNorth, borderSouth, borderWest, borderEast);
         }
 
+        // Labels may overhang into neighbouring (even unclaimed) tiles
+        drawRegionLabels(worldName, chunkX, chunkZ);
         return this;
     }
 
     /**
-     * Draws owner name and trusted player names on the map tile.
-     * Text is centered and may extend beyond tile boundaries.
+     * Blits the labels (owner or town name, plus trusted player names) of the claim regions
+     * near this tile. Each label is centered on its region's label chunk and drawn once per
+     * region rather than once per claimed chunk.
      */
-    private void drawClaimText(String worldName, int chunkX, int chunkZ) {
-        String ownerName = HyTownAccess.getOwnerName(worldName, chunkX, chunkZ);
-        List<String> trustedNames = HyTownAccess.getTrustedPlayerNames(worldName, chunkX, chunkZ);
-
-        if (ownerName == null) {
+    private void drawRegionLabels(String worldName, int chunkX, int chunkZ) {
+        if (this.image.width < LabelSpriteCache.MIN_TILE_SIZE || this.image.width != this.image.height) {
             return;
         }
 
-        // Calculate vertical positioning
-        int lineHeight = BitmapFont.CHAR_HEIGHT + 2; // 7 + 2 = 9 pixels per line
-        int totalLines = 1 + Math.min(trustedNames.size(), 2); // Owner + up to 2 trusted
-        int startY = (this.image.height - (totalLines * lineHeight)) / 2;
-
-        // Draw owner name (white text with black outline for crisp visibility)
-        BitmapFont.drawTextCenteredWithOutline(
-            this.image.data, this.image.width, this.image.height,
-            ownerName, startY,
-            BitmapFont.WHITE, BitmapFont.BLACK
-        );
-
-        // Draw trusted players (yellow)
-        int trustedY = startY + lineHeight;
-        int trustedCount = 0;
-        for (String trustedName : trustedNames) {
-            if (trustedCount >= 2) break;
-
-            BitmapFont.drawTextCenteredWithOutline(
-                this.image.data, this.image.width, this.image.height,
-                trustedName, trustedY,
-                BitmapFont.YELLOW, BitmapFont.BLACK
-            );
-
-            trustedY += lineHeight;
-            trustedCount++;
+        int reach = LabelSpriteCache.reachInChunks(this.image.width);
+        float pixelsPerBlock = (float) this.image.width / TerrainPyramid.BASE_SIZE;
+        int tileMinX = chunkX * TerrainPyramid.BASE_SIZE;
+        int tileMinZ = chunkZ * TerrainPyramid.BASE_SIZE;
+
+        for (ClaimRegion region : HyTownAccess.getClaimRegions(worldName)) {
+            int labelChunkX = region.getLabelChunkX();
+            int labelChunkZ = region.getLabelChunkZ();
+            if (Math.abs(labelChunkX - chunkX) > reach || Math.abs(labelChunkZ - chunkZ) > reach) {
+                continue;
+            }
+
+            String ownerName = HyTownAccess.getOwnerName(worldName, labelChunkX, labelChunkZ);
+            if (ownerName == null) {
+                continue;
+            }
+            LabelSpriteCache.Sprite sprite = LabelSpriteCache.get(ownerName,
+                    HyTownAccess.getTrustedPlayerNames(worldName, labelChunkX, labelChunkZ));
+
+            int centerX = Math.round((float) (region.getLabelX() - tileMinX) * pixelsPerBlock);
+            int centerZ = Math.round((float) (region.getLabelZ() - tileMinZ) * pixelsPerBlock);
+            sprite.blit(this.image.data, this.image.width, this.image.height,
+                    centerX - sprite.getWidth() / 2, centerZ - sprite.getHeight() / 2);
         }
     }
 
-    private static float shadeFromHeights(int blockPixelX, int blockPixelZ, int blockPixelWidth, int blockPixelHeight,
-                                          short height, short north, short south, short west, short east,
-                                          short northWest, short northEast, short southWest, short southEast) {
-        float u = ((float) blockPixelX + 0.5F) / (float) blockPixelWidth;
-        float v = ((float) blockPixelZ + 0.5F) / (float) blockPixelHeight;
-        float ud = (u + v) / 2.0F;
-        float vd = (1.0F - u + v) / 2.0F;
-        float dhdx1 = (float) (height - west) * (1.0F - u) + (float) (east - height) * u;
-        float dhdz1 = (float) (height - north) * (1.0F - v) + (float) (south - height) * v;
-        float dhdx2 = (float) (height - northWest) * (1.0F - ud) + (float) (southEast - height) * ud;
-        float dhdz2 = (float) (height - northEast) * (1.0F - vd) + (float) (southWest - height) * vd;
-        float dhdx = dhdx1 * 2.0F + dhdx2;
-        float dhdz = dhdz1 * 2.0F + dhdz2;
-        float dy = 3.0F;
-        float invS = 1.0F / (float) Math.sqrt(dhdx * dhdx + dy * dy + dhdz * dhdz);
-        float nx = dhdx * invS;
-        float ny = dy * invS;
-        float nz = dhdz * invS;
-        float lx = -0.2F;
-        float ly = 0.8F;
-        float lz = 0.5F;
-        float invL = 1.0F / (float) Math.sqrt(lx * lx + ly * ly + lz * lz);
-        lx *= invL;
-        ly *= invL;
-        lz *= invL;
-        float lambert = Math.max(0.0F, nx * lx + ny * ly + nz * lz);
-        float ambient = 0.4F;
-        float diffuse = 0.6F;
-        return ambient + diffuse * lambert;
+    /**
+     * Renders when a sample covers several pixels: samples are expanded to pixel arrays and
+     * each pixel position inside a block gets its own shading pass.
+     */
+    private void composeUpscaled(int[] pixels) {
+        float imageToSampleRatioWidth = (float) this.sampleWidth / (float) this.renderWidth;
+        float imageToSampleRatioHeight = (float) this.sampleHeight / (float) this.renderHeight;
+        int blockPixelWidth = Math.max(1, this.renderWidth / this.sampleWidth);
+        int blockPixelHeight = Math.max(1, this.renderHeight / this.sampleHeight);
+
+        float[][] shadeByPosition = new float[blockPixelWidth * blockPixelHeight][];
+        for (int blockPixelZ = 0; blockPixelZ < blockPixelHeight; ++blockPixelZ) {
+            for (int blockPixelX = 0; blockPixelX < blockPixelWidth; ++blockPixelX) {
+                float[] shades = new float[this.sampleWidth * this.sampleHeight];
+                TerrainShading.shade(this.neighborHeightSamples, this.sampleWidth, this.sampleHeight,
+                        ((float) blockPixelX + 0.5F) / (float) blockPixelWidth,
+                        ((float) blockPixelZ + 0.5F) / (float) blockPixelHeight, shades);
+                shadeByPosition[blockPixelZ * blockPixelWidth + blockPixelX] = shades;
+            }
+        }
+
+        int[] baseColors = new int[pixels.length];
+        float[] shades = new float[pixels.length];
+        int[] fluidTints = new int[pixels.length];
+        float[] fluidMix = new float[pixels.length];
+        for (int iz = 0; iz < this.renderHeight; ++iz) {
+            int sampleZ = Math.min((int) ((float) iz * imageToSampleRatioHeight), this.sampleHeight - 1);
+            int blockPixelZ = iz % blockPixelHeight;
+            for (int ix = 0; ix < this.renderWidth; ++ix) {
+                int sampleX = Math.min((int) ((float) ix * imageToSampleRatioWidth), this.sampleWidth - 1);
+                int sampleIndex = sampleZ * this.sampleWidth + sampleX;
+                int pixel = iz * this.renderWidth + ix;
+                baseColors[pixel] = this.baseColorSamples[sampleIndex];
+                shades[pixel] = shadeByPosition[blockPixelZ * blockPixelWidth + ix % blockPixelWidth][sampleIndex];
+                fluidTints[pixel] = this.fluidTintSamples[sampleIndex];
+                fluidMix[pixel] = this.fluidMixSamples[sampleIndex];
+            }
+        }
+        TerrainShading.compose(baseColors, shades, fluidTints, fluidMix, pixels, 0, pixels.length);
     }
 
     private static void getBlockColor(int blockId, int biomeTintColor, @Nonnull MapColor outColor) {
@@ -464,17 +397,11 @@ public class ClaimImageBuilder {
         outColor.a = 255;
     }
 
-    private static void applyClaimColor(Color claimColor, @Nonnull MapColor outColor, boolean isBorder) {
-        // Blend the claim color with the terrain color
-        // Border pixels get a stronger tint
-        float blendFactor = isBorder ? 0.7f : 0.4f;
-
-        outColor.r = (int) (outColor.r * (1 - blendFactor) + claimColor.getRed() * blendFactor);
-        outColor.g = (int) (outColor.g * (1 - blendFactor) + claimColor.getGreen() * blendFactor);
-        outColor.b = (int) (outColor.b * (1 - blendFactor) + claimColor.getBlue() * blendFactor);
-    }
-
-    private static void getFluidColor(int fluidId, int environmentId, int fluidDepth, @Nonnull MapColor outColor) {
+    /**
+     * Gets the color a fluid tints the surface towards, packed 0xRRGGBB. The tint is blended
+     * with the shaded ground color by fluid depth (see TerrainShading.compose).
+     */
+    private static int getFluidTint(int fluidId, int environmentId) {
         int tintColorR = 255;
         int tintColorG = 255;
         int tintColorB = 255;
@@ -493,19 +420,155 @@ public class ClaimImageBuilder {
             tintColorG = tintColorG * (particleColor.green & 255) / 255;
             tintColorB = tintColorB * (particleColor.blue & 255) / 255;
         }
+        return tintColorR << 16 | tintColorG << 8 | tintColorB;
+    }
 
-        float depthMultiplier = Math.min(1.0F, 1.0F / (float) fluidDepth);
-        outColor.r = (int) ((float) tintColorR + (float) ((outColor.r & 255) - tintColorR) * depthMultiplier) & 255;
-        outColor.g = (int) ((float) tintColorG + (float) ((outColor.g & 255) - tintColorG) * depthMultiplier) & 255;
-        outColor.b = (int) ((float) tintColorB + (float) ((outColor.b & 255) - tintColorB) * depthMultiplier) & 255;
+    /**
+     * Renders the terrain pass if it wasn't cached, then composites the claims, recording
+     * the timings of both passes.
+     */
+    private ClaimImageBuilder renderAndComposite(EdgeHeightCache edgeHeights) {
+        HyTownEvents.MapTile event = new HyTownEvents.MapTile();
+        event.begin();
+        boolean cachedTerrain = this.terrain != null;
+        long start = System.nanoTime();
+        if (!cachedTerrain) {
+            renderTerrain(edgeHeights);
+        }
+        long terrainDone = System.nanoTime();
+        compositeClaims();
+        long end = System.nanoTime();
+
+        (cachedTerrain ? COMPOSITE_TIME : RENDER_TIME).record(end - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.world = this.world.getName();
+            event.chunkIndex = this.index;
+            event.size = this.image.width;
+            event.cachedTerrain = cachedTerrain;
+            event.fetchNanos = this.fetchNanos;
+            event.terrainNanos = terrainDone - start;
+            event.compositeNanos = end - terrainDone;
+            event.commit();
+        }
+        return this;
+    }
+
+    /**
+     * Resolves the terrain from the memory or disk cache. Completes with true if found.
+     */
+    @Nonnull
+    private CompletableFuture<Boolean> loadCachedTerrain() {
+        // Terrain already rendered - only the claim pass is needed
+        String worldName = this.world.getName();
+        int[] cachedTerrain = TerrainTileCache.get(worldName, this.index, this.image.width, this.image.height);
+        if (cachedTerrain == null) {
+            // Zoomed out: downsample the cached full resolution tile
+            cachedTerrain = TerrainPyramid.fromCache(worldName, this.index, this.image.width, this.image.height);
+        }
+        if (cachedTerrain != null) {
+            this.terrain = cachedTerrain;
+            return CompletableFuture.completedFuture(true);
+        }
+
+        // Then the on-disk cache (which holds the render size), so reopening the map after a
+        // restart doesn't load chunks
+        return CompletableFuture.supplyAsync(() -> {
+            int version = TerrainTileCache.getVersion(worldName, this.index);
+            int[] stored = TerrainTileCache.loadFromDisk(worldName, this.index, this.renderWidth, this.renderHeight);
+            if (stored != null && this.renderWidth != this.image.width) {
+                stored = TerrainPyramid.derive(worldName, this.index, stored, this.image.width, version);
+            }
+            this.terrain = stored;
+            return stored != null;
+        });
     }
 
     @Nonnull
     public static CompletableFuture<ClaimImageBuilder> build(long index, int imageWidth, int imageHeight, World world) {
-        return CompletableFuture.completedFuture(new ClaimImageBuilder(index, imageWidth, imageHeight, world))
-                .thenCompose(ClaimImageBuilder::fetchChunk)
-                .thenCompose((builder) -> builder != null ? builder.sampleNeighborsSync() : CompletableFuture.completedFuture(null))
-                .thenApplyAsync((builder) -> builder != null ? builder.generateImageAsync() : null);
+        LongSet single = new LongOpenHashSet();
+        single.add(index);
+        return buildBatch(single, imageWidth, imageHeight, world)
+                .thenApply((builders) -> builders.isEmpty() ? null : builders.get(0));
+    }
+
+    /**
+     * Center chunk of a batch, which the render scheduler uses to tell whose map asked for it.
+     */
+    private static long center(LongSet chunks) {
+        long sumX = 0, sumZ = 0;
+        for (LongIterator it = chunks.iterator(); it.hasNext(); ) {
+            long chunk = it.nextLong();
+            sumX += ChunkUtil.xOfChunkIndex(chunk);
+            sumZ += ChunkUtil.zOfChunkIndex(chunk);
+        }
+        return ChunkUtil.indexChunk((int) (sumX / chunks.size()), (int) (sumZ / chunks.size()));
+    }
+
+    /**
+     * Builds the images of a batch of chunks. Chunks with cached terrain are only composited;
+     * the others are fetched, and their edge heights are shared through an EdgeHeightCache so
+     * neighbours in the batch are not fetched again for hill shading.
+     * @return The builders of the chunks that could be rendered
+     */
+    @Nonnull
+    public static CompletableFuture<List<ClaimImageBuilder>> buildBatch(LongSet chunks, int imageWidth, int imageHeight, World world) {
+        if (chunks.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+
+        List<ClaimImageBuilder> builders = new ArrayList<>(chunks.size());
+        List<CompletableFuture<Boolean>> lookups = new ArrayList<>(chunks.size());
+        for (LongIterator it = chunks.iterator(); it.hasNext(); ) {
+            ClaimImageBuilder builder = new ClaimImageBuilder(it.nextLong(), imageWidth, imageHeight, world);
+            builders.add(builder);
+            lookups.add(builder.loadCachedTerrain());
+        }
+
+        ClaimImageBuilder first = builders.get(0);
+        EdgeHeightCache edgeHeights = new EdgeHeightCache(world, center(chunks), first.sampleWidth, first.sampleHeight,
+                first.blockStepX, first.blockStepZ);
+
+        return CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0])).thenCompose((unused) -> {
+            // Fetch every chunk that has to be rendered, recording its edge strips
+            List<ClaimImageBuilder> toRender = new ArrayList<>();
+            List<CompletableFuture<ClaimImageBuilder>> fetches = new ArrayList<>();
+            for (int i = 0; i < builders.size(); i++) {
+                ClaimImageBuilder builder = builders.get(i);
+                if (!lookups.get(i).join()) {
+                    builder.terrainVersion = TerrainTileCache.getVersion(world.getName(), builder.index);
+                    builder.allocateSamples();
+                    toRender.add(builder);
+                    fetches.add(builder.fetchChunk(edgeHeights));
+                }
+            }
+
+            return CompletableFuture.allOf(fetches.toArray(new CompletableFuture[0])).thenCompose((fetched) -> {
+                // Only neighbours outside the batch still need a fetch
+                List<Long> rendered = new ArrayList<>();
+                for (int i = 0; i < toRender.size(); i++) {
+                    if (fetches.get(i).join() != null) {
+                        rendered.add(toRender.get(i).index);
+                    }
+                }
+                return edgeHeights.fetchMissingNeighbors(rendered);
+            }).thenCompose((fetched) -> {
+                // Render and composite each tile in parallel
+                List<CompletableFuture<ClaimImageBuilder>> images = new ArrayList<>(builders.size());
+                for (ClaimImageBuilder builder : builders) {
+                    if (builder.terrain != null || builder.worldChunk != null) {
+                        images.add(CompletableFuture.supplyAsync(() -> builder.renderAndComposite(edgeHeights)));
+                    }
+                }
+                return CompletableFuture.allOf(images.toArray(new CompletableFuture[0])).thenApply((done) -> {
+                    List<ClaimImageBuilder> results = new ArrayList<>(images.size());
+                    for (CompletableFuture<ClaimImageBuilder> image : images) {
+                        results.add(image.join());
+                    }
+                    return results;
+                });
+            });
+        });
     }
 
     /**
@@ -516,15 +579,5 @@ public class ClaimImageBuilder {
         public int g;
         public int b;
         public int a;
-
-        public int pack() {
-            return (this.r & 255) << 24 | (this.g & 255) << 16 | (this.b & 255) << 8 | this.a & 255;
-        }
-
-        public void multiply(float value) {
-            this.r = Math.min(255, Math.max(0, (int) ((float) this.r * value)));
-            this.g = Math.min(255, Math.max(0, (int) ((float) this.g * value)));
-            this.b = Math.min(255, Math.max(0, (int) ((float) this.b * value)));
-        }
     }
 }
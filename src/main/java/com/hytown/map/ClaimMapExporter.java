@@ -0,0 +1,293 @@
+package com.hytown.map;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hytown.data.ClaimStorage;
+import com.hytown.data.Town;
+import com.hytown.data.TownStorage;
+import com.hytown.util.ChunkUtil;
+import com.hytown.util.HyTownLog;
+import com.hytown.util.HyTownLog.Category;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders a world's claim map into PNG tiles plus an index.json for a static web viewer.
+ *
+ * Each output tile is one map cache region (REGION_SIZE x REGION_SIZE chunks, 32 px per chunk):
+ * terrain comes from the persistent tile cache where present (a flat background elsewhere),
+ * claims are tinted and bordered like the in-game map, and region labels are blitted from
+ * LabelSpriteCache. Regions are rendered in parallel, each worker reusing its own pixel buffer,
+ * image and PNG writer, so memory stays at one region per worker whatever the world size.
+ *
+ * Works on a data directory alone: run main() with the server and plugin jars on the classpath
+ * to export while the server is offline, or use /townadmin exportmap on a live server.
+ */
+public class ClaimMapExporter {
+
+    private static final int CHUNK_PIXELS = TerrainPyramid.BASE_SIZE;
+    private static final int TILE_CHUNKS = MapTileStore.REGION_SIZE;
+    private static final int TILE_PIXELS = TILE_CHUNKS * CHUNK_PIXELS;
+    private static final int BACKGROUND = BitmapFont.packColor(30, 30, 30, 255);
+
+    private final ClaimStorage claimStorage;
+    private final TownStorage townStorage;
+    private final ClaimRegionIndex regionIndex;
+    private final MapTileStore tileStore;
+
+    public ClaimMapExporter(ClaimStorage claimStorage, TownStorage townStorage,
+                            ClaimRegionIndex regionIndex, MapTileStore tileStore) {
+        this.claimStorage = claimStorage;
+        this.townStorage = townStorage;
+        this.regionIndex = regionIndex;
+        this.tileStore = tileStore;
+    }
+
+    /**
+     * Exports one world into outputDirectory (tiles/X_Z.png and index.json).
+     * @return The number of tiles written
+     */
+    public int export(String worldName, Path outputDirectory, int threads) throws IOException {
+        Path tileDirectory = outputDirectory.resolve("tiles");
+        Files.createDirectories(tileDirectory);
+
+        // Claimed chunks bucketed by output tile
+        Map<String, UUID> claimed = claimStorage.getClaimedChunksInWorld(worldName);
+        Long2ObjectOpenHashMap<UUID> owners = new Long2ObjectOpenHashMap<>(claimed.size());
+        Long2ObjectOpenHashMap<LongArrayList> claimsByTile = new Long2ObjectOpenHashMap<>();
+        for (Map.Entry<String, UUID> entry : claimed.entrySet()) {
+            int[] coords = ChunkUtil.parseChunkKey(entry.getKey());
+            if (coords == null) continue;
+            long chunk = ChunkUtil.packChunk(coords[0], coords[1]);
+            owners.put(chunk, entry.getValue());
+            claimsByTile.computeIfAbsent(tileOf(coords[0], coords[1]), k -> new LongArrayList()).add(chunk);
+        }
+
+        // Labels bucketed by every output tile their sprite touches
+        List<IndexLabel> indexLabels = new ArrayList<>();
+        Long2ObjectOpenHashMap<List<PlacedLabel>> labelsByTile = new Long2ObjectOpenHashMap<>();
+        for (ClaimRegion region : regionIndex.getRegions(worldName)) {
+            String name = ownerName(worldName, region);
+            indexLabels.add(new IndexLabel(name, region.getLabelX(), region.getLabelZ(), region.getChunkCount()));
+
+            LabelSpriteCache.Sprite sprite = LabelSpriteCache.get(name, List.of());
+            int left = (int) Math.round(region.getLabelX()) - sprite.getWidth() / 2;
+            int top = (int) Math.round(region.getLabelZ()) - sprite.getHeight() / 2;
+            PlacedLabel placed = new PlacedLabel(sprite, left, top);
+            for (int tileX = Math.floorDiv(left, TILE_PIXELS); tileX <= Math.floorDiv(left + sprite.getWidth(), TILE_PIXELS); tileX++) {
+                for (int tileZ = Math.floorDiv(top, TILE_PIXELS); tileZ <= Math.floorDiv(top + sprite.getHeight(), TILE_PIXELS); tileZ++) {
+                    labelsByTile.computeIfAbsent(ChunkUtil.packChunk(tileX, tileZ), k -> new ArrayList<>()).add(placed);
+                }
+            }
+        }
+
+        // Every tile with cached terrain, claims or part of a label
+        LongSet tiles = new LongOpenHashSet(claimsByTile.keySet());
+        tiles.addAll(labelsByTile.keySet());
+        for (int[] region : tileStore.listRegions(worldName)) {
+            tiles.add(ChunkUtil.packChunk(region[0], region[1]));
+        }
+
+        AtomicInteger written = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, "HyTown-MapExport");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ThreadLocal<TileEncoder> encoders = ThreadLocal.withInitial(TileEncoder::new);
+        try {
+            List<Future<?>> futures = new ArrayList<>(tiles.size());
+            for (LongIterator it = tiles.iterator(); it.hasNext(); ) {
+                long tile = it.nextLong();
+                futures.add(executor.submit(() -> {
+                    TileEncoder encoder = encoders.get();
+                    renderTile(worldName, tile, encoder.pixels, owners,
+                            claimsByTile.get(tile), labelsByTile.get(tile));
+                    encoder.write(tileDirectory.resolve(ChunkUtil.unpackChunkX(tile) + "_" + ChunkUtil.unpackChunkZ(tile) + ".png"));
+                    written.incrementAndGet();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Map export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to export map tile", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        writeIndex(worldName, outputDirectory, tiles, indexLabels);
+        return written.get();
+    }
+
+    private void renderTile(String worldName, long tile, int[] pixels, Long2ObjectOpenHashMap<UUID> owners,
+                            LongArrayList claims, List<PlacedLabel> labels) {
+        int tileX = ChunkUtil.unpackChunkX(tile);
+        int tileZ = ChunkUtil.unpackChunkZ(tile);
+        Arrays.fill(pixels, BACKGROUND);
+
+        tileStore.forEachStoredTile(worldName, tileX, tileZ, (localX, localZ, width, height, terrain) ->
+                blitScaled(terrain, width, height, pixels, localX * CHUNK_PIXELS, localZ * CHUNK_PIXELS));
+
+        if (claims != null) {
+            int[] chunkPixels = new int[CHUNK_PIXELS * CHUNK_PIXELS];
+            for (int i = 0; i < claims.size(); i++) {
+                long chunk = claims.getLong(i);
+                int chunkX = ChunkUtil.unpackChunkX(chunk);
+                int chunkZ = ChunkUtil.unpackChunkZ(chunk);
+                UUID owner = owners.get(chunk);
+                int offsetX = (chunkX - tileX * TILE_CHUNKS) * CHUNK_PIXELS;
+                int offsetZ = (chunkZ - tileZ * TILE_CHUNKS) * CHUNK_PIXELS;
+
+                for (int row = 0; row < CHUNK_PIXELS; row++) {
+                    System.arraycopy(pixels, (offsetZ + row) * TILE_PIXELS + offsetX, chunkPixels, row * CHUNK_PIXELS, CHUNK_PIXELS);
+                }
+                MapImageCompositor.compositeClaim(chunkPixels, chunkPixels, CHUNK_PIXELS, CHUNK_PIXELS,
+                        ClaimColorGenerator.getPlayerColor(owner), MapImageCompositor.CLAIM_BORDER_WIDTH,
+                        !owner.equals(owners.get(ChunkUtil.packChunk(chunkX, chunkZ - 1))),
+                        !owner.equals(owners.get(ChunkUtil.packChunk(chunkX, chunkZ + 1))),
+                        !owner.equals(owners.get(ChunkUtil.packChunk(chunkX - 1, chunkZ))),
+                        !owner.equals(owners.get(ChunkUtil.packChunk(chunkX + 1, chunkZ))));
+                for (int row = 0; row < CHUNK_PIXELS; row++) {
+                    System.arraycopy(chunkPixels, row * CHUNK_PIXELS, pixels, (offsetZ + row) * TILE_PIXELS + offsetX, CHUNK_PIXELS);
+                }
+            }
+        }
+
+        if (labels != null) {
+            for (PlacedLabel label : labels) {
+                label.sprite.blit(pixels, TILE_PIXELS, TILE_PIXELS,
+                        label.left - tileX * TILE_PIXELS, label.top - tileZ * TILE_PIXELS);
+            }
+        }
+    }
+
+    /**
+     * Copies a cached terrain tile into a chunk cell, scaling it to CHUNK_PIXELS if it was
+     * rendered at another size.
+     */
+    private static void blitScaled(int[] terrain, int width, int height, int[] pixels, int offsetX, int offsetZ) {
+        for (int z = 0; z < CHUNK_PIXELS; z++) {
+            int sourceRow = (z * height / CHUNK_PIXELS) * width;
+            int target = (offsetZ + z) * TILE_PIXELS + offsetX;
+            for (int x = 0; x < CHUNK_PIXELS; x++) {
+                pixels[target + x] = terrain[sourceRow + x * width / CHUNK_PIXELS];
+            }
+        }
+    }
+
+    private String ownerName(String worldName, ClaimRegion region) {
+        Town town = townStorage.getTownByClaimKey(worldName + ":" + region.getLabelChunkX() + "," + region.getLabelChunkZ());
+        return town != null ? town.getName() : claimStorage.getPlayerName(region.getOwner());
+    }
+
+    private static long tileOf(int chunkX, int chunkZ) {
+        return ChunkUtil.packChunk(chunkX >> MapTileStore.REGION_SHIFT, chunkZ >> MapTileStore.REGION_SHIFT);
+    }
+
+    private static void writeIndex(String worldName, Path outputDirectory, LongSet tiles, List<IndexLabel> labels) throws IOException {
+        List<int[]> tileList = new ArrayList<>(tiles.size());
+        for (LongIterator it = tiles.iterator(); it.hasNext(); ) {
+            long tile = it.nextLong();
+            tileList.add(new int[]{ChunkUtil.unpackChunkX(tile), ChunkUtil.unpackChunkZ(tile)});
+        }
+
+        Map<String, Object> index = new LinkedHashMap<>();
+        index.put("world", worldName);
+        index.put("exportedAt", System.currentTimeMillis());
+        index.put("tilePixels", TILE_PIXELS);
+        index.put("tileBlocks", TILE_CHUNKS * ChunkUtil.CHUNK_SIZE);
+        index.put("tilePath", "tiles/{x}_{z}.png");
+        index.put("tiles", tileList);
+        index.put("labels", labels);
+
+        Gson gson = new GsonBuilder().create();
+        Files.writeString(outputDirectory.resolve("index.json"), gson.toJson(index));
+    }
+
+    private record PlacedLabel(LabelSpriteCache.Sprite sprite, int left, int top) {
+    }
+
+    private record IndexLabel(String name, double x, double z, int chunks) {
+    }
+
+    /**
+     * Per-worker output buffers and PNG writer, reused for every tile the worker renders.
+     */
+    private static final class TileEncoder {
+        private final int[] pixels = new int[TILE_PIXELS * TILE_PIXELS];
+        private final BufferedImage image = new BufferedImage(TILE_PIXELS, TILE_PIXELS, BufferedImage.TYPE_INT_ARGB);
+        private final int[] argb = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        private final ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+
+        void write(Path file) throws IOException {
+            // Map pixels are RGBA, the image is ARGB
+            for (int i = 0; i < pixels.length; i++) {
+                int pixel = pixels[i];
+                argb[i] = (pixel << 24) | (pixel >>> 8);
+            }
+
+            Files.deleteIfExists(file);
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+                writer.setOutput(out);
+                writer.write(image);
+            } finally {
+                writer.reset();
+            }
+        }
+    }
+
+    /**
+     * Offline export: {@code ClaimMapExporter <dataDirectory> <world> [outputDirectory] [threads]}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            HyTownLog.severe(Category.MAP, "Usage: ClaimMapExporter <dataDirectory> <world> [outputDirectory] [threads]");
+            System.exit(1);
+        }
+
+        Path dataDirectory = Paths.get(args[0]);
+        String worldName = args[1];
+        Path output = args.length > 2 ? Paths.get(args[2]) : dataDirectory.resolve("mapexport").resolve(worldName);
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        ClaimStorage claimStorage = new ClaimStorage(dataDirectory);
+        TownStorage townStorage = new TownStorage(dataDirectory);
+        ClaimMapExporter exporter = new ClaimMapExporter(claimStorage, townStorage, new ClaimRegionIndex(claimStorage),
+                new MapTileStore(dataDirectory, HytaleLogger.forEnclosingClass()));
+
+        long start = System.currentTimeMillis();
+        int written = exporter.export(worldName, output, threads);
+        HyTownLog.info(Category.MAP, "[MapExport] Wrote %d tiles for %s in %d ms", written, worldName,
+                System.currentTimeMillis() - start);
+    }
+}
@@ -10,12 +10,11 @@ import com.hypixel.hytale.server.core.universe.world.WorldMapTracker;
 import com.hypixel.hytale.server.core.universe.world.worldmap.WorldMapManager;
 import com.hytown.data.ClaimStorage;
 import com.hytown.util.ChunkUtil;
+import com.hytown.util.HyTownMetrics;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -25,31 +24,43 @@ import java.util.concurrent.ConcurrentHashMap;
  *
  * This provider:
  * 1. Sends colored overlays for claimed chunks
- * 2. Adds markers at claim centers with owner names
+ * 2. Adds one marker per connected claim region (from ClaimRegionIndex) with the owner name
  * 3. Uses unique colors per player for easy identification
  */
 public class ClaimMapOverlayProvider implements WorldMapManager.MarkerProvider {
 
     private final ClaimStorage claimStorage;
+    private final ClaimRegionIndex regionIndex;
     private final HytaleLogger logger;
 
-    // Track which chunks we've already sent overlays for per player
-    private final Map<UUID, Set<String>> sentOverlays = new ConcurrentHashMap<>();
+    // Markers each player's client has, and what they were computed from
+    private final Map<UUID, SentMarkers> sentOverlays = new ConcurrentHashMap<>();
 
     // View radius in chunks for sending overlays
     private static final int VIEW_RADIUS = 100;
 
+    // How far region markers are visible - use a large value
+    private static final float MARKER_VIEW_RADIUS = 100.0f;
+
+    private static final HyTownMetrics.Timer UPDATE_TIME = HyTownMetrics.timer("map.markers.update");
+    private static final HyTownMetrics.Timer REFRESH_TIME = HyTownMetrics.timer("map.markers.refresh");
+    private static final HyTownMetrics.Counter OFFERED = HyTownMetrics.counter("map.markers.offered");
+    private static final HyTownMetrics.Counter ADDED = HyTownMetrics.counter("map.markers.added");
+    private static final HyTownMetrics.Counter REMOVED = HyTownMetrics.counter("map.markers.removed");
+
     // Debug: only log once per player to avoid spam
     private final Map<UUID, Boolean> hasLoggedDebug = new ConcurrentHashMap<>();
 
-    public ClaimMapOverlayProvider(ClaimStorage claimStorage, HytaleLogger logger) {
+    public ClaimMapOverlayProvider(ClaimStorage claimStorage, ClaimRegionIndex regionIndex, HytaleLogger logger) {
         this.claimStorage = claimStorage;
+        this.regionIndex = regionIndex;
         this.logger = logger;
     }
 
     @Override
     public void update(World world, GameplayConfig gameplayConfig,
                        WorldMapTracker tracker, int centerX, int centerY, int centerZ) {
+        long start = System.nanoTime();
         try {
             Player player = tracker.getPlayer();
             if (player == null) return;
@@ -61,166 +72,113 @@ public class ClaimMapOverlayProvider implements WorldMapManager.MarkerProvider {
             int playerChunkX = ChunkUtil.toChunkX(centerX);
             int playerChunkZ = ChunkUtil.toChunkZ(centerZ);
 
-            // Calculate view bounds
-            int minChunkX = playerChunkX - VIEW_RADIUS;
-            int maxChunkX = playerChunkX + VIEW_RADIUS;
-            int minChunkZ = playerChunkZ - VIEW_RADIUS;
-            int maxChunkZ = playerChunkZ + VIEW_RADIUS;
-
-            // Get all claims in the visible area
-            Map<String, UUID> worldClaims = claimStorage.getClaimedChunksInWorld(worldName);
+            // Claims are merged into per-owner regions, so each visible region is one marker
+            List<ClaimRegion> regions = regionIndex.getRegions(worldName);
 
             // Debug logging (once per player)
             if (logger != null && !hasLoggedDebug.getOrDefault(playerId, false)) {
                 hasLoggedDebug.put(playerId, true);
-                logger.atWarning().log("[ClaimMap] DEBUG: centerX=%d, centerY=%d, centerZ=%d, playerChunk=(%d,%d), worldClaims=%d",
-                    centerX, centerY, centerZ, playerChunkX, playerChunkZ, worldClaims.size());
-            }
-
-            if (worldClaims.isEmpty()) {
-                return;
-            }
-
-            // Collect claims that need markers
-            Map<UUID, List<int[]>> ownerClaimChunks = new HashMap<>();
-            int foundClaims = 0;
-
-            for (int cx = minChunkX; cx <= maxChunkX; cx++) {
-                for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
-                    String chunkKey = ChunkUtil.chunkKey(cx, cz);
-                    UUID ownerId = worldClaims.get(chunkKey);
-
-                    if (ownerId != null) {
-                        foundClaims++;
-                        // Track for marker placement
-                        ownerClaimChunks.computeIfAbsent(ownerId, k -> new ArrayList<>())
-                                       .add(new int[]{cx, cz});
-                    }
-                }
+                logger.atWarning().log("[ClaimMap] DEBUG: centerX=%d, centerY=%d, centerZ=%d, playerChunk=(%d,%d), regions=%d",
+                    centerX, centerY, centerZ, playerChunkX, playerChunkZ, regions.size());
             }
 
-            if (logger != null && foundClaims > 0 && !hasLoggedDebug.getOrDefault(playerId, false)) {
-                logger.atWarning().log("[ClaimMap] DEBUG: Found %d claims in view for %d owners", foundClaims, ownerClaimChunks.size());
+            // Only recompute the visible markers when the player changed chunk or claims changed
+            SentMarkers sent = sentOverlays.computeIfAbsent(playerId, k -> new SentMarkers());
+            if (!sent.isCurrent(worldName, playerChunkX, playerChunkZ, regions)) {
+                refreshMarkers(sent, playerId, worldName, playerChunkX, playerChunkZ, centerY, regions);
             }
 
-            // Create center markers for each owner's claims in view
-            for (Map.Entry<UUID, List<int[]>> entry : ownerClaimChunks.entrySet()) {
-                UUID ownerId = entry.getKey();
-                List<int[]> chunks = entry.getValue();
-                String ownerName = claimStorage.getPlayerName(ownerId);
-
-                // Find center of this owner's visible claims
-                int sumX = 0, sumZ = 0;
-                for (int[] chunk : chunks) {
-                    sumX += chunk[0];
-                    sumZ += chunk[1];
-                }
-                int centerChunkX = sumX / chunks.size();
-                int centerChunkZ = sumZ / chunks.size();
-
-                // Convert to block coordinates (center of chunk)
-                double markerX = (centerChunkX * 16) + 8;
-                double markerZ = (centerChunkZ * 16) + 8;
-
-                // Create marker ID unique to this owner in this area
-                String markerId = "claim_" + ownerId.toString().substring(0, 8) + "_" + centerChunkX + "_" + centerChunkZ;
-
-                // Determine display name
-                String displayName = ownerName + "'s Claim";
-                if (ownerId.equals(playerId)) {
-                    displayName = "Your Claim";
-                }
-
-                // Use the factory-based trySendMarker like built-in providers do
-                // Parameters: centerX, centerY, centerZ, position, viewRadius, markerId, markerName, data, factory
-                com.hypixel.hytale.math.vector.Vector3d markerPos = new com.hypixel.hytale.math.vector.Vector3d(markerX, centerY, markerZ);
-
-                // viewRadius controls how far the marker is visible - use a large value
-                float viewRadius = 100.0f;
-
-                final String finalDisplayName = displayName;
+            // The tracker drops markers that are not offered during an update, so every visible
+            // marker is offered each time; the tracker only transmits new or removed IDs
+            // Parameters: centerX, centerY, centerZ, position, viewRadius, markerId, markerName, data, factory
+            for (MarkerOffer offer : sent.offers) {
                 tracker.trySendMarker(
                     centerX, centerY, centerZ,
-                    markerPos,
-                    viewRadius,
-                    markerId,
-                    finalDisplayName,
-                    markerPos,
-                    (id, name, pos) -> {
-                        // Create the Transform using the same pattern as SpawnMarkerProvider
-                        com.hypixel.hytale.math.vector.Transform mathTransform =
-                            new com.hypixel.hytale.math.vector.Transform(pos);
-                        Transform protoTransform = com.hypixel.hytale.server.core.util.PositionUtil.toTransformPacket(mathTransform);
-
-                        // Use "Spawn.png" as a known working marker icon, null for context menu
-                        return new MapMarker(id, name, "Spawn.png", protoTransform, null);
-                    }
+                    offer.position,
+                    MARKER_VIEW_RADIUS,
+                    offer.id,
+                    offer.name,
+                    offer.position,
+                    ClaimMapOverlayProvider::createMarker
                 );
             }
-
-            // Send corner markers for each claimed chunk to outline the boundaries
-            for (Map.Entry<UUID, List<int[]>> entry : ownerClaimChunks.entrySet()) {
-                UUID ownerId = entry.getKey();
-                List<int[]> chunks = entry.getValue();
-                String ownerName = claimStorage.getPlayerName(ownerId);
-
-                for (int[] chunk : chunks) {
-                    int cx = chunk[0];
-                    int cz = chunk[1];
-
-                    // Create markers at all 4 corners of this chunk
-                    // Chunk is 16 blocks, so corners are at (cx*16, cz*16) to (cx*16+15, cz*16+15)
-                    int blockX = cx * 16;
-                    int blockZ = cz * 16;
-
-                    // Send corner markers
-                    String[] cornerNames = {"NW", "NE", "SW", "SE"};
-                    int[][] corners = {
-                        {blockX, blockZ},           // NW corner
-                        {blockX + 15, blockZ},      // NE corner
-                        {blockX, blockZ + 15},      // SW corner
-                        {blockX + 15, blockZ + 15}  // SE corner
-                    };
-
-                    for (int i = 0; i < 4; i++) {
-                        String cornerMarkerId = "claim_corner_" + cx + "_" + cz + "_" + cornerNames[i];
-                        String cornerDisplayName = ownerName + "'s Claim";
-
-                        com.hypixel.hytale.math.vector.Vector3d cornerPos =
-                            new com.hypixel.hytale.math.vector.Vector3d(corners[i][0], centerY, corners[i][1]);
-
-                        float cornerViewRadius = 100.0f;
-
-                        tracker.trySendMarker(
-                            centerX, centerY, centerZ,
-                            cornerPos,
-                            cornerViewRadius,
-                            cornerMarkerId,
-                            cornerDisplayName,
-                            cornerPos,
-                            (id, name, pos) -> {
-                                com.hypixel.hytale.math.vector.Transform mathTransform =
-                                    new com.hypixel.hytale.math.vector.Transform(pos);
-                                Transform protoTransform = com.hypixel.hytale.server.core.util.PositionUtil.toTransformPacket(mathTransform);
-                                return new MapMarker(id, name, "Spawn.png", protoTransform, null);
-                            }
-                        );
-                    }
-                }
-            }
+            OFFERED.add(sent.offers.length);
 
         } catch (Exception e) {
             if (logger != null) {
                 logger.atWarning().withCause(e).log("Error in ClaimMapOverlayProvider.update");
             }
+        } finally {
+            UPDATE_TIME.recordSince(start);
         }
     }
 
+    /**
+     * Recomputes a player's visible markers and applies the difference to their sent state.
+     * Marker IDs include the region version, so a reshaped region replaces its old marker.
+     */
+    private void refreshMarkers(SentMarkers sent, UUID playerId, String worldName, int playerChunkX, int playerChunkZ,
+                                int markerY, List<ClaimRegion> regions) {
+        long start = System.nanoTime();
+        int minChunkX = playerChunkX - VIEW_RADIUS;
+        int maxChunkX = playerChunkX + VIEW_RADIUS;
+        int minChunkZ = playerChunkZ - VIEW_RADIUS;
+        int maxChunkZ = playerChunkZ + VIEW_RADIUS;
+
+        Map<String, MarkerOffer> previous = sent.byId;
+        Map<String, MarkerOffer> visible = new HashMap<>();
+        int added = 0;
+        for (ClaimRegion region : regions) {
+            if (!region.intersects(minChunkX, minChunkZ, maxChunkX, maxChunkZ)) {
+                continue;
+            }
+            String markerId = region.getId() + "_" + Long.toHexString(region.getVersion());
+            MarkerOffer offer = previous.get(markerId);
+            if (offer == null) {
+                UUID ownerId = region.getOwner();
+                String displayName = ownerId.equals(playerId)
+                        ? "Your Claim"
+                        : claimStorage.getPlayerName(ownerId) + "'s Claim";
+                com.hypixel.hytale.math.vector.Vector3d markerPos =
+                    new com.hypixel.hytale.math.vector.Vector3d(region.getLabelX(), markerY, region.getLabelZ());
+                offer = new MarkerOffer(markerId, displayName, markerPos);
+                added++;
+            }
+            visible.put(markerId, offer);
+        }
+        int removed = previous.size() - (visible.size() - added);
+
+        sent.byId = visible;
+        sent.offers = visible.values().toArray(new MarkerOffer[0]);
+        sent.world = worldName;
+        sent.chunkX = playerChunkX;
+        sent.chunkZ = playerChunkZ;
+        sent.regions = regions;
+        ADDED.add(added);
+        REMOVED.add(removed);
+        REFRESH_TIME.recordSince(start);
+
+        if (logger != null && (added > 0 || removed > 0)) {
+            logger.atFine().log("[ClaimMap] Markers for %s: +%d -%d (%d visible)", playerId, added, removed, visible.size());
+        }
+    }
+
+    private static MapMarker createMarker(String id, String name, com.hypixel.hytale.math.vector.Vector3d pos) {
+        // Create the Transform using the same pattern as SpawnMarkerProvider
+        com.hypixel.hytale.math.vector.Transform mathTransform =
+            new com.hypixel.hytale.math.vector.Transform(pos);
+        Transform protoTransform = com.hypixel.hytale.server.core.util.PositionUtil.toTransformPacket(mathTransform);
+
+        // Use "Spawn.png" as a known working marker icon, null for context menu
+        return new MapMarker(id, name, "Spawn.png", protoTransform, null);
+    }
+
     /**
      * Clears cached overlay data for a player (call on disconnect).
      */
     public void clearPlayerCache(UUID playerId) {
         sentOverlays.remove(playerId);
+        hasLoggedDebug.remove(playerId);
     }
 
     /**
@@ -232,26 +190,42 @@ public class ClaimMapOverlayProvider implements WorldMapManager.MarkerProvider {
 
     /**
      * Invalidates cached overlays for specific chunks (call when claims change).
+     * Claim changes already reach ClaimRegionIndex; this forces a recompute for display
+     * changes that don't alter the regions (e.g. owner renames).
      */
     public void invalidateChunks(String world, int... chunkCoords) {
-        for (int i = 0; i < chunkCoords.length; i += 2) {
-            String chunkKey = ChunkUtil.chunkKey(chunkCoords[i], chunkCoords[i + 1]);
-            String overlayKey = world + ":" + chunkKey;
+        invalidateWorld(world);
+    }
 
-            // Remove from all player caches so it gets resent
-            for (Set<String> cache : sentOverlays.values()) {
-                cache.remove(overlayKey);
+    /**
+     * Invalidates all cached overlays for a world.
+     */
+    public void invalidateWorld(String world) {
+        for (SentMarkers sent : sentOverlays.values()) {
+            if (world.equals(sent.world)) {
+                sent.regions = null;
             }
         }
     }
 
+    private record MarkerOffer(String id, String name, com.hypixel.hytale.math.vector.Vector3d position) {
+    }
+
     /**
-     * Invalidates all cached overlays for a world.
+     * A player's visible markers and the inputs they were computed from.
      */
-    public void invalidateWorld(String world) {
-        String prefix = world + ":";
-        for (Set<String> cache : sentOverlays.values()) {
-            cache.removeIf(key -> key.startsWith(prefix));
+    private static class SentMarkers {
+        private volatile String world;
+        private volatile int chunkX;
+        private volatile int chunkZ;
+        private volatile List<ClaimRegion> regions;
+        private volatile Map<String, MarkerOffer> byId = new HashMap<>();
+        private volatile MarkerOffer[] offers = new MarkerOffer[0];
+
+        boolean isCurrent(String worldName, int playerChunkX, int playerChunkZ, List<ClaimRegion> currentRegions) {
+            // Region lists are replaced, never modified, whenever claims change
+            return regions == currentRegions && chunkX == playerChunkX && chunkZ == playerChunkZ
+                    && worldName.equals(world);
         }
     }
 }
@@ -0,0 +1,108 @@
+package com.hytown.map;
+
+import com.hytown.util.ChunkUtil;
+
+import java.util.UUID;
+
+/**
+ * One connected area of chunks claimed by a single owner, as used for map markers.
+ *
+ * The label chunk is a claimed chunk of the region closest to its centroid, so the label never
+ * sits outside it.
+ */
+public class ClaimRegion {
+
+    private final String id;
+    private final UUID owner;
+    private final int chunkCount;
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int maxChunkX;
+    private final int maxChunkZ;
+    private final int labelChunkX;
+    private final int labelChunkZ;
+    private final long version;
+
+    public ClaimRegion(String id, UUID owner, int chunkCount, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ,
+                       int labelChunkX, int labelChunkZ, long version) {
+        this.id = id;
+        this.owner = owner;
+        this.chunkCount = chunkCount;
+        this.minChunkX = minChunkX;
+        this.minChunkZ = minChunkZ;
+        this.maxChunkX = maxChunkX;
+        this.maxChunkZ = maxChunkZ;
+        this.labelChunkX = labelChunkX;
+        this.labelChunkZ = labelChunkZ;
+        this.version = version;
+    }
+
+    /**
+     * Stable identifier (owner and the region's first chunk), used as the marker ID.
+     */
+    public String getId() {
+        return id;
+    }
+
+    public UUID getOwner() {
+        return owner;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    public int getMinChunkX() {
+        return minChunkX;
+    }
+
+    public int getMinChunkZ() {
+        return minChunkZ;
+    }
+
+    public int getMaxChunkX() {
+        return maxChunkX;
+    }
+
+    public int getMaxChunkZ() {
+        return maxChunkZ;
+    }
+
+    /**
+     * Whether any part of the region lies in a chunk rectangle (inclusive).
+     */
+    public boolean intersects(int fromChunkX, int fromChunkZ, int toChunkX, int toChunkZ) {
+        return maxChunkX >= fromChunkX && minChunkX <= toChunkX
+                && maxChunkZ >= fromChunkZ && minChunkZ <= toChunkZ;
+    }
+
+    public int getLabelChunkX() {
+        return labelChunkX;
+    }
+
+    public int getLabelChunkZ() {
+        return labelChunkZ;
+    }
+
+    /**
+     * Block X coordinate of the label (center of the label chunk).
+     */
+    public double getLabelX() {
+        return labelChunkX * ChunkUtil.CHUNK_SIZE + ChunkUtil.CHUNK_SIZE / 2.0;
+    }
+
+    /**
+     * Block Z coordinate of the label (center of the label chunk).
+     */
+    public double getLabelZ() {
+        return labelChunkZ * ChunkUtil.CHUNK_SIZE + ChunkUtil.CHUNK_SIZE / 2.0;
+    }
+
+    /**
+     * Changes whenever the region's shape changes. Two regions with the same ID and version
+     * look the same on the map.
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,270 @@
+package com.hytown.map;
+
+import com.hytown.data.Claim;
+import com.hytown.data.ClaimChangeListener;
+import com.hytown.data.ClaimStorage;
+import com.hytown.data.PlayerClaims;
+import com.hytown.util.ChunkUtil;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merges each owner's claimed chunks into connected regions, per world.
+ *
+ * Regions are built lazily and cached per owner. Claim change notifications mark the previous
+ * and new owner of each changed chunk dirty, so only those owners are rebuilt on the next
+ * read. Map markers are then sent per region instead of per chunk, which keeps marker traffic
+ * proportional to the number of claim areas rather than their size.
+ */
+public class ClaimRegionIndex implements ClaimChangeListener {
+
+    private final ClaimStorage claimStorage;
+    private final Map<String, WorldRegions> worlds = new ConcurrentHashMap<>();
+
+    public ClaimRegionIndex(ClaimStorage claimStorage) {
+        this.claimStorage = claimStorage;
+    }
+
+    /**
+     * Gets every claim region in a world. The returned list is shared and must not be modified.
+     */
+    public List<ClaimRegion> getRegions(String world) {
+        WorldRegions regions = worlds.computeIfAbsent(world, k -> new WorldRegions());
+        synchronized (regions) {
+            if (!regions.built) {
+                buildWorld(world, regions);
+            } else if (!regions.dirtyOwners.isEmpty()) {
+                for (UUID owner : regions.dirtyOwners) {
+                    rebuildOwner(world, regions, owner);
+                }
+                regions.dirtyOwners.clear();
+                regions.all = null;
+            }
+            if (regions.all == null) {
+                List<ClaimRegion> all = new ArrayList<>();
+                for (List<ClaimRegion> ownerRegions : regions.byOwner.values()) {
+                    all.addAll(ownerRegions);
+                }
+                regions.all = Collections.unmodifiableList(all);
+            }
+            return regions.all;
+        }
+    }
+
+    /**
+     * Brings a world up to date and returns the label chunks (packed, see ChunkUtil.packChunk)
+     * of every region removed, added or reshaped since the last call. Map tiles near these
+     * chunks show a label that moved or changed.
+     */
+    public LongSet drainChangedLabels(String world) {
+        getRegions(world);
+        WorldRegions regions = worlds.get(world);
+        if (regions == null) return new LongOpenHashSet();
+
+        synchronized (regions) {
+            LongSet changed = new LongOpenHashSet(regions.labelChunks);
+            regions.labelChunks.clear();
+            return changed;
+        }
+    }
+
+    @Override
+    public void onChunksChanged(String world, Collection<int[]> chunks) {
+        WorldRegions regions = worlds.get(world);
+        if (regions == null) return;
+
+        synchronized (regions) {
+            if (!regions.built) return;
+            for (int[] chunk : chunks) {
+                UUID previous = regions.chunkOwners.get(ChunkUtil.packChunk(chunk[0], chunk[1]));
+                UUID current = claimStorage.getClaimOwner(world, chunk[0], chunk[1]);
+                if (previous != null) regions.dirtyOwners.add(previous);
+                if (current != null) regions.dirtyOwners.add(current);
+            }
+        }
+    }
+
+    @Override
+    public void onAllChanged() {
+        worlds.clear();
+    }
+
+    private void buildWorld(String world, WorldRegions regions) {
+        Map<UUID, LongSet> cellsByOwner = new HashMap<>();
+        for (Map.Entry<String, UUID> entry : claimStorage.getClaimedChunksInWorld(world).entrySet()) {
+            int[] coords = ChunkUtil.parseChunkKey(entry.getKey());
+            if (coords == null) continue;
+            cellsByOwner.computeIfAbsent(entry.getValue(), k -> new LongOpenHashSet())
+                    .add(ChunkUtil.packChunk(coords[0], coords[1]));
+        }
+
+        regions.byOwner.clear();
+        regions.ownerCells.clear();
+        regions.chunkOwners.clear();
+        regions.dirtyOwners.clear();
+        for (Map.Entry<UUID, LongSet> entry : cellsByOwner.entrySet()) {
+            setOwnerCells(regions, entry.getKey(), entry.getValue());
+        }
+        regions.all = null;
+        regions.built = true;
+    }
+
+    private void rebuildOwner(String world, WorldRegions regions, UUID owner) {
+        LongSet cells = new LongOpenHashSet();
+        PlayerClaims playerClaims = claimStorage.getPlayerClaims(owner);
+        if (playerClaims != null) {
+            for (Claim claim : new ArrayList<>(playerClaims.getClaims())) {
+                if (world.equals(claim.getWorld())) {
+                    cells.add(ChunkUtil.packChunk(claim.getChunkX(), claim.getChunkZ()));
+                }
+            }
+        }
+
+        LongSet previous = regions.ownerCells.remove(owner);
+        if (previous != null) {
+            for (LongIterator it = previous.iterator(); it.hasNext(); ) {
+                long cell = it.nextLong();
+                if (owner.equals(regions.chunkOwners.get(cell))) {
+                    regions.chunkOwners.remove(cell);
+                }
+            }
+        }
+        // Labels of the old and new regions are redrawn on the map tiles around them
+        addLabelChunks(regions.labelChunks, regions.byOwner.remove(owner));
+
+        if (!cells.isEmpty()) {
+            setOwnerCells(regions, owner, cells);
+            addLabelChunks(regions.labelChunks, regions.byOwner.get(owner));
+        }
+    }
+
+    private static void addLabelChunks(LongSet labelChunks, List<ClaimRegion> ownerRegions) {
+        if (ownerRegions == null) return;
+        for (ClaimRegion region : ownerRegions) {
+            labelChunks.add(ChunkUtil.packChunk(region.getLabelChunkX(), region.getLabelChunkZ()));
+        }
+    }
+
+    private static void setOwnerCells(WorldRegions regions, UUID owner, LongSet cells) {
+        regions.ownerCells.put(owner, cells);
+        for (LongIterator it = cells.iterator(); it.hasNext(); ) {
+            regions.chunkOwners.put(it.nextLong(), owner);
+        }
+        regions.byOwner.put(owner, buildRegions(owner, cells));
+    }
+
+    /**
+     * Splits an owner's cells into 4-connected regions.
+     */
+    private static List<ClaimRegion> buildRegions(UUID owner, LongSet cells) {
+        List<ClaimRegion> result = new ArrayList<>();
+        LongSet visited = new LongOpenHashSet(cells.size());
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+
+        for (LongIterator it = cells.iterator(); it.hasNext(); ) {
+            long start = it.nextLong();
+            if (!visited.add(start)) continue;
+
+            LongSet component = new LongOpenHashSet();
+            queue.enqueue(start);
+            while (!queue.isEmpty()) {
+                long cell = queue.dequeueLong();
+                component.add(cell);
+                int x = ChunkUtil.unpackChunkX(cell);
+                int z = ChunkUtil.unpackChunkZ(cell);
+                long[] neighbors = {
+                        ChunkUtil.packChunk(x + 1, z), ChunkUtil.packChunk(x - 1, z),
+                        ChunkUtil.packChunk(x, z + 1), ChunkUtil.packChunk(x, z - 1)
+                };
+                for (long neighbor : neighbors) {
+                    if (cells.contains(neighbor) && visited.add(neighbor)) {
+                        queue.enqueue(neighbor);
+                    }
+                }
+            }
+            result.add(buildRegion(owner, component));
+        }
+        return result;
+    }
+
+    private static ClaimRegion buildRegion(UUID owner, LongSet cells) {
+        int minX = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        long sumX = 0, sumZ = 0;
+        long version = cells.size();
+        int anchorX = 0, anchorZ = 0;
+        boolean haveAnchor = false;
+
+        for (LongIterator it = cells.iterator(); it.hasNext(); ) {
+            long cell = it.nextLong();
+            int x = ChunkUtil.unpackChunkX(cell);
+            int z = ChunkUtil.unpackChunkZ(cell);
+            minX = Math.min(minX, x);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxZ = Math.max(maxZ, z);
+            sumX += x;
+            sumZ += z;
+            // Order-independent shape hash
+            version += mix(cell);
+            if (!haveAnchor || x < anchorX || (x == anchorX && z < anchorZ)) {
+                anchorX = x;
+                anchorZ = z;
+                haveAnchor = true;
+            }
+        }
+
+        // Label on the claimed chunk nearest the centroid
+        double centerX = (double) sumX / cells.size();
+        double centerZ = (double) sumZ / cells.size();
+        int labelX = anchorX, labelZ = anchorZ;
+        double best = Double.MAX_VALUE;
+        for (LongIterator it = cells.iterator(); it.hasNext(); ) {
+            long cell = it.nextLong();
+            int x = ChunkUtil.unpackChunkX(cell);
+            int z = ChunkUtil.unpackChunkZ(cell);
+            double distance = (x - centerX) * (x - centerX) + (z - centerZ) * (z - centerZ);
+            if (distance < best) {
+                best = distance;
+                labelX = x;
+                labelZ = z;
+            }
+        }
+
+        String id = "claim_" + owner + "_" + anchorX + "_" + anchorZ;
+        return new ClaimRegion(id, owner, cells.size(), minX, minZ, maxX, maxZ, labelX, labelZ, version);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    /**
+     * One world's regions. Guarded by synchronizing on the instance.
+     */
+    private static class WorldRegions {
+        private final Map<UUID, List<ClaimRegion>> byOwner = new HashMap<>();
+        private final Map<UUID, LongSet> ownerCells = new HashMap<>();
+        private final Long2ObjectOpenHashMap<UUID> chunkOwners = new Long2ObjectOpenHashMap<>();
+        private final Set<UUID> dirtyOwners = new HashSet<>();
+        private final LongSet labelChunks = new LongOpenHashSet();
+        private List<ClaimRegion> all;
+        private boolean built;
+    }
+}
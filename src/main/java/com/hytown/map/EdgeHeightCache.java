@@ -0,0 +1,164 @@
+package com.hytown.map;
+
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Edge height strips of the chunks in one map generation batch.
+ *
+ * Hill shading at a tile's edges needs the heights just across the border, i.e. one row or
+ * column of each of the 8 neighbouring chunks. Most neighbours are in the same batch and get
+ * fetched for their own tile anyway, so each fetched chunk records its 4 edge strips here once
+ * and neighbours read them from this table. Only neighbours outside the batch are fetched
+ * (once each, however many tiles border them).
+ *
+ * Strip layout per chunk: first row (z = 0), last row, first column (x = 0), last column, at
+ * the builder's sample positions.
+ */
+final class EdgeHeightCache {
+
+    private final World world;
+    private final long requestCenter;
+    private final int sampleWidth;
+    private final int sampleHeight;
+    private final int blockStepX;
+    private final int blockStepZ;
+
+    // Chunks without an entry were not fetched; null values are chunks that don't exist
+    private final Long2ObjectOpenHashMap<short[]> strips = new Long2ObjectOpenHashMap<>();
+
+    EdgeHeightCache(World world, long requestCenter, int sampleWidth, int sampleHeight, int blockStepX, int blockStepZ) {
+        this.world = world;
+        this.requestCenter = requestCenter;
+        this.sampleWidth = sampleWidth;
+        this.sampleHeight = sampleHeight;
+        this.blockStepX = blockStepX;
+        this.blockStepZ = blockStepZ;
+    }
+
+    /**
+     * Center chunk of the batch, passed to the render scheduler with every load.
+     */
+    long getRequestCenter() {
+        return this.requestCenter;
+    }
+
+    /**
+     * Records the edge strips of a fetched chunk (null if the chunk is not available).
+     */
+    void record(long chunkIndex, @Nullable WorldChunk chunk) {
+        short[] chunkStrips = chunk != null ? sample(chunk) : null;
+        synchronized (this.strips) {
+            this.strips.put(chunkIndex, chunkStrips);
+        }
+    }
+
+    /**
+     * Fetches the chunks around the given tiles that have not been recorded yet.
+     */
+    CompletableFuture<Void> fetchMissingNeighbors(List<Long> tileIndices) {
+        LongSet missing = new LongOpenHashSet();
+        synchronized (this.strips) {
+            for (long index : tileIndices) {
+                int chunkX = ChunkUtil.xOfChunkIndex(index);
+                int chunkZ = ChunkUtil.zOfChunkIndex(index);
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dz = -1; dz <= 1; dz++) {
+                        long neighbor = ChunkUtil.indexChunk(chunkX + dx, chunkZ + dz);
+                        if (!this.strips.containsKey(neighbor)) {
+                            missing.add(neighbor);
+                        }
+                    }
+                }
+            }
+        }
+
+        List<CompletableFuture<Void>> fetches = new ArrayList<>(missing.size());
+        for (LongIterator it = missing.iterator(); it.hasNext(); ) {
+            long neighbor = it.nextLong();
+            fetches.add(MapRenderScheduler.loadChunk(this.world, neighbor, this.requestCenter, (ref) -> {
+                WorldChunk chunk = ref != null && ref.isValid()
+                        ? ref.getStore().getComponent(ref, WorldChunk.getComponentType()) : null;
+                record(neighbor, chunk);
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(fetches.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Copies the neighbouring strips into a (sampleWidth + 2) x (sampleHeight + 2) height grid.
+     * The interior is left untouched; borders of missing neighbours stay 0.
+     */
+    void fillBorder(long chunkIndex, short[] grid) {
+        int w = this.sampleWidth;
+        int h = this.sampleHeight;
+        int stride = w + 2;
+        int chunkX = ChunkUtil.xOfChunkIndex(chunkIndex);
+        int chunkZ = ChunkUtil.zOfChunkIndex(chunkIndex);
+
+        short[] north;
+        short[] south;
+        short[] west;
+        short[] east;
+        short[] northWest;
+        short[] northEast;
+        short[] southWest;
+        short[] southEast;
+        synchronized (this.strips) {
+            north = this.strips.get(ChunkUtil.indexChunk(chunkX, chunkZ - 1));
+            south = this.strips.get(ChunkUtil.indexChunk(chunkX, chunkZ + 1));
+            west = this.strips.get(ChunkUtil.indexChunk(chunkX - 1, chunkZ));
+            east = this.strips.get(ChunkUtil.indexChunk(chunkX + 1, chunkZ));
+            northWest = this.strips.get(ChunkUtil.indexChunk(chunkX - 1, chunkZ - 1));
+            northEast = this.strips.get(ChunkUtil.indexChunk(chunkX + 1, chunkZ - 1));
+            southWest = this.strips.get(ChunkUtil.indexChunk(chunkX - 1, chunkZ + 1));
+            southEast = this.strips.get(ChunkUtil.indexChunk(chunkX + 1, chunkZ + 1));
+        }
+
+        int firstRow = 0;
+        int lastRow = w;
+        int firstCol = 2 * w;
+        int lastCol = 2 * w + h;
+
+        if (north != null) System.arraycopy(north, lastRow, grid, 1, w);
+        if (south != null) System.arraycopy(south, firstRow, grid, (h + 1) * stride + 1, w);
+        for (int iz = 0; iz < h; iz++) {
+            if (west != null) grid[(iz + 1) * stride] = west[lastCol + iz];
+            if (east != null) grid[(iz + 1) * stride + w + 1] = east[firstCol + iz];
+        }
+        if (northWest != null) grid[0] = northWest[lastRow + w - 1];
+        if (northEast != null) grid[w + 1] = northEast[lastRow];
+        if (southWest != null) grid[(h + 1) * stride] = southWest[firstRow + w - 1];
+        if (southEast != null) grid[(h + 1) * stride + w + 1] = southEast[firstRow];
+    }
+
+    private short[] sample(WorldChunk chunk) {
+        int w = this.sampleWidth;
+        int h = this.sampleHeight;
+        short[] result = new short[2 * w + 2 * h];
+        int lastZ = (h - 1) * this.blockStepZ;
+        int lastX = (w - 1) * this.blockStepX;
+        for (int ix = 0; ix < w; ix++) {
+            int x = ix * this.blockStepX;
+            result[ix] = chunk.getHeight(x, 0);
+            result[w + ix] = chunk.getHeight(x, lastZ);
+        }
+        for (int iz = 0; iz < h; iz++) {
+            int z = iz * this.blockStepZ;
+            result[2 * w + iz] = chunk.getHeight(0, z);
+            result[2 * w + h + iz] = chunk.getHeight(lastX, z);
+        }
+        return result;
+    }
+}
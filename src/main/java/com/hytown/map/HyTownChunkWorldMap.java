@@ -6,7 +6,6 @@ import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.map.WorldMap;
 import com.hypixel.hytale.server.core.universe.world.worldmap.IWorldMap;
 import com.hypixel.hytale.server.core.universe.world.worldmap.WorldMapSettings;
-import it.unimi.dsi.fastutil.longs.LongIterator;
 import it.unimi.dsi.fastutil.longs.LongSet;
 
 import java.util.Collections;
@@ -32,23 +31,13 @@ public class HyTownChunkWorldMap implements IWorldMap {
 
     @Override
     public CompletableFuture<WorldMap> generate(World world, int imageWidth, int imageHeight, LongSet chunksToGenerate) {
-        @SuppressWarnings("unchecked")
-        CompletableFuture<ClaimImageBuilder>[] futures = new CompletableFuture[chunksToGenerate.size()];
-        int futureIndex = 0;
-
-        for (LongIterator iterator = chunksToGenerate.iterator(); iterator.hasNext(); ) {
-            long chunkIndex = iterator.nextLong();
-            futures[futureIndex++] = ClaimImageBuilder.build(chunkIndex, imageWidth, imageHeight, world);
-        }
-
-        return CompletableFuture.allOf(futures).thenApply((unused) -> {
-            WorldMap worldMap = new WorldMap(futures.length);
-
-            for (int i = 0; i < futures.length; ++i) {
-                ClaimImageBuilder builder = futures[i].getNow(null);
-                if (builder != null) {
-                    worldMap.getChunks().put(builder.getIndex(), builder.getImage());
-                }
+        // Rendered as one batch so neighbouring chunks share their edge heights. Chunk loads go
+        // through MapRenderScheduler, so a large request is paced instead of hitting one tick.
+        return ClaimImageBuilder.buildBatch(chunksToGenerate, imageWidth, imageHeight, world).thenApply((builders) -> {
+            WorldMap worldMap = new WorldMap(builders.size());
+
+            for (ClaimImageBuilder builder : builders) {
+                worldMap.getChunks().put(builder.getIndex(), builder.getImage());
             }
 
             return worldMap;
@@ -0,0 +1,137 @@
+package com.hytown.map;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claim labels rasterized once into RGBA sprites and blitted into map tiles.
+ *
+ * A label (owner/town name in white, then up to MAX_TRUSTED_LINES trusted names in yellow, all
+ * outlined in black) is drawn with BitmapFont into its own transparent buffer the first time
+ * it is needed. Every tile the label overlaps then only copies the opaque sprite pixels, so
+ * the glyphs of a name are never drawn again until the label text changes.
+ */
+public class LabelSpriteCache {
+
+    public static final int MAX_TRUSTED_LINES = 2;
+    public static final int MAX_LINE_CHARS = 20;
+    // Outline adds one pixel on each side
+    public static final int MAX_WIDTH = BitmapFont.getTextWidth("x".repeat(MAX_LINE_CHARS)) + 2;
+
+    // Smaller zoom levels would draw text larger than the claims it names
+    public static final int MIN_TILE_SIZE = TerrainPyramid.BASE_SIZE / 2;
+
+    private static final int LINE_HEIGHT = BitmapFont.CHAR_HEIGHT + 2;
+    private static final int MAX_SPRITES = 1024;
+
+    private static final Map<String, Sprite> SPRITES = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Sprite> eldest) {
+            return size() > MAX_SPRITES;
+        }
+    };
+
+    /**
+     * Gets the sprite for a label, rasterizing it on first use.
+     */
+    public static Sprite get(String name, List<String> trustedNames) {
+        int trustedLines = Math.min(trustedNames.size(), MAX_TRUSTED_LINES);
+        StringBuilder key = new StringBuilder(truncate(name));
+        for (int i = 0; i < trustedLines; i++) {
+            key.append('\n').append(truncate(trustedNames.get(i)));
+        }
+        String cacheKey = key.toString();
+
+        synchronized (SPRITES) {
+            Sprite cached = SPRITES.get(cacheKey);
+            if (cached != null) return cached;
+        }
+
+        Sprite sprite = rasterize(cacheKey.split("\n"));
+        synchronized (SPRITES) {
+            SPRITES.put(cacheKey, sprite);
+        }
+        return sprite;
+    }
+
+    /**
+     * How many chunks away from its label chunk a label can reach on tiles of the given size.
+     */
+    public static int reachInChunks(int tileSize) {
+        return MAX_WIDTH / 2 / tileSize + 1;
+    }
+
+    /**
+     * Drops all sprites (e.g. on shutdown).
+     */
+    public static void clear() {
+        synchronized (SPRITES) {
+            SPRITES.clear();
+        }
+    }
+
+    private static String truncate(String text) {
+        return text.length() > MAX_LINE_CHARS ? text.substring(0, MAX_LINE_CHARS) : text;
+    }
+
+    private static Sprite rasterize(String[] lines) {
+        int width = 0;
+        for (String line : lines) {
+            width = Math.max(width, BitmapFont.getTextWidth(line) + 2);
+        }
+        int height = lines.length * LINE_HEIGHT;
+        int[] pixels = new int[width * height];
+
+        for (int i = 0; i < lines.length; i++) {
+            int color = i == 0 ? BitmapFont.WHITE : BitmapFont.YELLOW;
+            BitmapFont.drawTextCenteredWithOutline(pixels, width, height, lines[i], i * LINE_HEIGHT + 1,
+                    color, BitmapFont.BLACK);
+        }
+        return new Sprite(width, height, pixels);
+    }
+
+    /**
+     * A rasterized label. Pixels with zero alpha are transparent.
+     */
+    public static final class Sprite {
+        private final int width;
+        private final int height;
+        private final int[] pixels;
+
+        private Sprite(int width, int height, int[] pixels) {
+            this.width = width;
+            this.height = height;
+            this.pixels = pixels;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * Copies the opaque pixels into an image with the sprite's top-left corner at (x, y),
+         * clipped to the image bounds.
+         */
+        public void blit(int[] imageData, int imageWidth, int imageHeight, int x, int y) {
+            int fromX = Math.max(0, -x);
+            int toX = Math.min(width, imageWidth - x);
+            int fromY = Math.max(0, -y);
+            int toY = Math.min(height, imageHeight - y);
+            for (int sy = fromY; sy < toY; sy++) {
+                int src = sy * width;
+                int dst = (y + sy) * imageWidth + x;
+                for (int sx = fromX; sx < toX; sx++) {
+                    int pixel = pixels[src + sx];
+                    if ((pixel & 0xFF) != 0) {
+                        imageData[dst + sx] = pixel;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -2,9 +2,14 @@ package com.hytown.map;
 
 import com.hypixel.hytale.protocol.packets.worldmap.MapImage;
 
+import java.awt.Color;
+
 /**
  * Composites claim overlays onto map images.
  * Draws semi-transparent fills with solid borders to show claim boundaries.
+ *
+ * Note: MapImage pixels are packed RGBA. compositeClaim() works on that layout and is what
+ * ClaimImageBuilder uses; the older overlay helpers below build ARGB pixels.
  */
 public class MapImageCompositor {
 
@@ -21,6 +26,86 @@ public class MapImageCompositor {
     // Debug: Force red color for testing
     public static final boolean DEBUG_RED_OVERLAY = true;
 
+    // Claim tint blended into terrain by compositeClaim()
+    public static final float CLAIM_FILL_BLEND = 0.4f;
+    public static final float CLAIM_BORDER_BLEND = 0.7f;
+    // Border thickness at full resolution (32 px per chunk), scaled down for smaller images
+    public static final int CLAIM_BORDER_WIDTH = 3;
+
+    /**
+     * Tints terrain pixels with a claim color (packed RGBA, as stored in MapImage.data).
+     * Edges facing a chunk with a different owner get a stronger border tint.
+     *
+     * @param terrain     Source terrain pixels (not modified)
+     * @param out         Destination pixels, same size as terrain (may be the same array)
+     * @param width       Image width in pixels
+     * @param height      Image height in pixels
+     * @param claimColor  The owner's claim color
+     * @param borderWidth Border thickness in pixels
+     * @param borderNorth Draw a border on the north (top) edge
+     * @param borderSouth Draw a border on the south (bottom) edge
+     * @param borderWest  Draw a border on the west (left) edge
+     * @param borderEast  Draw a border on the east (right) edge
+     */
+    public static void compositeClaim(int[] terrain, int[] out, int width, int height, Color claimColor, int borderWidth,
+                                      boolean borderNorth, boolean borderSouth, boolean borderWest, boolean borderEast) {
+        float fillR = claimColor.getRed() * CLAIM_FILL_BLEND;
+        float fillG = claimColor.getGreen() * CLAIM_FILL_BLEND;
+        float fillB = claimColor.getBlue() * CLAIM_FILL_BLEND;
+        float borderR = claimColor.getRed() * CLAIM_BORDER_BLEND;
+        float borderG = claimColor.getGreen() * CLAIM_BORDER_BLEND;
+        float borderB = claimColor.getBlue() * CLAIM_BORDER_BLEND;
+        float fillKeep = 1 - CLAIM_FILL_BLEND;
+        float borderKeep = 1 - CLAIM_BORDER_BLEND;
+
+        // Blend coefficients per column for the two kinds of row: rows inside the claim (border
+        // only in the west/east columns) and rows that are entirely border (north/south edges)
+        float[] fillRowKeep = new float[width];
+        float[] fillRowR = new float[width];
+        float[] fillRowG = new float[width];
+        float[] fillRowB = new float[width];
+        for (int x = 0; x < width; x++) {
+            boolean isBorder = (borderWest && x < borderWidth) || (borderEast && x >= width - borderWidth);
+            fillRowKeep[x] = isBorder ? borderKeep : fillKeep;
+            fillRowR[x] = isBorder ? borderR : fillR;
+            fillRowG[x] = isBorder ? borderG : fillG;
+            fillRowB[x] = isBorder ? borderB : fillB;
+        }
+
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            boolean rowBorder = (borderNorth && y < borderWidth)
+                    || (borderSouth && y >= height - borderWidth);
+            if (rowBorder) {
+                blendRow(terrain, out, row, width, borderKeep, borderR, borderG, borderB);
+            } else {
+                blendRow(terrain, out, row, width, fillRowKeep, fillRowR, fillRowG, fillRowB);
+            }
+        }
+    }
+
+    private static void blendRow(int[] terrain, int[] out, int row, int width,
+                                 float keep, float addR, float addG, float addB) {
+        for (int x = 0; x < width; x++) {
+            int pixel = terrain[row + x];
+            int r = (int) ((pixel >>> 24) * keep + addR);
+            int g = (int) (((pixel >> 16) & 0xFF) * keep + addG);
+            int b = (int) (((pixel >> 8) & 0xFF) * keep + addB);
+            out[row + x] = (r & 0xFF) << 24 | (g & 0xFF) << 16 | (b & 0xFF) << 8 | (pixel & 0xFF);
+        }
+    }
+
+    private static void blendRow(int[] terrain, int[] out, int row, int width,
+                                 float[] keep, float[] addR, float[] addG, float[] addB) {
+        for (int x = 0; x < width; x++) {
+            int pixel = terrain[row + x];
+            int r = (int) ((pixel >>> 24) * keep[x] + addR[x]);
+            int g = (int) (((pixel >> 16) & 0xFF) * keep[x] + addG[x]);
+            int b = (int) (((pixel >> 8) & 0xFF) * keep[x] + addB[x]);
+            out[row + x] = (r & 0xFF) << 24 | (g & 0xFF) << 16 | (b & 0xFF) << 8 | (pixel & 0xFF);
+        }
+    }
+
     /**
      * Creates a new claim overlay image for a chunk.
      * This creates a semi-transparent colored overlay with a border.
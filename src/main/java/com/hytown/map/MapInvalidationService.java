@@ -0,0 +1,228 @@
+package com.hytown.map;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hytown.HyTown;
+import com.hytown.data.ClaimChangeListener;
+import com.hytown.util.HyTownScheduler;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batches world map refreshes after claim changes.
+ *
+ * Claim, unclaim, town delete and town/plot settings changes arrive through ClaimChangeListener
+ * (and the HyTown.refresh* methods). Each changed chunk and its neighbours (their borders depend
+ * on it) are collected per world for DEBOUNCE_MS, then each world gets one clearImagesInChunks
+ * and one clearChunks per player tracker for the merged set. A mass unclaim therefore costs a
+ * single refresh per world instead of one per chunk. The flush itself runs on the scheduler
+ * thread; the clears are handed to each world's thread through world.execute.
+ *
+ * Claim labels span several tiles around their region's label chunk, so when a change moves or
+ * alters a region, the tiles its old and new labels can reach are refreshed as well.
+ */
+public class MapInvalidationService implements ClaimChangeListener {
+
+    private static final long DEBOUNCE_MS = 250;
+
+    private final HytaleLogger logger;
+    private final ClaimRegionIndex regionIndex;
+    private final HyTownScheduler scheduler;
+
+    // Guarded by this
+    private final Map<String, LongSet> dirtyChunks = new HashMap<>();
+    private final Set<String> dirtyWorlds = new HashSet<>();
+    private boolean flushScheduled;
+    private boolean shutdown;
+
+    public MapInvalidationService(HytaleLogger logger, ClaimRegionIndex regionIndex, HyTownScheduler scheduler) {
+        this.logger = logger;
+        this.regionIndex = regionIndex;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Queues a chunk and its neighbours for refresh.
+     */
+    public synchronized void invalidateChunk(String worldName, int chunkX, int chunkZ) {
+        addWithNeighbours(dirtyChunks.computeIfAbsent(worldName, k -> new LongOpenHashSet()), chunkX, chunkZ);
+        scheduleFlush();
+    }
+
+    /**
+     * Queues chunks (as {chunkX, chunkZ} pairs) and their neighbours for refresh.
+     */
+    public synchronized void invalidateChunks(String worldName, Collection<int[]> chunks) {
+        if (chunks.isEmpty()) return;
+        LongSet dirty = dirtyChunks.computeIfAbsent(worldName, k -> new LongOpenHashSet());
+        for (int[] chunk : chunks) {
+            addWithNeighbours(dirty, chunk[0], chunk[1]);
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Queues a refresh of a whole world's map.
+     */
+    public synchronized void invalidateWorld(String worldName) {
+        dirtyWorlds.add(worldName);
+        dirtyChunks.remove(worldName);
+        scheduleFlush();
+    }
+
+    @Override
+    public void onChunksChanged(String world, Collection<int[]> chunks) {
+        invalidateChunks(world, chunks);
+    }
+
+    @Override
+    public void onAllChanged() {
+        for (String worldName : HyTown.WORLDS.keySet()) {
+            invalidateWorld(worldName);
+        }
+    }
+
+    /**
+     * Stops taking refreshes. Pending ones are dropped.
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+        dirtyChunks.clear();
+        dirtyWorlds.clear();
+    }
+
+    private static void addWithNeighbours(LongSet dirty, int chunkX, int chunkZ) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                dirty.add(ChunkUtil.indexChunk(chunkX + dx, chunkZ + dz));
+            }
+        }
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled || shutdown || scheduler.isShutdown()) return;
+        try {
+            scheduler.schedule("map.invalidate", DEBOUNCE_MS, TimeUnit.MILLISECONDS, this::flush);
+            flushScheduled = true;
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private void flush() {
+        Map<String, LongSet> chunks;
+        Set<String> worlds;
+        synchronized (this) {
+            chunks = new HashMap<>(dirtyChunks);
+            worlds = new HashSet<>(dirtyWorlds);
+            dirtyChunks.clear();
+            dirtyWorlds.clear();
+            flushScheduled = false;
+        }
+
+        for (String worldName : worlds) {
+            refreshWorld(worldName);
+        }
+        for (Map.Entry<String, LongSet> entry : chunks.entrySet()) {
+            addLabelTiles(entry.getKey(), entry.getValue());
+            refreshChunks(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void addLabelTiles(String worldName, LongSet dirty) {
+        LongSet labelChunks = regionIndex.drainChangedLabels(worldName);
+        if (labelChunks.isEmpty()) return;
+
+        int reach = LabelSpriteCache.reachInChunks(LabelSpriteCache.MIN_TILE_SIZE);
+        for (LongIterator it = labelChunks.iterator(); it.hasNext(); ) {
+            long labelChunk = it.nextLong();
+            int labelX = com.hytown.util.ChunkUtil.unpackChunkX(labelChunk);
+            int labelZ = com.hytown.util.ChunkUtil.unpackChunkZ(labelChunk);
+            for (int dx = -reach; dx <= reach; dx++) {
+                for (int dz = -reach; dz <= reach; dz++) {
+                    dirty.add(ChunkUtil.indexChunk(labelX + dx, labelZ + dz));
+                }
+            }
+        }
+    }
+
+    private void refreshWorld(String worldName) {
+        World world = HyTown.WORLDS.get(worldName);
+        if (world == null) return;
+
+        runOnWorldThread(world, () -> {
+            try {
+                // Set the generator (in case it changed)
+                var worldMap = world.getWorldConfig().getWorldMapProvider().getGenerator(world);
+                world.getWorldMapManager().setGenerator(worldMap);
+
+                // Clear server-side cached map images
+                world.getWorldMapManager().clearImages();
+
+                // Clear each player's client-side cache to force re-request
+                for (Player player : world.getPlayers()) {
+                    try {
+                        player.getWorldMapTracker().clear();
+                    } catch (Exception e) {
+                        logger.atFine().withCause(e).log("[Map] Error clearing map for player");
+                    }
+                }
+
+                logger.atInfo().log("[Map] Refreshed map for world: %s (%d players notified)",
+                        worldName, world.getPlayers().size());
+            } catch (Exception e) {
+                logger.atWarning().withCause(e).log("[Map] Error refreshing map for world: %s", worldName);
+            }
+        });
+    }
+
+    private void refreshChunks(String worldName, LongSet chunksToRefresh) {
+        World world = HyTown.WORLDS.get(worldName);
+        if (world == null) return;
+
+        runOnWorldThread(world, () -> {
+            try {
+                // Clear server-side cached images for these chunks
+                world.getWorldMapManager().clearImagesInChunks(chunksToRefresh);
+
+                // Clear each player's client-side cache for these chunks
+                for (Player player : world.getPlayers()) {
+                    try {
+                        player.getWorldMapTracker().clearChunks(chunksToRefresh);
+                    } catch (Exception e) {
+                        logger.atFine().withCause(e).log("[Map] Error clearing chunks for player");
+                    }
+                }
+
+                logger.atFine().log("[Map] Refreshed %d chunks in world %s", chunksToRefresh.size(), worldName);
+            } catch (Exception e) {
+                logger.atWarning().withCause(e).log("[Map] Error refreshing %d chunks in world %s",
+                        chunksToRefresh.size(), worldName);
+            }
+        });
+    }
+
+    /**
+     * Flushes run on the scheduler thread; the map manager and trackers are only touched on the
+     * world's own thread.
+     */
+    private void runOnWorldThread(World world, Runnable task) {
+        try {
+            world.execute(task);
+        } catch (Exception e) {
+            // World shutting down
+            logger.atFine().withCause(e).log("[Map] Could not schedule map refresh in world %s", world.getName());
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.hytown.map;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import com.hytown.util.HyTownScheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Paces the chunk loads behind map rendering so opening the map doesn't compete with ticks.
+ *
+ * Map generation asks for every chunk it needs through loadChunk(). Per world, at most
+ * MAX_IN_FLIGHT chunk loads run at once. Each load belongs to the player whose map asked for
+ * it; queued loads start nearest to their player first, and loads that are by then further
+ * than CANCEL_DISTANCE chunks from their player (or whose player left) are dropped (their tiles
+ * are simply not rendered; the client asks again when it gets close). Player positions are
+ * read on the world thread before the first load of a world starts.
+ * The world thread part of each load (reading components) runs in time slices of at most
+ * SLICE_NANOS, one slice every SLICE_INTERVAL_MS, so a burst of map requests after a restart
+ * is spread over many ticks instead of landing in one.
+ */
+public final class MapRenderScheduler {
+
+    private static final int MAX_IN_FLIGHT = 32;
+    private static final int CANCEL_DISTANCE = 64;
+    private static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long SLICE_INTERVAL_MS = 50;
+
+    private static final Map<String, WorldQueue> QUEUES = new ConcurrentHashMap<>();
+    private static volatile HyTownScheduler scheduler;
+
+    private MapRenderScheduler() {
+    }
+
+    /**
+     * Sets the plugin scheduler that paces slices. Until set, slices run without a pause.
+     */
+    public static void setScheduler(HyTownScheduler scheduler) {
+        MapRenderScheduler.scheduler = scheduler;
+    }
+
+    /**
+     * Queues a chunk load for map rendering. Once the chunk reference is available, reader runs
+     * on the world thread within a time slice; if the load is dropped (too far from its player
+     * or shutdown), reader runs with null on the calling thread. The reader must handle null.
+     *
+     * @param requestCenter center chunk of the batch the load is for. The map API doesn't say
+     *                      which tracker asked, but a tracker requests the tiles around its
+     *                      player, so the player nearest this chunk is taken as the requester
+     */
+    public static <T> CompletableFuture<T> loadChunk(World world, long chunkIndex, long requestCenter,
+                                                     Function<Ref<ChunkStore>, T> reader) {
+        WorldQueue queue = QUEUES.computeIfAbsent(world.getName(), k -> new WorldQueue(world));
+        Load<T> load = new Load<>(chunkIndex, requestCenter, reader);
+        boolean ready;
+        synchronized (queue) {
+            load.distance = queue.distance(load);
+            queue.pending.add(load);
+            ready = queue.refreshed;
+        }
+        if (ready) {
+            queue.dispatch();
+        } else {
+            queue.refreshThenDispatch();
+        }
+        return load.future;
+    }
+
+    /**
+     * Drops a world's queue (e.g. when the world is removed). Queued loads complete with null.
+     */
+    public static void clearWorld(String worldName) {
+        WorldQueue queue = QUEUES.remove(worldName);
+        if (queue != null) {
+            queue.cancelAll();
+        }
+    }
+
+    /**
+     * Stops pacing; queued loads complete with null. The scheduler itself is shut down by the plugin.
+     */
+    public static void shutdown() {
+        scheduler = null;
+        for (String worldName : new ArrayList<>(QUEUES.keySet())) {
+            clearWorld(worldName);
+        }
+    }
+
+    /**
+     * One queued chunk load.
+     */
+    private static final class Load<T> {
+        private final long chunkIndex;
+        private final long requestCenter;
+        private final Function<Ref<ChunkStore>, T> reader;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        // Guarded by the world queue
+        private Tracker tracker;
+        private int distance;
+
+        Load(long chunkIndex, long requestCenter, Function<Ref<ChunkStore>, T> reader) {
+            this.chunkIndex = chunkIndex;
+            this.requestCenter = requestCenter;
+            this.reader = reader;
+        }
+
+        void read(Ref<ChunkStore> ref) {
+            try {
+                future.complete(reader.apply(ref));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+
+    /**
+     * A player's map tracker position, in chunks. Guarded by the world queue.
+     */
+    private static final class Tracker {
+        private int chunkX;
+        private int chunkZ;
+        private boolean present = true;
+    }
+
+    /**
+     * One world's queue. Guarded by synchronizing on the instance.
+     */
+    private static final class WorldQueue {
+        private final World world;
+        private final PriorityQueue<Load<?>> pending = new PriorityQueue<>((a, b) -> Integer.compare(a.distance, b.distance));
+        // World thread reads of loaded chunks, run in time slices
+        private final ArrayDeque<LoadedChunk> reads = new ArrayDeque<>();
+        private int inFlight;
+        private boolean sliceScheduled;
+        // Player positions, refreshed on the world thread
+        private final Map<UUID, Tracker> trackers = new HashMap<>();
+        private boolean refreshed;
+        private boolean refreshScheduled;
+
+        WorldQueue(World world) {
+            this.world = world;
+        }
+
+        /**
+         * Starts queued loads up to the in-flight window, nearest first.
+         */
+        void dispatch() {
+            List<Load<?>> toStart = new ArrayList<>();
+            List<Load<?>> dropped = new ArrayList<>();
+            synchronized (this) {
+                while (inFlight < MAX_IN_FLIGHT && !pending.isEmpty()) {
+                    Load<?> load = pending.poll();
+                    if (distance(load) > CANCEL_DISTANCE) {
+                        dropped.add(load);
+                        continue;
+                    }
+                    inFlight++;
+                    toStart.add(load);
+                }
+            }
+
+            for (Load<?> load : dropped) {
+                load.read(null);
+            }
+            for (Load<?> load : toStart) {
+                start(load);
+            }
+        }
+
+        private void start(Load<?> load) {
+            world.getChunkStore().getChunkReferenceAsync(load.chunkIndex).whenComplete((ref, error) -> {
+                synchronized (this) {
+                    reads.add(new LoadedChunk(load, error == null ? ref : null));
+                }
+                scheduleSlice();
+            });
+        }
+
+        /**
+         * Reads player positions on the world thread, then starts the first loads.
+         */
+        void refreshThenDispatch() {
+            synchronized (this) {
+                if (refreshScheduled) return;
+                refreshScheduled = true;
+            }
+            try {
+                world.execute(() -> {
+                    refreshTrackers();
+                    dispatch();
+                });
+            } catch (Exception e) {
+                // World shutting down; a later load tries again
+                synchronized (this) {
+                    refreshScheduled = false;
+                }
+                cancelAll();
+            }
+        }
+
+        private void scheduleSlice() {
+            synchronized (this) {
+                if (sliceScheduled || reads.isEmpty()) return;
+                sliceScheduled = true;
+            }
+            HyTownScheduler timer = scheduler;
+            try {
+                if (timer == null) {
+                    executeSlice();
+                } else {
+                    timer.schedule("map.render", SLICE_INTERVAL_MS, TimeUnit.MILLISECONDS, this::executeSlice);
+                }
+            } catch (Exception e) {
+                abandonSlice();
+            }
+        }
+
+        private void executeSlice() {
+            try {
+                world.execute(this::runSlice);
+            } catch (Exception e) {
+                abandonSlice();
+            }
+        }
+
+        /**
+         * A slice couldn't be scheduled (shutting down): drops the waiting loads. A later load
+         * schedules again.
+         */
+        private void abandonSlice() {
+            synchronized (this) {
+                sliceScheduled = false;
+            }
+            cancelAll();
+        }
+
+        /**
+         * Runs on the world thread: reads loaded chunks until the slice budget is spent.
+         */
+        private void runSlice() {
+            refreshTrackers();
+
+            long deadline = System.nanoTime() + SLICE_NANOS;
+            int finished = 0;
+            while (System.nanoTime() < deadline) {
+                LoadedChunk loaded;
+                synchronized (this) {
+                    loaded = reads.poll();
+                }
+                if (loaded == null) break;
+                loaded.load.read(loaded.ref);
+                finished++;
+            }
+
+            synchronized (this) {
+                inFlight -= finished;
+                sliceScheduled = false;
+            }
+            dispatch();
+            scheduleSlice();
+        }
+
+        /**
+         * Runs on the world thread: updates player positions and re-sorts the queue, since
+         * players moved since its loads were queued.
+         */
+        private void refreshTrackers() {
+            List<Player> players = world.getPlayers();
+            Map<UUID, int[]> positions = new HashMap<>();
+            for (Player player : players) {
+                try {
+                    Vector3d position = player.getTransformComponent().getPosition();
+                    positions.put(player.getUuid(), new int[] {
+                            com.hytown.util.ChunkUtil.toChunkX(position.getX()),
+                            com.hytown.util.ChunkUtil.toChunkZ(position.getZ()) });
+                } catch (Exception ignored) {
+                    // Player not fully in the world yet
+                }
+            }
+
+            synchronized (this) {
+                for (Tracker tracker : trackers.values()) {
+                    tracker.present = false;
+                }
+                for (Map.Entry<UUID, int[]> entry : positions.entrySet()) {
+                    Tracker tracker = trackers.computeIfAbsent(entry.getKey(), k -> new Tracker());
+                    tracker.chunkX = entry.getValue()[0];
+                    tracker.chunkZ = entry.getValue()[1];
+                    tracker.present = true;
+                }
+                trackers.values().removeIf(tracker -> !tracker.present);
+                refreshed = true;
+
+                if (!pending.isEmpty()) {
+                    List<Load<?>> requeue = new ArrayList<>(pending);
+                    pending.clear();
+                    for (Load<?> load : requeue) {
+                        load.distance = distance(load);
+                    }
+                    pending.addAll(requeue);
+                }
+            }
+        }
+
+        /**
+         * Chebyshev distance in chunks from the load's player, picking the player on first use.
+         * 0 while no positions are known, MAX_VALUE once the player has left. Call with the
+         * queue locked.
+         */
+        int distance(Load<?> load) {
+            if (!refreshed) return 0;
+            if (load.tracker == null) {
+                load.tracker = nearestTracker(load.requestCenter);
+                if (load.tracker == null) return 0;
+            }
+            if (!load.tracker.present) return Integer.MAX_VALUE;
+            return distance(load.tracker, load.chunkIndex);
+        }
+
+        private Tracker nearestTracker(long chunkIndex) {
+            Tracker nearest = null;
+            int best = Integer.MAX_VALUE;
+            for (Tracker tracker : trackers.values()) {
+                int distance = distance(tracker, chunkIndex);
+                if (distance < best) {
+                    best = distance;
+                    nearest = tracker;
+                }
+            }
+            return nearest;
+        }
+
+        private static int distance(Tracker tracker, long chunkIndex) {
+            int chunkX = ChunkUtil.xOfChunkIndex(chunkIndex);
+            int chunkZ = ChunkUtil.zOfChunkIndex(chunkIndex);
+            return Math.max(Math.abs(tracker.chunkX - chunkX), Math.abs(tracker.chunkZ - chunkZ));
+        }
+
+        void cancelAll() {
+            List<Load<?>> dropped;
+            synchronized (this) {
+                dropped = new ArrayList<>(pending);
+                pending.clear();
+                // Loaded but unread chunks can't be read off the world thread, drop them too
+                for (LoadedChunk loaded : reads) {
+                    dropped.add(loaded.load);
+                }
+                inFlight -= reads.size();
+                reads.clear();
+            }
+            for (Load<?> load : dropped) {
+                load.read(null);
+            }
+        }
+    }
+
+    private record LoadedChunk(Load<?> load, Ref<ChunkStore> ref) {
+    }
+}
@@ -0,0 +1,382 @@
+package com.hytown.map;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.util.ChunkUtil;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Persists rendered terrain tiles on disk so the map can be served after a restart without
+ * loading chunks just to draw them.
+ *
+ * Tiles are grouped in region files of 32x32 chunks (mapcache/world/r.X.Z.tiles). Each tile is
+ * stored deflate-compressed with its size and render time. Regions are loaded lazily, changed
+ * in memory and written back by flush() (auto-save and shutdown), which also drops clean
+ * regions from memory.
+ *
+ * Validation: the server does not expose a chunk modification stamp to plugins, so tiles are
+ * invalidated explicitly when their terrain changes (TerrainTileCache.markTerrainChanged) and
+ * any tile older than MAX_TILE_AGE_MS is re-rendered as a safety net for changes made outside
+ * the plugin's view (e.g. world edits while the server was offline).
+ */
+public class MapTileStore {
+
+    public static final int REGION_SHIFT = 5;
+    public static final int REGION_SIZE = 1 << REGION_SHIFT;
+    private static final int TILES_PER_REGION = REGION_SIZE * REGION_SIZE;
+
+    private static final int MAGIC = 0x48544D43; // "HTMC"
+    private static final int FORMAT_VERSION = 1;
+
+    // Re-render tiles after a week even if no change was seen
+    private static final long MAX_TILE_AGE_MS = 7L * 24 * 60 * 60 * 1000;
+
+    private final Path directory;
+    private final HytaleLogger logger;
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+
+    public MapTileStore(Path dataDirectory, HytaleLogger logger) {
+        this.directory = dataDirectory.resolve("mapcache");
+        this.logger = logger;
+    }
+
+    /**
+     * Loads a tile's terrain pixels, or null if missing, stale or a different size.
+     * May read a region file, so call it off the world thread.
+     */
+    @Nullable
+    public int[] load(String worldName, long chunkIndex, int width, int height) {
+        byte[] compressed;
+        while (true) {
+            Region region = region(worldName, chunkIndex);
+            synchronized (region) {
+                if (region.unloaded) continue; // Flushed out concurrently, fetch it again
+                ensureLoaded(region);
+                Tile tile = region.tiles[localIndex(chunkIndex)];
+                if (tile == null || tile.width != width || tile.height != height) {
+                    return null;
+                }
+                if (System.currentTimeMillis() - tile.renderedAt > MAX_TILE_AGE_MS) {
+                    region.tiles[localIndex(chunkIndex)] = null;
+                    region.dirty = true;
+                    return null;
+                }
+                compressed = tile.data;
+                break;
+            }
+        }
+
+        try {
+            return decompress(compressed, width * height);
+        } catch (DataFormatException e) {
+            logger.atWarning().withCause(e).log("[MapCache] Corrupt tile %d in world %s", chunkIndex, worldName);
+            invalidate(worldName, chunkIndex);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a tile's terrain pixels. Written to disk on the next flush().
+     */
+    public void store(String worldName, long chunkIndex, int width, int height, int[] pixels) {
+        Tile tile = new Tile((short) width, (short) height, System.currentTimeMillis(), compress(pixels));
+        while (true) {
+            Region region = region(worldName, chunkIndex);
+            synchronized (region) {
+                if (region.unloaded) continue;
+                ensureLoaded(region);
+                region.tiles[localIndex(chunkIndex)] = tile;
+                region.dirty = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drops a tile. Cheap enough for the world thread: if the region is not loaded the removal
+     * is recorded and applied when it is next loaded or flushed.
+     */
+    public void invalidate(String worldName, long chunkIndex) {
+        int local = localIndex(chunkIndex);
+        while (true) {
+            Region region = region(worldName, chunkIndex);
+            synchronized (region) {
+                if (region.unloaded) continue;
+                if (region.loaded) {
+                    if (region.tiles[local] != null) {
+                        region.tiles[local] = null;
+                        region.dirty = true;
+                    }
+                } else {
+                    region.pendingRemovals.set(local);
+                    region.dirty = true;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes every changed region to disk and unloads regions that are clean.
+     */
+    public void flush() {
+        int written = 0;
+        for (var it = regions.entrySet().iterator(); it.hasNext(); ) {
+            Region region = it.next().getValue();
+            synchronized (region) {
+                if (region.dirty) {
+                    ensureLoaded(region);
+                    try {
+                        write(region);
+                        region.dirty = false;
+                        written++;
+                    } catch (IOException e) {
+                        logger.atWarning().withCause(e).log("[MapCache] Failed to save %s", region.file);
+                        continue;
+                    }
+                }
+                region.unloaded = true;
+                it.remove();
+            }
+        }
+        if (written > 0) {
+            logger.atFine().log("[MapCache] Saved %d region files", written);
+        }
+    }
+
+    /**
+     * Lists the region files of a world as {regionX, regionZ} pairs. Regions span
+     * REGION_SIZE x REGION_SIZE chunks. Call flush() first to include unsaved tiles.
+     */
+    public List<int[]> listRegions(String worldName) {
+        List<int[]> result = new ArrayList<>();
+        Path worldDirectory = directory.resolve(sanitize(worldName));
+        if (!Files.isDirectory(worldDirectory)) {
+            return result;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(worldDirectory, "r.*.tiles")) {
+            for (Path file : files) {
+                String[] parts = file.getFileName().toString().split("\\.");
+                if (parts.length != 4) continue;
+                try {
+                    result.add(new int[]{Integer.parseInt(parts[1]), Integer.parseInt(parts[2])});
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        } catch (IOException e) {
+            logger.atWarning().withCause(e).log("[MapCache] Failed to list %s", worldDirectory);
+        }
+        return result;
+    }
+
+    /**
+     * Reads every tile of a region file straight from disk, without caching the region or
+     * checking tile age. Used by exports, which stream through far more regions than the
+     * live map keeps loaded.
+     */
+    public void forEachStoredTile(String worldName, int regionX, int regionZ, TileConsumer consumer) {
+        Region region = new Region(directory.resolve(sanitize(worldName)).resolve("r." + regionX + "." + regionZ + ".tiles"));
+        if (!Files.exists(region.file)) return;
+        try {
+            read(region);
+        } catch (IOException e) {
+            logger.atWarning().withCause(e).log("[MapCache] Skipping unreadable %s", region.file);
+            return;
+        }
+
+        for (int local = 0; local < TILES_PER_REGION; local++) {
+            Tile tile = region.tiles[local];
+            if (tile == null) continue;
+            try {
+                int[] pixels = decompress(tile.data, tile.width * tile.height);
+                consumer.accept(local & (REGION_SIZE - 1), local >> REGION_SHIFT, tile.width, tile.height, pixels);
+            } catch (DataFormatException e) {
+                logger.atFine().withCause(e).log("[MapCache] Skipping corrupt tile %d in %s", local, region.file);
+            }
+        }
+    }
+
+    /**
+     * Receives a stored tile; local coordinates are within the region (0 to REGION_SIZE - 1).
+     */
+    @FunctionalInterface
+    public interface TileConsumer {
+        void accept(int localX, int localZ, int width, int height, int[] pixels);
+    }
+
+    private Region region(String worldName, long chunkIndex) {
+        int regionX = ChunkUtil.xOfChunkIndex(chunkIndex) >> REGION_SHIFT;
+        int regionZ = ChunkUtil.zOfChunkIndex(chunkIndex) >> REGION_SHIFT;
+        String key = worldName + ":" + regionX + "," + regionZ;
+        return regions.computeIfAbsent(key, k -> new Region(
+                directory.resolve(sanitize(worldName)).resolve("r." + regionX + "." + regionZ + ".tiles")));
+    }
+
+    private static int localIndex(long chunkIndex) {
+        int localX = ChunkUtil.xOfChunkIndex(chunkIndex) & (REGION_SIZE - 1);
+        int localZ = ChunkUtil.zOfChunkIndex(chunkIndex) & (REGION_SIZE - 1);
+        return (localZ << REGION_SHIFT) | localX;
+    }
+
+    private static String sanitize(String worldName) {
+        return worldName.replaceAll("[^A-Za-z0-9_.-]", "_");
+    }
+
+    private void ensureLoaded(Region region) {
+        if (region.loaded) return;
+        region.loaded = true;
+
+        if (Files.exists(region.file)) {
+            try {
+                read(region);
+            } catch (IOException e) {
+                // Treat an unreadable region as empty, it is rewritten on the next flush
+                logger.atWarning().withCause(e).log("[MapCache] Discarding unreadable %s", region.file);
+                Arrays.fill(region.tiles, null);
+                region.dirty = true;
+            }
+        }
+
+        // Apply removals recorded while the region was not loaded
+        for (int i = region.pendingRemovals.nextSetBit(0); i >= 0; i = region.pendingRemovals.nextSetBit(i + 1)) {
+            region.tiles[i] = null;
+        }
+        region.pendingRemovals.clear();
+    }
+
+    private static void read(Region region) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(region.file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported map cache format");
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int local = in.readUnsignedShort();
+                short width = in.readShort();
+                short height = in.readShort();
+                long renderedAt = in.readLong();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                if (local < TILES_PER_REGION) {
+                    region.tiles[local] = new Tile(width, height, renderedAt, data);
+                }
+            }
+        }
+    }
+
+    private static void write(Region region) throws IOException {
+        int count = 0;
+        for (Tile tile : region.tiles) {
+            if (tile != null) count++;
+        }
+        if (count == 0) {
+            Files.deleteIfExists(region.file);
+            return;
+        }
+
+        Files.createDirectories(region.file.getParent());
+        Path temp = region.file.resolveSibling(region.file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(count);
+            for (int i = 0; i < TILES_PER_REGION; i++) {
+                Tile tile = region.tiles[i];
+                if (tile == null) continue;
+                out.writeShort(i);
+                out.writeShort(tile.width);
+                out.writeShort(tile.height);
+                out.writeLong(tile.renderedAt);
+                out.writeInt(tile.data.length);
+                out.write(tile.data);
+            }
+        }
+        Files.move(temp, region.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] compress(int[] pixels) {
+        ByteBuffer raw = ByteBuffer.allocate(pixels.length * 4);
+        raw.asIntBuffer().put(pixels);
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw.array());
+            deflater.finish();
+            byte[] buffer = new byte[raw.capacity() + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static int[] decompress(byte[] data, int pixelCount) throws DataFormatException {
+        byte[] raw = new byte[pixelCount * 4];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int read = inflater.inflate(raw, length, raw.length - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != raw.length) {
+                throw new DataFormatException("Tile is " + length + " bytes, expected " + raw.length);
+            }
+        } finally {
+            inflater.end();
+        }
+
+        int[] pixels = new int[pixelCount];
+        ByteBuffer.wrap(raw).asIntBuffer().get(pixels);
+        return pixels;
+    }
+
+    private record Tile(short width, short height, long renderedAt, byte[] data) {
+    }
+
+    /**
+     * One region file's tiles. Guarded by synchronizing on the instance.
+     */
+    private static class Region {
+        private final Path file;
+        private final Tile[] tiles = new Tile[TILES_PER_REGION];
+        private final BitSet pendingRemovals = new BitSet();
+        private boolean loaded;
+        private boolean dirty;
+        // Set when flush() drops the region from the map; callers must fetch a fresh one
+        private boolean unloaded;
+
+        Region(Path file) {
+            this.file = file;
+        }
+    }
+}
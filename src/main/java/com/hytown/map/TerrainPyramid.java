@@ -0,0 +1,97 @@
+package com.hytown.map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Lower resolution terrain tiles (mip levels) derived from full resolution ones.
+ *
+ * A zoomed-out map requests the same chunks at a smaller image size. Instead of sampling the
+ * chunk again at a coarser block step, chunks are rendered once at BASE_SIZE and each smaller
+ * level is box-filtered from the level above it, so every level is served from cache once the
+ * base tile exists. Levels share the chunk's terrain version: a terrain change drops the whole
+ * pyramid of that chunk, and claim changes never touch it (claims are composited per level,
+ * which keeps borders crisp at every zoom).
+ */
+public class TerrainPyramid {
+
+    // Full resolution: one pixel per block of a 32-block chunk
+    public static final int BASE_SIZE = 32;
+
+    /**
+     * The size a tile should be rendered at to serve a requested size: BASE_SIZE for sizes
+     * that are power-of-two fractions of it, otherwise the size itself.
+     */
+    public static int renderSize(int size) {
+        return isLevelSize(size) ? BASE_SIZE : size;
+    }
+
+    /**
+     * Whether a size is a mip level below BASE_SIZE (BASE_SIZE / 2^n, n >= 1).
+     */
+    public static boolean isLevelSize(int size) {
+        return size > 0 && size < BASE_SIZE && Integer.bitCount(size) == 1;
+    }
+
+    /**
+     * Gets a mip level from the cached base tile, deriving and caching missing levels.
+     * @return The terrain pixels, or null if the size is not a level or no base tile is cached
+     */
+    @Nullable
+    public static int[] fromCache(String worldName, long chunkIndex, int width, int height) {
+        if (width != height || !isLevelSize(width)) return null;
+
+        int version = TerrainTileCache.getVersion(worldName, chunkIndex);
+        int[] base = TerrainTileCache.get(worldName, chunkIndex, BASE_SIZE, BASE_SIZE);
+        if (base == null) return null;
+        return derive(worldName, chunkIndex, base, width, version);
+    }
+
+    /**
+     * Derives (and caches) the level of the given size from base terrain pixels, reusing any
+     * cached intermediate level.
+     */
+    public static int[] derive(String worldName, long chunkIndex, int[] base, int size, int version) {
+        // Walk up to the nearest cached level, then halve down from it
+        int[] source = base;
+        int sourceSize = BASE_SIZE;
+        for (int level = size * 2; level < BASE_SIZE; level *= 2) {
+            int[] cached = TerrainTileCache.get(worldName, chunkIndex, level, level);
+            if (cached != null) {
+                source = cached;
+                sourceSize = level;
+                break;
+            }
+        }
+
+        while (sourceSize > size) {
+            source = halve(source, sourceSize);
+            sourceSize /= 2;
+            TerrainTileCache.putDerived(worldName, chunkIndex, sourceSize, sourceSize, version, source);
+        }
+        return source;
+    }
+
+    /**
+     * Box-filters a square RGBA tile to half its size (each output pixel averages 2x2).
+     */
+    static int[] halve(int[] pixels, int size) {
+        int half = size / 2;
+        int[] result = new int[half * half];
+        for (int y = 0; y < half; y++) {
+            int row0 = (y * 2) * size;
+            int row1 = row0 + size;
+            for (int x = 0; x < half; x++) {
+                int a = pixels[row0 + x * 2];
+                int b = pixels[row0 + x * 2 + 1];
+                int c = pixels[row1 + x * 2];
+                int d = pixels[row1 + x * 2 + 1];
+                int r = ((a >>> 24) + (b >>> 24) + (c >>> 24) + (d >>> 24) + 2) >> 2;
+                int g = (((a >> 16) & 0xFF) + ((b >> 16) & 0xFF) + ((c >> 16) & 0xFF) + ((d >> 16) & 0xFF) + 2) >> 2;
+                int bl = (((a >> 8) & 0xFF) + ((b >> 8) & 0xFF) + ((c >> 8) & 0xFF) + ((d >> 8) & 0xFF) + 2) >> 2;
+                int al = ((a & 0xFF) + (b & 0xFF) + (c & 0xFF) + (d & 0xFF) + 2) >> 2;
+                result[y * half + x] = r << 24 | g << 16 | bl << 8 | al;
+            }
+        }
+        return result;
+    }
+}
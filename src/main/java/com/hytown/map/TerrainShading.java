@@ -0,0 +1,99 @@
+package com.hytown.map;
+
+/**
+ * Columnar hill shading and color passes for ClaimImageBuilder.
+ *
+ * The per-pixel work is split into flat loops over primitive arrays (one value per sample or
+ * pixel, no per-pixel objects, branches or asset lookups) so the JIT can unroll and
+ * auto-vectorize them. Block and fluid colors are resolved once per sample beforehand.
+ */
+final class TerrainShading {
+
+    // Light direction (normalized once instead of per pixel)
+    private static final float LIGHT_X;
+    private static final float LIGHT_Y;
+    private static final float LIGHT_Z;
+
+    static {
+        float lx = -0.2F;
+        float ly = 0.8F;
+        float lz = 0.5F;
+        float invL = 1.0F / (float) Math.sqrt(lx * lx + ly * ly + lz * lz);
+        LIGHT_X = lx * invL;
+        LIGHT_Y = ly * invL;
+        LIGHT_Z = lz * invL;
+    }
+
+    private static final float AMBIENT = 0.4F;
+    private static final float DIFFUSE = 0.6F;
+    private static final float SLOPE_Y = 3.0F;
+
+    private TerrainShading() {
+    }
+
+    /**
+     * Computes the shade of every sample for one pixel position inside a block.
+     *
+     * @param grid   Heights with a one-sample border, (width + 2) x (height + 2)
+     * @param u      Horizontal position inside the block's pixels (0..1, pixel center)
+     * @param v      Vertical position inside the block's pixels (0..1, pixel center)
+     * @param out    Shade per sample, width x height
+     */
+    static void shade(short[] grid, int width, int height, float u, float v, float[] out) {
+        float ud = (u + v) / 2.0F;
+        float vd = (1.0F - u + v) / 2.0F;
+        int stride = width + 2;
+
+        for (int z = 0; z < height; z++) {
+            int up = z * stride + 1;
+            int mid = up + stride;
+            int down = mid + stride;
+            int row = z * width;
+            for (int x = 0; x < width; x++) {
+                float h = grid[mid + x];
+                float dhdx1 = (h - grid[mid + x - 1]) * (1.0F - u) + (grid[mid + x + 1] - h) * u;
+                float dhdz1 = (h - grid[up + x]) * (1.0F - v) + (grid[down + x] - h) * v;
+                float dhdx2 = (h - grid[up + x - 1]) * (1.0F - ud) + (grid[down + x + 1] - h) * ud;
+                float dhdz2 = (h - grid[up + x + 1]) * (1.0F - vd) + (grid[down + x - 1] - h) * vd;
+                float dhdx = dhdx1 * 2.0F + dhdx2;
+                float dhdz = dhdz1 * 2.0F + dhdz2;
+                float invS = 1.0F / (float) Math.sqrt(dhdx * dhdx + SLOPE_Y * SLOPE_Y + dhdz * dhdz);
+                float lambert = Math.max(0.0F, (dhdx * LIGHT_X + SLOPE_Y * LIGHT_Y + dhdz * LIGHT_Z) * invS);
+                out[row + x] = AMBIENT + DIFFUSE * lambert;
+            }
+        }
+    }
+
+    /**
+     * Shades base colors and applies fluid tints, writing packed RGBA pixels.
+     *
+     * Fluid blending is branch-free: samples without fluid have fluidMix 1, which leaves the
+     * shaded color unchanged.
+     *
+     * @param baseColors  Unshaded block color per pixel, packed 0xRRGGBB
+     * @param shades      Shade factor per pixel
+     * @param fluidTints  Fluid tint per pixel, packed 0xRRGGBB
+     * @param fluidMix    Weight of the shaded color against the fluid tint (1 = no fluid)
+     */
+    static void compose(int[] baseColors, float[] shades, int[] fluidTints, float[] fluidMix,
+                        int[] out, int offset, int count) {
+        for (int i = offset; i < offset + count; i++) {
+            int base = baseColors[i];
+            float shade = shades[i];
+            int r = Math.min(255, Math.max(0, (int) ((float) (base >> 16 & 255) * shade)));
+            int g = Math.min(255, Math.max(0, (int) ((float) (base >> 8 & 255) * shade)));
+            int b = Math.min(255, Math.max(0, (int) ((float) (base & 255) * shade)));
+
+            int tint = fluidTints[i];
+            float mix = fluidMix[i];
+            int tintR = tint >> 16 & 255;
+            int tintG = tint >> 8 & 255;
+            int tintB = tint & 255;
+            r = (int) ((float) tintR + (float) (r - tintR) * mix) & 255;
+            g = (int) ((float) tintG + (float) (g - tintG) * mix) & 255;
+            b = (int) ((float) tintB + (float) (b - tintB) * mix) & 255;
+
+            out[i] = r << 24 | g << 16 | b << 8 | 255;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.hytown.map;
+
+import com.hytown.util.ChunkUtil;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches rendered terrain (shaded, fluid-tinted, no claim overlay) per map chunk and size.
+ *
+ * Claim changes only affect the overlay, so ClaimImageBuilder can rebuild a chunk image by
+ * re-compositing the claim fill/border onto a cached terrain tile instead of fetching the
+ * chunk and re-sampling heights, tints and fluid columns.
+ *
+ * Each chunk has a terrain version that is bumped when its blocks change. Tiles remember the
+ * version they were rendered at, so a render that started before a change is never served
+ * afterwards. Each world keeps at most MAX_TILES_PER_WORLD tiles (least recently used evicted).
+ *
+ * Block changes arrive on the world thread, so markTerrainChanged() only adds the chunk to a
+ * per-world set. The next read or write of that world's tiles (map generation threads) or
+ * applyTerrainChanges() (before the tile store flushes) bumps the versions, drops the tiles
+ * and invalidates them on disk.
+ *
+ * When a MapTileStore is set, rendered tiles are also persisted to disk and loadFromDisk()
+ * can repopulate the cache after a restart without fetching chunks.
+ */
+public class TerrainTileCache {
+
+    // 32x32 tiles are 4 KB each, so this caps a world at ~16 MB of terrain
+    private static final int MAX_TILES_PER_WORLD = 4096;
+
+    private static final Map<String, WorldTiles> worlds = new ConcurrentHashMap<>();
+
+    private static volatile MapTileStore diskStore;
+
+    /**
+     * Sets the on-disk tile store (null to disable persistence).
+     * Called during plugin startup.
+     */
+    public static void setDiskStore(@Nullable MapTileStore store) {
+        diskStore = store;
+    }
+
+    /**
+     * Gets the cached terrain pixels for a chunk, or null if missing or stale.
+     * The returned array is shared and must not be modified.
+     */
+    @Nullable
+    public static int[] get(String worldName, long chunkIndex, int width, int height) {
+        WorldTiles tiles = worlds.get(worldName);
+        return tiles != null ? tiles.get(chunkIndex, width, height) : null;
+    }
+
+    /**
+     * Loads a chunk's terrain from the on-disk store into the cache.
+     * Reads region files, so call it off the world thread.
+     * @return The terrain pixels (shared, must not be modified), or null if not stored
+     */
+    @Nullable
+    public static int[] loadFromDisk(String worldName, long chunkIndex, int width, int height) {
+        MapTileStore store = diskStore;
+        if (store == null) return null;
+
+        WorldTiles tiles = tiles(worldName);
+        int version = tiles.getVersion(chunkIndex);
+        int[] pixels = store.load(worldName, chunkIndex, width, height);
+        if (pixels != null) {
+            tiles.put(chunkIndex, new Tile(width, height, version, pixels));
+        }
+        return pixels;
+    }
+
+    /**
+     * Gets the current terrain version of a chunk. Capture this before sampling the chunk
+     * and pass it to put() so changes made during the render invalidate the result.
+     */
+    public static int getVersion(String worldName, long chunkIndex) {
+        return tiles(worldName).getVersion(chunkIndex);
+    }
+
+    /**
+     * Stores rendered terrain pixels for a chunk (and on disk, if enabled). The array is kept
+     * as-is and must not be modified afterwards.
+     */
+    public static void put(String worldName, long chunkIndex, int width, int height, int version, int[] pixels) {
+        boolean current = tiles(worldName).put(chunkIndex, new Tile(width, height, version, pixels));
+        MapTileStore store = diskStore;
+        if (current && store != null) {
+            store.store(worldName, chunkIndex, width, height, pixels);
+        }
+    }
+
+    /**
+     * Stores terrain derived from another cached tile (e.g. a lower mip level). Kept in memory
+     * only; the disk store keeps the full resolution tile it can be derived from again.
+     */
+    public static void putDerived(String worldName, long chunkIndex, int width, int height, int version, int[] pixels) {
+        tiles(worldName).put(chunkIndex, new Tile(width, height, version, pixels));
+    }
+
+    /**
+     * Marks the terrain around a changed block as stale.
+     * Blocks on a chunk edge also stale the neighbouring chunk, whose hill shading samples
+     * this chunk's edge heights.
+     */
+    public static void markTerrainChanged(String worldName, int blockX, int blockZ) {
+        WorldTiles tiles = worlds.get(worldName);
+        if (tiles == null) {
+            if (diskStore == null) return;
+            tiles = tiles(worldName);
+        }
+
+        int chunkX = ChunkUtil.toChunkX(blockX);
+        int chunkZ = ChunkUtil.toChunkZ(blockZ);
+        int localX = blockX - ChunkUtil.getChunkMinX(chunkX);
+        int localZ = blockZ - ChunkUtil.getChunkMinZ(chunkZ);
+        int dxMin = localX == 0 ? -1 : 0;
+        int dxMax = localX == ChunkUtil.CHUNK_SIZE - 1 ? 1 : 0;
+        int dzMin = localZ == 0 ? -1 : 0;
+        int dzMax = localZ == ChunkUtil.CHUNK_SIZE - 1 ? 1 : 0;
+
+        for (int dx = dxMin; dx <= dxMax; dx++) {
+            for (int dz = dzMin; dz <= dzMax; dz++) {
+                tiles.markChanged(com.hypixel.hytale.math.util.ChunkUtil.indexChunk(chunkX + dx, chunkZ + dz));
+            }
+        }
+    }
+
+    /**
+     * Applies pending terrain changes in every world: bumps versions, drops stale tiles and
+     * invalidates them in the disk store. Call before flushing the store.
+     */
+    public static void applyTerrainChanges() {
+        for (WorldTiles tiles : worlds.values()) {
+            tiles.applyChanges();
+        }
+    }
+
+    /**
+     * Drops all cached terrain for a world.
+     */
+    public static void clearWorld(String worldName) {
+        worlds.remove(worldName);
+    }
+
+    /**
+     * Drops all cached terrain.
+     */
+    public static void clear() {
+        worlds.clear();
+    }
+
+    private static WorldTiles tiles(String worldName) {
+        return worlds.computeIfAbsent(worldName, WorldTiles::new);
+    }
+
+    private record Tile(int width, int height, int version, int[] pixels) {
+    }
+
+    private record TileKey(long chunkIndex, int width, int height) {
+    }
+
+    /**
+     * One world's tiles and terrain versions. Accessed from map generation threads, so every
+     * operation is synchronized on the instance and first applies pending changes. The world
+     * thread only touches the changed set, under its own lock.
+     */
+    private static class WorldTiles {
+        private final String worldName;
+        private final Long2IntOpenHashMap versions = new Long2IntOpenHashMap();
+        private final LinkedHashMap<TileKey, Tile> lru = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TileKey, Tile> eldest) {
+                return size() > MAX_TILES_PER_WORLD;
+            }
+        };
+        // Every tile size stored so far (width << 16 | height), to drop all levels of a chunk
+        private final IntOpenHashSet sizes = new IntOpenHashSet();
+        // Chunks whose blocks changed since the last applyChanges(), guarded by itself
+        private final LongOpenHashSet changed = new LongOpenHashSet();
+        private volatile boolean hasChanges;
+
+        WorldTiles(String worldName) {
+            this.worldName = worldName;
+        }
+
+        void markChanged(long chunkIndex) {
+            synchronized (changed) {
+                changed.add(chunkIndex);
+                hasChanges = true;
+            }
+        }
+
+        synchronized void applyChanges() {
+            if (!hasChanges) return;
+            long[] chunks;
+            synchronized (changed) {
+                hasChanges = false;
+                chunks = changed.toLongArray();
+                changed.clear();
+            }
+            MapTileStore store = diskStore;
+            for (long chunkIndex : chunks) {
+                bumpVersion(chunkIndex);
+                if (store != null) store.invalidate(worldName, chunkIndex);
+            }
+        }
+
+        synchronized int[] get(long chunkIndex, int width, int height) {
+            applyChanges();
+            TileKey key = new TileKey(chunkIndex, width, height);
+            Tile tile = lru.get(key);
+            if (tile == null) return null;
+            if (tile.version != versions.get(chunkIndex)) {
+                lru.remove(key);
+                return null;
+            }
+            return tile.pixels;
+        }
+
+        synchronized int getVersion(long chunkIndex) {
+            applyChanges();
+            return versions.get(chunkIndex);
+        }
+
+        synchronized boolean put(long chunkIndex, Tile tile) {
+            applyChanges();
+            if (tile.version != versions.get(chunkIndex)) {
+                return false; // Terrain changed while rendering
+            }
+            lru.put(new TileKey(chunkIndex, tile.width, tile.height), tile);
+            sizes.add(tile.width << 16 | tile.height);
+            return true;
+        }
+
+        private void bumpVersion(long chunkIndex) {
+            versions.addTo(chunkIndex, 1);
+            for (IntIterator it = sizes.iterator(); it.hasNext(); ) {
+                int size = it.nextInt();
+                lru.remove(new TileKey(chunkIndex, size >>> 16, size & 0xFFFF));
+            }
+        }
+    }
+}
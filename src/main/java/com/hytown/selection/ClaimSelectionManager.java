@@ -4,6 +4,8 @@ import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.protocol.packets.buildertools.BuilderToolSelectionUpdate;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hytown.util.HyTownLog;
+import com.hytown.util.HyTownLog.Category;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -103,7 +105,7 @@ public class ClaimSelectionManager {
             }
         } catch (Exception e) {
             // Log error but don't crash
-            e.printStackTrace();
+            HyTownLog.warning(Category.CLAIMS, e, "[ClaimSelection] Could not update selection for %s", player.getDisplayName());
         }
     }
 
@@ -112,17 +114,15 @@ public class ClaimSelectionManager {
      */
     private void sendSelectionPacket(PlayerRef playerRef, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
         try {
-            System.out.println("[ClaimSelection] Sending selection packet: " +
+            HyTownLog.fine(Category.CLAIMS, () -> "[ClaimSelection] Sending selection packet: " +
                 minX + "," + minY + "," + minZ + " to " + maxX + "," + maxY + "," + maxZ);
             BuilderToolSelectionUpdate packet = new BuilderToolSelectionUpdate(
                 minX, minY, minZ,
                 maxX, maxY, maxZ
             );
             playerRef.getPacketHandler().write(packet);
-            System.out.println("[ClaimSelection] Packet sent successfully!");
         } catch (Exception e) {
-            System.out.println("[ClaimSelection] ERROR sending packet: " + e.getMessage());
-            e.printStackTrace();
+            HyTownLog.warning(Category.CLAIMS, e, "[ClaimSelection] ERROR sending packet: %s", e.getMessage());
         }
     }
 
@@ -138,7 +138,7 @@ public class ClaimSelectionManager {
             BuilderToolSelectionUpdate packet = new BuilderToolSelectionUpdate(0, 0, 0, 0, 0, 0);
             playerRef.getPacketHandler().write(packet);
         } catch (Exception e) {
-            e.printStackTrace();
+            HyTownLog.warning(Category.CLAIMS, e, "[ClaimSelection] ERROR clearing selection: %s", e.getMessage());
         }
     }
 
@@ -14,8 +14,12 @@ import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.event.events.ecs.DamageBlockEvent;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hytown.data.TrustLevel;
-import com.hytown.managers.ClaimManager;
+import com.hytown.managers.ClaimContext;
+import com.hytown.managers.ClaimResolver;
+import com.hytown.managers.ProtectionRules;
+import com.hytown.managers.ProtectionRules.Decision;
+import com.hytown.util.HyTownEvents;
+import com.hytown.util.HyTownMetrics;
 import com.hytown.util.Messages;
 
 import javax.annotation.Nonnull;
@@ -32,16 +36,21 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class BlockDamageProtectionSystem extends EntityEventSystem<EntityStore, DamageBlockEvent> {
 
-    private final ClaimManager claimManager;
+    private final ClaimResolver claimResolver;
+    private final ProtectionRules rules;
     private final HytaleLogger logger;
 
     // Rate limit messages - don't spam players
     private static final Map<UUID, Long> lastMessageTime = new ConcurrentHashMap<>();
     private static final long MESSAGE_COOLDOWN_MS = 2000; // 2 seconds
 
-    public BlockDamageProtectionSystem(ClaimManager claimManager, HytaleLogger logger) {
+    private static final HyTownMetrics.Timer CHECK_TIME = HyTownMetrics.timer("protection.damage");
+    private static final HyTownMetrics.Counter DENIED = HyTownMetrics.counter("protection.damage.denied");
+
+    public BlockDamageProtectionSystem(ClaimResolver claimResolver, ProtectionRules rules, HytaleLogger logger) {
         super(DamageBlockEvent.class);
-        this.claimManager = claimManager;
+        this.claimResolver = claimResolver;
+        this.rules = rules;
         this.logger = logger;
     }
 
@@ -86,8 +95,15 @@ public class BlockDamageProtectionSystem extends EntityEventSystem<EntityStore,
         String worldName = player.getWorld().getName();
 
         // Damaging blocks requires DAMAGE trust level
-        if (!claimManager.hasPermissionAt(playerId, worldName, targetBlock.getX(), targetBlock.getZ(), TrustLevel.DAMAGE)) {
+        long start = System.nanoTime();
+        HyTownEvents.SlowProtectionCheck slowCheck = HyTownEvents.SlowProtectionCheck.start();
+        ClaimContext claim = claimResolver.resolve(worldName, targetBlock.getX(), targetBlock.getZ());
+        Decision decision = rules.checkDamage(claim, playerId);
+        CHECK_TIME.recordSince(start);
+        HyTownEvents.SlowProtectionCheck.commitIfSlow(slowCheck, "damage", worldName, targetBlock.getX(), targetBlock.getY(), targetBlock.getZ(), playerId, decision);
+        if (decision.isDenied()) {
             event.setCancelled(true);
+            DENIED.increment();
             if (canSendMessage(playerId)) {
                 player.sendMessage(Messages.cannotDamageHere());
             }
@@ -15,11 +15,13 @@ import com.hypixel.hytale.server.core.event.events.ecs.PlaceBlockEvent;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.hytown.config.PluginConfig;
-import com.hytown.data.Town;
-import com.hytown.data.TownStorage;
-import com.hytown.data.TrustLevel;
-import com.hytown.managers.ClaimManager;
-import com.hytown.util.ChunkUtil;
+import com.hytown.managers.ClaimContext;
+import com.hytown.managers.ClaimResolver;
+import com.hytown.managers.ProtectionRules;
+import com.hytown.managers.ProtectionRules.Decision;
+import com.hytown.map.TerrainTileCache;
+import com.hytown.util.HyTownEvents;
+import com.hytown.util.HyTownMetrics;
 import com.hytown.util.Messages;
 import com.hypixel.hytale.server.core.Message;
 
@@ -38,9 +40,9 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class BlockPlaceProtectionSystem extends EntityEventSystem<EntityStore, PlaceBlockEvent> {
 
-    private final ClaimManager claimManager;
+    private final ClaimResolver claimResolver;
+    private final ProtectionRules rules;
     private final PluginConfig config;
-    private final TownStorage townStorage;
     private final HytaleLogger logger;
 
     // Rate limit messages - don't spam players
@@ -49,12 +51,14 @@ public class BlockPlaceProtectionSystem extends EntityEventSystem<EntityStore, P
 
     private static final Color RED = new Color(255, 85, 85);
 
-    public BlockPlaceProtectionSystem(ClaimManager claimManager, PluginConfig config,
-                                      TownStorage townStorage, HytaleLogger logger) {
+    private static final HyTownMetrics.Timer CHECK_TIME = HyTownMetrics.timer("protection.place");
+    private static final HyTownMetrics.Counter DENIED = HyTownMetrics.counter("protection.place.denied");
+
+    public BlockPlaceProtectionSystem(ClaimResolver claimResolver, ProtectionRules rules, PluginConfig config, HytaleLogger logger) {
         super(PlaceBlockEvent.class);
-        this.claimManager = claimManager;
+        this.claimResolver = claimResolver;
+        this.rules = rules;
         this.config = config;
-        this.townStorage = townStorage;
         this.logger = logger;
     }
 
@@ -98,79 +102,30 @@ public class BlockPlaceProtectionSystem extends EntityEventSystem<EntityStore, P
         UUID playerId = playerRef.getUuid();
         String worldName = player.getWorld().getName();
 
-        // Check if this chunk is claimed
-        UUID claimOwner = claimManager.getOwnerAt(worldName, targetBlock.getX(), targetBlock.getZ());
-
-        if (claimOwner != null) {
-            // CLAIMED LAND - check permission
-            int chunkX = ChunkUtil.toChunkX(targetBlock.getX());
-            int chunkZ = ChunkUtil.toChunkZ(targetBlock.getZ());
-            String claimKey = worldName + ":" + chunkX + "," + chunkZ;
-
-            // Check if it's a town claim
-            Town town = townStorage != null ? townStorage.getTownByClaimKey(claimKey) : null;
-
-            if (town != null) {
-                // Town claim - check if player is a member
-                if (town.isMember(playerId)) {
-                    return; // Town members can build
-                }
-                // Check town settings for outsiders
-                if (town.getSettings().canOutsiderBuild()) {
-                    return;
-                }
-                // Not allowed
-                event.setCancelled(true);
-                if (canSendMessage(playerId)) {
-                    player.sendMessage(Message.raw("You cannot build in " + town.getName()).color(RED));
-                }
-                return;
-            }
-
-            // Personal claim - check trust level
-            if (!claimManager.hasPermissionAt(playerId, worldName, targetBlock.getX(), targetBlock.getZ(), TrustLevel.BUILD)) {
-                event.setCancelled(true);
-                if (canSendMessage(playerId)) {
-                    player.sendMessage(Messages.cannotBuildHere());
-                }
-            }
-        } else {
-            // WILDERNESS - check wild protection
-            if (config.isWildProtectionEnabled()) {
-                // Check bypass permission
-                if (player.hasPermission("hytown.wild.bypass")) {
-                    return;
-                }
-
-                int blockY = targetBlock.getY();
-                int minY = config.getWildProtectionMinY();
-                String itemId = event.getItemInHand() != null ? event.getItemInHand().getItemId() : null;
-
-                // Always block griefing blocks (fluids, fire, bombs, etc.) in wilderness
-                if (config.isGriefingBlock(itemId)) {
-                    event.setCancelled(true);
-                    if (canSendMessage(playerId)) {
-                        player.sendMessage(Message.raw("Wilderness Protection: Cannot place griefing blocks").color(RED));
-                    }
-                    return;
-                }
-
-                if (blockY > minY) {
-                    // Above threshold - protected
-                    event.setCancelled(true);
-                    if (canSendMessage(playerId)) {
-                        player.sendMessage(Message.raw("Wilderness Protection: Go below Y=" + minY + " to build (Current Y: " + blockY + ")").color(RED));
-                    }
-                } else {
-                    // Below threshold - check if building below is allowed
-                    if (!config.isWildBuildBelowAllowed()) {
-                        event.setCancelled(true);
-                        if (canSendMessage(playerId)) {
-                            player.sendMessage(Message.raw("Wilderness building is disabled.").color(RED));
-                        }
-                    }
-                }
-            }
+        long start = System.nanoTime();
+        HyTownEvents.SlowProtectionCheck slowCheck = HyTownEvents.SlowProtectionCheck.start();
+        ClaimContext claim = claimResolver.resolve(worldName, targetBlock.getX(), targetBlock.getZ());
+        String itemId = event.getItemInHand() != null ? event.getItemInHand().getItemId() : null;
+        Decision decision = rules.checkPlace(claim, playerId, targetBlock.getY(), itemId);
+        CHECK_TIME.recordSince(start);
+        HyTownEvents.SlowProtectionCheck.commitIfSlow(slowCheck, "place", worldName, targetBlock.getX(), targetBlock.getY(), targetBlock.getZ(), playerId, decision);
+        if (!decision.isDenied()
+                || decision.isWildernessRule() && player.hasPermission("hytown.wild.bypass")) {
+            // The block will be placed, so the map's cached terrain for its chunk goes stale
+            TerrainTileCache.markTerrainChanged(worldName, targetBlock.getX(), targetBlock.getZ());
+            return;
+        }
+
+        event.setCancelled(true);
+        DENIED.increment();
+        if (!canSendMessage(playerId)) return;
+        switch (decision) {
+            case DENY_TOWN -> player.sendMessage(Message.raw("You cannot build in " + claim.getTown().getName()).color(RED));
+            case DENY_WILD_GRIEFING -> player.sendMessage(Message.raw("Wilderness Protection: Cannot place griefing blocks").color(RED));
+            case DENY_WILD_HEIGHT -> player.sendMessage(Message.raw("Wilderness Protection: Go below Y=" + config.getWildProtectionMinY()
+                    + " to build (Current Y: " + targetBlock.getY() + ")").color(RED));
+            case DENY_WILD_DISABLED -> player.sendMessage(Message.raw("Wilderness building is disabled.").color(RED));
+            default -> player.sendMessage(Messages.cannotBuildHere());
         }
     }
 }
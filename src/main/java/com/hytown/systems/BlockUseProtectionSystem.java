@@ -15,12 +15,13 @@ import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.event.events.ecs.UseBlockEvent;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hytown.config.BlockGroups;
-import com.hytown.data.Town;
-import com.hytown.data.TownStorage;
 import com.hytown.data.TrustLevel;
-import com.hytown.managers.ClaimManager;
-import com.hytown.util.ChunkUtil;
+import com.hytown.managers.ClaimContext;
+import com.hytown.managers.ClaimResolver;
+import com.hytown.managers.ProtectionRules;
+import com.hytown.managers.ProtectionRules.Decision;
+import com.hytown.util.HyTownEvents;
+import com.hytown.util.HyTownMetrics;
 import com.hytown.util.Messages;
 
 import javax.annotation.Nonnull;
@@ -38,18 +39,21 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class BlockUseProtectionSystem extends EntityEventSystem<EntityStore, UseBlockEvent.Pre> {
 
-    private final ClaimManager claimManager;
-    private final TownStorage townStorage;
+    private final ClaimResolver claimResolver;
+    private final ProtectionRules rules;
     private final HytaleLogger logger;
 
     // Rate limit messages - don't spam players
     private static final Map<UUID, Long> lastMessageTime = new ConcurrentHashMap<>();
     private static final long MESSAGE_COOLDOWN_MS = 2000; // 2 seconds
 
-    public BlockUseProtectionSystem(ClaimManager claimManager, TownStorage townStorage, HytaleLogger logger) {
+    private static final HyTownMetrics.Timer CHECK_TIME = HyTownMetrics.timer("protection.use");
+    private static final HyTownMetrics.Counter DENIED = HyTownMetrics.counter("protection.use.denied");
+
+    public BlockUseProtectionSystem(ClaimResolver claimResolver, ProtectionRules rules, HytaleLogger logger) {
         super(UseBlockEvent.Pre.class);
-        this.claimManager = claimManager;
-        this.townStorage = townStorage;
+        this.claimResolver = claimResolver;
+        this.rules = rules;
         this.logger = logger;
     }
 
@@ -95,88 +99,24 @@ public class BlockUseProtectionSystem extends EntityEventSystem<EntityStore, Use
 
         // Determine required trust level based on block type
         BlockType blockType = event.getBlockType();
-        TrustLevel requiredLevel = getRequiredTrustLevel(blockType);
-        boolean isContainer = requiredLevel == TrustLevel.CONTAINER;
-        boolean isCrop = claimManager.getBlockGroups().isCropBlock(blockType);
-
-        // First check if this is a town claim
-        int chunkX = ChunkUtil.toChunkX(targetBlock.getX());
-        int chunkZ = ChunkUtil.toChunkZ(targetBlock.getZ());
-        String claimKey = worldName + ":" + chunkX + "," + chunkZ;
-
-        Town town = townStorage.getTownByClaimKey(claimKey);
-        if (town != null) {
-            // This is a town claim - use town permissions
-            if (isCrop) {
-                // Crop interaction (harvesting) requires being a town member
-                if (!town.isMember(playerId)) {
-                    // Check if outsiders can destroy (harvesting is similar to destroying)
-                    if (!town.getSettings().canOutsiderDestroy()) {
-                        event.setCancelled(true);
-                        if (canSendMessage(playerId)) {
-                            player.sendMessage(Messages.cannotHarvestCrops());
-                        }
-                        return;
-                    }
-                }
-                // Member or outsider destroy allowed - allow harvest
-                return;
-            } else if (isContainer) {
-                // Container access uses the plot-level permission system
-                if (!town.canAccessContainers(claimKey, playerId)) {
-                    event.setCancelled(true);
-                    if (canSendMessage(playerId)) {
-                        player.sendMessage(Messages.cannotAccessContainer());
-                    }
-                    return;
-                }
-            } else {
-                // For non-container use (doors, buttons, etc.), check if town member or outsider switch
-                if (!town.isMember(playerId)) {
-                    if (!town.getSettings().canOutsiderSwitch()) {
-                        event.setCancelled(true);
-                        if (canSendMessage(playerId)) {
-                            player.sendMessage(Messages.cannotUseBlock(requiredLevel));
-                        }
-                        return;
-                    }
-                }
-            }
-            // Town member has permission - allow
-            return;
-        }
-
-        // Not a town claim - check personal claim permissions
-        if (!claimManager.hasPermissionAt(playerId, worldName, targetBlock.getX(), targetBlock.getZ(), requiredLevel)) {
-            event.setCancelled(true);
-            if (canSendMessage(playerId)) {
-                player.sendMessage(Messages.cannotUseBlock(requiredLevel));
-            }
-        }
-    }
-
-    /**
-     * Determines the required trust level based on block type.
-     */
-    private TrustLevel getRequiredTrustLevel(BlockType blockType) {
-        if (blockType == null) {
-            return TrustLevel.USE; // Default to USE for unknown blocks
+        String blockId = blockType != null ? blockType.getId() : null;
+        long start = System.nanoTime();
+        HyTownEvents.SlowProtectionCheck slowCheck = HyTownEvents.SlowProtectionCheck.start();
+        TrustLevel requiredLevel = rules.requiredUseLevel(blockId);
+
+        ClaimContext claim = claimResolver.resolve(worldName, targetBlock.getX(), targetBlock.getZ());
+        Decision decision = rules.checkUse(claim, playerId, requiredLevel, rules.isCrop(blockId));
+        CHECK_TIME.recordSince(start);
+        HyTownEvents.SlowProtectionCheck.commitIfSlow(slowCheck, "use", worldName, targetBlock.getX(), targetBlock.getY(), targetBlock.getZ(), playerId, decision);
+        if (!decision.isDenied()) return;
+
+        event.setCancelled(true);
+        DENIED.increment();
+        if (!canSendMessage(playerId)) return;
+        switch (decision) {
+            case DENY_CROPS -> player.sendMessage(Messages.cannotHarvestCrops());
+            case DENY_CONTAINER -> player.sendMessage(Messages.cannotAccessContainer());
+            default -> player.sendMessage(Messages.cannotUseBlock(requiredLevel));
         }
-
-        BlockGroups blockGroups = claimManager.getBlockGroups();
-
-        // Check in order of specificity
-        if (blockGroups.isWorkstationBlock(blockType)) {
-            return TrustLevel.WORKSTATION;
-        }
-        if (blockGroups.isContainerBlock(blockType)) {
-            return TrustLevel.CONTAINER;
-        }
-        if (blockGroups.isUseBlock(blockType)) {
-            return TrustLevel.USE;
-        }
-
-        // Default: any interaction with unknown blocks requires USE level
-        return TrustLevel.USE;
     }
 }
@@ -139,9 +139,10 @@ public class ClaimTitleSystem extends EntityTickingSystem<EntityStore> {
                 }
                 subtitleMessage = Message.raw("Claim").color(new Color(170, 170, 170));
             } else {
-                // Wilderness - show PVP ON
+                // Wilderness - show the configured wilderness PVP state
+                boolean wildPvp = config == null || config.isWildPvpEnabled();
                 titleMessage = Message.raw("Wilderness").color(GREEN);
-                subtitleMessage = Message.raw("PVP: ON").color(RED);
+                subtitleMessage = wildPvp ? Message.raw("PVP: ON").color(RED) : Message.raw("PVP: OFF").color(GREEN);
             }
         }
 
@@ -0,0 +1,72 @@
+package com.hytown.systems;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.dependency.Dependency;
+import com.hypixel.hytale.component.dependency.RootDependency;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.EntityEventSystem;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.event.events.ecs.BreakBlockEvent;
+import com.hypixel.hytale.server.core.modules.projectile.component.Projectile;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hytown.managers.ExplosionProtectionManager;
+import com.hytown.map.TerrainTileCache;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * ECS System that stops explosions (bombs and other exploding projectiles) from breaking
+ * blocks in claims that have explosions disabled.
+ *
+ * Block breaks caused by players are handled by BlockBreakProtectionSystem; this system only
+ * sees breaks attributed to projectile entities, one event per block. The server raises no
+ * event with a blast's whole block list, so each block is checked on its own against the
+ * per-chunk flag in ExplosionProtectionManager.
+ */
+public class ExplosionProtectionSystem extends EntityEventSystem<EntityStore, BreakBlockEvent> {
+
+    private final ExplosionProtectionManager explosionProtection;
+    private final HytaleLogger logger;
+
+    public ExplosionProtectionSystem(ExplosionProtectionManager explosionProtection, HytaleLogger logger) {
+        super(BreakBlockEvent.class);
+        this.explosionProtection = explosionProtection;
+        this.logger = logger;
+    }
+
+    @Nullable
+    @Override
+    public Query<EntityStore> getQuery() {
+        return Projectile.getComponentType();
+    }
+
+    @Nonnull
+    @Override
+    public Set<Dependency<EntityStore>> getDependencies() {
+        return Collections.singleton(RootDependency.first());
+    }
+
+    @Override
+    public void handle(int entityIndex, @Nonnull ArchetypeChunk<EntityStore> chunk, @Nonnull Store<EntityStore> store,
+                       @Nonnull CommandBuffer<EntityStore> commandBuffer, @Nonnull BreakBlockEvent event) {
+        Vector3i targetBlock = event.getTargetBlock();
+        if (targetBlock == null) return;
+
+        try {
+            String worldName = store.getExternalData().getWorld().getName();
+            if (explosionProtection.isProtected(worldName, targetBlock.getX(), targetBlock.getZ())) {
+                event.setCancelled(true);
+            } else {
+                TerrainTileCache.markTerrainChanged(worldName, targetBlock.getX(), targetBlock.getZ());
+            }
+        } catch (Exception e) {
+            logger.atWarning().withCause(e).log("[ExplosionProtection] Error checking block %s", targetBlock);
+        }
+    }
+}
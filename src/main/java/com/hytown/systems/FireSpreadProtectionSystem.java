@@ -0,0 +1,74 @@
+package com.hytown.systems;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.dependency.Dependency;
+import com.hypixel.hytale.component.dependency.RootDependency;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.EntityEventSystem;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.event.events.ecs.PlaceBlockEvent;
+import com.hypixel.hytale.server.core.modules.projectile.component.Projectile;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hytown.config.PluginConfig;
+import com.hytown.managers.ChunkFlagIndex;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * ECS System that stops fire from being started by projectiles (fire arrows, incendiary
+ * bombs, etc.) in claims that have fire spread disabled.
+ *
+ * Fire events are very frequent, so the decision is a single lookup in the precomputed
+ * ChunkFlagIndex - no claim key strings or town/plot lookups per attempt.
+ */
+public class FireSpreadProtectionSystem extends EntityEventSystem<EntityStore, PlaceBlockEvent> {
+
+    private final ChunkFlagIndex chunkFlags;
+    private final PluginConfig config;
+    private final HytaleLogger logger;
+
+    public FireSpreadProtectionSystem(ChunkFlagIndex chunkFlags, PluginConfig config, HytaleLogger logger) {
+        super(PlaceBlockEvent.class);
+        this.chunkFlags = chunkFlags;
+        this.config = config;
+        this.logger = logger;
+    }
+
+    @Nullable
+    @Override
+    public Query<EntityStore> getQuery() {
+        return Projectile.getComponentType();
+    }
+
+    @Nonnull
+    @Override
+    public Set<Dependency<EntityStore>> getDependencies() {
+        return Collections.singleton(RootDependency.first());
+    }
+
+    @Override
+    public void handle(int entityIndex, @Nonnull ArchetypeChunk<EntityStore> chunk, @Nonnull Store<EntityStore> store,
+                       @Nonnull CommandBuffer<EntityStore> commandBuffer, @Nonnull PlaceBlockEvent event) {
+        Vector3i targetBlock = event.getTargetBlock();
+        if (targetBlock == null) return;
+
+        // Only projectiles carrying a configured fire item start fire
+        String itemId = event.getItemInHand() != null ? event.getItemInHand().getItemId() : null;
+        if (!config.isFireItem(itemId)) return;
+
+        try {
+            String worldName = store.getExternalData().getWorld().getName();
+            if (!chunkFlags.isFireSpreadAllowed(worldName, targetBlock.getX(), targetBlock.getZ())) {
+                event.setCancelled(true);
+            }
+        } catch (Exception e) {
+            logger.atWarning().withCause(e).log("[FireProtection] Error checking block %s", targetBlock);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.hytown.systems;
+
+import com.hypixel.hytale.component.AddReason;
+import com.hypixel.hytale.component.Holder;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.modules.entity.item.ItemComponent;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Batches wilderness harvest item spawns per world.
+ *
+ * Instead of one world.execute() per harvest, pending drops are appended to flat arrays
+ * and a single task per world drains everything queued since the last tick.
+ */
+public class HarvestDropBatcher {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final HytaleLogger logger;
+    private final Map<String, WorldBatch> batches = new ConcurrentHashMap<>();
+
+    public HarvestDropBatcher(HytaleLogger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Queue items to be dropped at a position. Items lists are shared, never modified.
+     */
+    public void enqueue(World world, List<ItemStack> items, double x, double y, double z) {
+        WorldBatch batch = batches.get(world.getName());
+        if (batch == null || batch.world != world) {
+            // First use or the world was reloaded
+            batch = new WorldBatch(world);
+            batches.put(world.getName(), batch);
+        }
+        if (batch.add(items, x, y, z)) {
+            WorldBatch scheduled = batch;
+            try {
+                world.execute(scheduled::drain);
+            } catch (Exception e) {
+                // World shutting down; without this no later drop would schedule a drain
+                int dropped = scheduled.discard();
+                logger.atFine().withCause(e).log("[WildernessHarvest] Could not schedule %d item drops in %s",
+                        dropped, world.getName());
+            }
+        }
+    }
+
+    /**
+     * Pending drops for one world, stored as parallel arrays.
+     */
+    private class WorldBatch {
+        private final World world;
+        private double[] xs = new double[INITIAL_CAPACITY];
+        private double[] ys = new double[INITIAL_CAPACITY];
+        private double[] zs = new double[INITIAL_CAPACITY];
+        @SuppressWarnings("unchecked")
+        private List<ItemStack>[] items = new List[INITIAL_CAPACITY];
+        private int size = 0;
+        private boolean scheduled = false;
+
+        // Swapped with the live arrays on drain so the world thread never holds the lock while spawning
+        private double[] drainXs = new double[INITIAL_CAPACITY];
+        private double[] drainYs = new double[INITIAL_CAPACITY];
+        private double[] drainZs = new double[INITIAL_CAPACITY];
+        @SuppressWarnings("unchecked")
+        private List<ItemStack>[] drainItems = new List[INITIAL_CAPACITY];
+
+        WorldBatch(World world) {
+            this.world = world;
+        }
+
+        /**
+         * @return true if the caller must schedule a drain
+         */
+        synchronized boolean add(List<ItemStack> drop, double x, double y, double z) {
+            if (size == xs.length) {
+                int capacity = size * 2;
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                zs = Arrays.copyOf(zs, capacity);
+                items = Arrays.copyOf(items, capacity);
+            }
+            xs[size] = x;
+            ys[size] = y;
+            zs[size] = z;
+            items[size] = drop;
+            size++;
+
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+
+        /**
+         * Drops everything pending after a drain could not be scheduled.
+         * @return the number of drops discarded
+         */
+        synchronized int discard() {
+            int count = size;
+            Arrays.fill(items, 0, count, null);
+            size = 0;
+            scheduled = false;
+            return count;
+        }
+
+        /**
+         * Runs on the world thread.
+         */
+        void drain() {
+            double[] dx;
+            double[] dy;
+            double[] dz;
+            List<ItemStack>[] di;
+            int count;
+            synchronized (this) {
+                dx = xs;
+                dy = ys;
+                dz = zs;
+                di = items;
+                count = size;
+
+                if (drainXs.length < xs.length) {
+                    drainXs = new double[xs.length];
+                    drainYs = new double[xs.length];
+                    drainZs = new double[xs.length];
+                    drainItems = Arrays.copyOf(drainItems, xs.length);
+                }
+                xs = drainXs;
+                ys = drainYs;
+                zs = drainZs;
+                items = drainItems;
+                size = 0;
+                scheduled = false;
+            }
+
+            try {
+                Store<EntityStore> store = world.getEntityStore().getStore();
+                // Zero rotation - let items fall naturally
+                Vector3f rotation = new Vector3f(0, 0, 0);
+                for (int i = 0; i < count; i++) {
+                    try {
+                        Holder<EntityStore>[] holders = ItemComponent.generateItemDrops(
+                            store, di[i], new Vector3d(dx[i], dy[i], dz[i]), rotation);
+                        for (Holder<EntityStore> holder : holders) {
+                            if (holder != null) {
+                                store.addEntity(holder, AddReason.SPAWN);
+                            }
+                        }
+                    } catch (Exception e) {
+                        logger.atWarning().withCause(e).log("[WildernessHarvest] Error spawning batched items in %s", world.getName());
+                    }
+                }
+            } finally {
+                Arrays.fill(di, 0, count, null);
+                synchronized (this) {
+                    // Hand the drained arrays back for the next swap
+                    if (di.length >= xs.length) {
+                        drainXs = dx;
+                        drainYs = dy;
+                        drainZs = dz;
+                        drainItems = di;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.hytown.systems;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.dependency.Dependency;
+import com.hypixel.hytale.component.dependency.RootDependency;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.EntityEventSystem;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.modules.entity.damage.Damage;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hytown.config.PluginConfig;
+import com.hytown.managers.ChunkFlagIndex;
+import com.hytown.util.ChunkUtil;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.awt.Color;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ECS System that cancels player-versus-player damage where PvP is disabled.
+ *
+ * The PvP state of a chunk comes from the precomputed ChunkFlagIndex (town setting with
+ * plot override) or, for unclaimed chunks, the wildPvpEnabled config option. Each hit costs
+ * one flag lookup for the victim's chunk, plus one for the attacker's when they differ.
+ * Damage is blocked if either player stands in a no-PvP chunk.
+ */
+public class PvpProtectionSystem extends EntityEventSystem<EntityStore, Damage> {
+
+    private final ChunkFlagIndex chunkFlags;
+    private final PluginConfig config;
+    private final HytaleLogger logger;
+
+    // Rate limit messages - don't spam players
+    private static final Map<UUID, Long> lastMessageTime = new ConcurrentHashMap<>();
+    private static final long MESSAGE_COOLDOWN_MS = 2000; // 2 seconds
+
+    private static final Color RED = new Color(255, 85, 85);
+
+    public PvpProtectionSystem(ChunkFlagIndex chunkFlags, PluginConfig config, HytaleLogger logger) {
+        super(Damage.class);
+        this.chunkFlags = chunkFlags;
+        this.config = config;
+        this.logger = logger;
+    }
+
+    private boolean canSendMessage(UUID playerId) {
+        long now = System.currentTimeMillis();
+        Long lastTime = lastMessageTime.get(playerId);
+        if (lastTime == null || now - lastTime > MESSAGE_COOLDOWN_MS) {
+            lastMessageTime.put(playerId, now);
+            return true;
+        }
+        return false;
+    }
+
+    @Nullable
+    @Override
+    public Query<EntityStore> getQuery() {
+        return PlayerRef.getComponentType();
+    }
+
+    @Nonnull
+    @Override
+    public Set<Dependency<EntityStore>> getDependencies() {
+        return Collections.singleton(RootDependency.first());
+    }
+
+    @Override
+    public void handle(int entityIndex, @Nonnull ArchetypeChunk<EntityStore> chunk, @Nonnull Store<EntityStore> store,
+                       @Nonnull CommandBuffer<EntityStore> commandBuffer, @Nonnull Damage damage) {
+        // Only player-caused damage (melee or projectiles) is PvP
+        if (!(damage.getSource() instanceof Damage.EntitySource)) return;
+        Ref<EntityStore> attackerRef = ((Damage.EntitySource) damage.getSource()).getRef();
+        if (attackerRef == null || !attackerRef.isValid()) return;
+
+        PlayerRef attacker = store.getComponent(attackerRef, PlayerRef.getComponentType());
+        if (attacker == null) return;
+
+        Ref<EntityStore> victimRef = chunk.getReferenceTo(entityIndex);
+        if (victimRef == null || victimRef.equals(attackerRef)) return;
+
+        try {
+            String worldName = store.getExternalData().getWorld().getName();
+
+            TransformComponent victimTransform = store.getComponent(victimRef, TransformComponent.getComponentType());
+            if (victimTransform == null) return;
+            Vector3d victimPos = victimTransform.getPosition();
+            int victimChunkX = ChunkUtil.toChunkX(victimPos.getX());
+            int victimChunkZ = ChunkUtil.toChunkZ(victimPos.getZ());
+
+            boolean allowed = isPvpAllowed(worldName, victimChunkX, victimChunkZ);
+
+            if (allowed) {
+                TransformComponent attackerTransform = store.getComponent(attackerRef, TransformComponent.getComponentType());
+                if (attackerTransform != null) {
+                    Vector3d attackerPos = attackerTransform.getPosition();
+                    int attackerChunkX = ChunkUtil.toChunkX(attackerPos.getX());
+                    int attackerChunkZ = ChunkUtil.toChunkZ(attackerPos.getZ());
+                    if (attackerChunkX != victimChunkX || attackerChunkZ != victimChunkZ) {
+                        allowed = isPvpAllowed(worldName, attackerChunkX, attackerChunkZ);
+                    }
+                }
+            }
+
+            if (!allowed) {
+                damage.setCancelled(true);
+                if (canSendMessage(attacker.getUuid())) {
+                    Player attackerPlayer = store.getComponent(attackerRef, Player.getComponentType());
+                    if (attackerPlayer != null) {
+                        attackerPlayer.sendMessage(Message.raw("PVP is disabled here.").color(RED));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.atWarning().withCause(e).log("[PvpProtection] Error checking PvP damage");
+        }
+    }
+
+    /**
+     * PvP state of a chunk: town/plot setting for claims, config default for wilderness.
+     * Also used by ClaimProtectionListener to stop attack swings early.
+     */
+    public boolean isPvpAllowed(String world, int chunkX, int chunkZ) {
+        int flags = chunkFlags.getFlags(world, chunkX, chunkZ);
+        if ((flags & ChunkFlagIndex.CLAIMED) == 0) {
+            return config.isWildPvpEnabled();
+        }
+        return (flags & ChunkFlagIndex.PVP) != 0;
+    }
+}
@@ -1,9 +1,7 @@
 package com.hytown.systems;
 
-import com.hypixel.hytale.component.AddReason;
 import com.hypixel.hytale.component.ArchetypeChunk;
 import com.hypixel.hytale.component.CommandBuffer;
-import com.hypixel.hytale.component.Holder;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.component.dependency.Dependency;
@@ -12,21 +10,25 @@ import com.hypixel.hytale.component.query.Query;
 import com.hypixel.hytale.component.system.EntityEventSystem;
 import com.hypixel.hytale.logger.HytaleLogger;
 import com.hypixel.hytale.math.vector.Vector3d;
-import com.hypixel.hytale.math.vector.Vector3f;
 import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.event.events.ecs.BreakBlockEvent;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
-import com.hypixel.hytale.server.core.modules.entity.item.ItemComponent;
 import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.hytown.commands.WildernessCommand;
+import com.hytown.config.HarvestDropTable;
 import com.hytown.config.PluginConfig;
 import com.hytown.config.WildernessHarvestConfig;
-import com.hytown.managers.ClaimManager;
+import com.hytown.managers.ClaimContext;
+import com.hytown.managers.ClaimResolver;
+import com.hytown.managers.ProtectionRules;
+import com.hytown.util.HyTownEvents;
+import com.hytown.util.HyTownMetrics;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -35,10 +37,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * ECS System that gives players configurable item drops when they attempt to break
@@ -48,14 +51,23 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class WildernessHarvestSystem extends EntityEventSystem<EntityStore, BreakBlockEvent> {
 
-    private final ClaimManager claimManager;
+    private final ClaimResolver claimResolver;
+    private final ProtectionRules rules;
     private final PluginConfig config;
     private final WildernessHarvestConfig harvestConfig;
     private final HytaleLogger logger;
-    private final Random random = new Random();
+    private final HarvestDropBatcher dropBatcher;
 
-    // Rate limit harvesting - prevent spam clicking
-    private static final Map<UUID, Long> lastHarvestTime = new ConcurrentHashMap<>();
+    // Rate limit harvesting - prevent spam clicking. Both maps are guarded by lastHarvestTime.
+    private static final Object2LongOpenHashMap<UUID> lastHarvestTime = new Object2LongOpenHashMap<>();
+    private static final Object2LongOpenHashMap<UUID> lastCooldownMessage = new Object2LongOpenHashMap<>();
+    private static final long COOLDOWN_MESSAGE_MS = 1000;
+
+    // Block ID -> resolved pattern, drop table and prebuilt outcomes (rebuilt when the config reloads)
+    private final Map<String, HarvestTarget> targetCache = new ConcurrentHashMap<>();
+
+    // Extra drop for trunk blocks: 5 of the trunk block itself
+    private static final int TRUNK_BONUS_AMOUNT = 5;
 
     // Message colors
     private static final Color GREEN = new Color(85, 255, 85);
@@ -63,14 +75,61 @@ public class WildernessHarvestSystem extends EntityEventSystem<EntityStore, Brea
     private static final Color AQUA = new Color(85, 255, 255);
     private static final Color RED = new Color(255, 85, 85);
 
+    private static final HyTownMetrics.Timer CHECK_TIME = HyTownMetrics.timer("protection.harvest");
+    private static final HyTownMetrics.Counter HARVESTS = HyTownMetrics.counter("protection.harvest.harvests");
+
 
-    public WildernessHarvestSystem(ClaimManager claimManager, PluginConfig config,
+    public WildernessHarvestSystem(ClaimResolver claimResolver, ProtectionRules rules, PluginConfig config,
                                     WildernessHarvestConfig harvestConfig, HytaleLogger logger) {
         super(BreakBlockEvent.class);
-        this.claimManager = claimManager;
+        this.claimResolver = claimResolver;
+        this.rules = rules;
         this.config = config;
         this.harvestConfig = harvestConfig;
         this.logger = logger;
+        this.dropBatcher = new HarvestDropBatcher(logger);
+    }
+
+    /**
+     * Everything derived from a block ID that doesn't change between harvests.
+     */
+    private static final class HarvestTarget {
+        final int generation;
+        final String blockName;
+        final String pattern;           // null if the block has no drops configured
+        final HarvestDropTable table;
+        final ItemStack trunkBonus;     // null if not a trunk block
+        final String trunkBonusText;
+        // Outcome code -> items + message, filled lazily; null if the outcome space is too large
+        final AtomicReferenceArray<HarvestOutcome> outcomes;
+
+        HarvestTarget(int generation, String blockName, String pattern, HarvestDropTable table,
+                      ItemStack trunkBonus, String trunkBonusText) {
+            this.generation = generation;
+            this.blockName = blockName;
+            this.pattern = pattern;
+            this.table = table;
+            this.trunkBonus = trunkBonus;
+            this.trunkBonusText = trunkBonusText;
+            this.outcomes = table != null && table.isEnumerable()
+                    ? new AtomicReferenceArray<>((int) table.getOutcomeCount())
+                    : null;
+        }
+    }
+
+    /**
+     * Items to spawn and the feedback message for one rolled outcome.
+     */
+    private static final class HarvestOutcome {
+        final List<ItemStack> items;
+        final Message message;
+        final String itemList;
+
+        HarvestOutcome(List<ItemStack> items, Message message, String itemList) {
+            this.items = items;
+            this.message = message;
+            this.itemList = itemList;
+        }
     }
 
     @Nullable
@@ -104,15 +163,15 @@ public class WildernessHarvestSystem extends EntityEventSystem<EntityStore, Brea
         UUID playerId = playerRef.getUuid();
         String worldName = player.getWorld().getName();
 
-        // Only apply in wilderness (unclaimed areas)
-        UUID claimOwner = claimManager.getOwnerAt(worldName, targetBlock.getX(), targetBlock.getZ());
-        if (claimOwner != null) {
-            // This is claimed land, not wilderness - don't give harvest loot
-            return;
-        }
-
-        // Check if wilderness protection is actually enabled
-        if (!config.isWildProtectionEnabled()) {
+        // Only protected wilderness above the Y threshold harvests (claimed land and lower blocks break normally)
+        long start = System.nanoTime();
+        HyTownEvents.SlowProtectionCheck slowCheck = HyTownEvents.SlowProtectionCheck.start();
+        ClaimContext claim = claimResolver.resolve(worldName, targetBlock.getX(), targetBlock.getZ());
+        boolean harvestable = rules.isHarvestable(claim, targetBlock.getY());
+        CHECK_TIME.recordSince(start);
+        HyTownEvents.SlowProtectionCheck.commitIfSlow(slowCheck, "harvest", worldName, targetBlock.getX(), targetBlock.getY(), targetBlock.getZ(),
+                playerId, harvestable ? "HARVEST" : "ALLOW");
+        if (!harvestable) {
             return;
         }
 
@@ -121,14 +180,6 @@ public class WildernessHarvestSystem extends EntityEventSystem<EntityStore, Brea
             return;
         }
 
-        // Check if block is above wilderness protection threshold
-        int blockY = targetBlock.getY();
-        int minY = config.getWildProtectionMinY();
-        if (blockY <= minY) {
-            // Below wilderness protection threshold - blocks break normally, no harvest needed
-            return;
-        }
-
         // At this point, we know:
         // 1. Player is in wilderness (no claim)
         // 2. Wild protection is enabled
@@ -143,164 +194,206 @@ public class WildernessHarvestSystem extends EntityEventSystem<EntityStore, Brea
         String blockId = blockType.getId();
         if (blockId == null) return;
 
-        // Extract the block name (remove namespace if present)
-        String blockName = blockId;
-        if (blockId.contains(":")) {
-            blockName = blockId.substring(blockId.indexOf(":") + 1);
-        }
+        HarvestTarget target = getTarget(blockId);
 
         // Show debug message if player has debug mode enabled
         if (WildernessCommand.isDebugEnabled(playerId)) {
-            player.sendMessage(Message.raw("[DEBUG] Block: " + blockName).color(AQUA));
+            player.sendMessage(Message.raw("[DEBUG] Block: " + target.blockName).color(AQUA));
         }
 
         // Check if this block matches any configured pattern
-        String matchingPattern = harvestConfig.getMatchingPattern(blockName);
-        if (matchingPattern == null) {
+        if (target.pattern == null) {
             // No drops configured for this block
             return;
         }
 
         // Check cooldown to prevent spam
-        long remainingCooldown = getRemainingCooldown(playerId);
+        long now = System.currentTimeMillis();
+        long remainingCooldown = getRemainingCooldown(playerId, now);
         if (remainingCooldown > 0) {
             // Still cancel the event even if on cooldown
             event.setCancelled(true);
-            // Show cooldown message
-            double seconds = remainingCooldown / 1000.0;
-            player.sendMessage(Message.raw(String.format("Wait %.1fs to harvest more", seconds)).color(GRAY));
+            // Show cooldown message, at most once a second while spam clicking
+            if (canSendCooldownMessage(playerId, now)) {
+                double seconds = remainingCooldown / 1000.0;
+                player.sendMessage(Message.raw(String.format("Wait %.1fs to harvest more", seconds)).color(GRAY));
+            }
             return;
         }
         // Mark harvest time
-        lastHarvestTime.put(playerId, System.currentTimeMillis());
+        synchronized (lastHarvestTime) {
+            lastHarvestTime.put(playerId, now);
+        }
+        HARVESTS.increment();
 
         // Calculate and spawn the harvest items, cancel event, and show message
-        spawnHarvestItems(commandBuffer, store, entityRef, player, playerId, targetBlock, blockName, matchingPattern, event);
+        spawnHarvestItems(store, entityRef, player, playerId, targetBlock, target, event);
     }
 
     /**
-     * Get remaining cooldown in milliseconds, or 0 if can harvest.
+     * Resolve (and cache) the harvest target for a block ID.
      */
-    private long getRemainingCooldown(UUID playerId) {
-        long now = System.currentTimeMillis();
-        Long lastTime = lastHarvestTime.get(playerId);
-        long cooldown = harvestConfig.getHarvestCooldownMs();
+    private HarvestTarget getTarget(String blockId) {
+        int generation = harvestConfig.getGeneration();
+        HarvestTarget target = targetCache.get(blockId);
+        if (target != null && target.generation == generation) {
+            return target;
+        }
 
-        if (lastTime == null) {
-            return 0;
+        // Extract the block name (remove namespace if present)
+        String blockName = blockId;
+        if (blockId.contains(":")) {
+            blockName = blockId.substring(blockId.indexOf(":") + 1);
         }
-        long elapsed = now - lastTime;
-        if (elapsed >= cooldown) {
-            return 0;
+
+        String pattern = harvestConfig.getMatchingPattern(blockName);
+        HarvestDropTable table = harvestConfig.getDropTable(pattern);
+
+        ItemStack trunkBonus = null;
+        String trunkBonusText = null;
+        if (blockName.toLowerCase().contains("trunk")) {
+            trunkBonus = new ItemStack(blockName, TRUNK_BONUS_AMOUNT);
+            trunkBonusText = TRUNK_BONUS_AMOUNT + "x " + getItemDisplayName(blockName);
         }
-        return cooldown - elapsed;
+
+        target = new HarvestTarget(generation, blockName, pattern, table, trunkBonus, trunkBonusText);
+        targetCache.put(blockId, target);
+        return target;
     }
 
     /**
-     * Spawn harvest items at the player's position using world.execute() for proper entity spawning.
-     * Uses the simpler generateItemDrops() method that handles item physics correctly.
+     * Roll the target's drop table and return the (cached) outcome, or null if nothing dropped.
      */
-    private void spawnHarvestItems(CommandBuffer<EntityStore> commandBuffer, Store<EntityStore> store,
-                                    Ref<EntityStore> entityRef, Player player, UUID playerId, Vector3i blockPos,
-                                    String blockName, String pattern, BreakBlockEvent event) {
-        try {
-            // Cancel the block break since this is wilderness protection
-            event.setCancelled(true);
+    private HarvestOutcome rollOutcome(HarvestTarget target) {
+        HarvestDropTable table = target.table;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
 
-            // Calculate drops from config
-            Map<String, Integer> drops = harvestConfig.calculateDrops(pattern);
+        if (table == null || table.isEmpty()) {
+            return null;
+        }
 
-            if (drops.isEmpty()) {
-                // No drops rolled (bad luck) - just silently cancel, no message
-                return;
-            }
+        if (table.getOutcomeCount() <= 0) {
+            // Outcome space too large to encode - roll into a scratch array
+            int[] amounts = new int[table.getSlotCount()];
+            table.rollAmounts(random, amounts);
+            return buildOutcome(target, table, 0, amounts);
+        }
 
-            // Get player's position for drop location
-            TransformComponent transform = store.getComponent(entityRef, TransformComponent.getComponentType());
-            Vector3d playerPos = transform != null ? transform.getPosition() : null;
+        long code = table.roll(random);
+        if (code == 0) {
+            // No drops rolled (bad luck)
+            return null;
+        }
+        if (target.outcomes == null) {
+            return buildOutcome(target, table, code, null);
+        }
 
-            // Calculate drop position - spawn at the block position (center, slightly above)
-            final Vector3d dropPosition;
-            if (playerPos != null) {
-                // Spawn at block position but use player's Y + 1 to ensure it's visible
-                dropPosition = new Vector3d(
-                    blockPos.getX() + 0.5,
-                    playerPos.getY() + 1.0,
-                    blockPos.getZ() + 0.5
-                );
-            } else {
-                dropPosition = new Vector3d(
-                    blockPos.getX() + 0.5,
-                    blockPos.getY() + 1.0,
-                    blockPos.getZ() + 0.5
-                );
-            }
+        int index = (int) code;
+        HarvestOutcome outcome = target.outcomes.get(index);
+        if (outcome == null) {
+            outcome = buildOutcome(target, table, code, null);
+            target.outcomes.set(index, outcome);
+        }
+        return outcome;
+    }
+
+    /**
+     * Build the item stacks and message for an outcome, from either an outcome code or an amounts array.
+     */
+    private HarvestOutcome buildOutcome(HarvestTarget target, HarvestDropTable table, long code, int[] amounts) {
+        List<ItemStack> items = new ArrayList<>();
+        List<String> dropMessages = new ArrayList<>();
 
-            // Build list of all items to drop
-            List<ItemStack> allItems = new ArrayList<>();
-            List<String> dropMessages = new ArrayList<>();
+        for (int slot = 0; slot < table.getSlotCount(); slot++) {
+            int amount = amounts != null ? amounts[slot] : table.getAmount(code, slot);
+            if (amount <= 0) continue;
 
-            for (Map.Entry<String, Integer> entry : drops.entrySet()) {
-                String itemId = entry.getKey();
-                int amount = entry.getValue();
+            String itemId = table.getSlotItem(slot);
+            items.add(new ItemStack(itemId, amount));
+            dropMessages.add(amount + "x " + getItemDisplayName(itemId));
+        }
 
-                if (amount <= 0) continue;
+        if (items.isEmpty()) {
+            // No drops rolled (bad luck)
+            return null;
+        }
 
-                allItems.add(new ItemStack(itemId, amount));
-                dropMessages.add(amount + "x " + getItemDisplayName(itemId));
+        // If block is a trunk, also drop 5 of the trunk block itself
+        if (target.trunkBonus != null) {
+            items.add(target.trunkBonus);
+            dropMessages.add(target.trunkBonusText);
+        }
+
+        String itemList = String.join(", ", dropMessages);
+        return new HarvestOutcome(Collections.unmodifiableList(items),
+                Message.raw("Wilderness Harvest: " + itemList).color(GREEN), itemList);
+    }
+
+    /**
+     * Get remaining cooldown in milliseconds, or 0 if can harvest.
+     */
+    private long getRemainingCooldown(UUID playerId, long now) {
+        long lastTime;
+        synchronized (lastHarvestTime) {
+            if (!lastHarvestTime.containsKey(playerId)) {
+                return 0;
             }
+            lastTime = lastHarvestTime.getLong(playerId);
+        }
+        long cooldown = harvestConfig.getHarvestCooldownMs();
+        long elapsed = now - lastTime;
+        if (elapsed >= cooldown) {
+            return 0;
+        }
+        return cooldown - elapsed;
+    }
 
-            // If block is a trunk, also drop 5 of the trunk block itself
-            if (blockName.toLowerCase().contains("trunk")) {
-                int trunkAmount = 5;
-                allItems.add(new ItemStack(blockName, trunkAmount));
-                dropMessages.add(trunkAmount + "x " + getItemDisplayName(blockName));
+    private static boolean canSendCooldownMessage(UUID playerId, long now) {
+        synchronized (lastHarvestTime) {
+            if (lastCooldownMessage.containsKey(playerId)
+                    && now - lastCooldownMessage.getLong(playerId) < COOLDOWN_MESSAGE_MS) {
+                return false;
             }
+            lastCooldownMessage.put(playerId, now);
+            return true;
+        }
+    }
 
-            if (allItems.isEmpty()) {
+    /**
+     * Roll drops and queue them for spawning at the block position.
+     * Spawning is batched per world and drained in a single world.execute() per tick.
+     */
+    private void spawnHarvestItems(Store<EntityStore> store, Ref<EntityStore> entityRef, Player player, UUID playerId,
+                                    Vector3i blockPos, HarvestTarget target, BreakBlockEvent event) {
+        try {
+            // Cancel the block break since this is wilderness protection
+            event.setCancelled(true);
+
+            HarvestOutcome outcome = rollOutcome(target);
+            if (outcome == null) {
+                // No drops rolled (bad luck) - just silently cancel, no message
                 return;
             }
 
-            // Spawn items using world.execute() to ensure proper world thread execution
-            final List<ItemStack> itemsToSpawn = allItems;
-            player.getWorld().execute(() -> {
-                try {
-                    Store<EntityStore> worldStore = player.getWorld().getEntityStore().getStore();
-
-                    // Use generateItemDrops with zero rotation - let items fall naturally
-                    Vector3f rotation = new Vector3f(0, 0, 0);
-
-                    Holder<EntityStore>[] holders = ItemComponent.generateItemDrops(
-                        worldStore,
-                        itemsToSpawn,
-                        dropPosition,
-                        rotation
-                    );
-
-                    // Add all item entities to the world
-                    for (Holder<EntityStore> holder : holders) {
-                        if (holder != null) {
-                            worldStore.addEntity(holder, AddReason.SPAWN);
-                        }
-                    }
-                } catch (Exception e) {
-                    logger.atWarning().withCause(e).log("[WildernessHarvest] Error in world.execute() spawning items");
-                }
-            });
+            // Spawn at block position but use player's Y + 1 to ensure it's visible
+            TransformComponent transform = store.getComponent(entityRef, TransformComponent.getComponentType());
+            Vector3d playerPos = transform != null ? transform.getPosition() : null;
+            double dropY = playerPos != null ? playerPos.getY() + 1.0 : blockPos.getY() + 1.0;
+
+            dropBatcher.enqueue(player.getWorld(), outcome.items, blockPos.getX() + 0.5, dropY, blockPos.getZ() + 0.5);
 
             // Send feedback message showing what was harvested
-            String itemList = String.join(", ", dropMessages);
-            player.sendMessage(Message.raw("Wilderness Harvest: " + itemList).color(GREEN));
+            player.sendMessage(outcome.message);
 
             // For non-tree blocks (like stone), also show the Y-level protection message
-            if (!pattern.equalsIgnoreCase("Trunk")) {
+            if (!target.pattern.equalsIgnoreCase("Trunk")) {
                 int minY = config.getWildProtectionMinY();
                 int blockY = blockPos.getY();
                 player.sendMessage(Message.raw("Wilderness Protection: Go below Y=" + minY + " to break (Current Y: " + blockY + ")").color(RED));
             }
 
             logger.atFine().log("[WildernessHarvest] Player %s harvested from %s (pattern: %s): %s",
-                    playerId, blockName, pattern, itemList);
+                    playerId, target.blockName, target.pattern, outcome.itemList);
         } catch (Exception e) {
             logger.atWarning().withCause(e).log("[WildernessHarvest] Error spawning items for player %s", playerId);
         }
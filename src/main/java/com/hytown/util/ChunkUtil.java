@@ -22,6 +22,20 @@ public class ChunkUtil {
         return (int) Math.floor(worldZ / CHUNK_SIZE);
     }
 
+    /**
+     * Converts an integer block X coordinate to a chunk X coordinate.
+     */
+    public static int toChunkX(int blockX) {
+        return Math.floorDiv(blockX, CHUNK_SIZE);
+    }
+
+    /**
+     * Converts an integer block Z coordinate to a chunk Z coordinate.
+     */
+    public static int toChunkZ(int blockZ) {
+        return Math.floorDiv(blockZ, CHUNK_SIZE);
+    }
+
     /**
      * Gets the minimum world X coordinate for a chunk.
      */
@@ -57,20 +71,69 @@ public class ChunkUtil {
         return chunkX + "," + chunkZ;
     }
 
+    /**
+     * Packs chunk coordinates into a single long (X in the high 32 bits, Z in the low 32 bits).
+     */
+    public static long packChunk(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Unpacks the chunk X coordinate from packChunk().
+     */
+    public static int unpackChunkX(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Unpacks the chunk Z coordinate from packChunk().
+     */
+    public static int unpackChunkZ(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Parses the chunk X coordinate of a chunk key ("x,z") without allocating.
+     * @throws NumberFormatException if the key is not two comma-separated integers
+     */
+    public static int parseChunkX(String key) {
+        return Integer.parseInt(key, 0, commaOf(key), 10);
+    }
+
+    /**
+     * Parses the chunk Z coordinate of a chunk key ("x,z") without allocating.
+     * @throws NumberFormatException if the key is not two comma-separated integers
+     */
+    public static int parseChunkZ(String key) {
+        return Integer.parseInt(key, commaOf(key) + 1, key.length(), 10);
+    }
+
+    /**
+     * Parses a chunk key straight into packChunk() form, for primitive-keyed indexes.
+     * @throws NumberFormatException if the key is not two comma-separated integers
+     */
+    public static long packChunkKey(String key) {
+        return packChunk(parseChunkX(key), parseChunkZ(key));
+    }
+
+    private static int commaOf(String key) {
+        int comma = key.indexOf(',');
+        if (comma < 0) {
+            throw new NumberFormatException("Not a chunk key: " + key);
+        }
+        return comma;
+    }
+
     /**
      * Parses a chunk key string back to coordinates.
      * Returns int[2] with {chunkX, chunkZ} or null if invalid.
      */
     public static int[] parseChunkKey(String key) {
-        if (key == null || !key.contains(",")) {
-            return null;
-        }
-        String[] parts = key.split(",");
-        if (parts.length != 2) {
+        if (key == null) {
             return null;
         }
         try {
-            return new int[] { Integer.parseInt(parts[0]), Integer.parseInt(parts[1]) };
+            return new int[] { parseChunkX(key), parseChunkZ(key) };
         } catch (NumberFormatException e) {
             return null;
         }
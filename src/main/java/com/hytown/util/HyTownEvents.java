@@ -0,0 +1,240 @@
+package com.hytown.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events for HyTown operations, so a recording taken during a lag spike
+ * shows which operation ran on which thread and for how long.
+ *
+ * All events are disabled unless a recording turns them on, e.g. with a .jfc file or
+ * {@code jcmd <pid> JFR.start settings=profile +hytown.TownSave#enabled=true ...}. While
+ * disabled, begin()/commit() are no-ops and the JIT removes the event allocation, so call
+ * sites follow the usual pattern:
+ * <pre>
+ *   TownSave event = new TownSave();
+ *   event.begin();
+ *   ... work ...
+ *   if (event.shouldCommit()) { event.town = ...; event.commit(); }
+ * </pre>
+ * Anything that costs work to compute (names, strings) is only filled in after shouldCommit().
+ */
+public final class HyTownEvents {
+
+    private HyTownEvents() {
+    }
+
+    @Name("hytown.TownSave")
+    @Label("Town Save")
+    @Category({"HyTown", "Storage"})
+    @Description("A town file written by TownStorage")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class TownSave extends Event {
+        @Label("Town")
+        public String town;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+    @Name("hytown.TownLoad")
+    @Label("Town Load")
+    @Category({"HyTown", "Storage"})
+    @Description("All town files loaded from disk (startup, reload, backup restore)")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class TownLoad extends Event {
+        @Label("Towns")
+        public int towns;
+
+        @Label("Claims Indexed")
+        public int claims;
+    }
+
+    @Name("hytown.BackupCreate")
+    @Label("Backup Create")
+    @Category({"HyTown", "Storage"})
+    @Description("A daily town backup written by TownStorage")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class BackupCreate extends Event {
+        @Label("Backup")
+        public String backup;
+
+        @Label("Towns")
+        public int towns;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+    @Name("hytown.ClaimChange")
+    @Label("Claim Change")
+    @Category({"HyTown", "Claims"})
+    @Description("A personal or town claim added or removed")
+    @Enabled(false)
+    public static final class ClaimChange extends Event {
+        @Label("Action")
+        @Description("claim, unclaim, unclaimAll, townClaim or townUnclaim")
+        public String action;
+
+        @Label("World")
+        public String world;
+
+        @Label("Chunk X")
+        public int chunkX;
+
+        @Label("Chunk Z")
+        public int chunkZ;
+
+        @Label("Owner")
+        @Description("Player UUID for personal claims, town name for town claims")
+        public String owner;
+
+        @Label("Chunks")
+        public int chunks;
+
+        /**
+         * Sets world and chunk from a town claim key ("world:chunkX,chunkZ").
+         */
+        public void setClaimKey(String claimKey) {
+            int colon = claimKey.lastIndexOf(':');
+            int comma = claimKey.lastIndexOf(',');
+            if (colon < 0 || comma < colon) return;
+            try {
+                world = claimKey.substring(0, colon);
+                chunkX = Integer.parseInt(claimKey.substring(colon + 1, comma));
+                chunkZ = Integer.parseInt(claimKey.substring(comma + 1));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+    }
+
+    @Name("hytown.UpkeepRun")
+    @Label("Upkeep Run")
+    @Category({"HyTown", "Towns"})
+    @Description("A daily upkeep collection over all towns")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class UpkeepRun extends Event {
+        @Label("Towns")
+        public int towns;
+
+        @Label("Towns Charged")
+        public int charged;
+    }
+
+    @Name("hytown.MapTile")
+    @Label("Map Tile")
+    @Category({"HyTown", "Map"})
+    @Description("A world map tile built by ClaimImageBuilder")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class MapTile extends Event {
+        @Label("World")
+        public String world;
+
+        @Label("Chunk Index")
+        public long chunkIndex;
+
+        @Label("Image Size")
+        public int size;
+
+        @Label("Cached Terrain")
+        @Description("Terrain came from the tile caches, so only the claim pass ran")
+        public boolean cachedTerrain;
+
+        @Label("Fetch Time")
+        @Description("From requesting the chunk to reading it on the world thread, including the render queue")
+        @Timespan
+        public long fetchNanos;
+
+        @Label("Terrain Time")
+        @Timespan
+        public long terrainNanos;
+
+        @Label("Composite Time")
+        @Timespan
+        public long compositeNanos;
+    }
+
+    @Name("hytown.SlowProtectionCheck")
+    @Label("Slow Protection Check")
+    @Category({"HyTown", "Protection"})
+    @Description("A block protection decision that took longer than the threshold")
+    @Enabled(false)
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static final class SlowProtectionCheck extends Event {
+        @Label("System")
+        @Description("break, place, damage, use or harvest")
+        public String system;
+
+        @Label("World")
+        public String world;
+
+        @Label("X")
+        public int x;
+
+        @Label("Y")
+        public int y;
+
+        @Label("Z")
+        public int z;
+
+        @Label("Player")
+        public String player;
+
+        @Label("Decision")
+        public String decision;
+
+        /**
+         * Starts timing a check. Returns null while no recording has the event enabled, so the
+         * protection systems allocate nothing per block event however their handlers get compiled.
+         */
+        public static SlowProtectionCheck start() {
+            if (!FlightRecorder.isInitialized() || !Type.EVENT.isEnabled()) return null;
+            SlowProtectionCheck event = new SlowProtectionCheck();
+            event.begin();
+            return event;
+        }
+
+        /**
+         * Ends a check from start() and commits it if it ran past the threshold.
+         */
+        public static void commitIfSlow(SlowProtectionCheck event, String system, String world, int x, int y, int z,
+                                        Object player, Object decision) {
+            if (event == null) return;
+            event.end();
+            if (!event.shouldCommit()) return;
+            event.system = system;
+            event.world = world;
+            event.x = x;
+            event.y = y;
+            event.z = z;
+            event.player = String.valueOf(player);
+            event.decision = String.valueOf(decision);
+            event.commit();
+        }
+
+        // Looked up on first use, once the recorder is running
+        private static final class Type {
+            static final EventType EVENT = EventType.getEventType(SlowProtectionCheck.class);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.hytown.util;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Logging facade over the plugin's HytaleLogger with a level per category.
+ *
+ * A disabled call costs one volatile read: the fixed-arity methods take their arguments
+ * unformatted (no varargs array, no string building) and the Supplier variant builds its
+ * message only when enabled. Noisy call sites can share a RateLimit to log at most once per
+ * interval. Levels come from "logLevels" in config.json (category name to level name).
+ *
+ * Before init() (or in offline tools) messages go to the console instead.
+ */
+public final class HyTownLog {
+
+    public enum Level {
+        FINE(java.util.logging.Level.FINE),
+        INFO(java.util.logging.Level.INFO),
+        WARNING(java.util.logging.Level.WARNING),
+        SEVERE(java.util.logging.Level.SEVERE),
+        OFF(java.util.logging.Level.OFF);
+
+        private final java.util.logging.Level julLevel;
+
+        Level(java.util.logging.Level julLevel) {
+            this.julLevel = julLevel;
+        }
+    }
+
+    public enum Category {
+        GENERAL("General"),
+        MAP("Map"),
+        CLAIMS("Claims"),
+        TOWNS("Towns"),
+        STORAGE("Storage"),
+        PROTECTION("Protection"),
+        CONFIG("Config");
+
+        private final String tag;
+        // Lowest enabled level (Level ordinal)
+        private volatile int threshold = Level.INFO.ordinal();
+
+        Category(String tag) {
+            this.tag = "[" + tag + "] ";
+        }
+
+        public Level getLevel() {
+            return Level.values()[threshold];
+        }
+
+        public void setLevel(Level level) {
+            this.threshold = level.ordinal();
+        }
+    }
+
+    private static volatile HytaleLogger logger;
+
+    private HyTownLog() {
+    }
+
+    /**
+     * Routes messages to the plugin logger. Called first thing during plugin setup.
+     */
+    public static void init(HytaleLogger pluginLogger) {
+        logger = pluginLogger;
+    }
+
+    /**
+     * Applies category levels from config (e.g. {"map": "FINE"}). Categories not listed go
+     * back to INFO; unknown names are reported and skipped.
+     */
+    public static void configure(Map<String, String> levels) {
+        for (Category category : Category.values()) {
+            category.setLevel(Level.INFO);
+        }
+        if (levels == null) return;
+
+        for (Map.Entry<String, String> entry : levels.entrySet()) {
+            try {
+                Category category = Category.valueOf(entry.getKey().toUpperCase(Locale.ROOT));
+                category.setLevel(Level.valueOf(entry.getValue().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                warning(Category.CONFIG, "Ignoring log level %s=%s", entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    public static boolean isEnabled(Category category, Level level) {
+        return level.ordinal() >= category.threshold;
+    }
+
+    // ==================== FINE ====================
+
+    public static void fine(Category category, String message) {
+        if (isEnabled(category, Level.FINE)) emit(category, Level.FINE, null, message, 0, null, null, null);
+    }
+
+    public static void fine(Category category, String format, Object arg) {
+        if (isEnabled(category, Level.FINE)) emit(category, Level.FINE, null, format, 1, arg, null, null);
+    }
+
+    public static void fine(Category category, String format, Object arg1, Object arg2) {
+        if (isEnabled(category, Level.FINE)) emit(category, Level.FINE, null, format, 2, arg1, arg2, null);
+    }
+
+    public static void fine(Category category, String format, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(category, Level.FINE)) emit(category, Level.FINE, null, format, 3, arg1, arg2, arg3);
+    }
+
+    /**
+     * Fine message built only when the category logs FINE.
+     */
+    public static void fine(Category category, Supplier<String> message) {
+        if (isEnabled(category, Level.FINE)) emit(category, Level.FINE, null, "%s", 1, message.get(), null, null);
+    }
+
+    // ==================== INFO ====================
+
+    public static void info(Category category, String message) {
+        if (isEnabled(category, Level.INFO)) emit(category, Level.INFO, null, message, 0, null, null, null);
+    }
+
+    public static void info(Category category, String format, Object arg) {
+        if (isEnabled(category, Level.INFO)) emit(category, Level.INFO, null, format, 1, arg, null, null);
+    }
+
+    public static void info(Category category, String format, Object arg1, Object arg2) {
+        if (isEnabled(category, Level.INFO)) emit(category, Level.INFO, null, format, 2, arg1, arg2, null);
+    }
+
+    public static void info(Category category, String format, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(category, Level.INFO)) emit(category, Level.INFO, null, format, 3, arg1, arg2, arg3);
+    }
+
+    // ==================== WARNING ====================
+
+    public static void warning(Category category, String message) {
+        if (isEnabled(category, Level.WARNING)) emit(category, Level.WARNING, null, message, 0, null, null, null);
+    }
+
+    public static void warning(Category category, String format, Object arg) {
+        if (isEnabled(category, Level.WARNING)) emit(category, Level.WARNING, null, format, 1, arg, null, null);
+    }
+
+    public static void warning(Category category, String format, Object arg1, Object arg2) {
+        if (isEnabled(category, Level.WARNING)) emit(category, Level.WARNING, null, format, 2, arg1, arg2, null);
+    }
+
+    public static void warning(Category category, Throwable cause, String message) {
+        if (isEnabled(category, Level.WARNING)) emit(category, Level.WARNING, cause, message, 0, null, null, null);
+    }
+
+    public static void warning(Category category, Throwable cause, String format, Object arg) {
+        if (isEnabled(category, Level.WARNING)) emit(category, Level.WARNING, cause, format, 1, arg, null, null);
+    }
+
+    // ==================== SEVERE ====================
+
+    public static void severe(Category category, String message) {
+        if (isEnabled(category, Level.SEVERE)) emit(category, Level.SEVERE, null, message, 0, null, null, null);
+    }
+
+    public static void severe(Category category, String format, Object arg) {
+        if (isEnabled(category, Level.SEVERE)) emit(category, Level.SEVERE, null, format, 1, arg, null, null);
+    }
+
+    public static void severe(Category category, String format, Object arg1, Object arg2) {
+        if (isEnabled(category, Level.SEVERE)) emit(category, Level.SEVERE, null, format, 2, arg1, arg2, null);
+    }
+
+    public static void severe(Category category, Throwable cause, String format, Object arg) {
+        if (isEnabled(category, Level.SEVERE)) emit(category, Level.SEVERE, cause, format, 1, arg, null, null);
+    }
+
+    private static void emit(Category category, Level level, Throwable cause, String format,
+                             int argCount, Object arg1, Object arg2, Object arg3) {
+        String tagged = category.tag + format;
+        HytaleLogger backend = logger;
+        if (backend == null) {
+            console(level, cause, tagged, argCount, arg1, arg2, arg3);
+            return;
+        }
+
+        PluginBackend.log(backend, level, cause, tagged, argCount, arg1, arg2, arg3);
+    }
+
+    /**
+     * Holds the calls into the logger API. HyTownLog only names HytaleLogger in the logger field
+     * and init(), which the JVM does not resolve until init() runs, so code using the facade
+     * (storage, config, benchmarks) still loads without the server jar on the classpath; this
+     * class is first loaded once a plugin logger is set.
+     */
+    private static final class PluginBackend {
+        static void log(HytaleLogger backend, Level level, Throwable cause, String format,
+                        int argCount, Object arg1, Object arg2, Object arg3) {
+            var api = backend.at(level.julLevel);
+            if (cause != null) {
+                api = api.withCause(cause);
+            }
+            switch (argCount) {
+                case 0 -> api.log(format);
+                case 1 -> api.log(format, arg1);
+                case 2 -> api.log(format, arg1, arg2);
+                default -> api.log(format, arg1, arg2, arg3);
+            }
+        }
+    }
+
+    private static void console(Level level, Throwable cause, String format,
+                                int argCount, Object arg1, Object arg2, Object arg3) {
+        String message = argCount == 0 ? format : String.format(format, arg1, arg2, arg3);
+        var out = level.ordinal() >= Level.WARNING.ordinal() ? System.err : System.out;
+        out.println(message);
+        if (cause != null) {
+            cause.printStackTrace(out);
+        }
+    }
+
+    /**
+     * Creates a limiter allowing one message per interval.
+     */
+    public static RateLimit rateLimit(long interval, TimeUnit unit) {
+        return new RateLimit(unit.toNanos(interval));
+    }
+
+    /**
+     * Lets a noisy call site log at most once per interval and counts what it skipped.
+     * Typical use: {@code if (LIMIT.tryAcquire()) HyTownLog.warning(cat, "... (%d skipped)", LIMIT.drainSuppressed());}
+     */
+    public static final class RateLimit {
+        private final long intervalNanos;
+        private final AtomicLong nextAllowed = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger suppressed = new AtomicInteger();
+
+        private RateLimit(long intervalNanos) {
+            this.intervalNanos = intervalNanos;
+        }
+
+        public boolean tryAcquire() {
+            long now = System.nanoTime();
+            long next = nextAllowed.get();
+            if ((next == Long.MIN_VALUE || now - next >= 0) && nextAllowed.compareAndSet(next, now + intervalNanos)) {
+                return true;
+            }
+            suppressed.incrementAndGet();
+            return false;
+        }
+
+        /**
+         * Number of messages skipped since the last call.
+         */
+        public int drainSuppressed() {
+            return suppressed.getAndSet(0);
+        }
+    }
+}
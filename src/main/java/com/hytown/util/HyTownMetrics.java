@@ -0,0 +1,263 @@
+package com.hytown.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Counters, latency timers and gauges for runtime performance, by dotted name
+ * (e.g. "protection.break", "storage.town.save").
+ *
+ * Call sites look their metrics up once and keep them in static fields; recording is a
+ * LongAdder increment or a histogram bucket increment, with no locking or allocation.
+ * Timers keep a log-linear histogram (16 buckets per power of two, so percentiles are within
+ * about 6%) of nanosecond durations since startup or the last reset.
+ *
+ * Shown by /townadmin perf and written to metrics.json by the plugin every few minutes.
+ */
+public final class HyTownMetrics {
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Timer> TIMERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, DoubleSupplier> GAUGES = new ConcurrentSkipListMap<>();
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private static volatile long resetAt = System.currentTimeMillis();
+
+    private HyTownMetrics() {
+    }
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, k -> new Counter());
+    }
+
+    public static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, k -> new Timer());
+    }
+
+    /**
+     * Registers a value read when a snapshot is taken (replaces an earlier gauge of that name).
+     */
+    public static void gauge(String name, DoubleSupplier value) {
+        GAUGES.put(name, value);
+    }
+
+    /**
+     * Zeroes all counters and timers. Gauges are left alone.
+     */
+    public static void reset() {
+        COUNTERS.values().forEach(Counter::reset);
+        TIMERS.values().forEach(Timer::reset);
+        resetAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Current values as nested maps: counters, gauges and timers (count, mean, p50, p99, max in ms).
+     */
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("takenAt", System.currentTimeMillis());
+        snapshot.put("since", resetAt);
+
+        Map<String, Long> counters = new LinkedHashMap<>();
+        COUNTERS.forEach((name, counter) -> counters.put(name, counter.get()));
+        snapshot.put("counters", counters);
+
+        Map<String, Double> gauges = new LinkedHashMap<>();
+        GAUGES.forEach((name, gauge) -> gauges.put(name, round(gauge.getAsDouble())));
+        snapshot.put("gauges", gauges);
+
+        Map<String, Map<String, Object>> timers = new LinkedHashMap<>();
+        TIMERS.forEach((name, timer) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", timer.count());
+            values.put("meanMs", round(timer.meanNanos() / 1e6));
+            values.put("p50Ms", round(timer.percentileNanos(50) / 1e6));
+            values.put("p99Ms", round(timer.percentileNanos(99) / 1e6));
+            values.put("maxMs", round(timer.maxNanos() / 1e6));
+            values.put("totalMs", round(timer.totalNanos() / 1e6));
+            timers.put(name, values);
+        });
+        snapshot.put("timers", timers);
+        return snapshot;
+    }
+
+    /**
+     * One line per metric whose name starts with prefix (all for an empty prefix), for chat output.
+     */
+    public static List<String> format(String prefix) {
+        List<String> lines = new ArrayList<>();
+        TIMERS.forEach((name, timer) -> {
+            if (name.startsWith(prefix) && timer.count() > 0) {
+                lines.add(String.format("%s: %d, mean %.3fms, p50 %.3fms, p99 %.3fms, max %.3fms", name, timer.count(),
+                        timer.meanNanos() / 1e6, timer.percentileNanos(50) / 1e6, timer.percentileNanos(99) / 1e6,
+                        timer.maxNanos() / 1e6));
+            }
+        });
+        COUNTERS.forEach((name, counter) -> {
+            if (name.startsWith(prefix) && counter.get() > 0) {
+                lines.add(name + ": " + counter.get());
+            }
+        });
+        GAUGES.forEach((name, gauge) -> {
+            if (name.startsWith(prefix)) {
+                lines.add(name + ": " + round(gauge.getAsDouble()));
+            }
+        });
+        return lines;
+    }
+
+    /**
+     * Writes snapshot() as JSON, replacing the file.
+     */
+    public static void writeSnapshot(Path file) {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.writeString(tempFile, GSON.toJson(snapshot()));
+            Files.move(tempFile, file, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            HyTownLog.warning(HyTownLog.Category.GENERAL, e, "[Metrics] Could not write %s", file);
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    /**
+     * A monotonically increasing count (events, bytes).
+     */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        private Counter() {
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        private void reset() {
+            value.reset();
+        }
+    }
+
+    /**
+     * A latency histogram. Typical use: {@code long start = System.nanoTime(); ... timer.recordSince(start);}
+     */
+    public static final class Timer {
+        // Values below 16ns get their own bucket, then 16 buckets per power of two up to 2^63
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private Timer() {
+        }
+
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public void record(long nanos) {
+            if (nanos < 0) nanos = 0;
+            buckets.incrementAndGet(bucketOf(nanos));
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long totalNanos() {
+            return total.sum();
+        }
+
+        public long maxNanos() {
+            return max.get();
+        }
+
+        public double meanNanos() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) total.sum() / n;
+        }
+
+        /**
+         * Upper bound of the bucket holding the given percentile (0-100), capped at the maximum.
+         */
+        public long percentileNanos(double percentile) {
+            long n = 0;
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                n += counts[i];
+            }
+            if (n == 0) return 0;
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestInBucket(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        private void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+            count.reset();
+            total.reset();
+            max.reset();
+        }
+
+        static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        static long highestInBucket(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            long sub = bucket % SUB_BUCKETS;
+            long shift = exponent - SUB_BUCKET_BITS;
+            return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+        }
+    }
+}
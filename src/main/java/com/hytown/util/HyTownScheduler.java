@@ -0,0 +1,215 @@
+package com.hytown.util;
+
+import com.hytown.util.HyTownLog.Category;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The plugin's one scheduler for timed and background work.
+ *
+ * A single daemon thread keeps time and runs short tasks (countdown ticks, handing work to a
+ * world thread). Anything that blocks on disk runs on a virtual thread instead, so a slow save
+ * never holds up the timer. Every task has a name and is timed as "scheduler.<name>" (failures
+ * and skipped runs are counted next to it), so /townadmin perf scheduler shows where the time
+ * goes.
+ *
+ * Repeating tasks are registered by name. Each run is followed by the next after the interval,
+ * give or take 10% jitter so tasks with the same interval don't all fire at once. A run that
+ * is still going when the next is due makes that next run skip, so saves never overlap.
+ *
+ * shutdown() stops the timer, drops pending one-shot tasks and waits for blocking runs in
+ * progress, so final saves made after it don't race a periodic one.
+ */
+public final class HyTownScheduler {
+
+    private static final double JITTER = 0.1;
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final ExecutorService blocking =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("HyTown-IO-", 0).factory());
+    private final Map<String, RepeatingTask> repeating = new ConcurrentHashMap<>();
+
+    public HyTownScheduler() {
+        timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "HyTown-Scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        timer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Registers a task that runs every interval (with jitter), first after one interval.
+     * Blocking tasks (disk, network) run on a virtual thread.
+     *
+     * @throws IllegalStateException if a task with that name is already registered
+     */
+    public void repeat(String name, long interval, TimeUnit unit, boolean blocking, Runnable task) {
+        RepeatingTask repeatingTask = new RepeatingTask(name, unit.toNanos(interval), blocking, task);
+        if (repeating.putIfAbsent(name, repeatingTask) != null) {
+            throw new IllegalStateException("Task already registered: " + name);
+        }
+        repeatingTask.scheduleNext();
+    }
+
+    /**
+     * Stops a repeating task. A run in progress finishes.
+     */
+    public void cancel(String name) {
+        RepeatingTask task = repeating.remove(name);
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Runs a short task once on the scheduler thread after a delay.
+     *
+     * @throws RejectedExecutionException after shutdown
+     */
+    public ScheduledFuture<?> schedule(String name, long delay, TimeUnit unit, Runnable task) {
+        Runnable timed = timed(name, task);
+        return timer.schedule(timed, delay, unit);
+    }
+
+    /**
+     * Runs a short task on the scheduler thread at a fixed rate until its future is cancelled
+     * (countdowns and the like).
+     *
+     * @throws RejectedExecutionException after shutdown
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(String name, long initialDelay, long period, TimeUnit unit, Runnable task) {
+        Runnable timed = timed(name, task);
+        return timer.scheduleAtFixedRate(timed, initialDelay, period, unit);
+    }
+
+    /**
+     * Runs a blocking task on a virtual thread now.
+     *
+     * @throws RejectedExecutionException after shutdown
+     */
+    public void runBlocking(String name, Runnable task) {
+        blocking.execute(timed(name, task));
+    }
+
+    /**
+     * Executor running each task on its own virtual thread, for APIs that take an Executor.
+     */
+    public Executor blockingExecutor() {
+        return blocking;
+    }
+
+    public boolean isShutdown() {
+        return timer.isShutdown();
+    }
+
+    /**
+     * Cancels all timed work and waits up to the timeout for blocking tasks in progress.
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        for (RepeatingTask task : repeating.values()) {
+            task.cancel();
+        }
+        repeating.clear();
+        timer.shutdownNow();
+        blocking.shutdown();
+        try {
+            if (!blocking.awaitTermination(timeout, unit)) {
+                HyTownLog.warning(Category.GENERAL, "[Scheduler] Blocking tasks still running after %d %s",
+                        timeout, unit.name().toLowerCase());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wraps a task so its runs are timed and its failures logged instead of silently ending
+     * a fixed-rate schedule.
+     */
+    private static Runnable timed(String name, Runnable task) {
+        HyTownMetrics.Timer time = HyTownMetrics.timer("scheduler." + name);
+        HyTownMetrics.Counter failures = HyTownMetrics.counter("scheduler." + name + ".failed");
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                failures.increment();
+                HyTownLog.warning(Category.GENERAL, e, "[Scheduler] Task %s failed", name);
+            } finally {
+                time.recordSince(start);
+            }
+        };
+    }
+
+    private final class RepeatingTask {
+        private final long intervalNanos;
+        private final boolean blocking;
+        private final Runnable run;
+        private final HyTownMetrics.Counter skipped;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile ScheduledFuture<?> next;
+        private volatile boolean cancelled;
+
+        RepeatingTask(String name, long intervalNanos, boolean blocking, Runnable task) {
+            this.intervalNanos = intervalNanos;
+            this.blocking = blocking;
+            this.skipped = HyTownMetrics.counter("scheduler." + name + ".skipped");
+            Runnable timed = timed(name, task);
+            this.run = () -> {
+                try {
+                    timed.run();
+                } finally {
+                    running.set(false);
+                }
+            };
+        }
+
+        void scheduleNext() {
+            if (cancelled) return;
+            long jitter = (long) (intervalNanos * JITTER);
+            long delay = intervalNanos - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1);
+            try {
+                next = timer.schedule(this::fire, delay, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+            }
+        }
+
+        private void fire() {
+            if (cancelled) return;
+            if (!running.compareAndSet(false, true)) {
+                skipped.increment(); // Previous run still going
+            } else if (blocking) {
+                try {
+                    HyTownScheduler.this.blocking.execute(run);
+                } catch (RejectedExecutionException e) {
+                    running.set(false);
+                }
+            } else {
+                run.run();
+            }
+            scheduleNext();
+        }
+
+        void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> future = next;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.hytown.util;
+
+import com.hytown.util.HyTownLog.Category;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Marks when something loaded in the background is ready. Code that needs it calls await(),
+ * which blocks until the load is done and returns at once after that.
+ *
+ * The gate opens when the load finishes, also if it failed (the failure is logged), so a
+ * broken file costs its data but never hangs a caller.
+ */
+public final class ReadyGate {
+
+    private static final ReadyGate OPEN = new ReadyGate(CompletableFuture.completedFuture(null));
+
+    private final CompletableFuture<Void> done;
+
+    private ReadyGate(CompletableFuture<Void> done) {
+        this.done = done;
+    }
+
+    /**
+     * A gate that is already open.
+     */
+    public static ReadyGate open() {
+        return OPEN;
+    }
+
+    /**
+     * Runs a load on the executor (inline for Runnable::run) and opens when it finishes.
+     */
+    public static ReadyGate start(String name, Executor executor, Runnable load) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                load.run();
+            } catch (RuntimeException e) {
+                HyTownLog.warning(Category.GENERAL, e, "[Startup] Loading %s failed", name);
+            } finally {
+                done.complete(null);
+            }
+        });
+        return new ReadyGate(done);
+    }
+
+    public boolean isReady() {
+        return done.isDone();
+    }
+
+    /**
+     * Waits until the load has finished.
+     */
+    public void await() {
+        if (!done.isDone()) {
+            done.join();
+        }
+    }
+}
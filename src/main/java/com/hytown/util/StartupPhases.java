@@ -0,0 +1,103 @@
+package com.hytown.util;
+
+import com.hytown.util.HyTownLog.Category;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.Executor;
+
+/**
+ * Times the plugin's startup phases and runs the ones not needed for the first tick in the
+ * background.
+ *
+ * Inline phases run in order on the calling thread. Background phases run on the given
+ * executor (the scheduler's virtual threads) while setup carries on; whatever needs their
+ * result waits on the ReadyGate they return (or that a storage built with inBackground()
+ * keeps). Every phase is recorded as a "startup.<phase>" timer, so /townadmin perf startup
+ * shows them, and finish() logs a summary.
+ */
+public final class StartupPhases {
+
+    private final long startedAt = System.nanoTime();
+    private final Executor executor;
+
+    // Phase -> total nanos, in the order phases finished
+    private final Map<String, Long> inline = new LinkedHashMap<>();
+    private final Map<String, Long> background = new LinkedHashMap<>();
+    private volatile boolean finished;
+
+    public StartupPhases(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Runs a phase now, on this thread.
+     */
+    public void run(String phase, Runnable task) {
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            record(inline, phase, start);
+        }
+    }
+
+    /**
+     * Runs a phase on a background thread. The returned gate opens when it is done.
+     */
+    public ReadyGate background(String phase, Runnable task) {
+        return ReadyGate.start(phase, inBackground(phase), task);
+    }
+
+    /**
+     * An executor for loads that can finish in the background, for constructors that take one.
+     * Each task counts towards the given phase.
+     */
+    public Executor inBackground(String phase) {
+        return task -> executor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                long nanos = record(background, phase, start);
+                if (finished) {
+                    HyTownLog.info(Category.GENERAL, "[Startup] Background %s finished after %dms", phase, nanos / 1_000_000);
+                }
+            }
+        });
+    }
+
+    private long record(Map<String, Long> phases, String phase, long start) {
+        long nanos = System.nanoTime() - start;
+        HyTownMetrics.timer("startup." + phase).record(nanos);
+        synchronized (phases) {
+            phases.merge(phase, nanos, Long::sum);
+        }
+        return nanos;
+    }
+
+    /**
+     * Logs how long startup took, phase by phase. Background phases still running are reported
+     * when they finish.
+     */
+    public void finish() {
+        long total = System.nanoTime() - startedAt;
+        HyTownMetrics.timer("startup.total").record(total);
+        finished = true;
+
+        HyTownLog.info(Category.GENERAL, "[Startup] Started in %dms: %s", total / 1_000_000, describe(inline));
+        String done = describe(background);
+        if (!done.isEmpty()) {
+            HyTownLog.info(Category.GENERAL, "[Startup] In the background: %s", done);
+        }
+    }
+
+    private static String describe(Map<String, Long> phases) {
+        StringJoiner joiner = new StringJoiner(", ");
+        synchronized (phases) {
+            phases.forEach((phase, nanos) -> joiner.add(phase + " " + nanos / 1_000_000 + "ms"));
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,293 @@
+package com.hytown;
+
+import com.google.gson.Gson;
+import com.hytown.config.BlockGroups;
+import com.hytown.config.PluginConfig;
+import com.hytown.data.ClaimStorage;
+import com.hytown.data.PlaytimeStorage;
+import com.hytown.data.Town;
+import com.hytown.data.TownStorage;
+import com.hytown.data.TrustLevel;
+import com.hytown.managers.ClaimContext;
+import com.hytown.managers.ClaimManager;
+import com.hytown.managers.ClaimResolver;
+import com.hytown.managers.ProtectionRules;
+import com.hytown.util.ChunkUtil;
+import com.hytown.util.HyTownEvents;
+import com.hytown.util.HyTownLog;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fails the build if a protection hot path starts allocating.
+ *
+ * Each check runs one operation over a generated world until it is compiled, then counts the
+ * bytes the thread allocated over several measured rounds (ThreadMXBean, minus what the same
+ * loop allocates running an empty operation). Every round has to come out at zero.
+ *
+ * The world is a square of claimed chunks, 4096 by default. Set hytown.allocation.claims to
+ * check a bigger one, e.g. {@code mvn test -Dhytown.allocation.claims=100000}.
+ */
+class HotPathAllocationTest {
+
+    private static final String WORLD = "default";
+    // Claimed square, in chunks
+    private static final int SIDE = Math.max(16, (int) Math.sqrt(Integer.getInteger("hytown.allocation.claims", 4096)));
+    private static final int PLOT_SIZE = 4;      // one owner per 4x4 chunks
+    private static final int TOWN_SIZE = 8;      // every other 8x8 block is a town
+    private static final int QUERIES = 1024;
+    private static final int NEARBY_CHUNKS = 16;  // what a player reaches, fits the resolver memo
+
+    private static final int WARMUP_CALLS = 200_000;
+    private static final int MEASURED_CALLS = 100_000;
+    private static final int ROUNDS = 5;
+
+    private static final String[] BLOCK_IDS = {
+            "Soil_Grass", "Rock_Stone", "Wood_Oak_Trunk", "Chest_Small_Jungle", "Furniture_Crude_Barrel",
+            "Bench_Workbench", "Door_Wood", "Plant_Crop_Wheat", "Rock_Basalt", "Deco_Torch",
+            "Fluid_Water", "Bomb_Small", "Trapdoor_Village", "Container_Pot_Clay", "Soil_Dirt", "Furnace2"
+    };
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @TempDir
+    static Path dataDirectory;
+
+    private static ClaimStorage claimStorage;
+    private static PluginConfig config;
+    private static BlockGroups blockGroups;
+    private static ClaimManager claimManager;
+    private static ClaimResolver resolver;
+    private static ProtectionRules rules;
+
+    private static final int[] queryX = new int[QUERIES];
+    private static final int[] queryZ = new int[QUERIES];
+    private static final String[] queryChunkKeys = new String[QUERIES];
+    private static final UUID[] queryPlayers = new UUID[QUERIES];
+    private static final int[] nearbyX = new int[QUERIES];
+    private static final int[] nearbyZ = new int[QUERIES];
+    private static final UUID[] nearbyPlayers = new UUID[QUERIES];
+
+    private static long sink;
+
+    interface Operation {
+        long run(int i);
+    }
+
+    private static final Operation EMPTY = i -> i;
+
+    @BeforeAll
+    static void createWorld() throws IOException {
+        HyTownLog.configure(Map.of("storage", "WARNING", "config", "WARNING"));
+        writeClaimsAndTowns();
+
+        claimStorage = new ClaimStorage(dataDirectory);
+        TownStorage townStorage = new TownStorage(dataDirectory);
+        config = new PluginConfig(dataDirectory);
+        blockGroups = new BlockGroups(dataDirectory);
+        claimManager = new ClaimManager(claimStorage, new PlaytimeStorage(dataDirectory), config, blockGroups);
+        resolver = new ClaimResolver(claimStorage, townStorage);
+        rules = new ProtectionRules(config, blockGroups);
+
+        for (int chunkX = 0; chunkX < SIDE; chunkX += PLOT_SIZE) {
+            for (int chunkZ = 0; chunkZ < SIDE; chunkZ += PLOT_SIZE) {
+                UUID owner = owner(chunkX, chunkZ);
+                claimStorage.getPlayerClaims(owner).addTrustedPlayer(friend(owner), "friend", TrustLevel.CONTAINER);
+            }
+        }
+
+        // 3/4 of the queries inside the claimed square, the rest mostly wilderness
+        Random random = new Random(42);
+        for (int i = 0; i < QUERIES; i++) {
+            int range = random.nextInt(4) != 0 ? SIDE : SIDE * 3;
+            int chunkX = random.nextInt(range) - (range - SIDE) / 2;
+            int chunkZ = random.nextInt(range) - (range - SIDE) / 2;
+            queryX[i] = chunkX * ChunkUtil.CHUNK_SIZE + 16;
+            queryZ[i] = chunkZ * ChunkUtil.CHUNK_SIZE + 16;
+            queryChunkKeys[i] = ChunkUtil.chunkKey(chunkX, chunkZ);
+            UUID owner = owner(chunkX, chunkZ);
+            queryPlayers[i] = player(i, owner);
+
+            // One row of chunks running from the wilderness across a town into a plain claim
+            int nearbyChunkX = TOWN_SIZE - 1;
+            int nearbyChunkZ = (i & (NEARBY_CHUNKS - 1)) - 4;
+            nearbyX[i] = nearbyChunkX * ChunkUtil.CHUNK_SIZE + random.nextInt(ChunkUtil.CHUNK_SIZE);
+            nearbyZ[i] = nearbyChunkZ * ChunkUtil.CHUNK_SIZE + random.nextInt(ChunkUtil.CHUNK_SIZE);
+            nearbyPlayers[i] = player(i, owner(nearbyChunkX, nearbyChunkZ));
+        }
+    }
+
+    /**
+     * Writes the claim index and town files the storages load, as a server would have them.
+     */
+    private static void writeClaimsAndTowns() throws IOException {
+        Map<String, String> claims = new HashMap<>();
+        Map<String, Town> towns = new HashMap<>();
+        for (int chunkX = 0; chunkX < SIDE; chunkX++) {
+            for (int chunkZ = 0; chunkZ < SIDE; chunkZ++) {
+                UUID owner = owner(chunkX, chunkZ);
+                claims.put(ChunkUtil.chunkKey(chunkX, chunkZ), owner.toString());
+                if (((chunkX / TOWN_SIZE + chunkZ / TOWN_SIZE) & 1) == 0) {
+                    String name = "Town_" + chunkX / TOWN_SIZE + "_" + chunkZ / TOWN_SIZE;
+                    towns.computeIfAbsent(name, k -> new Town(k, owner, "mayor"))
+                            .addClaim(WORLD + ":" + ChunkUtil.chunkKey(chunkX, chunkZ));
+                }
+            }
+        }
+
+        Gson gson = new Gson();
+        Path claimsDirectory = Files.createDirectories(dataDirectory.resolve("claims"));
+        Files.writeString(claimsDirectory.resolve("index.json"), gson.toJson(Map.of(WORLD, claims)));
+        Path townsDirectory = Files.createDirectories(dataDirectory.resolve("towns"));
+        for (Town town : towns.values()) {
+            Files.writeString(townsDirectory.resolve(town.getName() + ".json"), gson.toJson(town));
+        }
+    }
+
+    private static UUID owner(int chunkX, int chunkZ) {
+        Random random = new Random((long) Math.floorDiv(chunkX, PLOT_SIZE) << 32 | (Math.floorDiv(chunkZ, PLOT_SIZE) & 0xFFFFFFFFL));
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    private static UUID player(int i, UUID owner) {
+        return switch (i % 3) {
+            case 0 -> owner;
+            case 1 -> friend(owner);
+            default -> UUID.randomUUID();
+        };
+    }
+
+    private static UUID friend(UUID owner) {
+        Random random = new Random(owner.getMostSignificantBits() ^ 0x5DEECE66DL);
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    @TestFactory
+    List<DynamicTest> hotPathsDoNotAllocate() {
+        int mask = QUERIES - 1;
+        int blockMask = BLOCK_IDS.length - 1;
+        List<DynamicTest> checks = new ArrayList<>();
+
+        // Claim owner lookup and permission checks
+        checks.add(check("claims.getClaimOwner", i -> {
+            int q = i & mask;
+            return claimStorage.getClaimOwner(WORLD, ChunkUtil.toChunkX(queryX[q]), ChunkUtil.toChunkZ(queryZ[q])) != null ? 1 : 0;
+        }));
+        checks.add(check("claims.getOwnerAt", i -> {
+            int q = i & mask;
+            return claimManager.getOwnerAt(WORLD, queryX[q], queryZ[q]) != null ? 1 : 0;
+        }));
+        checks.add(check("claims.hasPermissionAt", i -> {
+            int q = i & mask;
+            return claimManager.hasPermissionAt(queryPlayers[q], WORLD, queryX[q], queryZ[q], TrustLevel.CONTAINER) ? 1 : 0;
+        }));
+
+        // What the block protection systems do per event: resolve through the memo (around the
+        // player, so after the first pass these are memo hits), decide, and time it as a JFR event
+        checks.add(check("protection.resolve", i -> {
+            int q = i & mask;
+            return resolver.resolve(WORLD, nearbyX[q], nearbyZ[q]).isWilderness() ? 0 : 1;
+        }));
+        checks.add(check("protection.slowCheckEvent", i -> {
+            HyTownEvents.SlowProtectionCheck slowCheck = HyTownEvents.SlowProtectionCheck.start();
+            HyTownEvents.SlowProtectionCheck.commitIfSlow(slowCheck, "break", WORLD, i, 64, i,
+                    nearbyPlayers[i & mask], ProtectionRules.Decision.ALLOW);
+            return 1;
+        }));
+        checks.add(check("protection.checkBreak", i -> {
+            int q = i & mask;
+            HyTownEvents.SlowProtectionCheck slowCheck = HyTownEvents.SlowProtectionCheck.start();
+            ClaimContext claim = resolver.resolve(WORLD, nearbyX[q], nearbyZ[q]);
+            ProtectionRules.Decision decision = rules.checkBreak(claim, nearbyPlayers[q], 64);
+            HyTownEvents.SlowProtectionCheck.commitIfSlow(slowCheck, "break", WORLD, nearbyX[q], 64, nearbyZ[q],
+                    nearbyPlayers[q], decision);
+            return decision.ordinal();
+        }));
+        checks.add(check("protection.checkUse", i -> {
+            int q = i & mask;
+            String blockId = BLOCK_IDS[i & blockMask];
+            ClaimContext claim = resolver.resolve(WORLD, nearbyX[q], nearbyZ[q]);
+            return rules.checkUse(claim, nearbyPlayers[q], rules.requiredUseLevel(blockId), rules.isCrop(blockId)).ordinal();
+        }));
+
+        // Block classification
+        checks.add(check("blocks.groups", i -> {
+            String blockId = BLOCK_IDS[i & blockMask];
+            return (blockGroups.isUseBlock(blockId) ? 1 : 0)
+                    + (blockGroups.isContainerBlock(blockId) ? 2 : 0)
+                    + (blockGroups.isWorkstationBlock(blockId) ? 4 : 0)
+                    + (blockGroups.isCropBlock(blockId) ? 8 : 0);
+        }));
+        checks.add(check("blocks.isGriefingBlock", i -> config.isGriefingBlock(BLOCK_IDS[i & blockMask]) ? 1 : 0));
+
+        // Chunk keys (building a key string allocates by nature and isn't checked)
+        checks.add(check("chunks.pack", i -> {
+            int q = i & mask;
+            long packed = ChunkUtil.packChunk(ChunkUtil.toChunkX(queryX[q]), ChunkUtil.toChunkZ(queryZ[q]));
+            return ChunkUtil.unpackChunkX(packed) + ChunkUtil.unpackChunkZ(packed);
+        }));
+        checks.add(check("chunks.parseChunkKey", i -> {
+            String key = queryChunkKeys[i & mask];
+            return ChunkUtil.parseChunkX(key) + ChunkUtil.parseChunkZ(key);
+        }));
+        checks.add(check("chunks.packChunkKey", i -> ChunkUtil.packChunkKey(queryChunkKeys[i & mask])));
+        return checks;
+    }
+
+    private static DynamicTest check(String name, Operation operation) {
+        return DynamicTest.dynamicTest(name, () -> {
+            long[] rounds = measure(operation);
+            for (long bytes : rounds) {
+                assertEquals(0, bytes, () -> name + " allocated bytes per " + MEASURED_CALLS + " calls, by round: "
+                        + Arrays.toString(rounds));
+            }
+        });
+    }
+
+    /**
+     * Bytes allocated per MEASURED_CALLS calls in each round after warming up, minus the bytes
+     * an empty operation allocates over the same loop.
+     */
+    private static long[] measure(Operation operation) {
+        run(operation, WARMUP_CALLS);
+        run(EMPTY, WARMUP_CALLS);
+
+        long[] rounds = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            rounds[round] = Math.max(0, allocatedBy(operation) - allocatedBy(EMPTY));
+        }
+        return rounds;
+    }
+
+    private static long allocatedBy(Operation operation) {
+        long threadId = Thread.currentThread().threadId();
+        long before = THREADS.getThreadAllocatedBytes(threadId);
+        run(operation, MEASURED_CALLS);
+        return THREADS.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static void run(Operation operation, int calls) {
+        long result = 0;
+        for (int i = 0; i < calls; i++) {
+            result += operation.run(i);
+        }
+        sink += result;
+    }
+}